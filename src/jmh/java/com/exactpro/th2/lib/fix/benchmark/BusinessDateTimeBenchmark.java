@@ -0,0 +1,79 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exactpro.th2.lib.fix.DateUtil;
+
+/**
+ * Business date/time calculation for offsets of different sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusinessDateTimeBenchmark {
+
+    @Param({ "D+1", "D+5", "D+30", "D+250", "D-250" })
+    public String modifyPattern;
+
+    /** Comma separated weekends, empty for default ones */
+    @Param({ "", "FRIDAY,SATURDAY" })
+    public String weekends;
+
+    @Param({ "UTC", "America/New_York" })
+    public String timeZoneId;
+
+    private final DateUtil dateUtil = new DateUtil();
+    private final LocalDateTime dateTime = LocalDateTime.of(2021, 5, 28, 14, 5, 13, 801_000_000);
+    private String[] weekendDays;
+
+    @Setup
+    public void setUp() {
+        weekendDays = weekends.isEmpty() ? new String[0] : weekends.split(",");
+    }
+
+    @Benchmark
+    public LocalDateTime modifyBusinessDateTime() {
+        return dateUtil.modifyBusinessDateTime(dateTime, modifyPattern, weekendDays);
+    }
+
+    @Benchmark
+    public LocalDateTime modifyBusinessDateTimeByZoneId() {
+        return dateUtil.modifyBusinessDateTimeByZoneId(dateTime, modifyPattern, timeZoneId, weekendDays);
+    }
+
+    @Benchmark
+    public LocalDateTime getBusinessDateTime() {
+        return dateUtil.getBusinessDateTime(modifyPattern, weekendDays);
+    }
+}
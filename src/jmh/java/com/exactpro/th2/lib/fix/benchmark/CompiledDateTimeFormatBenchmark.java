@@ -0,0 +1,92 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exactpro.th2.lib.fix.util.CompiledDateTimeFormat;
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+import com.exactpro.th2.lib.fix.util.IncrementalDateTimeFormatter;
+
+/**
+ * Formatting and parsing with {@link CompiledDateTimeFormat} compared to {@link java.time.format.DateTimeFormatter}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompiledDateTimeFormatBenchmark {
+
+    @Param({ "HH:mm:ss", "yyyyMMdd-HH:mm:ss.SSS", "yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS" })
+    public String formatPattern;
+
+    private final long epochNanos = 1622383513801L * 1_000_000 + 123_456;
+    private LocalDateTime dateTime;
+    private CompiledDateTimeFormat format;
+    private String formatted;
+
+    @Setup
+    public void setUp() {
+        dateTime = DateTimeUtility.toLocalDateTime(epochNanos / 1_000_000);
+        format = CompiledDateTimeFormat.get(formatPattern);
+        formatted = format.format(dateTime);
+    }
+
+    @Benchmark
+    public String formatCompiled() {
+        return format.format(dateTime);
+    }
+
+    @Benchmark
+    public String formatEpochNanosCompiled() {
+        return format.format(epochNanos);
+    }
+
+    @Benchmark
+    public String formatIncremental() {
+        return IncrementalDateTimeFormatter.get(formatPattern).format(dateTime);
+    }
+
+    @Benchmark
+    public String formatDateTimeFormatter() {
+        return DateTimeUtility.getFormatter(formatPattern).format(dateTime);
+    }
+
+    @Benchmark
+    public LocalDateTime parseCompiled() {
+        return format.parse(formatted);
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTimeFormatter() {
+        return DateTimeUtility.parseLocalDateTime(formatted, formatPattern);
+    }
+}
@@ -0,0 +1,119 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exactpro.th2.lib.fix.data.DateModificator;
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+
+/**
+ * Conversions of {@link DateTimeUtility} and modify pattern parsing of {@link DateModificator}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeUtilityBenchmark {
+
+    @Param({ "h+1", "Y+1:M-2:D=3:h+4:m-5:s=6:ms=7" })
+    public String modifyPattern;
+
+    @Param({ "HH:mm", "yyyyMMdd-HH:mm:ss.SSS" })
+    public String formatPattern;
+
+    private final long epochMillis = 1622383513801L;
+    private LocalDateTime dateTime;
+    private ZonedDateTime zonedDateTime;
+    private List<DateModificator> modificators;
+
+    @Setup
+    public void setUp() {
+        dateTime = DateTimeUtility.toLocalDateTime(epochMillis);
+        zonedDateTime = DateTimeUtility.toZonedDateTime(epochMillis);
+        modificators = DateModificator.compile(modifyPattern);
+    }
+
+    @Benchmark
+    public LocalDateTime toLocalDateTimeFromMillis() {
+        return DateTimeUtility.toLocalDateTime(epochMillis);
+    }
+
+    @Benchmark
+    public LocalDateTime toLocalDateTimeFromTemporal() {
+        return DateTimeUtility.toLocalDateTime(zonedDateTime);
+    }
+
+    @Benchmark
+    public LocalDate toLocalDate() {
+        return DateTimeUtility.toLocalDate(epochMillis);
+    }
+
+    @Benchmark
+    public LocalTime toLocalTime() {
+        return DateTimeUtility.toLocalTime(epochMillis);
+    }
+
+    @Benchmark
+    public long getMillisecond() {
+        return DateTimeUtility.getMillisecond(dateTime);
+    }
+
+    @Benchmark
+    public DateTimeFormatter createFormatter() {
+        return DateTimeUtility.createFormatter(formatPattern);
+    }
+
+    @Benchmark
+    public DateTimeFormatter getFormatter() {
+        return DateTimeUtility.getFormatter(formatPattern);
+    }
+
+    @Benchmark
+    public List<DateModificator> parseModifyPattern() {
+        return DateModificator.parse(modifyPattern);
+    }
+
+    @Benchmark
+    public List<DateModificator> compileModifyPattern() {
+        return DateModificator.compile(modifyPattern);
+    }
+
+    @Benchmark
+    public LocalDateTime modifyCompiled() {
+        return DateModificator.modify(dateTime, modificators);
+    }
+}
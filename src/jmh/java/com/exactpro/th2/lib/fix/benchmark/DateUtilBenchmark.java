@@ -0,0 +1,83 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exactpro.th2.lib.fix.DateUtil;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilBenchmark {
+
+    @Param({ "h+1", "Y+1:M-2:D=3:h+4:m-5:s=6:ms=7" })
+    public String modifyPattern;
+
+    @Param({ "HH:mm", "yyyyMMdd-HH:mm:ss.SSS" })
+    public String formatPattern;
+
+    private final DateUtil dateUtil = new DateUtil();
+    private LocalDateTime dateTime;
+    private String source;
+
+    @Setup
+    public void setUp() {
+        dateTime = LocalDateTime.of(2021, 5, 30, 14, 5, 13, 801_000_000);
+        source = dateUtil.formatDateTime(dateTime, formatPattern);
+    }
+
+    @Benchmark
+    public String modifyDateTimeString() {
+        return dateUtil.modifyDateTime(source, formatPattern, modifyPattern);
+    }
+
+    @Benchmark
+    public LocalDateTime modifyDateTime() {
+        return dateUtil.modifyDateTime(dateTime, modifyPattern);
+    }
+
+    @Benchmark
+    public String formatDateTime() {
+        return dateUtil.formatDateTime(dateTime, formatPattern, modifyPattern);
+    }
+
+    @Benchmark
+    public String formatNowDateTime() {
+        return dateUtil.formatDateTime(formatPattern, modifyPattern);
+    }
+
+    @Benchmark
+    public LocalDateTime toDateTimeWithPattern() {
+        return dateUtil.toDateTime(source, formatPattern);
+    }
+}
@@ -0,0 +1,74 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exactpro.th2.lib.fix.codec.FixedWidthTimestampDecoder;
+import com.exactpro.th2.lib.fix.codec.UTCTimestampCodec;
+
+/**
+ * Batch decoding of contiguous <code>yyyyMMdd-HH:mm:ss.SSS</code> values, time per value
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixedWidthTimestampDecoderBenchmark {
+
+    private static final int COUNT = 4096;
+    private static final int FRACTION_DIGITS = 3;
+    private static final int LENGTH = UTCTimestampCodec.length(FRACTION_DIGITS);
+
+    private final byte[] source = new byte[COUNT * LENGTH];
+    private final long[] destination = new long[COUNT];
+
+    @Setup
+    public void setUp() {
+        long epochNanos = 1622383513801L * 1_000_000;
+        for (int i = 0; i < COUNT; i++) {
+            UTCTimestampCodec.format(epochNanos + i * 7_000_000L, FRACTION_DIGITS, source, i * LENGTH);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public long[] decode() {
+        FixedWidthTimestampDecoder.decode(source, 0, LENGTH, COUNT, FRACTION_DIGITS, destination, 0);
+        return destination;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public long[] decodeScalar() {
+        FixedWidthTimestampDecoder.decodeScalar(source, 0, LENGTH, COUNT, FRACTION_DIGITS, destination, 0);
+        return destination;
+    }
+}
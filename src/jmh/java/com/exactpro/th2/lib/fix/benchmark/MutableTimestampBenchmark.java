@@ -0,0 +1,79 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exactpro.th2.lib.fix.data.MutableTimestamp;
+
+/**
+ * Modify, zone and format operations of {@link MutableTimestamp} reusing one instance
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutableTimestampBenchmark {
+
+    @Param({ "h+1", "Y+1:M-2:D=3:h+4:m-5:s=6:ms=7" })
+    public String modifyPattern;
+
+    private final long epochMillis = 1622383513801L;
+    private final MutableTimestamp timestamp = new MutableTimestamp();
+    private final StringBuilder builder = new StringBuilder(32);
+    private final byte[] buffer = new byte[64];
+
+    @Setup
+    public void setUp() {
+        timestamp.setEpochMillis(epochMillis);
+    }
+
+    @Benchmark
+    public MutableTimestamp modify() {
+        return timestamp.setEpochMillis(epochMillis).modify(modifyPattern);
+    }
+
+    @Benchmark
+    public MutableTimestamp modifyByZoneId() {
+        return timestamp.setEpochMillis(epochMillis).modifyByZoneId(modifyPattern, "Europe/London");
+    }
+
+    @Benchmark
+    public StringBuilder format() {
+        builder.setLength(0);
+        timestamp.formatTo("yyyyMMdd-HH:mm:ss.SSS", builder);
+        return builder;
+    }
+
+    @Benchmark
+    public int formatTZTimestamp() {
+        return timestamp.formatTZTimestamp(3600, 3, buffer, 0);
+    }
+}
@@ -0,0 +1,83 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.benchmark;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exactpro.th2.lib.fix.data.DateComponent;
+import com.exactpro.th2.lib.fix.data.TimestampColumns;
+
+/**
+ * Hour of day and day of month extraction from a column of epoch milliseconds, time per value
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampColumnsBenchmark {
+
+    private static final int COUNT = 4096;
+
+    private final long[] source = new long[COUNT];
+    private final int[] destination = new int[COUNT];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < COUNT; i++) {
+            source[i] = 1622383513801L + i * 997_000L;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int[] extractHour() {
+        TimestampColumns.extractEpochMillis(source, DateComponent.HOUR, destination);
+        return destination;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int[] extractDay() {
+        TimestampColumns.extractEpochMillis(source, DateComponent.DAY, destination);
+        return destination;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int[] extractHourLocalDateTime() {
+        for (int i = 0; i < COUNT; i++) {
+            destination[i] = DateComponent.HOUR.extract(LocalDateTime.ofInstant(Instant.ofEpochMilli(source[i]), ZoneOffset.UTC));
+        }
+        return destination;
+    }
+}
@@ -0,0 +1,68 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exactpro.th2.lib.fix.DateUtil;
+
+/**
+ * Zone aware methods for fixed offsets, a region without DST and regions with DST
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZoneBenchmark {
+
+    @Param({ "UTC", "+05:30", "Asia/Tokyo", "Europe/London", "America/New_York" })
+    public String timeZoneId;
+
+    @Param({ "h+1", "Y+1:M-2:D=3:h+4:m-5:s=6:ms=7" })
+    public String modifyPattern;
+
+    private final DateUtil dateUtil = new DateUtil();
+    private final LocalDateTime dateTime = LocalDateTime.of(2021, 3, 28, 0, 30, 13, 801_000_000);
+
+    @Benchmark
+    public String formatDateTimeByZoneId() {
+        return dateUtil.formatDateTimeByZoneId("yyyyMMdd-HH:mm:ss.SSS", modifyPattern, timeZoneId);
+    }
+
+    @Benchmark
+    public LocalDateTime getDateTimeByZoneId() {
+        return dateUtil.getDateTimeByZoneId(modifyPattern, timeZoneId);
+    }
+
+    @Benchmark
+    public LocalDateTime modifyDateTimeByZoneId() {
+        return dateUtil.modifyDateTimeByZoneId(dateTime, modifyPattern, timeZoneId);
+    }
+}
@@ -0,0 +1,237 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.exactpro.th2.lib.fix.data.DateModificator;
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+
+/**
+ * Date/time expression compiled from modify pattern, business days rules, time zone id and format pattern.
+ * Evaluation gives the same result as the corresponding {@link DateUtil} methods, e.g.
+ * <code>modifyBusinessDateTimeByZoneId(dateTime, modifyPattern, timeZoneId, weekends)</code> or
+ * <code>formatDateTimeByZoneId(dateTime, formatPattern, modifyPattern, timeZoneId)</code>,
+ * without parsing the arguments on every call. The expression is immutable and thread-safe.
+ * <pre>
+ * DateExpression expression = DateExpression.builder()
+ *         .modifyPattern("D+2:h=10")
+ *         .businessDays("FRIDAY", "SATURDAY")
+ *         .timeZoneId("Asia/Dubai")
+ *         .formatPattern("yyyyMMdd-HH:mm:ss.SSS")
+ *         .build();
+ * String value = expression.format();
+ * </pre>
+ */
+public class DateExpression {
+
+    private final List<DateModificator> modificators;
+    private final Set<DayOfWeek> weekends;
+    private final ZoneId zoneId;
+    private final DateTimeFormatter formatter;
+
+    private DateExpression(Builder builder) {
+        this.modificators = DateModificator.compile(builder.modifyPattern);
+        this.weekends = builder.business ? DateUtil.parseWeekends(builder.weekends) : null;
+        this.zoneId = builder.timeZoneId == null ? null : DateTimeUtility.toZoneId(builder.timeZoneId);
+        if (builder.formatPattern == null) {
+            this.formatter = null;
+        } else {
+            this.formatter = zoneId == null
+                    ? DateTimeUtility.getFormatter(builder.formatPattern)
+                    : DateTimeUtility.createFormatter(builder.formatPattern, builder.timeZoneId);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Evaluates the expression for the current date/time
+     *
+     * @return LocalDateTime (UTC)
+     */
+    public LocalDateTime evaluate() {
+        return evaluate(DateTimeUtility.nowLocalDateTime());
+    }
+
+    /**
+     * @param epochMillis
+     * @return LocalDateTime (UTC)
+     */
+    public LocalDateTime evaluate(long epochMillis) {
+        return evaluate(DateTimeUtility.toLocalDateTime(epochMillis));
+    }
+
+    /**
+     * @param dateTime LocalDateTime (UTC)
+     * @return LocalDateTime (UTC)
+     */
+    public LocalDateTime evaluate(LocalDateTime dateTime) {
+        Objects.requireNonNull(dateTime, "dateTime argument is null");
+        if (zoneId == null) {
+            return modify(dateTime);
+        }
+        LocalDateTime converted = ZonedDateTime.of(dateTime, ZoneOffset.UTC).withZoneSameInstant(zoneId).toLocalDateTime();
+        return ZonedDateTime.of(modify(converted), zoneId).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+
+    /**
+     * @return the number of milliseconds since the epoch of 1970-01-01T00:00:00Z
+     */
+    public long evaluateEpochMillis() {
+        return DateTimeUtility.getMillisecond(evaluate());
+    }
+
+    /**
+     * @param epochMillis
+     * @return the number of milliseconds since the epoch of 1970-01-01T00:00:00Z
+     */
+    public long evaluateEpochMillis(long epochMillis) {
+        return DateTimeUtility.getMillisecond(evaluate(epochMillis));
+    }
+
+    /**
+     * @param dateTime LocalDateTime (UTC)
+     * @return the number of milliseconds since the epoch of 1970-01-01T00:00:00Z
+     */
+    public long evaluateEpochMillis(LocalDateTime dateTime) {
+        return DateTimeUtility.getMillisecond(evaluate(dateTime));
+    }
+
+    /**
+     * Evaluates the expression for the current date/time and formats the result
+     *
+     * @return formatted date/time in the expression time zone
+     */
+    public String format() {
+        return format(DateTimeUtility.nowLocalDateTime());
+    }
+
+    /**
+     * @param epochMillis
+     * @return formatted date/time in the expression time zone
+     */
+    public String format(long epochMillis) {
+        return format(DateTimeUtility.toLocalDateTime(epochMillis));
+    }
+
+    /**
+     * @param dateTime LocalDateTime (UTC)
+     * @return formatted date/time in the expression time zone
+     */
+    public String format(LocalDateTime dateTime) {
+        if (formatter == null) {
+            throw new IllegalStateException("Format pattern is not specified");
+        }
+        LocalDateTime result = evaluate(dateTime);
+        return zoneId == null ? formatter.format(result) : formatter.format(ZonedDateTime.of(result, ZoneOffset.UTC));
+    }
+
+    /**
+     * @return formatted date/time in the expression time zone encoded in UTF-8
+     */
+    public byte[] formatBytes() {
+        return format().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param epochMillis
+     * @return formatted date/time in the expression time zone encoded in UTF-8
+     */
+    public byte[] formatBytes(long epochMillis) {
+        return format(epochMillis).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param dateTime LocalDateTime (UTC)
+     * @return formatted date/time in the expression time zone encoded in UTF-8
+     */
+    public byte[] formatBytes(LocalDateTime dateTime) {
+        return format(dateTime).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private LocalDateTime modify(LocalDateTime dateTime) {
+        LocalDateTime modified = DateModificator.modify(dateTime, modificators);
+        return weekends == null ? modified : DateUtil.getBusinessDateTime(dateTime, modified, weekends);
+    }
+
+    public static class Builder {
+        private String modifyPattern;
+        private boolean business;
+        private String[] weekends;
+        private String timeZoneId;
+        private String formatPattern;
+
+        private Builder() {
+        }
+
+        /**
+         * @param modifyPattern see {@link DateUtil#MODIFY_HELP}
+         * @return this builder
+         */
+        public Builder modifyPattern(String modifyPattern) {
+            this.modifyPattern = modifyPattern;
+            return this;
+        }
+
+        /**
+         * Skip weekends during modification like {@link DateUtil#modifyBusinessDateTime(LocalDateTime, String, String...)}
+         *
+         * @param weekends weekend days, SATURDAY and SUNDAY if empty
+         * @return this builder
+         */
+        public Builder businessDays(String... weekends) {
+            this.business = true;
+            this.weekends = weekends;
+            return this;
+        }
+
+        /**
+         * Apply modification in the time zone (DST aware)
+         *
+         * @param timeZoneId region id or offset
+         * @return this builder
+         */
+        public Builder timeZoneId(String timeZoneId) {
+            this.timeZoneId = timeZoneId;
+            return this;
+        }
+
+        /**
+         * @param formatPattern see {@link DateUtil#FORMAT_HELP}
+         * @return this builder
+         */
+        public Builder formatPattern(String formatPattern) {
+            this.formatPattern = formatPattern;
+            return this;
+        }
+
+        public DateExpression build() {
+            return new DateExpression(this);
+        }
+    }
+}
@@ -15,14 +15,27 @@
  ******************************************************************************/
 package com.exactpro.th2.lib.fix;
 
+import com.exactpro.th2.lib.fix.calendar.TradingSessionCalendar;
+import com.exactpro.th2.lib.fix.codec.IsoDateTimeParser;
+import com.exactpro.th2.lib.fix.util.CompiledDateTimeFormat;
 import com.exactpro.th2.lib.fix.util.DateTimeUtility;
 import com.exactpro.th2.lib.fix.util.EPSCommonException;
+import com.exactpro.th2.lib.fix.util.EpochDays;
+import com.exactpro.th2.lib.fix.util.ExpiryDates;
+import com.exactpro.th2.lib.fix.util.IncrementalDateTimeFormatter;
+import com.exactpro.th2.lib.fix.util.PatternCache;
+import com.exactpro.th2.lib.fix.util.TickMemoizer;
+import com.exactpro.th2.lib.fix.util.WeekendMask;
 import com.exactpro.th2.lib.fix.data.DateComponent;
 import com.exactpro.th2.lib.fix.data.DateModificator;
+import com.exactpro.th2.lib.fix.data.TimeBucket;
+import com.exactpro.th2.lib.fix.jfr.BusinessDayLoopEvent;
+import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.DateTimeException;
 import java.time.DayOfWeek;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -33,11 +46,13 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
+import java.time.temporal.TemporalUnit;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -45,6 +60,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.exactpro.th2.lib.fix.util.DateTimeUtility.toZonedDateTime;
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
 
 /**
  *
@@ -180,6 +196,27 @@ public class DateUtil {
 
     private static final Set<DayOfWeek> DEFAULT_WEEKENDS = Collections.unmodifiableSet(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
 
+    private static final String SESSIONS_HELP = "Sessions are local time windows separated by comma, e.g. <code>08:00-12:00,12:02-16:30</code>.<br>"
+            + "A window closing before its open time ends on the next day, e.g. <code>17:00-16:00</code>, weekends and holidays of the opening day apply to it.<br>";
+
+    private static final String HOLIDAYS_HELP = "Holidays are ISO dates separated by comma, e.g. <code>2026-12-25,2026-12-28</code>.<br>";
+
+    /**
+     * Calendars of other years than the default calendar range cover the year with the margin, so the calendars of consecutive years overlap
+     */
+    private static final int YEAR_CALENDAR_MARGIN_DAYS = 7;
+    private static final String SESSION_KEY_SEPARATOR = "|";
+
+    /**
+     * Default calendars are keyed by <code>|sessions|timeZoneId|holidays|weekends</code>, calendars of a year by the key prefixed with the year
+     */
+    private static final PatternCache<TradingSessionCalendar> SESSION_CALENDARS = new PatternCache<>(DateUtil::createSessionCalendar, 64);
+    private static final ThreadLocal<SessionCalendarRef> LAST_SESSION_CALENDAR = new ThreadLocal<>();
+
+    static {
+        WarmUp.startIfConfigured();
+    }
+
     @Description("Returns the current time in the UTC time zone<br/>Example: #{getTime()}")
     @UtilityMethod
     public LocalTime getTime() {
@@ -207,6 +244,13 @@ public class DateUtil {
     @Description("Returns the current date in the UTC time zone modified according to a pattern." + MODIFY_HELP + "Example: #{getDate(modifyPattern)}")
     @UtilityMethod
     public LocalDate getDate(String modifyPattern) {
+        MidnightRollover.DayValue<LocalDate> registered = MidnightRollover.findDate(modifyPattern);
+        if (registered != null) {
+            return registered.get();
+        }
+        if (TickMemoizer.isEnabled()) {
+            return TickMemoizer.get("getDate", modifyPattern, null, null, now -> toDate(modifyDateTime(now, modifyPattern)));
+        }
         return toDate(getDateTime(modifyPattern));
     }
 
@@ -225,6 +269,9 @@ public class DateUtil {
     @Description("Returns the current date/time in the UTC time zone modified according to a pattern." + MODIFY_HELP + "Example: #{getDateTime(modifyPattern)}")
     @UtilityMethod
     public final LocalDateTime getDateTime(String modifyPattern) {
+        if (TickMemoizer.isEnabled()) {
+            return TickMemoizer.get("getDateTime", modifyPattern, null, null, now -> modifyDateTime(now, modifyPattern));
+        }
         return modifyDateTime(getDateTime(), modifyPattern);
     }
 
@@ -246,7 +293,7 @@ public class DateUtil {
     )
     @UtilityMethod
     public final LocalDateTime getDateTimeByZoneId(String modifyPattern, boolean skipWeekends, String timeZoneId) {
-        ZoneId zoneId = ZoneId.of(timeZoneId);
+        ZoneId zoneId = DateTimeUtility.toZoneId(timeZoneId);
         LocalDateTime nowDate = LocalDateTime.now(zoneId);
         nowDate = modifyDateTime(nowDate, modifyPattern, skipWeekends);
         return ZonedDateTime.of(nowDate, zoneId).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
@@ -279,6 +326,10 @@ public class DateUtil {
     @Description("Returns the date/time in UTC applying a time offset pattern to the current date/time in the specified time zone." + MODIFY_HELP + OFFSET_ID_HELP + "Example: #{getDateTimeByZoneId(modifyPattern, timeZoneId)}")
     @UtilityMethod
     public final LocalDateTime getDateTimeByZoneId(String modifyPattern, String timeZoneId) {
+        if (TickMemoizer.isEnabled()) {
+            return TickMemoizer.get("getDateTimeByZoneId", modifyPattern, timeZoneId, null, now -> DateTimeUtility.toLocalDateTime(
+                    modifyTemporal(ZonedDateTime.of(now, ZoneOffset.UTC).withZoneSameInstant(DateTimeUtility.toZoneId(timeZoneId)), modifyPattern)));
+        }
         return DateTimeUtility.toLocalDateTime(modifyTemporal(DateTimeUtility.nowZonedDateTime(timeZoneId), modifyPattern));
     }
 
@@ -315,9 +366,141 @@ public class DateUtil {
             + "#{modifyBusinessDateTimeByZoneId(dateTime, \"modifyPattern\", \"timeZoneId\", \"SUNDAY\")} - custom weekends")
     @UtilityMethod
     public final LocalDateTime modifyBusinessDateTimeByZoneId(LocalDateTime dateTime, String modifyPattern, String timeZoneId, String... weekends) {
-        LocalDateTime originalConverted = ZonedDateTime.of(dateTime, ZoneOffset.UTC).withZoneSameInstant(ZoneId.of(timeZoneId)).toLocalDateTime();
+        ZoneId zoneId = DateTimeUtility.toZoneId(timeZoneId);
+        LocalDateTime originalConverted = ZonedDateTime.of(dateTime, ZoneOffset.UTC).withZoneSameInstant(zoneId).toLocalDateTime();
         LocalDateTime targetTimezoneZoneResult = getBusinessDateTime(originalConverted, modifyTemporal(originalConverted, modifyPattern), weekends);
-        return ZonedDateTime.of(targetTimezoneZoneResult, ZoneId.of(timeZoneId)).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        return ZonedDateTime.of(targetTimezoneZoneResult, zoneId).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+
+    @Description("Checks if provided date time in the UTC time zone is within trading sessions in the time zone (DST aware). Weekends are closed.<br>"
+            + SESSIONS_HELP
+            + WEEKEND_DAYS_OF_WEEK
+            + "Usage: #{isTradingSession(dateTime, \"08:00-12:00,12:02-16:30\", \"timeZoneId\")} - default weekends.<br>"
+            + "#{isTradingSession(dateTime, \"08:00-16:30\", \"timeZoneId\", \"FRIDAY\", \"SATURDAY\")} - custom weekends")
+    @UtilityMethod
+    public final boolean isTradingSession(LocalDateTime dateTime, String sessions, String timeZoneId, String... weekends) {
+        return getSessionCalendar(DateTimeUtility.getMillisecond(dateTime), sessions, timeZoneId, "", weekends).isOpen(dateTime);
+    }
+
+    @Description("Checks if provided date time in the UTC time zone is within trading sessions in the time zone (DST aware). Weekends and holidays are closed.<br>"
+            + SESSIONS_HELP
+            + HOLIDAYS_HELP
+            + WEEKEND_DAYS_OF_WEEK
+            + "Usage: #{isTradingSessionWithHolidays(dateTime, \"08:00-16:30\", \"timeZoneId\", \"2026-12-25,2026-12-28\")} - default weekends.<br>"
+            + "#{isTradingSessionWithHolidays(dateTime, \"08:00-16:30\", \"timeZoneId\", \"2026-12-25\", \"FRIDAY\", \"SATURDAY\")} - custom weekends")
+    @UtilityMethod
+    public final boolean isTradingSessionWithHolidays(LocalDateTime dateTime, String sessions, String timeZoneId, String holidays, String... weekends) {
+        return getSessionCalendar(DateTimeUtility.getMillisecond(dateTime), sessions, timeZoneId, holidays, weekends).isOpen(dateTime);
+    }
+
+    @Description("Returns the start of the next trading session after provided date time in the UTC time zone. Sessions are in the time zone (DST aware), weekends are closed.<br>"
+            + SESSIONS_HELP
+            + WEEKEND_DAYS_OF_WEEK
+            + "Usage: #{getNextSessionOpen(dateTime, \"08:00-16:30\", \"timeZoneId\")} - default weekends.<br>"
+            + "#{getNextSessionOpen(dateTime, \"08:00-16:30\", \"timeZoneId\", \"SUNDAY\")} - custom weekends")
+    @UtilityMethod
+    public final LocalDateTime getNextSessionOpen(LocalDateTime dateTime, String sessions, String timeZoneId, String... weekends) {
+        return nextSessionBoundary(dateTime, sessions, timeZoneId, "", weekends, true);
+    }
+
+    @Description("Returns the start of the next trading session after provided date time in the UTC time zone. Sessions are in the time zone (DST aware), weekends and holidays are closed.<br>"
+            + SESSIONS_HELP
+            + HOLIDAYS_HELP
+            + WEEKEND_DAYS_OF_WEEK
+            + "Usage: #{getNextSessionOpenWithHolidays(dateTime, \"08:00-16:30\", \"timeZoneId\", \"2026-12-25,2026-12-28\")} - default weekends.<br>"
+            + "#{getNextSessionOpenWithHolidays(dateTime, \"08:00-16:30\", \"timeZoneId\", \"2026-12-25\", \"SUNDAY\")} - custom weekends")
+    @UtilityMethod
+    public final LocalDateTime getNextSessionOpenWithHolidays(LocalDateTime dateTime, String sessions, String timeZoneId, String holidays, String... weekends) {
+        return nextSessionBoundary(dateTime, sessions, timeZoneId, holidays, weekends, true);
+    }
+
+    @Description("Returns the end of the current or the next trading session after provided date time in the UTC time zone. Sessions are in the time zone (DST aware), weekends are closed.<br>"
+            + SESSIONS_HELP
+            + WEEKEND_DAYS_OF_WEEK
+            + "Usage: #{getNextSessionClose(dateTime, \"08:00-16:30\", \"timeZoneId\")} - default weekends.<br>"
+            + "#{getNextSessionClose(dateTime, \"08:00-16:30\", \"timeZoneId\", \"SUNDAY\")} - custom weekends")
+    @UtilityMethod
+    public final LocalDateTime getNextSessionClose(LocalDateTime dateTime, String sessions, String timeZoneId, String... weekends) {
+        return nextSessionBoundary(dateTime, sessions, timeZoneId, "", weekends, false);
+    }
+
+    @Description("Returns the end of the current or the next trading session after provided date time in the UTC time zone. Sessions are in the time zone (DST aware), weekends and holidays are closed.<br>"
+            + SESSIONS_HELP
+            + HOLIDAYS_HELP
+            + WEEKEND_DAYS_OF_WEEK
+            + "Usage: #{getNextSessionCloseWithHolidays(dateTime, \"08:00-16:30\", \"timeZoneId\", \"2026-12-25,2026-12-28\")} - default weekends.<br>"
+            + "#{getNextSessionCloseWithHolidays(dateTime, \"08:00-16:30\", \"timeZoneId\", \"2026-12-25\", \"SUNDAY\")} - custom weekends")
+    @UtilityMethod
+    public final LocalDateTime getNextSessionCloseWithHolidays(LocalDateTime dateTime, String sessions, String timeZoneId, String holidays, String... weekends) {
+        return nextSessionBoundary(dateTime, sessions, timeZoneId, holidays, weekends, false);
+    }
+
+    @Description("Returns the start of the bucket of <code>size</code> date components containing provided date time in the UTC time zone.<br/>"
+            + "Buckets shorter than a day are aligned to the epoch, day, month and year buckets are aligned to midnight.<br/>"
+            + "The following date components are defined:"
+            + DATE_TIME_COMPONENTS_TABLE
+            + "Usage: #{truncateDateTime(dateTime, dateComponent, size)}<br/>"
+            + "Example: #{truncateDateTime(dateTime, \"m\", 5)} returns the start of the 5-minute bar")
+    @UtilityMethod
+    public LocalDateTime truncateDateTime(LocalDateTime dateTime, String dateComponent, long size) {
+        return TimeBucket.of(dateComponent, size).truncate(dateTime);
+    }
+
+    @Description("Returns the start of the bucket of <code>size</code> date components containing provided date time in the UTC time zone."
+            + " Day, month and year buckets are aligned to midnight in the time zone (DST aware).<br/>"
+            + "The following date components are defined:"
+            + DATE_TIME_COMPONENTS_TABLE
+            + "Usage: #{truncateDateTimeByZoneId(dateTime, dateComponent, size, timeZoneId)}<br/>"
+            + "Example: #{truncateDateTimeByZoneId(dateTime, \"D\", 1, \"Europe/London\")} returns the start of the London day")
+    @UtilityMethod
+    public LocalDateTime truncateDateTimeByZoneId(LocalDateTime dateTime, String dateComponent, long size, String timeZoneId) {
+        return TimeBucket.of(dateComponent, size).withZone(timeZoneId).truncate(dateTime);
+    }
+
+    @Description("Returns the n-th day of week of the month of provided date. Negative n counts from the end of the month, -1 is the last one.<br>"
+            + "The available days are SUNDAY, MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY and SATURDAY.<br>"
+            + "Usage: #{getNthDayOfWeek(date, n, \"dayOfWeek\")}<br>"
+            + "Example: #{getNthDayOfWeek(#{toDate(\"2021-05-14\", \"yyyy-MM-dd\")}, -1, \"MONDAY\")} returns <b>2021-05-31</b>")
+    @UtilityMethod
+    public LocalDate getNthDayOfWeek(LocalDate date, int n, String dayOfWeek) {
+        return LocalDate.ofEpochDay(ExpiryDates.nthDayOfWeek(date.getYear(), date.getMonthValue(), n, DayOfWeek.valueOf(dayOfWeek.trim().toUpperCase()).getValue()));
+    }
+
+    @Description("Returns the third Friday of the month of provided date. If it is a weekend the preceding business day is returned.<br>"
+            + WEEKEND_DAYS_OF_WEEK
+            + "Usage: #{getThirdFriday(date)} - default weekends.<br>"
+            + "#{getThirdFriday(date, \"FRIDAY\", \"SATURDAY\")} - custom weekends")
+    @UtilityMethod
+    public LocalDate getThirdFriday(LocalDate date, String... weekends) {
+        return LocalDate.ofEpochDay(ExpiryDates.thirdFriday(date.getYear(), date.getMonthValue(), WeekendMask.parse(weekends)));
+    }
+
+    @Description("Returns the first IMM date (the third Wednesday of March, June, September or December) on or after provided date."
+            + " If the Wednesday is a weekend the following business day is returned.<br>"
+            + WEEKEND_DAYS_OF_WEEK
+            + "Usage: #{getNextIMMDate(date)} - default weekends.<br>"
+            + "#{getNextIMMDate(date, \"SUNDAY\")} - custom weekends")
+    @UtilityMethod
+    public LocalDate getNextIMMDate(LocalDate date, String... weekends) {
+        return LocalDate.ofEpochDay(ExpiryDates.nextImmDate(date.toEpochDay(), WeekendMask.parse(weekends)));
+    }
+
+    @Description("Returns the n-th business day of the month of provided date. Negative n counts from the end of the month, -1 is the last business day.<br>"
+            + WEEKEND_DAYS_OF_WEEK
+            + "Usage: #{getNthBusinessDayOfMonth(date, n)} - default weekends.<br>"
+            + "#{getNthBusinessDayOfMonth(date, n, \"SUNDAY\")} - custom weekends")
+    @UtilityMethod
+    public LocalDate getNthBusinessDayOfMonth(LocalDate date, int n, String... weekends) {
+        return LocalDate.ofEpochDay(ExpiryDates.nthBusinessDay(date.getYear(), date.getMonthValue(), n, WeekendMask.parse(weekends)));
+    }
+
+    @Description("Returns the last business day of the month of provided date.<br>"
+            + WEEKEND_DAYS_OF_WEEK
+            + "Usage: #{getLastBusinessDayOfMonth(date)} - default weekends.<br>"
+            + "#{getLastBusinessDayOfMonth(date, \"SUNDAY\")} - custom weekends")
+    @UtilityMethod
+    public LocalDate getLastBusinessDayOfMonth(LocalDate date, String... weekends) {
+        return getNthBusinessDayOfMonth(date, -1, weekends);
     }
 
     @Description("Converts epoch milliseconds to time in the UTC time zone<br/>Example: #{toTime(epochMillis)}")
@@ -335,7 +518,7 @@ public class DateUtil {
     @Description("Converts epoch milliseconds to time in the UTC time zone modified according to a pattern after applying time zone offset (DST aware)." + MODIFY_HELP + "Example: #{toTimeByZoneId(epochMillis, modifyPattern, timeZoneId)}")
     @UtilityMethod
     public LocalTime toTimeByZoneId(long epochMillis, String modifyPattern, String timeZoneId) {
-        ZonedDateTime time = DateTimeUtility.toZonedDateTime(epochMillis).withZoneSameInstant(ZoneId.of(timeZoneId));
+        ZonedDateTime time = DateTimeUtility.toZonedDateTime(epochMillis).withZoneSameInstant(DateTimeUtility.toZoneId(timeZoneId));
 
         time = modifyTemporal(time, modifyPattern);
         return toTime(DateTimeUtility.toLocalDateTime(time));
@@ -449,7 +632,7 @@ public class DateUtil {
     @Description("Converts epoch milliseconds to date time in the UTC time zone modified according to a pattern after applying time zone offset (DST aware)." + MODIFY_HELP + "Example: #{toDateTimeByZoneId(epochMillis, modifyPattern, timeZoneId)}")
     @UtilityMethod
     public LocalDateTime toDateTimeByZoneId(long epochMillis, String modifyPattern, String timeZoneId) {
-        ZonedDateTime time = toZonedDateTime(epochMillis).withZoneSameInstant(ZoneId.of(timeZoneId));
+        ZonedDateTime time = toZonedDateTime(epochMillis).withZoneSameInstant(DateTimeUtility.toZoneId(timeZoneId));
         time = modifyTemporal(time, modifyPattern);
         return DateTimeUtility.toLocalDateTime(time);
     }
@@ -524,14 +707,7 @@ public class DateUtil {
     @Description("Converts a string using format pattern to date/time in the UTC time zone." + FORMAT_HELP + "Example: #{toDateTime(source, formatPattern)}")
     @UtilityMethod
     public LocalDateTime toDateTime(String source, String formatPattern) {
-
-        int yearPos = formatPattern.lastIndexOf('y') + 1;
-        if (yearPos > 0 && formatPattern.length() > yearPos && !Character.isDigit(formatPattern.charAt(yearPos))) {
-            formatPattern = new StringBuilder(formatPattern).insert(yearPos, ' ').toString();
-            source = new StringBuilder(source).insert(yearPos, ' ').toString();
-        }
-
-        return DateTimeUtility.toLocalDateTime(DateTimeUtility.createFormatter(formatPattern).parse(source));
+        return CompiledDateTimeFormat.get(formatPattern).parse(source);
     }
 
     @Description("Converts a string using format pattern to date/time in the UTC time zone modified according to a pattern." + FORMAT_HELP + MODIFY_HELP + "Example: #{toDateTime(source, formatPattern, modifyPattern)}")
@@ -740,12 +916,19 @@ public class DateUtil {
     @Description("Formats the current date/time in the UTC time zone modified according to a pattern into a string using format pattern." + FORMAT_HELP + MODIFY_HELP + "Example: #{formatDateTime(formatPattern, modifyPattern)}")
     @UtilityMethod
     public String formatDateTime(String formatPattern, String modifyPattern) {
+        if (TickMemoizer.isEnabled()) {
+            return TickMemoizer.get("formatDateTime", modifyPattern, null, formatPattern, now -> formatDateTime(now, formatPattern, modifyPattern));
+        }
         return formatDateTime(getDateTime(), formatPattern, modifyPattern);
     }
 
     @Description("Formats the current date time in the UTC time zone modified according to a pattern into a string using format pattern after applying time zone offset (DST aware)." + FORMAT_HELP + MODIFY_HELP + "Example: #{formatDateTimeByZoneId(formatPattern, modifyPattern, timeZoneId)}")
     @UtilityMethod
     public String formatDateTimeByZoneId(String formatPattern, String modifyPattern, String timeZoneId) {
+        if (TickMemoizer.isEnabled()) {
+            return TickMemoizer.get("formatDateTimeByZoneId", modifyPattern, timeZoneId, formatPattern,
+                    now -> formatDateTimeByZoneId(now, formatPattern, modifyPattern, timeZoneId));
+        }
         return formatDateTimeByZoneId(getDateTime(), formatPattern, modifyPattern, timeZoneId);
     }
 
@@ -761,7 +944,7 @@ public class DateUtil {
         LocalDateTime time = toDateTime(source);
         time = modifyDateTimeByZoneId(time, modifyPattern, timeZoneId);
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(formatPattern).withZone(ZoneId.of(timeZoneId));
+        DateTimeFormatter formatter = DateTimeUtility.createFormatter(formatPattern, timeZoneId);
         return time.format(formatter);
     }
 
@@ -799,9 +982,10 @@ public class DateUtil {
     @Description("Modifies date/time in the UTC time zone according to a pattern after applying time zone offset (DST aware)." + MODIFY_HELP + "Example: #{modifyDateTimeByZoneId(dateTime, modifyPattern, timeZoneId)}")
     @UtilityMethod
     public LocalDateTime modifyDateTimeByZoneId(LocalDateTime dateTime, String modifyPattern, String timeZoneId) {
+        ZoneId zoneId = DateTimeUtility.toZoneId(timeZoneId);
         LocalDateTime convertedToTargetZone = ZonedDateTime.of(dateTime, ZoneOffset.UTC)
-                .withZoneSameInstant(ZoneId.of(timeZoneId)).toLocalDateTime();
-        return ZonedDateTime.of(modifyTemporal(convertedToTargetZone, modifyPattern), ZoneId.of(timeZoneId))
+                .withZoneSameInstant(zoneId).toLocalDateTime();
+        return ZonedDateTime.of(modifyTemporal(convertedToTargetZone, modifyPattern), zoneId)
                 .withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
     }
 
@@ -831,10 +1015,33 @@ public class DateUtil {
         Objects.requireNonNull(dateComponent, "datePart argument is null");
         Objects.requireNonNull(minuend, "The first argument is null");
         Objects.requireNonNull(subtrahend, "The second argument is null");
+        DateComponent enumDateComponent = DateComponent.parse(dateComponent);
+        if (enumDateComponent != null) {
+            try {
+                return diffEpochNanos(IsoDateTimeParser.parseEpochNanos(minuend), IsoDateTimeParser.parseEpochNanos(subtrahend), enumDateComponent);
+            } catch (DateTimeException | ArithmeticException e) {
+                logger.trace("Fast ISO parsing failed, falling back to ZonedDateTime.parse", e);
+            }
+        }
         return diffDateTime(DateTimeUtility.toLocalDateTime(ZonedDateTime.parse(minuend)),
                 DateTimeUtility.toLocalDateTime(ZonedDateTime.parse(subtrahend)), dateComponent);
     }
 
+    /**
+     * Returns the difference truncated toward zero like {@link DateComponent#diff(LocalDateTime, LocalDateTime)} for UTC values
+     */
+    private static long diffEpochNanos(long minuend, long subtrahend, DateComponent dateComponent) {
+        TemporalUnit unit = dateComponent.getTemporalField().getBaseUnit();
+        if (unit == ChronoUnit.MONTHS || unit == ChronoUnit.YEARS) {
+            return dateComponent.diff(toUtcDateTime(minuend), toUtcDateTime(subtrahend));
+        }
+        return Math.subtractExact(minuend, subtrahend) / unit.getDuration().toNanos();
+    }
+
+    private static LocalDateTime toUtcDateTime(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), (int)Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
     @Description("Returns value of choose date component from LocalDate<br/>"
             + "The following date components are defined:"
             + DATE_COMPONENTS_TABLE
@@ -885,9 +1092,7 @@ public class DateUtil {
      */
     @NotNull
     private String formatDateTimeByZoneId(LocalDateTime dateTime, String formatPattern, String timeZoneId) {
-        return DateTimeFormatter
-                .ofPattern(formatPattern)
-                .withZone(ZoneId.of(timeZoneId))
+        return DateTimeUtility.createFormatter(formatPattern, timeZoneId)
                 .format(ZonedDateTime.of(dateTime, ZoneOffset.UTC));
     }
 
@@ -909,11 +1114,122 @@ public class DateUtil {
     }
 
     private String formatTemporal(Temporal source, String pattern) {
-        DateTimeFormatter formatter = DateTimeUtility.createFormatter(pattern);
+        if (source instanceof LocalDateTime) {
+            return IncrementalDateTimeFormatter.get(pattern).format((LocalDateTime)source);
+        }
+        DateTimeFormatter formatter = DateTimeUtility.getFormatter(pattern);
         return formatter.format(source);
     }
 
-    private static Set<DayOfWeek> parseWeekends(String[] weekends) {
+    /**
+     * Looks for the boundary in the calendar of the instant and then in the calendars of the following years,
+     * holidays can't close the sessions after the year of the last holiday
+     *
+     * @return next session open or close, <code>null</code> if there are no sessions after the date time
+     */
+    private static LocalDateTime nextSessionBoundary(LocalDateTime dateTime, String sessions, String timeZoneId, String holidays, String[] weekends, boolean open) {
+        long epochMillis = DateTimeUtility.getMillisecond(dateTime);
+        TradingSessionCalendar calendar = getSessionCalendar(epochMillis, sessions, timeZoneId, holidays, weekends);
+        long boundary = open ? calendar.nextOpen(epochMillis) : calendar.nextClose(epochMillis);
+        if (!isFinalBoundary(calendar, boundary, open)) {
+            String key = sessionCalendarKey(sessions, timeZoneId, holidays, weekends);
+            int lastYear = Math.max(yearOf(epochMillis), lastHolidayYear(holidays)) + 1;
+            // the calendar of the year containing the end of the previous range starts days before that end
+            for (int year = yearOf(calendar.getRangeEnd() - 1); year <= lastYear; year = yearOf(calendar.getRangeEnd() - 1)) {
+                calendar = SESSION_CALENDARS.get(year + key);
+                long from = Math.max(epochMillis, calendar.getRangeStart());
+                boundary = open ? calendar.nextOpen(from) : calendar.nextClose(from);
+                if (isFinalBoundary(calendar, boundary, open)) {
+                    break;
+                }
+            }
+        }
+        return boundary == TradingSessionCalendar.NONE ? null : DateTimeUtility.toLocalDateTime(boundary);
+    }
+
+    /**
+     * Opens within the calendar range are exact. Sessions opening after the range aren't in the calendar,
+     * so a close after the range end may be the end of a truncated run of adjacent sessions.
+     */
+    private static boolean isFinalBoundary(TradingSessionCalendar calendar, long boundary, boolean open) {
+        return boundary != TradingSessionCalendar.NONE && (open || boundary < calendar.getRangeEnd());
+    }
+
+    /**
+     * @return the calendar of the last call of the thread with the same arguments, the default calendar or the calendar of the year of the instant
+     */
+    static TradingSessionCalendar getSessionCalendar(long epochMillis, String sessions, String timeZoneId, String holidays, String[] weekends) {
+        Objects.requireNonNull(holidays, "holidays argument is null");
+        SessionCalendarRef last = LAST_SESSION_CALENDAR.get();
+        if (last != null && last.calendar.covers(epochMillis) && last.matches(sessions, timeZoneId, holidays, weekends)) {
+            return last.calendar;
+        }
+        String key = sessionCalendarKey(sessions, timeZoneId, holidays, weekends);
+        TradingSessionCalendar calendar = SESSION_CALENDARS.get(key);
+        if (!calendar.covers(epochMillis)) {
+            calendar = SESSION_CALENDARS.get(yearOf(epochMillis) + key);
+        }
+        LAST_SESSION_CALENDAR.set(new SessionCalendarRef(sessions, timeZoneId, holidays, weekends, calendar));
+        return calendar;
+    }
+
+    private static String sessionCalendarKey(String sessions, String timeZoneId, String holidays, String[] weekends) {
+        return SESSION_KEY_SEPARATOR + sessions + SESSION_KEY_SEPARATOR + timeZoneId + SESSION_KEY_SEPARATOR + holidays
+                + SESSION_KEY_SEPARATOR + (weekends == null ? "" : String.join(",", weekends));
+    }
+
+    private static TradingSessionCalendar createSessionCalendar(String key) {
+        String[] parts = key.split("\\|", -1);
+        TradingSessionCalendar.Builder builder = sessionCalendarBuilder(parts[1], parts[2], parts[3], parts[4].isEmpty() ? null : parts[4].split(","));
+        if (!parts[0].isEmpty()) {
+            LocalDate start = LocalDate.ofYearDay(Integer.parseInt(parts[0]), 1);
+            builder.range(start.minusDays(YEAR_CALENDAR_MARGIN_DAYS), start.plusYears(1).plusDays(YEAR_CALENDAR_MARGIN_DAYS));
+        }
+        return builder.build();
+    }
+
+    private static int yearOf(long epochMillis) {
+        return EpochDays.year(EpochDays.toPackedDate(Math.floorDiv(epochMillis, EpochDays.MILLIS_PER_DAY)));
+    }
+
+    private static int lastHolidayYear(String holidays) {
+        int year = Integer.MIN_VALUE;
+        for (String holiday : StringUtils.split(holidays, ',')) {
+            year = Math.max(year, LocalDate.parse(holiday.trim()).getYear());
+        }
+        return year;
+    }
+
+    private static TradingSessionCalendar.Builder sessionCalendarBuilder(String sessions, String timeZoneId, String holidays, String[] weekends) {
+        return TradingSessionCalendar.builder()
+                .timeZoneId(timeZoneId)
+                .sessions(sessions)
+                .holidays(holidays)
+                .weekends(weekends);
+    }
+
+    private static final class SessionCalendarRef {
+        private final String sessions;
+        private final String timeZoneId;
+        private final String holidays;
+        private final String[] weekends;
+        private final TradingSessionCalendar calendar;
+
+        private SessionCalendarRef(String sessions, String timeZoneId, String holidays, String[] weekends, TradingSessionCalendar calendar) {
+            this.sessions = sessions;
+            this.timeZoneId = timeZoneId;
+            this.holidays = holidays;
+            this.weekends = weekends == null ? null : weekends.clone();
+            this.calendar = calendar;
+        }
+
+        private boolean matches(String sessions, String timeZoneId, String holidays, String[] weekends) {
+            return Objects.equals(this.sessions, sessions) && Objects.equals(this.timeZoneId, timeZoneId) && this.holidays.equals(holidays)
+                    && Arrays.equals(this.weekends, weekends);
+        }
+    }
+
+    static Set<DayOfWeek> parseWeekends(String[] weekends) {
         if (weekends != null && weekends.length > 0) {
             return Stream.of(weekends)
                     .map(String::toUpperCase)
@@ -927,7 +1243,7 @@ public class DateUtil {
         return getBusinessDateTime(original, modified, parseWeekends(weekends));
     }
 
-    private LocalDateTime getBusinessDateTime(LocalDateTime original, LocalDateTime modified, Collection<DayOfWeek> weekends) {
+    static LocalDateTime getBusinessDateTime(LocalDateTime original, LocalDateTime modified, Collection<DayOfWeek> weekends) {
         LocalDateTime after = DateTimeUtility.toLocalDateTime(modified);
         LocalDateTime iter = DateTimeUtility.toLocalDateTime(original);
 
@@ -938,8 +1254,12 @@ public class DateUtil {
         }
 
         int counter = past ? -1 : 1;
+        int iterations = 0;
+        BusinessDayLoopEvent event = new BusinessDayLoopEvent();
+        event.begin();
 
         while (past ? !iter.toLocalDate().isBefore(after.toLocalDate()) : !iter.toLocalDate().isAfter(after.toLocalDate())) {
+            iterations++;
 
             DayOfWeek dayOfWeek = iter.getDayOfWeek();
             if(weekends.contains(dayOfWeek)) {
@@ -952,20 +1272,25 @@ public class DateUtil {
             }
         }
 
+        if (iterations > BusinessDayLoopEvent.ITERATION_THRESHOLD && event.shouldCommit()) {
+            event.original = original.toString();
+            event.modified = modified.toString();
+            event.weekends = weekends.toString();
+            event.iterations = iterations;
+            event.commit();
+        }
+
         return after;
     }
 
     public static <T extends Temporal> T modifyTemporal(T source, String modifyPattern) {
-        List<DateModificator> modificators = DateModificator.parse(modifyPattern);
-
-        for (DateModificator dateModificator : modificators) {
-            source = dateModificator.modify(source);
-        }
-
-        return source;
+        return DateModificator.modify(source, DateModificator.compile(modifyPattern));
     }
 
     public static LocalDateTime modifyLocalDateTime(String modifyPattern) {
+        if (TickMemoizer.isEnabled()) {
+            return TickMemoizer.get("modifyLocalDateTime", modifyPattern, null, null, now -> modifyTemporal(now, modifyPattern));
+        }
         return modifyTemporal(DateTimeUtility.nowLocalDateTime(), modifyPattern);
     }
 
@@ -981,7 +1306,7 @@ public class DateUtil {
      * @return
      */
     public static final String formatDateTime(String modifyPattern, String format, String timeZoneId) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format).withZone(ZoneId.of(timeZoneId));
+        DateTimeFormatter formatter = DateTimeUtility.createFormatter(format, timeZoneId);
         return modifyZonedDateTime(modifyPattern).format(formatter);
     }
 
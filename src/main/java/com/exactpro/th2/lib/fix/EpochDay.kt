@@ -0,0 +1,107 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.lib.fix
+
+import com.exactpro.th2.lib.fix.codec.LocalMktDateCodec
+import com.exactpro.th2.lib.fix.util.EpochDays
+import com.exactpro.th2.lib.fix.util.WeekendMask
+import java.time.LocalDate
+import java.time.ZoneId
+
+/**
+ * Days since 1970-01-01, equal values are equal dates.
+ * Operations return new wrappers, the same operations over primitive longs without allocation are in <code>EpochFunctions</code>.
+ */
+data class EpochDay(val value: Long) : Comparable<EpochDay> {
+
+    /**
+     * Packed date <code>year * 10000 + month * 100 + day</code>
+     */
+    val packedDate: Int get() = EpochDays.toPackedDate(value)
+    val year: Int get() = EpochDays.year(packedDate)
+    val month: Int get() = EpochDays.month(packedDate)
+    val dayOfMonth: Int get() = EpochDays.day(packedDate)
+
+    /**
+     * ISO day of week from 1 (Monday) to 7 (Sunday)
+     */
+    val dayOfWeek: Int get() = EpochDays.dayOfWeek(value)
+
+    operator fun plus(days: Long): EpochDay = EpochDay(Math.addExact(value, days))
+
+    operator fun minus(days: Long): EpochDay = EpochDay(Math.subtractExact(value, days))
+
+    /**
+     * @return difference in days
+     */
+    operator fun minus(other: EpochDay): Long = Math.subtractExact(value, other.value)
+
+    operator fun inc(): EpochDay = EpochDay(Math.incrementExact(value))
+
+    operator fun dec(): EpochDay = EpochDay(Math.decrementExact(value))
+
+    override operator fun compareTo(other: EpochDay): Int = value.compareTo(other.value)
+
+    @JvmOverloads
+    fun isWeekend(weekends: Int = WeekendMask.SATURDAY_SUNDAY): Boolean = WeekendMask.isWeekend(weekends, dayOfWeek)
+
+    /**
+     * @return the n-th business day after the day (before it for negative n), the day itself for zero
+     */
+    @JvmOverloads
+    fun plusBusinessDays(days: Int, weekends: Int = WeekendMask.SATURDAY_SUNDAY): EpochDay =
+            if (days == 0) this else EpochDay(epochDayPlusBusinessDays(value, days, weekends))
+
+    /**
+     * @param nanoOfDay nanoseconds since midnight
+     * @return timestamp of the day (UTC)
+     */
+    fun atTime(nanoOfDay: Long): EpochNanos =
+            EpochNanos(EpochDays.toEpochNanos(value, nanoOfDay))
+
+    /**
+     * @return instant of the midnight of the day in the zone
+     */
+    fun atStartOfDay(zone: ZoneId): EpochNanos = atTime(0).fromZone(zone)
+
+    /**
+     * Writes the value as FIX LocalMktDate
+     *
+     * @return index after the last written byte
+     */
+    fun formatLocalMktDate(destination: ByteArray, offset: Int): Int = LocalMktDateCodec.format(value, destination, offset)
+
+    fun toLocalMktDate(): String = LocalMktDateCodec.format(value)
+
+    fun toLocalDate(): LocalDate = LocalDate.ofEpochDay(value)
+
+    override fun toString(): String = toLocalMktDate()
+
+    companion object {
+        @JvmStatic
+        fun of(year: Int, month: Int, day: Int): EpochDay = EpochDay(EpochDays.of(year, month, day))
+
+        @JvmStatic
+        fun of(date: LocalDate): EpochDay = EpochDay(date.toEpochDay())
+
+        @JvmStatic
+        fun parseLocalMktDate(source: CharSequence): EpochDay = EpochDay(LocalMktDateCodec.parseEpochDay(source))
+
+        @JvmStatic
+        fun parseLocalMktDate(source: ByteArray, offset: Int, length: Int): EpochDay =
+                EpochDay(LocalMktDateCodec.parseEpochDay(source, offset, length))
+    }
+}
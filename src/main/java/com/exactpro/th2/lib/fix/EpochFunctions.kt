@@ -0,0 +1,76 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@file:JvmName("EpochFunctions")
+
+package com.exactpro.th2.lib.fix
+
+import com.exactpro.th2.lib.fix.data.DateModificator
+import com.exactpro.th2.lib.fix.data.MutableTimestamp
+import com.exactpro.th2.lib.fix.util.EpochDays
+import com.exactpro.th2.lib.fix.util.ExpiryDates
+import com.exactpro.th2.lib.fix.util.WeekendMask
+import java.time.ZoneId
+
+/*
+ * Operations of EpochNanos and EpochDay over primitive longs. The wrappers delegate to these functions,
+ * hot paths can call them directly to avoid allocating a wrapper per operation.
+ */
+
+private val SCRATCH = ThreadLocal.withInitial { MutableTimestamp() }
+
+internal fun scratch(): MutableTimestamp = SCRATCH.get()
+
+/**
+ * @return the n-th business day after the day (before it for negative n), the day itself for zero
+ */
+@JvmOverloads
+fun epochDayPlusBusinessDays(epochDay: Long, days: Int, weekends: Int = WeekendMask.SATURDAY_SUNDAY): Long = when {
+    days > 0 -> ExpiryDates.addBusinessDays(ExpiryDates.previousBusinessDay(epochDay, weekends), days.toLong(), weekends)
+    days < 0 -> ExpiryDates.addBusinessDays(ExpiryDates.nextBusinessDay(epochDay, weekends), days.toLong(), weekends)
+    else -> epochDay
+}
+
+/**
+ * Moves the date to the n-th business day after (or before for negative n) it keeping the time of day
+ */
+@JvmOverloads
+fun epochNanosPlusBusinessDays(epochNanos: Long, days: Int, weekends: Int = WeekendMask.SATURDAY_SUNDAY): Long =
+        EpochDays.toEpochNanos(epochDayPlusBusinessDays(Math.floorDiv(epochNanos, EpochDays.NANOS_PER_DAY), days, weekends),
+                Math.floorMod(epochNanos, EpochDays.NANOS_PER_DAY))
+
+/**
+ * Shifts the value to the local date/time of the zone
+ */
+fun epochNanosToZone(epochNanos: Long, zone: ZoneId): Long = scratch().setEpochNanos(epochNanos).toZone(zone).epochNanos
+
+/**
+ * Shifts the value from the local date/time of the zone to UTC
+ */
+fun epochNanosFromZone(epochNanos: Long, zone: ZoneId): Long = scratch().setEpochNanos(epochNanos).fromZone(zone).epochNanos
+
+fun epochNanosOffsetSeconds(epochNanos: Long, zone: ZoneId): Int = scratch().setEpochNanos(epochNanos).getOffsetSeconds(zone)
+
+/**
+ * @return the timestamp (UTC) modified according to the modificators
+ */
+fun epochNanosModify(epochNanos: Long, modificators: List<DateModificator>): Long =
+        scratch().setEpochNanos(epochNanos).modify(modificators).epochNanos
+
+/**
+ * @return the timestamp (UTC) modified according to the modificators in the local date/time of the zone
+ */
+fun epochNanosModifyByZoneId(epochNanos: Long, modificators: List<DateModificator>, zone: ZoneId): Long =
+        scratch().setEpochNanos(epochNanos).toZone(zone).modify(modificators).fromZone(zone).epochNanos
@@ -0,0 +1,129 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.lib.fix
+
+import com.exactpro.th2.lib.fix.codec.TZTimestampCodec
+import com.exactpro.th2.lib.fix.codec.UTCTimestampCodec
+import com.exactpro.th2.lib.fix.util.EpochDays
+import com.exactpro.th2.lib.fix.util.WeekendMask
+import java.time.Duration
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.time.ZoneOffset
+
+/**
+ * Nanoseconds since 1970-01-01T00:00:00Z, equal values are equal timestamps.
+ * Operations return new wrappers, the same operations over primitive longs without allocation are in <code>EpochFunctions</code>.
+ */
+data class EpochNanos(val value: Long) : Comparable<EpochNanos> {
+
+    val epochSecond: Long get() = Math.floorDiv(value, EpochDays.NANOS_PER_SECOND)
+    val nano: Int get() = Math.floorMod(value, EpochDays.NANOS_PER_SECOND).toInt()
+    val epochMillis: Long get() = Math.floorDiv(value, NANOS_PER_MILLI)
+    val epochDay: EpochDay get() = EpochDay(Math.floorDiv(value, EpochDays.NANOS_PER_DAY))
+    val nanoOfDay: Long get() = Math.floorMod(value, EpochDays.NANOS_PER_DAY)
+
+    operator fun plus(duration: Duration): EpochNanos = EpochNanos(Math.addExact(value, duration.toNanos()))
+
+    operator fun minus(duration: Duration): EpochNanos = EpochNanos(Math.subtractExact(value, duration.toNanos()))
+
+    /**
+     * @return difference in nanoseconds
+     */
+    operator fun minus(other: EpochNanos): Long = Math.subtractExact(value, other.value)
+
+    override operator fun compareTo(other: EpochNanos): Int = value.compareTo(other.value)
+
+    fun plusNanos(nanos: Long): EpochNanos = EpochNanos(Math.addExact(value, nanos))
+
+    fun plusMillis(millis: Long): EpochNanos = plusNanos(Math.multiplyExact(millis, NANOS_PER_MILLI))
+
+    fun plusSeconds(seconds: Long): EpochNanos = plusNanos(Math.multiplyExact(seconds, EpochDays.NANOS_PER_SECOND))
+
+    /**
+     * Moves the date to the n-th business day after (or before for negative n) it keeping the time of day
+     */
+    @JvmOverloads
+    fun plusBusinessDays(days: Int, weekends: Int = WeekendMask.SATURDAY_SUNDAY): EpochNanos =
+            EpochNanos(epochNanosPlusBusinessDays(value, days, weekends))
+
+    fun modify(pattern: ModifyPattern): EpochNanos = pattern(this)
+
+    /**
+     * Shifts the value to the local date/time of the zone
+     */
+    fun toZone(zone: ZoneId): EpochNanos = EpochNanos(epochNanosToZone(value, zone))
+
+    /**
+     * Shifts the value from the local date/time of the zone to UTC
+     */
+    fun fromZone(zone: ZoneId): EpochNanos = EpochNanos(epochNanosFromZone(value, zone))
+
+    fun offsetSeconds(zone: ZoneId): Int = epochNanosOffsetSeconds(value, zone)
+
+    /**
+     * Writes the value as FIX UTCTimestamp
+     *
+     * @return index after the last written byte
+     */
+    fun formatUTCTimestamp(fractionDigits: Int, destination: ByteArray, offset: Int): Int =
+            UTCTimestampCodec.format(value, fractionDigits, destination, offset)
+
+    /**
+     * Writes the value as FIX TZTimestamp with the offset of the zone at the instant
+     *
+     * @return index after the last written byte
+     */
+    fun formatTZTimestamp(zone: ZoneId, fractionDigits: Int, destination: ByteArray, offset: Int): Int =
+            TZTimestampCodec.format(value, offsetSeconds(zone), fractionDigits, destination, offset)
+
+    @JvmOverloads
+    fun toUTCTimestamp(fractionDigits: Int = 3): String = UTCTimestampCodec.format(value, fractionDigits)
+
+    /**
+     * @return LocalDateTime (UTC)
+     */
+    fun toLocalDateTime(): LocalDateTime = LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC)
+
+    override fun toString(): String = toLocalDateTime().toString()
+
+    companion object {
+        private const val NANOS_PER_MILLI = 1_000_000L
+
+        @JvmStatic
+        fun now(): EpochNanos = EpochNanos(scratch().setNow().epochNanos)
+
+        /**
+         * @param dateTime LocalDateTime (UTC)
+         */
+        @JvmStatic
+        fun of(dateTime: LocalDateTime): EpochNanos =
+                EpochNanos(Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), EpochDays.NANOS_PER_SECOND), dateTime.nano.toLong()))
+
+        @JvmStatic
+        fun ofEpochMillis(epochMillis: Long): EpochNanos = EpochNanos(Math.multiplyExact(epochMillis, NANOS_PER_MILLI))
+
+        @JvmStatic
+        fun parseUTCTimestamp(source: CharSequence): EpochNanos = EpochNanos(UTCTimestampCodec.parseEpochNanos(source))
+
+        @JvmStatic
+        fun parseUTCTimestamp(source: ByteArray, offset: Int, length: Int): EpochNanos =
+                EpochNanos(UTCTimestampCodec.parseEpochNanos(source, offset, length))
+
+        @JvmStatic
+        fun parseTZTimestamp(source: CharSequence): EpochNanos = EpochNanos(TZTimestampCodec.parseEpochNanos(source))
+    }
+}
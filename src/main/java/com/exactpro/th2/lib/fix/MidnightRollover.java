@@ -0,0 +1,296 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.th2.lib.fix.data.DateModificator;
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+
+/**
+ * Precomputes values that depend only on the current date (modified dates, business dates, formatted dates)
+ * for the next day on a background daemon thread and swaps them in atomically when the day changes,
+ * so the first calls after midnight do not recompute them on the hot path.
+ * <p>
+ * Every value has its own time zone: the day boundary is the local midnight of the zone (UTC if the zone is not specified),
+ * the boundaries of the next day are resolved from the zone rules (DST aware) ahead of time as well.
+ * The next day value is computed on registration and then <code>th2.lib.fix.rollover.lead.millis</code> milliseconds
+ * (60 seconds by default) before every boundary for the day after it. If the value is requested for a day which was not precomputed it is computed in the calling thread.
+ * <pre>
+ * MidnightRollover.DayValue&lt;String&gt; tradeDate = MidnightRollover.registerFormattedDate("yyyyMMdd", "D+1", "Asia/Tokyo");
+ * String value = tradeDate.get();
+ * </pre>
+ * Values of the modify patterns registered by {@link #registerDate(String)} are returned by {@link DateUtil#getDate(String)},
+ * other {@link DateUtil} methods don't use the registered values because their results depend on the time of day:
+ * <code>*ByZoneId</code> methods convert the modified local date/time back to UTC and business date methods return date/time.
+ */
+public class MidnightRollover {
+    private static final Logger logger = LoggerFactory.getLogger(MidnightRollover.class);
+
+    public static final String LEAD_PROPERTY = "th2.lib.fix.rollover.lead.millis";
+
+    private static final long LEAD_MILLIS = Long.getLong(LEAD_PROPERTY, 60_000L);
+    private static final ConcurrentMap<String, DayValue<?>> VALUES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, DayValue<LocalDate>> DATES = new ConcurrentHashMap<>();
+    private static final AtomicReference<ScheduledExecutorService> SCHEDULER = new AtomicReference<>();
+
+    private static volatile boolean hasDates;
+
+    private MidnightRollover() {
+    }
+
+    /**
+     * Registers the current UTC date modified according to the pattern, the value is also returned by {@link DateUtil#getDate(String)}
+     *
+     * @param modifyPattern pattern with date components only, see {@link DateUtil#MODIFY_HELP}
+     * @return registered value
+     */
+    public static DayValue<LocalDate> registerDate(String modifyPattern) {
+        DayValue<LocalDate> value = registerDateByZoneId(modifyPattern, null);
+        DATES.putIfAbsent(modifyPattern, value);
+        hasDates = true;
+        return value;
+    }
+
+    /**
+     * Registers the current local date of the time zone modified according to the pattern.
+     * Unlike {@link DateUtil#getDateByZoneId(String, String)} the value is the local date, not the UTC date.
+     *
+     * @param modifyPattern pattern with date components only, see {@link DateUtil#MODIFY_HELP}
+     * @param timeZoneId    region id or offset, UTC if <code>null</code>
+     * @return registered value
+     */
+    public static DayValue<LocalDate> registerDateByZoneId(String modifyPattern, String timeZoneId) {
+        List<DateModificator> modificators = DateModificator.compile(modifyPattern);
+        return register("date|" + modifyPattern, timeZoneId, today -> DateModificator.modify(today, modificators));
+    }
+
+    /**
+     * Registers the current local date of the time zone modified according to the pattern skipping weekends
+     * like {@link DateUtil#modifyBusinessDateTime(java.time.LocalDateTime, String, String...)}
+     *
+     * @param modifyPattern pattern with date components only, see {@link DateUtil#MODIFY_HELP}
+     * @param timeZoneId    region id or offset, UTC if <code>null</code>
+     * @param weekends      weekend days, SATURDAY and SUNDAY if empty
+     * @return registered value
+     */
+    public static DayValue<LocalDate> registerBusinessDate(String modifyPattern, String timeZoneId, String... weekends) {
+        List<DateModificator> modificators = DateModificator.compile(modifyPattern);
+        Set<DayOfWeek> weekendDays = DateUtil.parseWeekends(weekends);
+        return register("business|" + modifyPattern + '|' + weekendDays, timeZoneId, today -> DateUtil.getBusinessDateTime(
+                today.atStartOfDay(), DateModificator.modify(today, modificators).atStartOfDay(), weekendDays).toLocalDate());
+    }
+
+    /**
+     * Registers the current local date of the time zone modified according to the pattern and formatted
+     *
+     * @param formatPattern pattern with date fields only, see {@link DateUtil#FORMAT_HELP}
+     * @param modifyPattern pattern with date components only, see {@link DateUtil#MODIFY_HELP}
+     * @param timeZoneId    region id or offset, UTC if <code>null</code>
+     * @return registered value
+     */
+    public static DayValue<String> registerFormattedDate(String formatPattern, String modifyPattern, String timeZoneId) {
+        List<DateModificator> modificators = DateModificator.compile(modifyPattern);
+        DateTimeFormatter formatter = DateTimeUtility.getFormatter(formatPattern);
+        return register("format|" + formatPattern + '|' + modifyPattern, timeZoneId,
+                today -> formatter.format(DateModificator.modify(today, modificators)));
+    }
+
+    /**
+     * Registers a value computed from the current local date of the time zone.
+     * Values are identified by the key and the time zone, the value registered first is returned for the same identity.
+     *
+     * @param key        identity of the function
+     * @param timeZoneId region id or offset, UTC if <code>null</code>
+     * @param function   function of the local date, should not depend on anything else
+     * @return registered value
+     * @throws IllegalArgumentException if the function can't be computed for the current date
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> DayValue<T> register(String key, String timeZoneId, Function<LocalDate, T> function) {
+        Objects.requireNonNull(key, "key argument is null");
+        Objects.requireNonNull(function, "function argument is null");
+        ZoneId zoneId = timeZoneId == null ? ZoneOffset.UTC : DateTimeUtility.toZoneId(timeZoneId);
+        return (DayValue<T>)VALUES.computeIfAbsent(key + '|' + zoneId.getId(), identity -> {
+            DayValue<T> value = new DayValue<>(identity, zoneId, function);
+            try {
+                value.get();
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Can't compute " + key + " for the current date in " + zoneId, e);
+            }
+            schedule(value, 0);
+            return value;
+        });
+    }
+
+    /**
+     * @param modifyPattern
+     * @return value registered by {@link #registerDate(String)} or <code>null</code>
+     */
+    static DayValue<LocalDate> findDate(String modifyPattern) {
+        return hasDates ? DATES.get(modifyPattern) : null;
+    }
+
+    private static void schedule(DayValue<?> value, long delayMillis) {
+        scheduler().schedule(() -> prepare(value), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static void prepare(DayValue<?> value) {
+        long delay;
+        try {
+            Day<?> next = value.prepareNext(System.currentTimeMillis());
+            delay = next.endMillis - LEAD_MILLIS - System.currentTimeMillis();
+        } catch (RuntimeException e) {
+            logger.warn("Can't precompute next day value {}", value.identity, e);
+            delay = LEAD_MILLIS;
+        }
+        schedule(value, Math.max(delay, 0));
+    }
+
+    private static ScheduledExecutorService scheduler() {
+        ScheduledExecutorService scheduler = SCHEDULER.get();
+        if (scheduler == null) {
+            ScheduledExecutorService created = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "th2-lib-fix-midnight-rollover");
+                thread.setDaemon(true);
+                return thread;
+            });
+            if (SCHEDULER.compareAndSet(null, created)) {
+                scheduler = created;
+            } else {
+                created.shutdown();
+                scheduler = SCHEDULER.get();
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * Value of the current day in a time zone, thread-safe
+     *
+     * @param <T> type of the value
+     */
+    public static class DayValue<T> {
+        private final String identity;
+        private final ZoneId zoneId;
+        private final Function<LocalDate, T> function;
+        private final AtomicReference<Day<T>> current = new AtomicReference<>();
+
+        private DayValue(String identity, ZoneId zoneId, Function<LocalDate, T> function) {
+            this.identity = identity;
+            this.zoneId = zoneId;
+            this.function = function;
+        }
+
+        public ZoneId getZoneId() {
+            return zoneId;
+        }
+
+        /**
+         * @return value of the current day
+         */
+        public T get() {
+            return get(System.currentTimeMillis());
+        }
+
+        /**
+         * @param epochMillis the number of milliseconds since the epoch of 1970-01-01T00:00:00Z
+         * @return value of the day the instant belongs to in the time zone
+         */
+        public T get(long epochMillis) {
+            Day<T> day = current.get();
+            if (day != null) {
+                if (day.contains(epochMillis)) {
+                    return day.value;
+                }
+                Day<T> next = day.next;
+                if (next != null && next.contains(epochMillis)) {
+                    current.compareAndSet(day, next);
+                    return next.value;
+                }
+            }
+            Day<T> computed = compute(epochMillis);
+            if (day == null || computed.startMillis > day.startMillis) {
+                current.compareAndSet(day, computed);
+            }
+            return computed.value;
+        }
+
+        /**
+         * Computes the value of the day following the day of the instant unless it is already computed.
+         * The precomputed next day is promoted if no caller has swapped it in yet.
+         *
+         * @param epochMillis
+         * @return the next day
+         */
+        Day<T> prepareNext(long epochMillis) {
+            Day<T> day = current.get();
+            if (day == null || !day.contains(epochMillis)) {
+                Day<T> next = day == null ? null : day.next;
+                current.compareAndSet(day, next != null && next.contains(epochMillis) ? next : compute(epochMillis));
+                day = current.get();
+            }
+            Day<T> next = day.next;
+            if (next == null) {
+                next = compute(day.endMillis);
+                day.next = next;
+            }
+            return next;
+        }
+
+        private Day<T> compute(long epochMillis) {
+            LocalDate date = Instant.ofEpochMilli(epochMillis).atZone(zoneId).toLocalDate();
+            long startMillis = date.atStartOfDay(zoneId).toInstant().toEpochMilli();
+            long endMillis = date.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+            return new Day<>(startMillis, endMillis, function.apply(date));
+        }
+    }
+
+    private static class Day<T> {
+        private final long startMillis;
+        private final long endMillis;
+        private final T value;
+        private volatile Day<T> next;
+
+        private Day(long startMillis, long endMillis, T value) {
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.value = value;
+        }
+
+        private boolean contains(long epochMillis) {
+            return epochMillis >= startMillis && epochMillis < endMillis;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.lib.fix
+
+import com.exactpro.th2.lib.fix.data.DateModificator
+import java.time.ZoneId
+
+/**
+ * Modify pattern compiled once, e.g. <code>ModifyPattern.compile("D+1:h=10")</code>.
+ * Wraps the shared list of modificators, so compiling a cached pattern is a lookup.
+ */
+data class ModifyPattern(val modificators: List<DateModificator>) {
+
+    /**
+     * @return the timestamp (UTC) modified according to the pattern
+     */
+    operator fun invoke(timestamp: EpochNanos): EpochNanos =
+            EpochNanos(epochNanosModify(timestamp.value, modificators))
+
+    /**
+     * @return the timestamp (UTC) modified according to the pattern in the local date/time of the zone
+     */
+    fun modifyByZoneId(timestamp: EpochNanos, zone: ZoneId): EpochNanos =
+            EpochNanos(epochNanosModifyByZoneId(timestamp.value, modificators, zone))
+
+    companion object {
+        @JvmStatic
+        fun compile(modifyPattern: String): ModifyPattern = ModifyPattern(DateModificator.compile(modifyPattern))
+    }
+}
@@ -0,0 +1,306 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.th2.lib.fix.data.DateModificator;
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+import com.exactpro.th2.lib.fix.util.PatternValidator;
+import com.exactpro.th2.lib.fix.util.ValidationError;
+
+/**
+ * Startup warm-up of {@link DateUtil}: pre-compiles modify patterns, format patterns and time zone ids listed
+ * in a manifest and calls the hot utility methods with them on a background daemon thread,
+ * so the first test steps do not pay for pattern parsing, zone rules loading and JIT compilation.
+ * <p>
+ * Warm-up is started when {@link DateUtil} is loaded if the <code>th2.lib.fix.warmup.manifest</code> system property
+ * points to an existing manifest. If the <code>th2.lib.fix.warmup.record</code> property is set, the patterns
+ * cached by the end of the run are written to that path on JVM shutdown and can be used as the manifest of the next run.
+ * <p>
+ * Manifest is a UTF-8 text file with one <code>kind value</code> entry per line, where kind is <code>modify</code>,
+ * <code>format</code> or <code>zone</code>. Empty lines and lines starting with <code>#</code> are ignored,
+ * leading spaces of a line are skipped.
+ * <pre>
+ * modify D+1:h=10
+ * format yyyyMMdd-HH:mm:ss.SSS
+ * zone Europe/London
+ * </pre>
+ */
+public class WarmUp {
+    private static final Logger logger = LoggerFactory.getLogger(WarmUp.class);
+
+    public static final String MANIFEST_PROPERTY = "th2.lib.fix.warmup.manifest";
+    public static final String RECORD_PROPERTY = "th2.lib.fix.warmup.record";
+    public static final String ITERATIONS_PROPERTY = "th2.lib.fix.warmup.iterations";
+
+    private static final int ITERATIONS = Integer.getInteger(ITERATIONS_PROPERTY, 10_000);
+    private static final String MODIFY = "modify";
+    private static final String FORMAT = "format";
+    private static final String ZONE = "zone";
+    private static final String COMMENT = "#";
+    private static final AtomicBoolean CONFIGURED = new AtomicBoolean();
+
+    private static volatile int sink;
+
+    private WarmUp() {
+    }
+
+    /**
+     * Starts warm-up and registers manifest recording according to the system properties, only the first call has effect
+     */
+    static void startIfConfigured() {
+        if (!CONFIGURED.compareAndSet(false, true)) {
+            return;
+        }
+        String manifestPath = System.getProperty(MANIFEST_PROPERTY);
+        if (StringUtils.isNotBlank(manifestPath)) {
+            Path path = Paths.get(manifestPath);
+            if (Files.isRegularFile(path)) {
+                try {
+                    start(Manifest.read(path));
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Can't read warm-up manifest {}", path, e);
+                }
+            } else {
+                logger.info("Warm-up manifest {} does not exist", path);
+            }
+        }
+        String recordPath = System.getProperty(RECORD_PROPERTY);
+        if (StringUtils.isNotBlank(recordPath)) {
+            Path path = Paths.get(recordPath);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    Manifest.record().write(path);
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Can't write warm-up manifest {}", path, e);
+                }
+            }, "th2-lib-fix-warmup-record"));
+        }
+    }
+
+    /**
+     * Starts warm-up on a background daemon thread
+     *
+     * @param manifest
+     * @return started thread
+     */
+    public static Thread start(Manifest manifest) {
+        Thread thread = new Thread(() -> {
+            try {
+                run(manifest, ITERATIONS);
+            } catch (RuntimeException e) {
+                logger.warn("Warm-up failed", e);
+            }
+        }, "th2-lib-fix-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Compiles the manifest entries into the caches and calls the hot utility methods in the current thread.
+     * Invalid entries are logged and skipped.
+     *
+     * @param manifest
+     * @param iterations number of calls per kind of entries
+     */
+    public static void run(Manifest manifest, int iterations) {
+        long start = System.nanoTime();
+        Manifest valid = manifest.validate();
+        List<String> modifyPatterns = new ArrayList<>(valid.getModifyPatterns());
+        List<String> formatPatterns = new ArrayList<>(valid.getFormatPatterns());
+        List<String> zoneIds = new ArrayList<>(valid.getZoneIds());
+
+        DateUtil util = new DateUtil();
+        LocalDateTime now = DateTimeUtility.nowLocalDateTime();
+        boolean[] parseable = new boolean[formatPatterns.size()];
+        for (int i = 0; i < formatPatterns.size(); i++) {
+            try {
+                String formatPattern = formatPatterns.get(i);
+                util.toDateTime(util.formatDateTime(now, formatPattern), formatPattern);
+                parseable[i] = true;
+            } catch (RuntimeException e) {
+                logger.debug("Format pattern '{}' is not parseable back to date/time", formatPatterns.get(i), e);
+            }
+        }
+        int hash = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (!modifyPatterns.isEmpty()) {
+                String modifyPattern = modifyPatterns.get(i % modifyPatterns.size());
+                hash += util.modifyDateTime(now, modifyPattern).hashCode();
+                hash += util.getDateTime(modifyPattern).hashCode();
+            }
+            if (!formatPatterns.isEmpty()) {
+                int index = i % formatPatterns.size();
+                String formatPattern = formatPatterns.get(index);
+                String formatted = util.formatDateTime(now, formatPattern);
+                hash += formatted.hashCode();
+                if (parseable[index]) {
+                    hash += util.toDateTime(formatted, formatPattern).hashCode();
+                }
+            }
+            if (!zoneIds.isEmpty()) {
+                String zoneId = zoneIds.get(i % zoneIds.size());
+                String modifyPattern = modifyPatterns.isEmpty() ? "" : modifyPatterns.get(i % modifyPatterns.size());
+                hash += util.modifyDateTimeByZoneId(now, modifyPattern, zoneId).hashCode();
+            }
+        }
+        sink = hash;
+        logger.info("Warm-up of {} modify patterns, {} format patterns and {} zone ids took {} ms",
+                modifyPatterns.size(), formatPatterns.size(), zoneIds.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Modify patterns, format patterns and time zone ids to warm up
+     */
+    public static final class Manifest {
+        private final Set<String> modifyPatterns;
+        private final Set<String> formatPatterns;
+        private final Set<String> zoneIds;
+
+        private Manifest(Set<String> modifyPatterns, Set<String> formatPatterns, Set<String> zoneIds) {
+            this.modifyPatterns = Collections.unmodifiableSet(modifyPatterns);
+            this.formatPatterns = Collections.unmodifiableSet(formatPatterns);
+            this.zoneIds = Collections.unmodifiableSet(zoneIds);
+        }
+
+        public static Manifest of(Collection<String> modifyPatterns, Collection<String> formatPatterns, Collection<String> zoneIds) {
+            return new Manifest(new LinkedHashSet<>(modifyPatterns), new LinkedHashSet<>(formatPatterns), new LinkedHashSet<>(zoneIds));
+        }
+
+        /**
+         * @return patterns and zone ids currently cached by the library
+         */
+        public static Manifest record() {
+            return new Manifest(new TreeSet<>(DateModificator.getCachedPatterns()),
+                    new TreeSet<>(DateTimeUtility.getCachedFormatPatterns()),
+                    new TreeSet<>(DateTimeUtility.getCachedZoneIds()));
+        }
+
+        public static Manifest read(Path path) throws IOException {
+            Set<String> modifyPatterns = new LinkedHashSet<>();
+            Set<String> formatPatterns = new LinkedHashSet<>();
+            Set<String> zoneIds = new LinkedHashSet<>();
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (StringUtils.isBlank(line) || line.trim().startsWith(COMMENT)) {
+                    continue;
+                }
+                // the value is kept as is after the first space following the kind, format patterns may have leading spaces
+                String entry = StringUtils.stripStart(line, null);
+                int separator = entry.indexOf(' ');
+                String kind = separator < 0 ? entry.trim() : entry.substring(0, separator);
+                String value = separator < 0 ? "" : entry.substring(separator + 1);
+                switch (kind) {
+                case MODIFY:
+                    modifyPatterns.add(value);
+                    break;
+                case FORMAT:
+                    formatPatterns.add(value);
+                    break;
+                case ZONE:
+                    zoneIds.add(value.trim());
+                    break;
+                default:
+                    logger.warn("Unknown warm-up manifest entry at {}:{}: '{}'", path, i + 1, line);
+                    break;
+                }
+            }
+            return new Manifest(modifyPatterns, formatPatterns, zoneIds);
+        }
+
+        /**
+         * Invalid entries are logged and skipped
+         *
+         * @return manifest of the valid entries
+         */
+        Manifest validate() {
+            Set<String> validModifyPatterns = new LinkedHashSet<>();
+            for (String pattern : modifyPatterns) {
+                add(validModifyPatterns, pattern, PatternValidator.validateModifyPattern(pattern));
+            }
+            Set<String> validFormatPatterns = new LinkedHashSet<>();
+            for (String pattern : formatPatterns) {
+                add(validFormatPatterns, pattern, PatternValidator.validateFormatPattern(pattern));
+            }
+            Set<String> validZoneIds = new LinkedHashSet<>();
+            for (String zoneId : zoneIds) {
+                add(validZoneIds, zoneId, PatternValidator.validateZoneId(zoneId));
+            }
+            return new Manifest(validModifyPatterns, validFormatPatterns, validZoneIds);
+        }
+
+        private static void add(Set<String> valid, String value, ValidationError error) {
+            if (error == null) {
+                valid.add(value);
+            } else {
+                logger.warn("Invalid warm-up manifest entry: {}", error.getMessage());
+            }
+        }
+
+        public void write(Path path) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                write(writer, MODIFY, modifyPatterns);
+                write(writer, FORMAT, formatPatterns);
+                write(writer, ZONE, zoneIds);
+            }
+        }
+
+        private static void write(BufferedWriter writer, String kind, Set<String> values) throws IOException {
+            for (String value : values) {
+                if (value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                    writer.write(kind);
+                    writer.write(' ');
+                    writer.write(value);
+                    writer.newLine();
+                }
+            }
+        }
+
+        public Set<String> getModifyPatterns() {
+            return modifyPatterns;
+        }
+
+        public Set<String> getFormatPatterns() {
+            return formatPatterns;
+        }
+
+        public Set<String> getZoneIds() {
+            return zoneIds;
+        }
+    }
+}
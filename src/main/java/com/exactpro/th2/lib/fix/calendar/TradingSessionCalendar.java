@@ -0,0 +1,359 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.calendar;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+import com.exactpro.th2.lib.fix.util.WeekendMask;
+
+/**
+ * Trading sessions of a venue: daily windows in the local time of the venue's zone, per day of week windows,
+ * half-days, holidays and weekends.
+ * <p>
+ * A window whose close time is before its open time is an overnight session, it ends on the next local date,
+ * e.g. <code>17:00-16:00</code>. Sessions belong to the date they open on, so weekends, holidays and half-days
+ * of the opening date apply to them.
+ * <p>
+ * Sessions of the calendar range are converted to epoch milliseconds with the zone rules (DST aware, a local time
+ * in a gap is moved forward) and stored as sorted arrays of starts and ends, so membership and next open/close
+ * queries are binary searches. The calendar is immutable and thread-safe.
+ * <pre>
+ * TradingSessionCalendar calendar = TradingSessionCalendar.builder()
+ *         .timeZoneId("Europe/London")
+ *         .sessions("08:00-12:00,12:02-16:30")
+ *         .halfDay(LocalDate.of(2026, 12, 24), LocalTime.of(12, 30))
+ *         .holidays(LocalDate.of(2026, 12, 25), LocalDate.of(2026, 12, 28))
+ *         .build();
+ * boolean open = calendar.isOpen(System.currentTimeMillis());
+ * </pre>
+ */
+public class TradingSessionCalendar {
+
+    /**
+     * Returned by next open/close queries if there is no boundary in the calendar range
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    public static final int DEFAULT_DAYS_BEFORE = 366;
+    public static final int DEFAULT_DAYS_AFTER = 732;
+
+    private static final String SESSION_SEPARATOR = ",";
+    private static final String DATE_SEPARATOR = ",";
+    private static final String TIME_SEPARATOR = "-";
+
+    private final ZoneId zoneId;
+    private final long rangeStart;
+    private final long rangeEnd;
+    private final long[] starts;
+    private final long[] ends;
+
+    private TradingSessionCalendar(ZoneId zoneId, long rangeStart, long rangeEnd, long[] starts, long[] ends) {
+        this.zoneId = zoneId;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    public int getSessionCount() {
+        return starts.length;
+    }
+
+    /**
+     * @return epoch milliseconds of the first instant of the calendar range
+     */
+    public long getRangeStart() {
+        return rangeStart;
+    }
+
+    /**
+     * @return epoch milliseconds of the instant after the calendar range
+     */
+    public long getRangeEnd() {
+        return rangeEnd;
+    }
+
+    /**
+     * @param epochMillis
+     * @return <code>true</code> if the calendar range includes the instant
+     */
+    public boolean covers(long epochMillis) {
+        return epochMillis >= rangeStart && epochMillis < rangeEnd;
+    }
+
+    /**
+     * @param epochMillis
+     * @return <code>true</code> if a session includes the instant (start inclusive, end exclusive)
+     * @throws IllegalArgumentException if the instant is out of the calendar range
+     */
+    public boolean isOpen(long epochMillis) {
+        checkRange(epochMillis);
+        int index = lastStartAtOrBefore(epochMillis);
+        return index >= 0 && epochMillis < ends[index];
+    }
+
+    /**
+     * @param epochMillis
+     * @return start of the first session after the instant or {@link #NONE}
+     * @throws IllegalArgumentException if the instant is out of the calendar range
+     */
+    public long nextOpen(long epochMillis) {
+        checkRange(epochMillis);
+        int index = lastStartAtOrBefore(epochMillis) + 1;
+        return index < starts.length ? starts[index] : NONE;
+    }
+
+    /**
+     * @param epochMillis
+     * @return end of the current session or the next one if the calendar is closed at the instant, {@link #NONE} if there is no such session
+     * @throws IllegalArgumentException if the instant is out of the calendar range
+     */
+    public long nextClose(long epochMillis) {
+        checkRange(epochMillis);
+        int index = Arrays.binarySearch(ends, epochMillis);
+        index = index < 0 ? -index - 1 : index + 1;
+        return index < ends.length ? ends[index] : NONE;
+    }
+
+    /**
+     * @param dateTime LocalDateTime (UTC)
+     */
+    public boolean isOpen(LocalDateTime dateTime) {
+        return isOpen(DateTimeUtility.getMillisecond(dateTime));
+    }
+
+    /**
+     * @param dateTime LocalDateTime (UTC)
+     * @return LocalDateTime (UTC) or <code>null</code>
+     */
+    public LocalDateTime nextOpen(LocalDateTime dateTime) {
+        return toLocalDateTime(nextOpen(DateTimeUtility.getMillisecond(dateTime)));
+    }
+
+    /**
+     * @param dateTime LocalDateTime (UTC)
+     * @return LocalDateTime (UTC) or <code>null</code>
+     */
+    public LocalDateTime nextClose(LocalDateTime dateTime) {
+        return toLocalDateTime(nextClose(DateTimeUtility.getMillisecond(dateTime)));
+    }
+
+    private int lastStartAtOrBefore(long epochMillis) {
+        int index = Arrays.binarySearch(starts, epochMillis);
+        return index < 0 ? -index - 2 : index;
+    }
+
+    private void checkRange(long epochMillis) {
+        if (!covers(epochMillis)) {
+            throw new IllegalArgumentException("Instant " + Instant.ofEpochMilli(epochMillis) + " is out of the calendar range ["
+                    + Instant.ofEpochMilli(rangeStart) + ", " + Instant.ofEpochMilli(rangeEnd) + ")");
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return epochMillis == NONE ? null : DateTimeUtility.toLocalDateTime(epochMillis);
+    }
+
+    public static class Builder {
+        private ZoneId zoneId = ZoneOffset.UTC;
+        private final List<LocalTime[]> sessions = new ArrayList<>();
+        private final Map<DayOfWeek, List<LocalTime[]>> daySessions = new EnumMap<>(DayOfWeek.class);
+        private final Map<LocalDate, LocalTime> halfDays = new HashMap<>();
+        private final Set<LocalDate> holidays = new HashSet<>();
+        private int weekendMask = WeekendMask.SATURDAY_SUNDAY;
+        private LocalDate from;
+        private LocalDate to;
+
+        private Builder() {
+        }
+
+        public Builder timeZoneId(String timeZoneId) {
+            this.zoneId = DateTimeUtility.toZoneId(timeZoneId);
+            return this;
+        }
+
+        /**
+         * Adds a daily session window in local time
+         *
+         * @param open  open time
+         * @param close close time, the next day's time if it is before the open time
+         */
+        public Builder session(LocalTime open, LocalTime close) {
+            sessions.add(window(open, close));
+            return this;
+        }
+
+        /**
+         * Adds daily session windows in local time
+         *
+         * @param sessions windows separated by <code>,</code>, e.g. <code>08:00-12:00,12:02-16:30</code>
+         */
+        public Builder sessions(String sessions) {
+            for (String session : StringUtils.split(sessions, SESSION_SEPARATOR)) {
+                String[] times = StringUtils.split(session, TIME_SEPARATOR);
+                if (times.length != 2) {
+                    throw new IllegalArgumentException("Invalid session format: '" + session + "' in '" + sessions + "'. Expected HH:mm-HH:mm");
+                }
+                session(LocalTime.parse(times[0].trim()), LocalTime.parse(times[1].trim()));
+            }
+            return this;
+        }
+
+        /**
+         * Adds a session window for the day of week, daily windows aren't used for this day
+         */
+        public Builder session(DayOfWeek dayOfWeek, LocalTime open, LocalTime close) {
+            daySessions.computeIfAbsent(dayOfWeek, key -> new ArrayList<>()).add(window(open, close));
+            return this;
+        }
+
+        /**
+         * Closes the sessions opening on the date at the close time of the date
+         */
+        public Builder halfDay(LocalDate date, LocalTime close) {
+            halfDays.put(Objects.requireNonNull(date, "date argument is null"), Objects.requireNonNull(close, "close argument is null"));
+            return this;
+        }
+
+        public Builder holidays(LocalDate... dates) {
+            holidays.addAll(Arrays.asList(dates));
+            return this;
+        }
+
+        public Builder holidays(Iterable<LocalDate> dates) {
+            dates.forEach(holidays::add);
+            return this;
+        }
+
+        /**
+         * @param dates ISO dates separated by <code>,</code>, e.g. <code>2026-12-25,2026-12-28</code>
+         */
+        public Builder holidays(String dates) {
+            for (String date : StringUtils.split(dates, DATE_SEPARATOR)) {
+                holidays.add(LocalDate.parse(date.trim()));
+            }
+            return this;
+        }
+
+        /**
+         * @param weekends day of week names, Saturday and Sunday by default
+         */
+        public Builder weekends(String... weekends) {
+            this.weekendMask = WeekendMask.parse(weekends);
+            return this;
+        }
+
+        /**
+         * Sets the calendar range in local dates, by default from {@link #DEFAULT_DAYS_BEFORE} days before today
+         * to {@link #DEFAULT_DAYS_AFTER} days after today
+         *
+         * @param from first date, inclusive
+         * @param to   last date, exclusive
+         */
+        public Builder range(LocalDate from, LocalDate to) {
+            if (!to.isAfter(from)) {
+                throw new IllegalArgumentException("Range end " + to + " should be after range start " + from);
+            }
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+
+        public TradingSessionCalendar build() {
+            if (sessions.isEmpty() && daySessions.isEmpty()) {
+                throw new IllegalStateException("No sessions are specified");
+            }
+            LocalDate today = LocalDate.now(zoneId);
+            LocalDate first = from == null ? today.minusDays(DEFAULT_DAYS_BEFORE) : from;
+            LocalDate last = to == null ? today.plusDays(DEFAULT_DAYS_AFTER) : to;
+
+            long rangeStart = toEpochMillis(first, LocalTime.MIDNIGHT);
+            long rangeEnd = toEpochMillis(last, LocalTime.MIDNIGHT);
+
+            List<long[]> intervals = new ArrayList<>();
+            // the day before the range is included for its overnight sessions
+            for (LocalDate date = first.minusDays(1); date.isBefore(last); date = date.plusDays(1)) {
+                if (holidays.contains(date) || WeekendMask.isWeekend(weekendMask, date.getDayOfWeek().getValue())) {
+                    continue;
+                }
+                LocalTime halfDayClose = halfDays.get(date);
+                for (LocalTime[] window : daySessions.getOrDefault(date.getDayOfWeek(), sessions)) {
+                    long start = toEpochMillis(date, window[0]);
+                    long end = toEpochMillis(window[1].isBefore(window[0]) ? date.plusDays(1) : date, window[1]);
+                    if (halfDayClose != null) {
+                        end = Math.min(end, toEpochMillis(date, halfDayClose));
+                    }
+                    if (end > start && end > rangeStart) {
+                        intervals.add(new long[] { start, end });
+                    }
+                }
+            }
+            intervals.sort((left, right) -> Long.compare(left[0], right[0]));
+
+            long[] starts = new long[intervals.size()];
+            long[] ends = new long[intervals.size()];
+            int count = 0;
+            for (long[] interval : intervals) {
+                if (count > 0 && interval[0] <= ends[count - 1]) {
+                    ends[count - 1] = Math.max(ends[count - 1], interval[1]);
+                } else {
+                    starts[count] = interval[0];
+                    ends[count] = interval[1];
+                    count++;
+                }
+            }
+            return new TradingSessionCalendar(zoneId, rangeStart, rangeEnd, Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+        }
+
+        private long toEpochMillis(LocalDate date, LocalTime time) {
+            return ZonedDateTime.of(date, time, zoneId).toInstant().toEpochMilli();
+        }
+
+        private static LocalTime[] window(LocalTime open, LocalTime close) {
+            if (close.equals(open)) {
+                throw new IllegalArgumentException("Close time " + close + " should differ from open time " + open);
+            }
+            return new LocalTime[] { open, close };
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+
+import com.exactpro.th2.lib.fix.util.EpochDays;
+
+/**
+ * Allocation-free parsing and formatting of FIX date, time and offset parts in ASCII buffers
+ */
+final class FixFields {
+
+    static final int NO_OFFSET = Integer.MIN_VALUE;
+    static final int MAX_FRACTION_DIGITS = 9;
+    static final int MAX_PARSED_FRACTION_DIGITS = 12;
+    static final int DATE_LENGTH = 8;
+    static final long NANOS_PER_MINUTE = 60 * NANOS_PER_SECOND;
+    static final long NANOS_PER_HOUR = 60 * NANOS_PER_MINUTE;
+
+    private static final int MAX_OFFSET_HOURS = 18;
+    private static final int LEAP_SECOND = 60;
+    private static final int BUFFER_SIZE = 64;
+    private static final long[] FRACTION_SCALE = {
+            1_000_000_000, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+    };
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    private FixFields() {
+    }
+
+    /**
+     * Copies ASCII characters into a thread local buffer, non ASCII characters are replaced by <code>?</code>
+     */
+    static byte[] toBytes(CharSequence source) {
+        int length = source.length();
+        byte[] buffer = length <= BUFFER_SIZE ? BUFFER.get() : new byte[length];
+        for (int i = 0; i < length; i++) {
+            char symbol = source.charAt(i);
+            buffer[i] = symbol < 0x80 ? (byte)symbol : (byte)'?';
+        }
+        return buffer;
+    }
+
+    static byte[] buffer() {
+        return BUFFER.get();
+    }
+
+    static String toString(byte[] buffer, int length) {
+        return new String(buffer, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    static DateTimeParseException error(String message, byte[] source, int offset, int length, int index) {
+        String text = new String(source, offset, length, StandardCharsets.US_ASCII);
+        return new DateTimeParseException(message + ": '" + text + "' at index " + (index - offset), text, index - offset);
+    }
+
+    static int parseDigits(byte[] source, int index, int count, int offset, int length) {
+        if (index + count > offset + length) {
+            throw error("Unexpected end of value", source, offset, length, offset + length);
+        }
+        int value = 0;
+        for (int i = index; i < index + count; i++) {
+            int digit = source[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw error("Digit expected", source, offset, length, i);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    static void expect(byte[] source, int index, char symbol, int offset, int length) {
+        if (index >= offset + length) {
+            throw error("'" + symbol + "' expected but value ended", source, offset, length, offset + length);
+        }
+        if (source[index] != symbol) {
+            throw error("'" + symbol + "' expected", source, offset, length, index);
+        }
+    }
+
+    static int checkRange(int value, int min, int max, String field, byte[] source, int index, int offset, int length) {
+        if (value < min || value > max) {
+            throw error(field + " should be in range [" + min + ", " + max + "]", source, offset, length, index);
+        }
+        return value;
+    }
+
+    /**
+     * Parses <code>YYYYMMDD</code>
+     *
+     * @return epoch day
+     */
+    static long parseDate(byte[] source, int index, int offset, int length) {
+        int year = parseDigits(source, index, 4, offset, length);
+        int month = checkRange(parseDigits(source, index + 4, 2, offset, length), 1, 12, "Month", source, index + 4, offset, length);
+        int day = checkRange(parseDigits(source, index + 6, 2, offset, length), 1, EpochDays.lengthOfMonth(year, month), "Day", source, index + 6, offset, length);
+        return EpochDays.of(year, month, day);
+    }
+
+    /**
+     * @return index of the first character after <code>HH:MM[:SS[.s...]]</code> starting from index
+     */
+    static int timeEnd(byte[] source, int index, int end) {
+        while (index < end) {
+            byte symbol = source[index];
+            if ((symbol < '0' || symbol > '9') && symbol != ':' && symbol != '.') {
+                break;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Parses <code>HH:MM[:SS[.s...]]</code> between index and end, fraction digits beyond nanoseconds are truncated.
+     * Second <code>60</code> (UTC leap second allowed by FIX) is parsed as <code>59</code> keeping the fraction
+     * like {@link java.time.format.DateTimeFormatter#ISO_INSTANT} does, so the value stays within the same minute and day.
+     *
+     * @return nano of day
+     */
+    static long parseTime(byte[] source, int index, int end, int offset, int length) {
+        return parseTime(source, index, end, offset, length, true);
+    }
+
+    /**
+     * @param leapSecond <code>true</code> to accept second <code>60</code>, see {@link #parseTime(byte[], int, int, int, int)}
+     * @return nano of day
+     */
+    static long parseTime(byte[] source, int index, int end, int offset, int length, boolean leapSecond) {
+        int hour = checkRange(parseDigits(source, index, 2, offset, length), 0, 23, "Hour", source, index, offset, length);
+        expect(source, index + 2, ':', offset, length);
+        int minute = checkRange(parseDigits(source, index + 3, 2, offset, length), 0, 59, "Minute", source, index + 3, offset, length);
+        long nanoOfDay = hour * NANOS_PER_HOUR + minute * NANOS_PER_MINUTE;
+        int position = index + 5;
+        if (position < end) {
+            expect(source, position, ':', offset, length);
+            int second = checkRange(parseDigits(source, position + 1, 2, offset, length), 0, leapSecond ? LEAP_SECOND : LEAP_SECOND - 1,
+                    "Second", source, position + 1, offset, length);
+            second = Math.min(second, LEAP_SECOND - 1);
+            nanoOfDay += second * NANOS_PER_SECOND;
+            position += 3;
+            if (position < end) {
+                expect(source, position, '.', offset, length);
+                int digits = end - position - 1;
+                if (digits < 1 || digits > MAX_PARSED_FRACTION_DIGITS) {
+                    throw error("Fraction of second should have from 1 to " + MAX_PARSED_FRACTION_DIGITS + " digits", source, offset, length, position + 1);
+                }
+                int significant = Math.min(digits, MAX_FRACTION_DIGITS);
+                nanoOfDay += parseDigits(source, position + 1, significant, offset, length) * FRACTION_SCALE[significant];
+                if (digits > significant) {
+                    parseDigits(source, position + 1 + significant, digits - significant, offset, length);
+                }
+            }
+        }
+        return nanoOfDay;
+    }
+
+    /**
+     * Parses <code>Z</code>, <code>+hh</code>, <code>-hh</code>, <code>+hh:mm</code> or <code>-hh:mm</code> between index and end
+     *
+     * @return offset in seconds or {@link #NO_OFFSET} if index equals end
+     */
+    static int parseOffset(byte[] source, int index, int end, int offset, int length) {
+        if (index == end) {
+            return NO_OFFSET;
+        }
+        byte sign = source[index];
+        if (sign == 'Z') {
+            if (end - index != 1) {
+                throw error("Unexpected character after 'Z'", source, offset, length, index + 1);
+            }
+            return 0;
+        }
+        if (sign != '+' && sign != '-') {
+            throw error("Offset expected", source, offset, length, index);
+        }
+        int hours = checkRange(parseDigits(source, index + 1, 2, offset, length), 0, MAX_OFFSET_HOURS, "Offset hours", source, index + 1, offset, length);
+        int minutes = 0;
+        if (end - index == 6) {
+            expect(source, index + 3, ':', offset, length);
+            minutes = checkRange(parseDigits(source, index + 4, 2, offset, length), 0, 59, "Offset minutes", source, index + 4, offset, length);
+        } else if (end - index != 3) {
+            throw error("Offset should be in format +hh or +hh:mm", source, offset, length, index);
+        }
+        int seconds = hours * 3600 + minutes * 60;
+        if (seconds > MAX_OFFSET_HOURS * 3600) {
+            throw error("Offset is out of range", source, offset, length, index);
+        }
+        return sign == '-' ? -seconds : seconds;
+    }
+
+    static int writeDigits(long value, int count, byte[] destination, int index) {
+        for (int i = index + count - 1; i >= index; i--) {
+            destination[i] = (byte)('0' + value % 10);
+            value /= 10;
+        }
+        return index + count;
+    }
+
+    /**
+     * Writes <code>YYYYMMDD</code>
+     */
+    static int writeDate(long epochDay, byte[] destination, int index) {
+        int date = EpochDays.toPackedDate(epochDay);
+        if (date < 0 || date > 99_991_231) {
+            throw new IllegalArgumentException("Year is out of range [0, 9999] for epoch day " + epochDay);
+        }
+        return writeDigits(date, DATE_LENGTH, destination, index);
+    }
+
+    /**
+     * Writes <code>HH:MM:SS[.s...]</code>
+     */
+    static int writeTime(long nanoOfDay, int fractionDigits, byte[] destination, int index) {
+        checkFractionDigits(fractionDigits);
+        index = writeDigits(nanoOfDay / NANOS_PER_HOUR, 2, destination, index);
+        destination[index++] = ':';
+        index = writeDigits(nanoOfDay / NANOS_PER_MINUTE % 60, 2, destination, index);
+        destination[index++] = ':';
+        index = writeDigits(nanoOfDay / NANOS_PER_SECOND % 60, 2, destination, index);
+        if (fractionDigits > 0) {
+            destination[index++] = '.';
+            index = writeDigits(nanoOfDay % NANOS_PER_SECOND / FRACTION_SCALE[fractionDigits], fractionDigits, destination, index);
+        }
+        return index;
+    }
+
+    /**
+     * Writes <code>Z</code>, <code>+hh</code> or <code>+hh:mm</code>
+     */
+    static int writeOffset(int offsetSeconds, byte[] destination, int index) {
+        checkOffset(offsetSeconds);
+        if (offsetSeconds == 0) {
+            destination[index++] = 'Z';
+            return index;
+        }
+        destination[index++] = (byte)(offsetSeconds < 0 ? '-' : '+');
+        int absolute = Math.abs(offsetSeconds);
+        index = writeDigits(absolute / 3600, 2, destination, index);
+        int minutes = absolute / 60 % 60;
+        if (minutes != 0) {
+            destination[index++] = ':';
+            index = writeDigits(minutes, 2, destination, index);
+        }
+        return index;
+    }
+
+    static void checkFractionDigits(int fractionDigits) {
+        if (fractionDigits < 0 || fractionDigits > MAX_FRACTION_DIGITS) {
+            throw new IllegalArgumentException("Fraction digits should be in range [0, " + MAX_FRACTION_DIGITS + "]: " + fractionDigits);
+        }
+    }
+
+    static void checkOffset(int offsetSeconds) {
+        if (offsetSeconds % 60 != 0 || Math.abs(offsetSeconds) > MAX_OFFSET_HOURS * 3600) {
+            throw new IllegalArgumentException("Offset should be a whole number of minutes in range [-18:00, +18:00]: " + offsetSeconds);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_DAY;
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.time.format.DateTimeParseException;
+
+import com.exactpro.th2.lib.fix.util.EpochDays;
+
+/**
+ * Batch decoder of fixed-width <code>UTCTimestamp</code> values (e.g. <code>yyyyMMdd-HH:mm:ss.SSS</code>) laid out
+ * with a constant stride in a buffer into epoch nanoseconds.
+ * <p>
+ * Date and time digits are validated and converted eight at a time as SIMD within a register (one <code>long</code>),
+ * consecutive values of the same date reuse the epoch day. Values which don't pass the fast validation are decoded
+ * by the scalar {@link UTCTimestampCodec} path, so the results and errors are the same as of the scalar path.
+ * The fast path is disabled by the <code>th2.lib.fix.swar.enabled=false</code> system property.
+ */
+public final class FixedWidthTimestampDecoder {
+
+    public static final String SWAR_ENABLED_PROPERTY = "th2.lib.fix.swar.enabled";
+
+    private static final boolean SWAR_ENABLED = Boolean.parseBoolean(System.getProperty(SWAR_ENABLED_PROPERTY, "true"));
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ZEROS = 0x3030303030303030L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long NINE_TO_HIGH = 0x4646464646464646L;
+    private static final long COLONS = 0x0000_3A00_003A_0000L;
+    private static final long COLON_MASK = 0x0000_FF00_00FF_0000L;
+    private static final long COLON_TO_ZERO = 0x0000_0A00_000A_0000L;
+    private static final int TIME_OFFSET = 9;
+    /**
+     * Years whose values are surely within epoch nanoseconds range
+     */
+    private static final int MIN_YEAR = 1678;
+    private static final int MAX_YEAR = 2261;
+    private static final long[] FRACTION_SCALE = { 1_000_000_000, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1 };
+
+    private FixedWidthTimestampDecoder() {
+    }
+
+    public static boolean isSwarEnabled() {
+        return SWAR_ENABLED;
+    }
+
+    /**
+     * @param source            buffer with values
+     * @param offset            offset of the first value
+     * @param stride            distance between starts of values, not less than the value length
+     * @param count             number of values
+     * @param fractionDigits    number of fraction of second digits of every value from 0 to 9
+     * @param destination       destination of epoch nanoseconds
+     * @param destinationOffset destination offset
+     * @throws DateTimeParseException if a value is invalid
+     */
+    public static void decode(byte[] source, int offset, int stride, int count, int fractionDigits, long[] destination, int destinationOffset) {
+        int length = UTCTimestampCodec.length(fractionDigits);
+        checkBounds(source, offset, stride, count, length, destination, destinationOffset);
+        if (!SWAR_ENABLED) {
+            decodeScalar(source, offset, stride, count, fractionDigits, destination, destinationOffset);
+            return;
+        }
+        int cachedDate = -1;
+        long cachedDayNanos = 0;
+        for (int i = 0; i < count; i++) {
+            int index = offset + i * stride;
+            long date = (long)LONG_LE.get(source, index);
+            long time = (long)LONG_LE.get(source, index + TIME_OFFSET);
+            int fraction = fractionDigits == 0 ? 0 : parseFraction(source, index + UTCTimestampCodec.MIN_LENGTH, fractionDigits);
+            if (source[index + FixFields.DATE_LENGTH] != '-' || !isDigits(date) || (time & COLON_MASK) != COLONS || !isDigits(time ^ COLON_TO_ZERO) || fraction < 0) {
+                destination[destinationOffset + i] = UTCTimestampCodec.parseEpochNanos(source, index, length);
+                continue;
+            }
+            int packedDate = (int)toNumber(date);
+            if (packedDate != cachedDate) {
+                int year = EpochDays.year(packedDate);
+                int month = EpochDays.month(packedDate);
+                int day = EpochDays.day(packedDate);
+                if (year < MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12 || day < 1 || day > EpochDays.lengthOfMonth(year, month)) {
+                    destination[destinationOffset + i] = UTCTimestampCodec.parseEpochNanos(source, index, length);
+                    continue;
+                }
+                cachedDate = packedDate;
+                cachedDayNanos = EpochDays.of(year, month, day) * NANOS_PER_DAY;
+            }
+            long pairs = toPairs(time ^ COLON_TO_ZERO);
+            int hour = (int)(pairs & 0xFF);
+            int minute = (int)(pairs >>> 24 & 0xFF);
+            int second = (int)(pairs >>> 48 & 0xFF);
+            if (hour > 23 || minute > 59 || second > 59) {
+                destination[destinationOffset + i] = UTCTimestampCodec.parseEpochNanos(source, index, length);
+                continue;
+            }
+            destination[destinationOffset + i] = cachedDayNanos + ((hour * 60L + minute) * 60 + second) * NANOS_PER_SECOND + fraction * FRACTION_SCALE[fractionDigits];
+        }
+    }
+
+    /**
+     * Decodes every value with {@link UTCTimestampCodec#parseEpochNanos(byte[], int, int)}
+     *
+     * @see #decode(byte[], int, int, int, int, long[], int)
+     */
+    public static void decodeScalar(byte[] source, int offset, int stride, int count, int fractionDigits, long[] destination, int destinationOffset) {
+        int length = UTCTimestampCodec.length(fractionDigits);
+        checkBounds(source, offset, stride, count, length, destination, destinationOffset);
+        for (int i = 0; i < count; i++) {
+            destination[destinationOffset + i] = UTCTimestampCodec.parseEpochNanos(source, offset + i * stride, length);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if all bytes are ASCII digits
+     */
+    private static boolean isDigits(long value) {
+        return ((value + NINE_TO_HIGH | value - ZEROS | value) & HIGH_BITS) == 0;
+    }
+
+    /**
+     * @return number of eight ASCII digits, the first digit is the lowest byte
+     */
+    private static long toNumber(long value) {
+        long pairs = toPairs(value) & 0x00FF_00FF_00FF_00FFL;
+        long quads = pairs * 100 + (pairs >>> 16) & 0x0000_FFFF_0000_FFFFL;
+        return quads * 10_000 + (quads >>> 32) & 0xFFFF_FFFFL;
+    }
+
+    /**
+     * @return byte <code>i</code> is <code>digit(i) * 10 + digit(i + 1)</code>
+     */
+    private static long toPairs(long value) {
+        long digits = value - ZEROS;
+        return digits * 10 + (digits >>> 8);
+    }
+
+    /**
+     * @return fraction value or -1 if the fraction is invalid
+     */
+    private static int parseFraction(byte[] source, int index, int digits) {
+        if (source[index] != '.') {
+            return -1;
+        }
+        int value = 0;
+        for (int i = index + 1; i <= index + digits; i++) {
+            int digit = source[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void checkBounds(byte[] source, int offset, int stride, int count, int length, long[] destination, int destinationOffset) {
+        if (stride < length) {
+            throw new IllegalArgumentException("Stride " + stride + " is less than value length " + length);
+        }
+        if (count < 0 || offset < 0 || count > 0 && (long)offset + (long)(count - 1) * stride + length > source.length) {
+            throw new IndexOutOfBoundsException("Values are out of source bounds: offset " + offset + ", stride " + stride + ", count " + count);
+        }
+        if (destinationOffset < 0 || (long)destinationOffset + count > destination.length) {
+            throw new IndexOutOfBoundsException("Values are out of destination bounds: offset " + destinationOffset + ", count " + count);
+        }
+    }
+}
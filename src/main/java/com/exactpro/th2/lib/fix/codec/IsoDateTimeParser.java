@@ -0,0 +1,111 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import com.exactpro.th2.lib.fix.util.EpochDays;
+import com.exactpro.th2.lib.fix.util.PatternCache;
+
+/**
+ * Parser of the common ISO-8601 date/time forms accepted by {@link DateTimeFormatter#ISO_ZONED_DATE_TIME}:
+ * <code>yyyy-MM-ddTHH:mm[:ss[.fffffffff]]{Z|&plusmn;HH:MM[:SS]}[[Region]]</code>, e.g. <code>2026-01-01T09:30:00.123+05:30[Asia/Kolkata]</code>.
+ * <p>
+ * The value is converted to nanoseconds since the epoch using the offset, the region id is only validated like
+ * {@link java.time.ZonedDateTime#parse(CharSequence)} does. Other forms (extended years, lower case separators) are rejected.
+ */
+public final class IsoDateTimeParser {
+
+    private static final PatternCache<ZoneId> REGIONS = new PatternCache<>(ZoneId::of);
+    private static final int DATE_TIME_LENGTH = 16;
+
+    private IsoDateTimeParser() {
+    }
+
+    /**
+     * @return nanoseconds since the epoch
+     * @throws DateTimeParseException   if the value has unsupported form or is invalid
+     * @throws java.time.DateTimeException if the region id is unknown
+     * @throws ArithmeticException      if the value is out of epoch nanoseconds range
+     */
+    public static long parseEpochNanos(byte[] source, int offset, int length) {
+        int end = offset + length;
+        if (length < DATE_TIME_LENGTH + 1) {
+            throw FixFields.error("Value is too short", source, offset, length, end);
+        }
+        int year = FixFields.parseDigits(source, offset, 4, offset, length);
+        FixFields.expect(source, offset + 4, '-', offset, length);
+        int month = FixFields.checkRange(FixFields.parseDigits(source, offset + 5, 2, offset, length), 1, 12, "Month", source, offset + 5, offset, length);
+        FixFields.expect(source, offset + 7, '-', offset, length);
+        int day = FixFields.checkRange(FixFields.parseDigits(source, offset + 8, 2, offset, length), 1,
+                EpochDays.lengthOfMonth(year, month), "Day", source, offset + 8, offset, length);
+        FixFields.expect(source, offset + 10, 'T', offset, length);
+
+        int timeStart = offset + 11;
+        int timeEnd = FixFields.timeEnd(source, timeStart, end);
+        if (timeEnd - timeStart > 18) {
+            throw FixFields.error("Fraction of second should have up to 9 digits", source, offset, length, timeStart + 18);
+        }
+        long nanoOfDay = FixFields.parseTime(source, timeStart, timeEnd, offset, length, false);
+
+        int regionStart = end;
+        if (source[end - 1] == ']') {
+            regionStart = indexOf(source, timeEnd, end, (byte)'[');
+            if (regionStart < 0 || end - regionStart < 3) {
+                throw FixFields.error("Invalid region id", source, offset, length, end - 1);
+            }
+            REGIONS.get(new String(source, regionStart + 1, end - regionStart - 2, StandardCharsets.US_ASCII));
+        }
+        int offsetSeconds = parseOffset(source, timeEnd, regionStart, offset, length);
+        long epochDay = EpochDays.of(year, month, day);
+        return EpochDays.toEpochNanos(epochDay, nanoOfDay - offsetSeconds * NANOS_PER_SECOND);
+    }
+
+    public static long parseEpochNanos(CharSequence source) {
+        return parseEpochNanos(FixFields.toBytes(source), 0, source.length());
+    }
+
+    private static int parseOffset(byte[] source, int index, int end, int offset, int length) {
+        if (end - index == 9) {
+            FixFields.expect(source, index + 6, ':', offset, length);
+            int hoursAndMinutes = FixFields.parseOffset(source, index, index + 6, offset, length);
+            int seconds = FixFields.checkRange(FixFields.parseDigits(source, index + 7, 2, offset, length), 0, 59, "Offset seconds", source, index + 7, offset, length);
+            return source[index] == '-' ? hoursAndMinutes - seconds : hoursAndMinutes + seconds;
+        }
+        if (end - index != 1 && end - index != 6) {
+            throw FixFields.error("Offset should be Z, +HH:MM or +HH:MM:SS", source, offset, length, index);
+        }
+        int offsetSeconds = FixFields.parseOffset(source, index, end, offset, length);
+        if (offsetSeconds == FixFields.NO_OFFSET) {
+            throw FixFields.error("Offset expected", source, offset, length, index);
+        }
+        return offsetSeconds;
+    }
+
+    private static int indexOf(byte[] source, int from, int to, byte symbol) {
+        for (int i = from; i < to; i++) {
+            if (source[i] == symbol) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,67 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Codec of FIX <code>LocalMktDate</code> values: <code>YYYYMMDD</code>.
+ * <p>
+ * Values are represented as epoch days. Parse and format methods on byte arrays don't allocate unless the value is invalid.
+ */
+public final class LocalMktDateCodec {
+
+    public static final int LENGTH = FixFields.DATE_LENGTH;
+
+    private LocalMktDateCodec() {
+    }
+
+    /**
+     * @return epoch day
+     * @throws DateTimeParseException if the value is invalid
+     */
+    public static long parseEpochDay(byte[] source, int offset, int length) {
+        if (length != LENGTH) {
+            throw FixFields.error("Value should have " + LENGTH + " characters", source, offset, length, offset);
+        }
+        return FixFields.parseDate(source, offset, offset, length);
+    }
+
+    public static long parseEpochDay(CharSequence source) {
+        return parseEpochDay(FixFields.toBytes(source), 0, source.length());
+    }
+
+    /**
+     * @return index after the last written byte
+     */
+    public static int format(long epochDay, byte[] destination, int offset) {
+        return FixFields.writeDate(epochDay, destination, offset);
+    }
+
+    public static String format(long epochDay) {
+        byte[] buffer = FixFields.buffer();
+        return FixFields.toString(buffer, format(epochDay, buffer, 0));
+    }
+
+    public static LocalDate toLocalDate(CharSequence source) {
+        return LocalDate.ofEpochDay(parseEpochDay(source));
+    }
+
+    public static String format(LocalDate date) {
+        return format(date.toEpochDay());
+    }
+}
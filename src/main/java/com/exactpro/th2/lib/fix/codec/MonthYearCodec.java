@@ -0,0 +1,151 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import com.exactpro.th2.lib.fix.util.EpochDays;
+
+/**
+ * Codec of FIX <code>MonthYear</code> values: <code>YYYYMM</code>, <code>YYYYMMDD</code> or <code>YYYYMMwN</code>
+ * where N is a week of the month from 1 to 5.
+ * <p>
+ * Values are represented as packed int <code>(year &lt;&lt; 16) | (month &lt;&lt; 8) | code</code>, where code is
+ * 0 for month only, a day of the month or {@link #WEEK_FLAG} combined with the week number.
+ * Parse and format methods on byte arrays don't allocate unless the value is invalid.
+ */
+public final class MonthYearCodec {
+
+    public static final int WEEK_FLAG = 0x40;
+    public static final int MAX_LENGTH = 8;
+
+    private static final int MONTH_LENGTH = 6;
+    private static final int MAX_WEEK = 5;
+
+    private MonthYearCodec() {
+    }
+
+    /**
+     * @return packed value
+     * @throws DateTimeParseException if the value is invalid
+     */
+    public static int parse(byte[] source, int offset, int length) {
+        if (length != MONTH_LENGTH && length != MAX_LENGTH) {
+            throw FixFields.error("Value should have " + MONTH_LENGTH + " or " + MAX_LENGTH + " characters", source, offset, length, offset);
+        }
+        int year = FixFields.parseDigits(source, offset, 4, offset, length);
+        int month = FixFields.checkRange(FixFields.parseDigits(source, offset + 4, 2, offset, length), 1, 12, "Month", source, offset + 4, offset, length);
+        int code = 0;
+        if (length == MAX_LENGTH) {
+            if (source[offset + MONTH_LENGTH] == 'w') {
+                code = WEEK_FLAG | FixFields.checkRange(FixFields.parseDigits(source, offset + 7, 1, offset, length), 1, MAX_WEEK, "Week", source, offset + 7, offset, length);
+            } else {
+                code = FixFields.checkRange(FixFields.parseDigits(source, offset + 6, 2, offset, length), 1, EpochDays.lengthOfMonth(year, month), "Day", source, offset + 6, offset, length);
+            }
+        }
+        return pack(year, month, code);
+    }
+
+    public static int parse(CharSequence source) {
+        return parse(FixFields.toBytes(source), 0, source.length());
+    }
+
+    /**
+     * @return index after the last written byte
+     */
+    public static int format(int packed, byte[] destination, int offset) {
+        int year = getYear(packed);
+        if (year > 9999) {
+            throw new IllegalArgumentException("Year is out of range [0, 9999]: " + year);
+        }
+        int index = FixFields.writeDigits(year, 4, destination, offset);
+        index = FixFields.writeDigits(getMonth(packed), 2, destination, index);
+        if (hasWeek(packed)) {
+            destination[index++] = 'w';
+            index = FixFields.writeDigits(getWeek(packed), 1, destination, index);
+        } else if (hasDay(packed)) {
+            index = FixFields.writeDigits(getDay(packed), 2, destination, index);
+        }
+        return index;
+    }
+
+    public static String format(int packed) {
+        byte[] buffer = FixFields.buffer();
+        return FixFields.toString(buffer, format(packed, buffer, 0));
+    }
+
+    public static int ofMonth(int year, int month) {
+        return pack(year, month, 0);
+    }
+
+    public static int ofDay(int year, int month, int day) {
+        if (day < 1 || day > EpochDays.lengthOfMonth(year, month)) {
+            throw new IllegalArgumentException("Invalid day " + day + " for " + year + '-' + month);
+        }
+        return pack(year, month, day);
+    }
+
+    public static int ofWeek(int year, int month, int week) {
+        if (week < 1 || week > MAX_WEEK) {
+            throw new IllegalArgumentException("Week should be in range [1, " + MAX_WEEK + "]: " + week);
+        }
+        return pack(year, month, WEEK_FLAG | week);
+    }
+
+    public static int getYear(int packed) {
+        return packed >>> 16;
+    }
+
+    public static int getMonth(int packed) {
+        return packed >>> 8 & 0xFF;
+    }
+
+    public static boolean hasDay(int packed) {
+        int code = packed & 0xFF;
+        return code != 0 && (code & WEEK_FLAG) == 0;
+    }
+
+    public static int getDay(int packed) {
+        return hasDay(packed) ? packed & 0xFF : 0;
+    }
+
+    public static boolean hasWeek(int packed) {
+        return (packed & WEEK_FLAG) != 0;
+    }
+
+    public static int getWeek(int packed) {
+        return hasWeek(packed) ? packed & 0x0F : 0;
+    }
+
+    /**
+     * @return the specified day or the first day of the month, shifted by (week - 1) weeks for week values
+     */
+    public static LocalDate toLocalDate(int packed) {
+        LocalDate date = LocalDate.of(getYear(packed), getMonth(packed), hasDay(packed) ? getDay(packed) : 1);
+        return hasWeek(packed) ? date.plusWeeks(getWeek(packed) - 1) : date;
+    }
+
+    private static int pack(int year, int month, int code) {
+        if (year < 0 || year > 9999) {
+            throw new IllegalArgumentException("Year should be in range [0, 9999]: " + year);
+        }
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Month should be in range [1, 12]: " + month);
+        }
+        return year << 16 | month << 8 | code;
+    }
+}
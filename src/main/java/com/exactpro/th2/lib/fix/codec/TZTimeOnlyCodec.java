@@ -0,0 +1,119 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_DAY;
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
+
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Codec of FIX <code>TZTimeOnly</code> values: <code>HH:MM[:SS[.sssssssss]]{Z|+hh[:mm]|-hh[:mm]}</code>,
+ * e.g. <code>07:39Z</code> or <code>13:09:00.123-05</code>.
+ * <p>
+ * Values are represented as nanosecond of the local day plus an offset in seconds.
+ * Parse and format methods on byte arrays don't allocate unless the value is invalid.
+ * Leap second <code>60</code> is parsed as <code>59</code>.
+ */
+public final class TZTimeOnlyCodec {
+
+    /**
+     * Maximum length of a formatted value
+     */
+    public static final int MAX_LENGTH = 8 + 1 + 9 + 6;
+
+    private TZTimeOnlyCodec() {
+    }
+
+    /**
+     * @return nano of the local day
+     * @throws DateTimeParseException if the value is invalid
+     */
+    public static long parseNanoOfDay(byte[] source, int offset, int length) {
+        parseOffsetSeconds(source, offset, length);
+        return FixFields.parseTime(source, offset, FixFields.timeEnd(source, offset, offset + length), offset, length);
+    }
+
+    public static long parseNanoOfDay(CharSequence source) {
+        return parseNanoOfDay(FixFields.toBytes(source), 0, source.length());
+    }
+
+    /**
+     * @return offset in seconds
+     * @throws DateTimeParseException if the value is invalid
+     */
+    public static int parseOffsetSeconds(byte[] source, int offset, int length) {
+        int timeEnd = FixFields.timeEnd(source, offset, offset + length);
+        int offsetSeconds = FixFields.parseOffset(source, timeEnd, offset + length, offset, length);
+        if (offsetSeconds == FixFields.NO_OFFSET) {
+            throw FixFields.error("Offset expected but value ended", source, offset, length, timeEnd);
+        }
+        return offsetSeconds;
+    }
+
+    public static int parseOffsetSeconds(CharSequence source) {
+        return parseOffsetSeconds(FixFields.toBytes(source), 0, source.length());
+    }
+
+    /**
+     * @return nano of the UTC day, wrapped around midnight
+     * @throws DateTimeParseException if the value is invalid
+     */
+    public static long toUtcNanoOfDay(byte[] source, int offset, int length) {
+        int offsetSeconds = parseOffsetSeconds(source, offset, length);
+        long nanoOfDay = FixFields.parseTime(source, offset, FixFields.timeEnd(source, offset, offset + length), offset, length);
+        return Math.floorMod(nanoOfDay - offsetSeconds * NANOS_PER_SECOND, NANOS_PER_DAY);
+    }
+
+    public static long toUtcNanoOfDay(CharSequence source) {
+        return toUtcNanoOfDay(FixFields.toBytes(source), 0, source.length());
+    }
+
+    /**
+     * @param nanoOfDay      nano of the local day
+     * @param offsetSeconds  offset in seconds, <code>Z</code> is written for zero offset
+     * @param fractionDigits number of fraction of second digits from 0 to 9
+     * @param destination    destination buffer, at least {@link #MAX_LENGTH} bytes should be available
+     * @param offset         destination offset
+     * @return index after the last written byte
+     */
+    public static int format(long nanoOfDay, int offsetSeconds, int fractionDigits, byte[] destination, int offset) {
+        if (nanoOfDay < 0 || nanoOfDay >= NANOS_PER_DAY) {
+            throw new IllegalArgumentException("Nano of day is out of range: " + nanoOfDay);
+        }
+        FixFields.checkOffset(offsetSeconds);
+        int index = FixFields.writeTime(nanoOfDay, fractionDigits, destination, offset);
+        return FixFields.writeOffset(offsetSeconds, destination, index);
+    }
+
+    public static String format(long nanoOfDay, int offsetSeconds, int fractionDigits) {
+        byte[] buffer = FixFields.buffer();
+        return FixFields.toString(buffer, format(nanoOfDay, offsetSeconds, fractionDigits, buffer, 0));
+    }
+
+    /**
+     * @return local time, the offset is ignored
+     */
+    public static LocalTime toLocalTime(CharSequence source) {
+        return LocalTime.ofNanoOfDay(parseNanoOfDay(source));
+    }
+
+    public static String format(LocalTime time, ZoneOffset zoneOffset, int fractionDigits) {
+        return format(time.toNanoOfDay(), zoneOffset.getTotalSeconds(), fractionDigits);
+    }
+}
@@ -0,0 +1,125 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_DAY;
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+import com.exactpro.th2.lib.fix.util.EpochDays;
+
+/**
+ * Codec of FIX <code>TZTimestamp</code> values: <code>YYYYMMDD-HH:MM[:SS[.sssssssss]]{Z|+hh[:mm]|-hh[:mm]}</code>,
+ * e.g. <code>20260101-09:30:00+05:30</code>.
+ * <p>
+ * Values are represented as nanoseconds since the epoch in UTC plus an offset in seconds.
+ * Parse and format methods on byte arrays don't allocate unless the value is invalid.
+ * Leap second <code>60</code> is parsed as <code>59</code>.
+ */
+public final class TZTimestampCodec {
+
+    /**
+     * Maximum length of a formatted value
+     */
+    public static final int MAX_LENGTH = 8 + 1 + 8 + 1 + 9 + 6;
+
+    private TZTimestampCodec() {
+    }
+
+    /**
+     * @return nanoseconds since the epoch in UTC
+     * @throws DateTimeParseException if the value is invalid
+     */
+    public static long parseEpochNanos(byte[] source, int offset, int length) {
+        int timeEnd = timeEnd(source, offset, length);
+        long epochDay = FixFields.parseDate(source, offset, offset, length);
+        long nanoOfDay = FixFields.parseTime(source, offset + FixFields.DATE_LENGTH + 1, timeEnd, offset, length);
+        int offsetSeconds = parseRequiredOffset(source, timeEnd, offset, length);
+        return EpochDays.toEpochNanos(epochDay, nanoOfDay - offsetSeconds * NANOS_PER_SECOND);
+    }
+
+    public static long parseEpochNanos(CharSequence source) {
+        return parseEpochNanos(FixFields.toBytes(source), 0, source.length());
+    }
+
+    /**
+     * @return offset in seconds
+     * @throws DateTimeParseException if the value is invalid
+     */
+    public static int parseOffsetSeconds(byte[] source, int offset, int length) {
+        return parseRequiredOffset(source, timeEnd(source, offset, length), offset, length);
+    }
+
+    public static int parseOffsetSeconds(CharSequence source) {
+        return parseOffsetSeconds(FixFields.toBytes(source), 0, source.length());
+    }
+
+    /**
+     * Writes the value in the local time of the offset
+     *
+     * @param epochNanos     nanoseconds since the epoch in UTC
+     * @param offsetSeconds  offset in seconds, <code>Z</code> is written for zero offset
+     * @param fractionDigits number of fraction of second digits from 0 to 9
+     * @param destination    destination buffer, at least {@link #MAX_LENGTH} bytes should be available
+     * @param offset         destination offset
+     * @return index after the last written byte
+     */
+    public static int format(long epochNanos, int offsetSeconds, int fractionDigits, byte[] destination, int offset) {
+        FixFields.checkOffset(offsetSeconds);
+        long local = Math.addExact(epochNanos, offsetSeconds * NANOS_PER_SECOND);
+        int index = FixFields.writeDate(Math.floorDiv(local, NANOS_PER_DAY), destination, offset);
+        destination[index++] = '-';
+        index = FixFields.writeTime(Math.floorMod(local, NANOS_PER_DAY), fractionDigits, destination, index);
+        return FixFields.writeOffset(offsetSeconds, destination, index);
+    }
+
+    public static String format(long epochNanos, int offsetSeconds, int fractionDigits) {
+        byte[] buffer = FixFields.buffer();
+        return FixFields.toString(buffer, format(epochNanos, offsetSeconds, fractionDigits, buffer, 0));
+    }
+
+    /**
+     * @return date time in UTC
+     */
+    public static LocalDateTime toLocalDateTime(CharSequence source) {
+        long epochNanos = parseEpochNanos(source);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), (int)Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+    /**
+     * @param dateTime date time in UTC
+     */
+    public static String format(LocalDateTime dateTime, ZoneOffset zoneOffset, int fractionDigits) {
+        long epochNanos = Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND), dateTime.getNano());
+        return format(epochNanos, zoneOffset.getTotalSeconds(), fractionDigits);
+    }
+
+    private static int timeEnd(byte[] source, int offset, int length) {
+        FixFields.expect(source, offset + FixFields.DATE_LENGTH, '-', offset, length);
+        return FixFields.timeEnd(source, offset + FixFields.DATE_LENGTH + 1, offset + length);
+    }
+
+    private static int parseRequiredOffset(byte[] source, int timeEnd, int offset, int length) {
+        int offsetSeconds = FixFields.parseOffset(source, timeEnd, offset + length, offset, length);
+        if (offsetSeconds == FixFields.NO_OFFSET) {
+            throw FixFields.error("Offset expected but value ended", source, offset, length, timeEnd);
+        }
+        return offsetSeconds;
+    }
+}
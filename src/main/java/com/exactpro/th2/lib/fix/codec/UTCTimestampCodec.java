@@ -0,0 +1,120 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_DAY;
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+import com.exactpro.th2.lib.fix.util.EpochDays;
+
+/**
+ * Codec of FIX <code>UTCTimestamp</code> values: <code>YYYYMMDD-HH:MM:SS[.sssssssss]</code>.
+ * <p>
+ * Values are represented as nanoseconds since the epoch. Parse and format methods on byte arrays don't allocate unless the value is invalid.
+ * Leap second <code>60</code> is parsed as <code>59</code>.
+ */
+public final class UTCTimestampCodec {
+
+    /**
+     * Length of a value without fraction of second
+     */
+    public static final int MIN_LENGTH = 8 + 1 + 8;
+    public static final int MAX_LENGTH = MIN_LENGTH + 1 + FixFields.MAX_FRACTION_DIGITS;
+
+    private UTCTimestampCodec() {
+    }
+
+    /**
+     * @return nanoseconds since the epoch
+     * @throws DateTimeParseException if the value is invalid
+     */
+    public static long parseEpochNanos(byte[] source, int offset, int length) {
+        FixFields.expect(source, offset + FixFields.DATE_LENGTH, '-', offset, length);
+        long epochDay = FixFields.parseDate(source, offset, offset, length);
+        int timeStart = offset + FixFields.DATE_LENGTH + 1;
+        int timeEnd = FixFields.timeEnd(source, timeStart, offset + length);
+        if (timeEnd != offset + length) {
+            throw FixFields.error("Unexpected character", source, offset, length, timeEnd);
+        }
+        if (length < MIN_LENGTH) {
+            throw FixFields.error("Seconds expected but value ended", source, offset, length, offset + length);
+        }
+        long nanoOfDay = FixFields.parseTime(source, timeStart, timeEnd, offset, length);
+        return EpochDays.toEpochNanos(epochDay, nanoOfDay);
+    }
+
+    public static long parseEpochNanos(CharSequence source) {
+        return parseEpochNanos(FixFields.toBytes(source), 0, source.length());
+    }
+
+    /**
+     * @param epochNanos     nanoseconds since the epoch
+     * @param fractionDigits number of fraction of second digits from 0 to 9
+     * @param destination    destination buffer, at least {@link #MAX_LENGTH} bytes should be available
+     * @param offset         destination offset
+     * @return index after the last written byte
+     */
+    public static int format(long epochNanos, int fractionDigits, byte[] destination, int offset) {
+        int index = FixFields.writeDate(Math.floorDiv(epochNanos, NANOS_PER_DAY), destination, offset);
+        destination[index++] = '-';
+        return FixFields.writeTime(Math.floorMod(epochNanos, NANOS_PER_DAY), fractionDigits, destination, index);
+    }
+
+    public static String format(long epochNanos, int fractionDigits) {
+        byte[] buffer = FixFields.buffer();
+        return FixFields.toString(buffer, format(epochNanos, fractionDigits, buffer, 0));
+    }
+
+    /**
+     * @param length value length
+     * @return number of fraction of second digits of a value with the length or -1 if the length is invalid
+     */
+    public static int fractionDigits(int length) {
+        if (length == MIN_LENGTH) {
+            return 0;
+        }
+        int digits = length - MIN_LENGTH - 1;
+        return digits >= 1 && digits <= FixFields.MAX_FRACTION_DIGITS ? digits : -1;
+    }
+
+    /**
+     * @param fractionDigits number of fraction of second digits from 0 to 9
+     * @return length of a formatted value
+     */
+    public static int length(int fractionDigits) {
+        FixFields.checkFractionDigits(fractionDigits);
+        return fractionDigits == 0 ? MIN_LENGTH : MIN_LENGTH + 1 + fractionDigits;
+    }
+
+    /**
+     * @return date time in UTC
+     */
+    public static LocalDateTime toLocalDateTime(CharSequence source) {
+        long epochNanos = parseEpochNanos(source);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), (int)Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+    /**
+     * @param dateTime date time in UTC
+     */
+    public static String format(LocalDateTime dateTime, int fractionDigits) {
+        return format(Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND), dateTime.getNano()), fractionDigits);
+    }
+}
@@ -15,16 +15,27 @@
  ******************************************************************************/
 package com.exactpro.th2.lib.fix.data;
 
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
+import java.time.temporal.TemporalUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.exactpro.th2.lib.fix.jfr.PatternCompilationEvent;
+import com.exactpro.th2.lib.fix.util.PatternCache;
+import com.exactpro.th2.lib.fix.util.ValidationError;
+import com.exactpro.th2.lib.fix.util.ValidationError.Code;
+
 public class DateModificator {
 
+    private static final PatternCache<List<DateModificator>> CACHE = new PatternCache<>(pattern -> Collections.unmodifiableList(parse(pattern)));
+
     private final long value;
     private final Strategy strategy;
     private final DateComponent dateComponent;
@@ -36,40 +47,171 @@ public class DateModificator {
     }
 
     public static List<DateModificator> parse(String modifyPattern) {
+        PatternCompilationEvent event = new PatternCompilationEvent();
+        event.begin();
+        List<DateModificator> result = parsePattern(modifyPattern);
+        if (event.shouldCommit()) {
+            event.pattern = modifyPattern;
+            event.commit();
+        }
+        return result;
+    }
+
+    private static List<DateModificator> parsePattern(String modifyPattern) {
         if (StringUtils.isNotBlank(modifyPattern)) {
             List<DateModificator> result = new ArrayList<>();
-            String[] array = StringUtils.stripAll(StringUtils.split(modifyPattern, ':'));
-
-            for (String item : array) {
-                if (StringUtils.isNoneEmpty(item)) {
-                    Strategy strategy = searchStrategy(item);
-                    if (strategy != null) {
-                        String[] pair = StringUtils.stripAll(StringUtils.split(item, strategy.symbol));
-                        if (pair.length == 2) {
-                            DateComponent dateComponent = DateComponent.parse(pair[0]);
-                            if (dateComponent != null) {
-                                try {
-                                    long value = Long.parseLong(pair[1]);
-                                    result.add(new DateModificator(strategy, dateComponent, value));
-                                } catch (NumberFormatException e) {
-                                    throw new RuntimeException("Field value should be long: '" + pair[1] + "' in '" + modifyPattern + "'");
-                                }
-                            } else {
-                                throw new RuntimeException("Unknown field specified: '" + pair[0] + "'. Expected " + Arrays.toString(DateComponent.values()) + ".");
-                            }
-                        } else {
-                            throw new RuntimeException("Invalid field format: '" + item + "' in '" + modifyPattern + "'");
-                        }
-                    } else {
-                        throw new RuntimeException("Invalid field format. Action missed: '" + item + "' in '" + modifyPattern + "'. Expected [+-=]");
-                    }
-                }
+            ValidationError error = parsePattern(modifyPattern, result);
+            if (error != null) {
+                throw toException(error);
             }
             return result;
         }
         return Collections.emptyList();
     }
 
+    /**
+     * Parses the pattern into the list without throwing exceptions
+     *
+     * @param modifyPattern not blank modify pattern
+     * @param result        destination of parsed modificators
+     * @return the first error or <code>null</code> if the pattern is valid
+     */
+    private static ValidationError parsePattern(String modifyPattern, List<DateModificator> result) {
+        int start = 0;
+        while (start < modifyPattern.length()) {
+            int end = modifyPattern.indexOf(':', start);
+            if (end < 0) {
+                end = modifyPattern.length();
+            }
+            String item = StringUtils.strip(modifyPattern.substring(start, end));
+            if (StringUtils.isNoneEmpty(item)) {
+                Strategy strategy = searchStrategy(item);
+                if (strategy == null) {
+                    return new ValidationError(Code.MISSING_ACTION, modifyPattern, start, item);
+                }
+                String[] pair = StringUtils.stripAll(StringUtils.split(item, strategy.symbol));
+                if (pair.length != 2) {
+                    return new ValidationError(Code.INVALID_MODIFICATION, modifyPattern, start, item);
+                }
+                DateComponent dateComponent = DateComponent.parse(pair[0]);
+                if (dateComponent == null) {
+                    return new ValidationError(Code.UNKNOWN_COMPONENT, modifyPattern, start, pair[0]);
+                }
+                if (!isLong(pair[1])) {
+                    return new ValidationError(Code.INVALID_VALUE, modifyPattern, start, pair[1]);
+                }
+                result.add(new DateModificator(strategy, dateComponent, Long.parseLong(pair[1])));
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Checks the value with the same rules as {@link Long#parseLong(String)}, so it can be parsed without exception
+     *
+     * @param value
+     * @return <code>true</code> if the value is a signed decimal long including <code>Long.MIN_VALUE</code>
+     */
+    private static boolean isLong(String value) {
+        int length = value.length();
+        int index = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        if (index == length) {
+            return false;
+        }
+        long limit = value.charAt(0) == '-' ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long minimum = limit / 10;
+        long result = 0;
+        for (; index < length; index++) {
+            int digit = Character.digit(value.charAt(index), 10);
+            if (digit < 0 || result < minimum) {
+                return false;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return false;
+            }
+            result -= digit;
+        }
+        return true;
+    }
+
+    private static RuntimeException toException(ValidationError error) {
+        String modifyPattern = error.getSource();
+        switch (error.getCode()) {
+        case INVALID_VALUE:
+            return new RuntimeException("Field value should be long: '" + error.getDetail() + "' in '" + modifyPattern + "'");
+        case UNKNOWN_COMPONENT:
+            return new RuntimeException("Unknown field specified: '" + error.getDetail() + "'. Expected " + Arrays.toString(DateComponent.values()) + ".");
+        case INVALID_MODIFICATION:
+            return new RuntimeException("Invalid field format: '" + error.getDetail() + "' in '" + modifyPattern + "'");
+        default:
+            return new RuntimeException("Invalid field format. Action missed: '" + error.getDetail() + "' in '" + modifyPattern + "'. Expected [+-=]");
+        }
+    }
+
+    /**
+     * Validates the modify pattern without throwing exceptions and caches it if it is valid,
+     * so the following {@link #compile(String)} calls do not parse it again
+     *
+     * @param modifyPattern
+     * @return the first error or <code>null</code> if the pattern is valid
+     */
+    public static ValidationError validate(String modifyPattern) {
+        if (StringUtils.isBlank(modifyPattern)) {
+            return null;
+        }
+        List<DateModificator> result = new ArrayList<>();
+        ValidationError error = parsePattern(modifyPattern, result);
+        if (error == null) {
+            CACHE.put(modifyPattern, Collections.unmodifiableList(result));
+        }
+        return error;
+    }
+
+    /**
+     * Returns parsed modify pattern from the cache or parses it.
+     * Unlike {@link #parse(String)} the returned list is shared and unmodifiable.
+     *
+     * @param modifyPattern
+     * @return unmodifiable list of modificators
+     */
+    public static List<DateModificator> compile(String modifyPattern) {
+        if (StringUtils.isBlank(modifyPattern)) {
+            return Collections.emptyList();
+        }
+        return CACHE.get(modifyPattern);
+    }
+
+    /**
+     * @return snapshot of the modify patterns compiled by {@link #compile(String)}
+     */
+    public static Set<String> getCachedPatterns() {
+        return CACHE.keys();
+    }
+
+    public static <T extends Temporal> T modify(T source, List<DateModificator> modificators) {
+        for (DateModificator dateModificator : modificators) {
+            source = dateModificator.modify(source);
+        }
+        return source;
+    }
+
+    /**
+     * Returns the total fixed length of the modificators
+     *
+     * @param modificators
+     * @return duration
+     * @throws IllegalArgumentException if a modificator sets a value or adds months or years
+     */
+    public static Duration toDuration(List<DateModificator> modificators) {
+        Duration result = Duration.ZERO;
+        for (DateModificator dateModificator : modificators) {
+            result = result.plus(dateModificator.toDuration());
+        }
+        return result;
+    }
+
     private static Strategy searchStrategy(String value) {
         for (Strategy strategy : Strategy.values()) {
             if (StringUtils.containsAny(value, strategy.symbol)) {
@@ -83,6 +225,30 @@ public class DateModificator {
         return strategy.modify(source, dateComponent, value);
     }
 
+    /**
+     * Days are treated as 24 hours like in the UTC time zone
+     *
+     * @return fixed length of the modification
+     * @throws IllegalArgumentException if the modificator sets a value or adds months or years
+     */
+    public Duration toDuration() {
+        TemporalUnit unit = dateComponent.getTemporalField().getBaseUnit();
+        if (strategy == Strategy.WITH || unit == ChronoUnit.MONTHS || unit == ChronoUnit.YEARS) {
+            throw new IllegalArgumentException("Modification '" + dateComponent + strategy.symbol + value + "' has no fixed length");
+        }
+        Duration duration = unit.getDuration().multipliedBy(value);
+        return strategy == Strategy.MINUS ? duration.negated() : duration;
+    }
+
+    /**
+     * Modifies the timestamp in place
+     *
+     * @param target
+     */
+    public void modify(MutableTimestamp target) {
+        strategy.modify(target, dateComponent, value);
+    }
+
     private enum Strategy {
         PLUS('+') {
             @SuppressWarnings("unchecked")
@@ -90,6 +256,11 @@ public class DateModificator {
             public <T extends Temporal> T modify(T source, DateComponent dateComponent, long value) {
                 return (T) source.plus(value, dateComponent.getTemporalField().getBaseUnit());
             }
+
+            @Override
+            public void modify(MutableTimestamp target, DateComponent dateComponent, long value) {
+                target.plus(dateComponent, value);
+            }
         },
         MINUS('-') {
             @SuppressWarnings("unchecked")
@@ -97,6 +268,11 @@ public class DateModificator {
             public <T extends Temporal> T modify(T source, DateComponent dateComponent, long value) {
                 return (T) source.minus(value, dateComponent.getTemporalField().getBaseUnit());
             }
+
+            @Override
+            public void modify(MutableTimestamp target, DateComponent dateComponent, long value) {
+                target.minus(dateComponent, value);
+            }
         },
         WITH('=') {
             @SuppressWarnings("unchecked")
@@ -104,6 +280,11 @@ public class DateModificator {
             public <T extends Temporal> T modify(T source, DateComponent dateComponent, long value) {
                 return (T) source.with(dateComponent.getTemporalField(), value);
             }
+
+            @Override
+            public void modify(MutableTimestamp target, DateComponent dateComponent, long value) {
+                target.with(dateComponent, value);
+            }
         };
 
         private final char symbol;
@@ -123,5 +304,7 @@ public class DateModificator {
         }
 
         public abstract <T extends Temporal> T modify(T source, DateComponent dateComponent, long value);
+
+        public abstract void modify(MutableTimestamp target, DateComponent dateComponent, long value);
     }
 }
@@ -0,0 +1,449 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.data;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
+import static com.exactpro.th2.lib.fix.util.EpochDays.SECONDS_PER_DAY;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoField;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.List;
+
+import com.exactpro.th2.lib.fix.codec.LocalMktDateCodec;
+import com.exactpro.th2.lib.fix.codec.TZTimestampCodec;
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+import com.exactpro.th2.lib.fix.util.EpochDays;
+import com.exactpro.th2.lib.fix.util.IncrementalDateTimeFormatter;
+
+/**
+ * Mutable date/time (UTC) stored as epoch seconds and nanoseconds with lazily computed date fields.
+ * Modify, zone and format operations update the instance in place or write into a destination,
+ * so a reused instance doesn't allocate in the steady state.
+ * <p>
+ * Zone offsets are cached per instance until the next transition of the zone rules.
+ * Instances are not thread-safe, use {@link #perThread()} to get an instance owned by the current thread.
+ * <pre>
+ * MutableTimestamp timestamp = MutableTimestamp.perThread().setNow()
+ *         .modifyByZoneId("h+1:m=0", "Europe/London");
+ * timestamp.formatTo("yyyyMMdd-HH:mm:ss.SSS", builder);
+ * </pre>
+ */
+public class MutableTimestamp {
+
+    private static final ThreadLocal<MutableTimestamp> PER_THREAD = ThreadLocal.withInitial(MutableTimestamp::new);
+
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int NANOS_PER_MILLI = 1_000_000;
+    private static final int NANOS_PER_MICRO = 1_000;
+
+    private long epochSecond;
+    private int nano;
+
+    private long cachedEpochDay = Long.MIN_VALUE;
+    private int packedDate;
+
+    private String zoneIdString;
+    private ZoneId zoneId;
+    private ZoneRules zoneRules;
+    private int offsetSeconds;
+    private long offsetValidFrom;
+    private long offsetValidUntil;
+
+    /**
+     * Creates 1970-01-01T00:00:00
+     */
+    public MutableTimestamp() {
+    }
+
+    public MutableTimestamp(long epochSecond, int nano) {
+        set(epochSecond, nano);
+    }
+
+    /**
+     * @return instance owned by the current thread
+     */
+    public static MutableTimestamp perThread() {
+        return PER_THREAD.get();
+    }
+
+    public MutableTimestamp set(long epochSecond, int nano) {
+        if (nano < 0 || nano >= NANOS_PER_SECOND) {
+            throw new IllegalArgumentException("Nano of second should be in range [0, 999999999]: " + nano);
+        }
+        this.epochSecond = epochSecond;
+        this.nano = nano;
+        return this;
+    }
+
+    public MutableTimestamp set(MutableTimestamp source) {
+        return set(source.epochSecond, source.nano);
+    }
+
+    /**
+     * @param dateTime LocalDateTime (UTC)
+     */
+    public MutableTimestamp set(LocalDateTime dateTime) {
+        return set(dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano());
+    }
+
+    public MutableTimestamp setEpochMillis(long epochMillis) {
+        return set(Math.floorDiv(epochMillis, 1000), (int)Math.floorMod(epochMillis, 1000) * NANOS_PER_MILLI);
+    }
+
+    public MutableTimestamp setEpochNanos(long epochNanos) {
+        return set(Math.floorDiv(epochNanos, NANOS_PER_SECOND), (int)Math.floorMod(epochNanos, NANOS_PER_SECOND));
+    }
+
+    /**
+     * Sets the current date/time truncated to milliseconds
+     */
+    public MutableTimestamp setNow() {
+        return setEpochMillis(System.currentTimeMillis());
+    }
+
+    public long getEpochSecond() {
+        return epochSecond;
+    }
+
+    public int getNano() {
+        return nano;
+    }
+
+    public long getEpochMillis() {
+        return Math.addExact(Math.multiplyExact(epochSecond, 1000), nano / NANOS_PER_MILLI);
+    }
+
+    public long getEpochNanos() {
+        return Math.addExact(Math.multiplyExact(epochSecond, NANOS_PER_SECOND), nano);
+    }
+
+    public long getEpochDay() {
+        return Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+    }
+
+    public int getYear() {
+        return EpochDays.year(getPackedDate());
+    }
+
+    public int getMonth() {
+        return EpochDays.month(getPackedDate());
+    }
+
+    public int getDayOfMonth() {
+        return EpochDays.day(getPackedDate());
+    }
+
+    /**
+     * @return ISO day of week from 1 (Monday) to 7 (Sunday)
+     */
+    public int getDayOfWeek() {
+        return EpochDays.dayOfWeek(getEpochDay());
+    }
+
+    public int getHour() {
+        return getSecondOfDay() / SECONDS_PER_HOUR;
+    }
+
+    public int getMinute() {
+        return getSecondOfDay() / SECONDS_PER_MINUTE % 60;
+    }
+
+    public int getSecond() {
+        return getSecondOfDay() % SECONDS_PER_MINUTE;
+    }
+
+    /**
+     * @return LocalDateTime (UTC)
+     */
+    public LocalDateTime toLocalDateTime() {
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    public MutableTimestamp plus(DateComponent dateComponent, long value) {
+        switch (dateComponent) {
+        case YEAR:
+            return withDate(Math.addExact(getYear(), value), getMonth(), getDayOfMonth());
+        case MONTH:
+            long months = Math.addExact(getYear() * 12L + getMonth() - 1, value);
+            return withDate(Math.floorDiv(months, 12), (int)Math.floorMod(months, 12) + 1, getDayOfMonth());
+        case DAY:
+            return plusNanos(Math.multiplyExact(value, SECONDS_PER_DAY), 0);
+        case HOUR:
+            return plusNanos(Math.multiplyExact(value, SECONDS_PER_HOUR), 0);
+        case MINUTE:
+            return plusNanos(Math.multiplyExact(value, SECONDS_PER_MINUTE), 0);
+        case SECOND:
+            return plusNanos(value, 0);
+        case MILLESECOND:
+            return plusNanos(Math.floorDiv(value, 1000), Math.floorMod(value, 1000) * NANOS_PER_MILLI);
+        case MICROSECOND:
+            return plusNanos(Math.floorDiv(value, 1_000_000), Math.floorMod(value, 1_000_000) * NANOS_PER_MICRO);
+        case NANOSECOND:
+            return plusNanos(Math.floorDiv(value, NANOS_PER_SECOND), Math.floorMod(value, NANOS_PER_SECOND));
+        default:
+            throw new IllegalArgumentException("Unsupported date component: " + dateComponent);
+        }
+    }
+
+    public MutableTimestamp minus(DateComponent dateComponent, long value) {
+        return value == Long.MIN_VALUE ? plus(dateComponent, Long.MAX_VALUE).plus(dateComponent, 1) : plus(dateComponent, -value);
+    }
+
+    /**
+     * Sets the date component like {@link LocalDateTime#with(java.time.temporal.TemporalField, long)}
+     *
+     * @throws DateTimeException if the value is invalid
+     */
+    public MutableTimestamp with(DateComponent dateComponent, long value) {
+        ChronoField field = (ChronoField)dateComponent.getTemporalField();
+        int checked = field.checkValidIntValue(value);
+        switch (dateComponent) {
+        case YEAR:
+            return withDate(checked, getMonth(), getDayOfMonth());
+        case MONTH:
+            return withDate(getYear(), checked, getDayOfMonth());
+        case DAY:
+            int year = getYear();
+            int month = getMonth();
+            if (checked > EpochDays.lengthOfMonth(year, month)) {
+                throw new DateTimeException("Invalid date: day " + checked + " of " + year + '-' + month);
+            }
+            return setDate(EpochDays.of(year, month, checked));
+        case HOUR:
+            return plusNanos((long)(checked - getHour()) * SECONDS_PER_HOUR, 0);
+        case MINUTE:
+            return plusNanos((long)(checked - getMinute()) * SECONDS_PER_MINUTE, 0);
+        case SECOND:
+            return plusNanos(checked - getSecond(), 0);
+        case MILLESECOND:
+            nano = checked * NANOS_PER_MILLI;
+            return this;
+        case MICROSECOND:
+            nano = checked * NANOS_PER_MICRO;
+            return this;
+        case NANOSECOND:
+            nano = checked;
+            return this;
+        default:
+            throw new IllegalArgumentException("Unsupported date component: " + dateComponent);
+        }
+    }
+
+    /**
+     * Applies modificators in place
+     */
+    public MutableTimestamp modify(List<DateModificator> modificators) {
+        for (int i = 0; i < modificators.size(); i++) {
+            modificators.get(i).modify(this);
+        }
+        return this;
+    }
+
+    /**
+     * Applies modify pattern in place, see {@link DateModificator#compile(String)}
+     */
+    public MutableTimestamp modify(String modifyPattern) {
+        return modify(DateModificator.compile(modifyPattern));
+    }
+
+    /**
+     * Applies modify pattern to the local date/time of the zone (DST aware) like <code>DateUtil.modifyDateTimeByZoneId</code>
+     */
+    public MutableTimestamp modifyByZoneId(String modifyPattern, String timeZoneId) {
+        ZoneId zone = resolveZone(timeZoneId);
+        toZone(zone);
+        modify(modifyPattern);
+        return fromZone(zone);
+    }
+
+    /**
+     * Shifts the value (UTC) to the local date/time of the zone
+     */
+    public MutableTimestamp toZone(String timeZoneId) {
+        return toZone(resolveZone(timeZoneId));
+    }
+
+    public MutableTimestamp toZone(ZoneId zone) {
+        epochSecond = Math.addExact(epochSecond, getOffsetSeconds(zone));
+        return this;
+    }
+
+    /**
+     * Shifts the value from the local date/time of the zone to UTC.
+     * Local date/time in a gap is moved forward, in an overlap the earlier offset is used.
+     */
+    public MutableTimestamp fromZone(String timeZoneId) {
+        return fromZone(resolveZone(timeZoneId));
+    }
+
+    public MutableTimestamp fromZone(ZoneId zone) {
+        if (zone.equals(zoneId)) {
+            long candidate = epochSecond - offsetSeconds;
+            if (candidate - SECONDS_PER_DAY >= offsetValidFrom && candidate + SECONDS_PER_DAY < offsetValidUntil) {
+                epochSecond = candidate;
+                return this;
+            }
+        }
+        epochSecond = ZonedDateTime.of(toLocalDateTime(), zone).toEpochSecond();
+        return this;
+    }
+
+    /**
+     * @return offset of the zone at the instant in seconds
+     */
+    public int getOffsetSeconds(String timeZoneId) {
+        return getOffsetSeconds(resolveZone(timeZoneId));
+    }
+
+    public int getOffsetSeconds(ZoneId zone) {
+        if (!zone.equals(zoneId) || epochSecond < offsetValidFrom || epochSecond >= offsetValidUntil) {
+            cacheOffset(zone);
+        }
+        return offsetSeconds;
+    }
+
+    /**
+     * Appends the value formatted with the pattern
+     */
+    public void formatTo(String formatPattern, Appendable appendable) {
+        IncrementalDateTimeFormatter.get(formatPattern).formatTo(epochSecond, nano, appendable);
+    }
+
+    public String format(String formatPattern) {
+        StringBuilder builder = new StringBuilder(32);
+        formatTo(formatPattern, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Writes the value as FIX <code>TZTimestamp</code>, see {@link TZTimestampCodec#format(long, int, int, byte[], int)}
+     *
+     * @return index after the last written byte
+     */
+    public int formatTZTimestamp(int offsetSeconds, int fractionDigits, byte[] destination, int offset) {
+        return TZTimestampCodec.format(getEpochNanos(), offsetSeconds, fractionDigits, destination, offset);
+    }
+
+    /**
+     * Writes the date as FIX <code>LocalMktDate</code>
+     *
+     * @return index after the last written byte
+     */
+    public int formatLocalMktDate(byte[] destination, int offset) {
+        return LocalMktDateCodec.format(getEpochDay(), destination, offset);
+    }
+
+    /**
+     * Sets the value from FIX <code>TZTimestamp</code>
+     */
+    public MutableTimestamp parseTZTimestamp(byte[] source, int offset, int length) {
+        return setEpochNanos(TZTimestampCodec.parseEpochNanos(source, offset, length));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MutableTimestamp)) {
+            return false;
+        }
+        MutableTimestamp that = (MutableTimestamp)o;
+        return epochSecond == that.epochSecond && nano == that.nano;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(epochSecond) * 31 + nano;
+    }
+
+    @Override
+    public String toString() {
+        return toLocalDateTime().toString();
+    }
+
+    private int getPackedDate() {
+        long epochDay = getEpochDay();
+        if (epochDay != cachedEpochDay) {
+            packedDate = EpochDays.toPackedDate(epochDay);
+            cachedEpochDay = epochDay;
+        }
+        return packedDate;
+    }
+
+    private int getSecondOfDay() {
+        return (int)Math.floorMod(epochSecond, SECONDS_PER_DAY);
+    }
+
+    private MutableTimestamp plusNanos(long seconds, long nanos) {
+        long total = nano + nanos;
+        epochSecond = Math.addExact(epochSecond, Math.addExact(seconds, Math.floorDiv(total, NANOS_PER_SECOND)));
+        nano = (int)Math.floorMod(total, NANOS_PER_SECOND);
+        return this;
+    }
+
+    /**
+     * Sets the date keeping the time, the day is adjusted to the last valid day of the month
+     */
+    private MutableTimestamp withDate(long year, int month, int day) {
+        int checkedYear = ChronoField.YEAR.checkValidIntValue(year);
+        return setDate(EpochDays.of(checkedYear, month, Math.min(day, EpochDays.lengthOfMonth(checkedYear, month))));
+    }
+
+    private MutableTimestamp setDate(long epochDay) {
+        epochSecond = epochDay * SECONDS_PER_DAY + getSecondOfDay();
+        return this;
+    }
+
+    private ZoneId resolveZone(String timeZoneId) {
+        if (zoneIdString == null || !zoneIdString.equals(timeZoneId)) {
+            zoneId = DateTimeUtility.toZoneId(timeZoneId);
+            zoneIdString = timeZoneId;
+            zoneRules = null;
+            offsetValidFrom = 0;
+            offsetValidUntil = 0;
+        }
+        return zoneId;
+    }
+
+    private void cacheOffset(ZoneId zone) {
+        if (!zone.equals(zoneId) || zoneRules == null) {
+            zoneIdString = zone.getId();
+            zoneId = zone;
+            zoneRules = zone.getRules();
+        }
+        if (zoneRules.isFixedOffset()) {
+            offsetSeconds = zoneRules.getOffset(Instant.EPOCH).getTotalSeconds();
+            offsetValidFrom = Long.MIN_VALUE;
+            offsetValidUntil = Long.MAX_VALUE;
+            return;
+        }
+        Instant instant = Instant.ofEpochSecond(epochSecond);
+        offsetSeconds = zoneRules.getOffset(instant).getTotalSeconds();
+        ZoneOffsetTransition previous = zoneRules.previousTransition(instant.plusSeconds(1));
+        ZoneOffsetTransition next = zoneRules.nextTransition(instant);
+        offsetValidFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+        offsetValidUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+    }
+}
@@ -0,0 +1,319 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.data;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
+import static com.exactpro.th2.lib.fix.util.EpochDays.SECONDS_PER_DAY;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Objects;
+
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+import com.exactpro.th2.lib.fix.util.EpochDays;
+
+/**
+ * Splits the time line into buckets of a fixed number of date components (e.g. 5 minutes) or an arbitrary duration
+ * and maps timestamps to bucket ids and bucket starts.
+ * <p>
+ * Buckets shorter than a day are aligned to the epoch (1970-01-01T00:00:00Z). Day, month and year buckets are aligned
+ * to the local midnight of the zone (UTC by default) and follow DST changes. Bucket ids are consecutive numbers,
+ * so building windows costs a division. The bucket is immutable and thread-safe.
+ * <pre>
+ * TimeBucket bucket = TimeBucket.of(DateComponent.MINUTE, 5);
+ * long start = bucket.truncateEpochMillis(epochMillis);
+ * long[] ids = bucket.getBucketIdsEpochMillis(epochMillis);
+ * </pre>
+ */
+public class TimeBucket {
+
+    private static final long NANOS_PER_MILLI = 1_000_000;
+    private static final int MONTHS_PER_YEAR = 12;
+
+    private enum Kind { FIXED, DAYS, MONTHS }
+
+    private final Kind kind;
+    private final long size;
+    private final ZoneId zoneId;
+    private final ZoneRules rules;
+    private final ZoneOffset fixedOffset;
+
+    /**
+     * @param size nanoseconds for fixed buckets, days or months for calendar buckets
+     */
+    private TimeBucket(Kind kind, long size, ZoneId zoneId) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Bucket size should be positive: " + size);
+        }
+        this.kind = kind;
+        this.size = size;
+        this.zoneId = zoneId;
+        this.rules = zoneId.getRules();
+        this.fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+    }
+
+    /**
+     * @param dateComponent date component
+     * @param count         number of date components in a bucket
+     */
+    public static TimeBucket of(DateComponent dateComponent, long count) {
+        Objects.requireNonNull(dateComponent, "dateComponent argument is null");
+        switch (dateComponent) {
+        case YEAR:
+            return new TimeBucket(Kind.MONTHS, Math.multiplyExact(count, MONTHS_PER_YEAR), ZoneOffset.UTC);
+        case MONTH:
+            return new TimeBucket(Kind.MONTHS, count, ZoneOffset.UTC);
+        case DAY:
+            return new TimeBucket(Kind.DAYS, count, ZoneOffset.UTC);
+        default:
+            return new TimeBucket(Kind.FIXED, Math.multiplyExact(count, dateComponent.getTemporalField().getBaseUnit().getDuration().toNanos()), ZoneOffset.UTC);
+        }
+    }
+
+    /**
+     * @param dateComponent date component, see {@link DateComponent#parse(String)}
+     * @param count         number of date components in a bucket
+     */
+    public static TimeBucket of(String dateComponent, long count) {
+        DateComponent component = DateComponent.parse(dateComponent);
+        if (component == null) {
+            throw new IllegalArgumentException("Unsupported date component " + dateComponent);
+        }
+        return of(component, count);
+    }
+
+    /**
+     * @param duration bucket length, whole days are treated as day buckets
+     */
+    public static TimeBucket of(Duration duration) {
+        long nanos = duration.toNanos();
+        if (nanos > 0 && duration.getNano() == 0 && duration.getSeconds() % SECONDS_PER_DAY == 0) {
+            return new TimeBucket(Kind.DAYS, duration.getSeconds() / SECONDS_PER_DAY, ZoneOffset.UTC);
+        }
+        return new TimeBucket(Kind.FIXED, nanos, ZoneOffset.UTC);
+    }
+
+    /**
+     * @param timeZoneId zone of day, month and year buckets
+     * @return bucket of the same size in the zone
+     */
+    public TimeBucket withZone(String timeZoneId) {
+        return new TimeBucket(kind, size, DateTimeUtility.toZoneId(timeZoneId));
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    public long getBucketIdEpochMillis(long epochMillis) {
+        if (kind == Kind.FIXED) {
+            return size % NANOS_PER_MILLI == 0 ? Math.floorDiv(epochMillis, size / NANOS_PER_MILLI)
+                    : Math.floorDiv(Math.multiplyExact(epochMillis, NANOS_PER_MILLI), size);
+        }
+        return getCalendarBucketId(Math.floorDiv(epochMillis, 1000));
+    }
+
+    public long getBucketIdEpochNanos(long epochNanos) {
+        if (kind == Kind.FIXED) {
+            return Math.floorDiv(epochNanos, size);
+        }
+        return getCalendarBucketId(Math.floorDiv(epochNanos, NANOS_PER_SECOND));
+    }
+
+    /**
+     * @param dateTime LocalDateTime (UTC)
+     */
+    public long getBucketId(LocalDateTime dateTime) {
+        long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        if (kind == Kind.FIXED) {
+            return size % NANOS_PER_SECOND == 0 ? Math.floorDiv(epochSecond, size / NANOS_PER_SECOND)
+                    : Math.floorDiv(Math.addExact(Math.multiplyExact(epochSecond, NANOS_PER_SECOND), dateTime.getNano()), size);
+        }
+        return getCalendarBucketId(epochSecond);
+    }
+
+    /**
+     * @return start of the bucket in epoch milliseconds
+     */
+    public long getStartEpochMillis(long bucketId) {
+        if (kind == Kind.FIXED) {
+            return size % NANOS_PER_MILLI == 0 ? Math.multiplyExact(bucketId, size / NANOS_PER_MILLI)
+                    : Math.floorDiv(Math.multiplyExact(bucketId, size), NANOS_PER_MILLI);
+        }
+        return Math.multiplyExact(getCalendarStartEpochSecond(bucketId), 1000);
+    }
+
+    /**
+     * @return start of the bucket in epoch nanoseconds
+     */
+    public long getStartEpochNanos(long bucketId) {
+        if (kind == Kind.FIXED) {
+            return Math.multiplyExact(bucketId, size);
+        }
+        return Math.multiplyExact(getCalendarStartEpochSecond(bucketId), NANOS_PER_SECOND);
+    }
+
+    /**
+     * @return start of the bucket as LocalDateTime (UTC)
+     */
+    public LocalDateTime getStart(long bucketId) {
+        if (kind == Kind.FIXED) {
+            if (size % NANOS_PER_SECOND == 0) {
+                return LocalDateTime.ofEpochSecond(Math.multiplyExact(bucketId, size / NANOS_PER_SECOND), 0, ZoneOffset.UTC);
+            }
+            long epochNanos = Math.multiplyExact(bucketId, size);
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), (int)Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+        }
+        return LocalDateTime.ofEpochSecond(getCalendarStartEpochSecond(bucketId), 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return start of the bucket containing the value, in epoch milliseconds
+     */
+    public long truncateEpochMillis(long epochMillis) {
+        return getStartEpochMillis(getBucketIdEpochMillis(epochMillis));
+    }
+
+    /**
+     * @return start of the bucket containing the value, in epoch nanoseconds
+     */
+    public long truncateEpochNanos(long epochNanos) {
+        return getStartEpochNanos(getBucketIdEpochNanos(epochNanos));
+    }
+
+    /**
+     * @param dateTime LocalDateTime (UTC)
+     * @return start of the bucket containing the value as LocalDateTime (UTC)
+     */
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        return getStart(getBucketId(dateTime));
+    }
+
+    /**
+     * @param epochMillis source values
+     * @return bucket ids of the values
+     */
+    public long[] getBucketIdsEpochMillis(long[] epochMillis) {
+        long[] result = new long[epochMillis.length];
+        getBucketIdsEpochMillis(epochMillis, 0, result, 0, epochMillis.length);
+        return result;
+    }
+
+    public void getBucketIdsEpochMillis(long[] epochMillis, int offset, long[] destination, int destinationOffset, int count) {
+        if (kind == Kind.FIXED && size % NANOS_PER_MILLI == 0) {
+            long sizeMillis = size / NANOS_PER_MILLI;
+            for (int i = 0; i < count; i++) {
+                destination[destinationOffset + i] = Math.floorDiv(epochMillis[offset + i], sizeMillis);
+            }
+        } else if (kind == Kind.FIXED) {
+            for (int i = 0; i < count; i++) {
+                destination[destinationOffset + i] = Math.floorDiv(Math.multiplyExact(epochMillis[offset + i], NANOS_PER_MILLI), size);
+            }
+        } else {
+            OffsetCache cache = new OffsetCache();
+            for (int i = 0; i < count; i++) {
+                long epochSecond = Math.floorDiv(epochMillis[offset + i], 1000);
+                destination[destinationOffset + i] = getCalendarBucketId(epochSecond, cache.getOffsetSeconds(epochSecond));
+            }
+        }
+    }
+
+    /**
+     * @param epochNanos source values
+     * @return bucket ids of the values
+     */
+    public long[] getBucketIdsEpochNanos(long[] epochNanos) {
+        long[] result = new long[epochNanos.length];
+        getBucketIdsEpochNanos(epochNanos, 0, result, 0, epochNanos.length);
+        return result;
+    }
+
+    public void getBucketIdsEpochNanos(long[] epochNanos, int offset, long[] destination, int destinationOffset, int count) {
+        if (kind == Kind.FIXED) {
+            for (int i = 0; i < count; i++) {
+                destination[destinationOffset + i] = Math.floorDiv(epochNanos[offset + i], size);
+            }
+        } else {
+            OffsetCache cache = new OffsetCache();
+            for (int i = 0; i < count; i++) {
+                long epochSecond = Math.floorDiv(epochNanos[offset + i], NANOS_PER_SECOND);
+                destination[destinationOffset + i] = getCalendarBucketId(epochSecond, cache.getOffsetSeconds(epochSecond));
+            }
+        }
+    }
+
+    /**
+     * Single values look up the offset directly, the transitions are cached only for arrays
+     */
+    private long getCalendarBucketId(long epochSecond) {
+        int offsetSeconds = fixedOffset != null ? fixedOffset.getTotalSeconds() : rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        return getCalendarBucketId(epochSecond, offsetSeconds);
+    }
+
+    private long getCalendarBucketId(long epochSecond, int offsetSeconds) {
+        long localDay = Math.floorDiv(epochSecond + offsetSeconds, SECONDS_PER_DAY);
+        if (kind == Kind.DAYS) {
+            return Math.floorDiv(localDay, size);
+        }
+        int date = EpochDays.toPackedDate(localDay);
+        long month = EpochDays.year(date) * (long)MONTHS_PER_YEAR + EpochDays.month(date) - 1;
+        return Math.floorDiv(month, size);
+    }
+
+    private long getCalendarStartEpochSecond(long bucketId) {
+        long startDay;
+        if (kind == Kind.DAYS) {
+            startDay = Math.multiplyExact(bucketId, size);
+        } else {
+            long month = Math.multiplyExact(bucketId, size);
+            startDay = EpochDays.of(Math.toIntExact(Math.floorDiv(month, MONTHS_PER_YEAR)), (int)Math.floorMod(month, MONTHS_PER_YEAR) + 1, 1);
+        }
+        if (fixedOffset != null) {
+            return Math.multiplyExact(startDay, SECONDS_PER_DAY) - fixedOffset.getTotalSeconds();
+        }
+        return LocalDate.ofEpochDay(startDay).atStartOfDay(zoneId).toEpochSecond();
+    }
+
+    /**
+     * Offset of the zone cached until the next transition
+     */
+    private class OffsetCache {
+        private long validFrom = 0;
+        private long validUntil = 0;
+        private int offsetSeconds;
+
+        private int getOffsetSeconds(long epochSecond) {
+            if (fixedOffset != null) {
+                return fixedOffset.getTotalSeconds();
+            }
+            if (epochSecond < validFrom || epochSecond >= validUntil) {
+                Instant instant = Instant.ofEpochSecond(epochSecond);
+                offsetSeconds = rules.getOffset(instant).getTotalSeconds();
+                ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+                ZoneOffsetTransition next = rules.nextTransition(instant);
+                validFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+                validUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+            }
+            return offsetSeconds;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.data;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
+import static com.exactpro.th2.lib.fix.util.EpochDays.SECONDS_PER_DAY;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.exactpro.th2.lib.fix.util.EpochDays;
+
+/**
+ * Batch variants of {@link DateComponent#extract(java.time.temporal.Temporal)} and
+ * {@link DateComponent#diff(java.time.LocalDateTime, java.time.LocalDateTime)} over columns of epoch values (UTC).
+ * <p>
+ * Values are processed as primitives without creating temporal objects; the date of the previous value is cached,
+ * so sorted columns break down each day once. Columns of at least {@link #PARALLEL_THRESHOLD} values
+ * are split into chunks processed in parallel by the common fork-join pool.
+ */
+public class TimestampColumns {
+
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final int CHUNK_SIZE = 1 << 14;
+    private static final long MILLIS_PER_SECOND = 1_000;
+    private static final int MONTHS_PER_YEAR = 12;
+    private static final int DAYS_PER_MONTH_FACTOR = 32;
+
+    private TimestampColumns() {
+    }
+
+    /**
+     * Extracts the component of every value like {@link DateComponent#extract(java.time.temporal.Temporal)} of LocalDateTime (UTC)
+     *
+     * @param epochMillis   source values
+     * @param dateComponent component to extract
+     * @param destination   array of at least source length
+     */
+    public static void extractEpochMillis(long[] epochMillis, DateComponent dateComponent, int[] destination) {
+        extract(epochMillis, MILLIS_PER_SECOND, dateComponent, destination);
+    }
+
+    /**
+     * @see #extractEpochMillis(long[], DateComponent, int[])
+     */
+    public static void extractEpochNanos(long[] epochNanos, DateComponent dateComponent, int[] destination) {
+        extract(epochNanos, NANOS_PER_SECOND, dateComponent, destination);
+    }
+
+    /**
+     * Computes <code>minuend - subtrahend</code> in the component units for every pair of values like
+     * {@link DateComponent#diff(java.time.LocalDateTime, java.time.LocalDateTime)} of LocalDateTime (UTC)
+     *
+     * @param minuends      source values
+     * @param subtrahends   source values of the same length
+     * @param dateComponent unit of the difference
+     * @param destination   array of at least source length
+     * @throws ArithmeticException if a difference overflows long
+     */
+    public static void diffEpochMillis(long[] minuends, long[] subtrahends, DateComponent dateComponent, long[] destination) {
+        diff(minuends, subtrahends, MILLIS_PER_SECOND, dateComponent, destination);
+    }
+
+    /**
+     * @see #diffEpochMillis(long[], long[], DateComponent, long[])
+     */
+    public static void diffEpochNanos(long[] minuends, long[] subtrahends, DateComponent dateComponent, long[] destination) {
+        diff(minuends, subtrahends, NANOS_PER_SECOND, dateComponent, destination);
+    }
+
+    private static void extract(long[] source, long unitsPerSecond, DateComponent dateComponent, int[] destination) {
+        Objects.requireNonNull(dateComponent, "dateComponent argument is null");
+        checkLength(source.length, destination.length);
+        run(source.length, (from, to) -> extract(source, unitsPerSecond, dateComponent, destination, from, to));
+    }
+
+    private static void extract(long[] source, long unitsPerSecond, DateComponent dateComponent, int[] destination, int from, int to) {
+        long unitsPerDay = unitsPerSecond * SECONDS_PER_DAY;
+        if (dateComponent == DateComponent.YEAR || dateComponent == DateComponent.MONTH || dateComponent == DateComponent.DAY) {
+            long lastDay = Long.MIN_VALUE;
+            int packedDate = 0;
+            for (int i = from; i < to; i++) {
+                long day = Math.floorDiv(source[i], unitsPerDay);
+                if (day != lastDay) {
+                    lastDay = day;
+                    packedDate = EpochDays.toPackedDate(day);
+                }
+                destination[i] = dateComponent == DateComponent.YEAR ? EpochDays.year(packedDate)
+                        : dateComponent == DateComponent.MONTH ? EpochDays.month(packedDate) : EpochDays.day(packedDate);
+            }
+            return;
+        }
+        long nanosPerUnit = NANOS_PER_SECOND / unitsPerSecond;
+        long unitNanos = dateComponent.getTemporalField().getBaseUnit().getDuration().toNanos();
+        long range = dateComponent.getTemporalField().range().getMaximum() + 1;
+        for (int i = from; i < to; i++) {
+            destination[i] = (int)(Math.floorMod(source[i], unitsPerDay) * nanosPerUnit / unitNanos % range);
+        }
+    }
+
+    private static void diff(long[] minuends, long[] subtrahends, long unitsPerSecond, DateComponent dateComponent, long[] destination) {
+        Objects.requireNonNull(dateComponent, "dateComponent argument is null");
+        if (minuends.length != subtrahends.length) {
+            throw new IllegalArgumentException("Minuends and subtrahends have different lengths: " + minuends.length + " != " + subtrahends.length);
+        }
+        checkLength(minuends.length, destination.length);
+        run(minuends.length, (from, to) -> diff(minuends, subtrahends, unitsPerSecond, dateComponent, destination, from, to));
+    }
+
+    private static void diff(long[] minuends, long[] subtrahends, long unitsPerSecond, DateComponent dateComponent, long[] destination, int from, int to) {
+        ChronoUnit unit = (ChronoUnit)dateComponent.getTemporalField().getBaseUnit();
+        if (unit == ChronoUnit.MONTHS || unit == ChronoUnit.YEARS) {
+            diffMonths(minuends, subtrahends, unitsPerSecond, unit == ChronoUnit.YEARS, destination, from, to);
+            return;
+        }
+        long nanosPerUnit = NANOS_PER_SECOND / unitsPerSecond;
+        long unitNanos = unit.getDuration().toNanos();
+        if (unitNanos % nanosPerUnit == 0) {
+            long divisor = unitNanos / nanosPerUnit;
+            for (int i = from; i < to; i++) {
+                destination[i] = Math.subtractExact(minuends[i], subtrahends[i]) / divisor;
+            }
+        } else {
+            long multiplier = nanosPerUnit / unitNanos;
+            for (int i = from; i < to; i++) {
+                destination[i] = Math.multiplyExact(Math.subtractExact(minuends[i], subtrahends[i]), multiplier);
+            }
+        }
+    }
+
+    /**
+     * Follows {@link java.time.LocalDateTime#until(java.time.temporal.Temporal, java.time.temporal.TemporalUnit)}:
+     * the end date is moved by a day towards the start if its time of day does not complete the last day
+     */
+    private static void diffMonths(long[] minuends, long[] subtrahends, long unitsPerSecond, boolean years, long[] destination, int from, int to) {
+        long unitsPerDay = unitsPerSecond * SECONDS_PER_DAY;
+        DayCache endCache = new DayCache();
+        DayCache startCache = new DayCache();
+        for (int i = from; i < to; i++) {
+            long startDay = Math.floorDiv(subtrahends[i], unitsPerDay);
+            long startTime = Math.floorMod(subtrahends[i], unitsPerDay);
+            long endDay = Math.floorDiv(minuends[i], unitsPerDay);
+            long endTime = Math.floorMod(minuends[i], unitsPerDay);
+            if (endDay > startDay && endTime < startTime) {
+                endDay--;
+            } else if (endDay < startDay && endTime > startTime) {
+                endDay++;
+            }
+            long months = (endCache.packedMonthDay(endDay) - startCache.packedMonthDay(startDay)) / DAYS_PER_MONTH_FACTOR;
+            destination[i] = years ? months / MONTHS_PER_YEAR : months;
+        }
+    }
+
+    private static void checkLength(int sourceLength, int destinationLength) {
+        if (destinationLength < sourceLength) {
+            throw new IllegalArgumentException("Destination is shorter than source: " + destinationLength + " < " + sourceLength);
+        }
+    }
+
+    private static void run(int count, RangeTask task) {
+        if (count < PARALLEL_THRESHOLD) {
+            task.run(0, count);
+            return;
+        }
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> task.run(chunk * CHUNK_SIZE, Math.min(count, (chunk + 1) * CHUNK_SIZE)));
+    }
+
+    private interface RangeTask {
+        void run(int from, int to);
+    }
+
+    /**
+     * Proleptic month * 32 + day of month of the last requested day
+     */
+    private static class DayCache {
+        private long day = Long.MIN_VALUE;
+        private long packed;
+
+        private long packedMonthDay(long epochDay) {
+            if (epochDay != day) {
+                int date = EpochDays.toPackedDate(epochDay);
+                day = epochDay;
+                packed = ((long)EpochDays.year(date) * MONTHS_PER_YEAR + EpochDays.month(date) - 1) * DAYS_PER_MONTH_FACTOR + EpochDays.day(date);
+            }
+            return packed;
+        }
+    }
+}
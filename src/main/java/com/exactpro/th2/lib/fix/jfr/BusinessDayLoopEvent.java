@@ -0,0 +1,48 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.exactpro.th2.lib.fix.BusinessDayLoop")
+@Label("Business Day Loop")
+@Category({ "th2", "Date Utilities" })
+@Description("Business date/time calculation exceeded the iteration threshold")
+public class BusinessDayLoopEvent extends Event {
+
+    public static final String THRESHOLD_PROPERTY = "th2.lib.fix.jfr.businessDayLoopThreshold";
+
+    /**
+     * The event is committed only if the number of iterations exceeds the threshold
+     */
+    public static final int ITERATION_THRESHOLD = Integer.getInteger(THRESHOLD_PROPERTY, 32);
+
+    @Label("Original")
+    public String original;
+
+    @Label("Modified")
+    public String modified;
+
+    @Label("Weekends")
+    public String weekends;
+
+    @Label("Iterations")
+    public int iterations;
+}
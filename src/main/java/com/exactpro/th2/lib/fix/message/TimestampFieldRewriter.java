@@ -0,0 +1,269 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.message;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.exactpro.th2.common.grpc.AnyMessage;
+import com.exactpro.th2.common.grpc.ListValue;
+import com.exactpro.th2.common.grpc.Message;
+import com.exactpro.th2.common.grpc.MessageGroup;
+import com.exactpro.th2.common.grpc.MessageGroupBatch;
+import com.exactpro.th2.common.grpc.Value;
+import com.exactpro.th2.lib.fix.data.DateModificator;
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+import com.exactpro.th2.lib.fix.util.EPSCommonException;
+
+/**
+ * Rewrites timestamp fields of parsed messages in a {@link MessageGroupBatch} according to modify patterns.
+ * <p>
+ * Field path is a list of field names separated by <code>.</code>, e.g. <code>TransactTime</code> or
+ * <code>NoSides.TransactTime</code>. List values (repeating groups) are traversed element by element.
+ * Patterns and formatters are compiled once when the rewriter is built, each batch is traversed once
+ * and only changed messages, groups and batches are rebuilt. The rewriter is immutable and thread-safe.
+ * <pre>
+ * TimestampFieldRewriter rewriter = TimestampFieldRewriter.builder()
+ *         .field("TransactTime", "yyyyMMdd-HH:mm:ss.SSS", "h+1")
+ *         .field("NoSides.TransactTime", "yyyyMMdd-HH:mm:ss.SSS", "h+1")
+ *         .build();
+ * MessageGroupBatch result = rewriter.rewrite(batch);
+ * </pre>
+ */
+public class TimestampFieldRewriter {
+
+    private static final String PATH_SEPARATOR = ".";
+
+    private final Node root;
+
+    private TimestampFieldRewriter(Node root) {
+        this.root = root;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param batch source batch
+     * @return the same batch instance if no field was changed, otherwise a new batch
+     */
+    public MessageGroupBatch rewrite(MessageGroupBatch batch) {
+        Objects.requireNonNull(batch, "batch argument is null");
+        MessageGroupBatch.Builder builder = null;
+        for (int i = 0; i < batch.getGroupsCount(); i++) {
+            MessageGroup group = batch.getGroups(i);
+            MessageGroup rewritten = rewrite(group);
+            if (rewritten != group) {
+                if (builder == null) {
+                    builder = batch.toBuilder();
+                }
+                builder.setGroups(i, rewritten);
+            }
+        }
+        return builder == null ? batch : builder.build();
+    }
+
+    /**
+     * @param group source group
+     * @return the same group instance if no field was changed, otherwise a new group
+     */
+    public MessageGroup rewrite(MessageGroup group) {
+        Objects.requireNonNull(group, "group argument is null");
+        MessageGroup.Builder builder = null;
+        for (int i = 0; i < group.getMessagesCount(); i++) {
+            AnyMessage anyMessage = group.getMessages(i);
+            if (anyMessage.getKindCase() != AnyMessage.KindCase.MESSAGE) {
+                continue;
+            }
+            Message message = anyMessage.getMessage();
+            Message rewritten = rewrite(message);
+            if (rewritten != message) {
+                if (builder == null) {
+                    builder = group.toBuilder();
+                }
+                builder.setMessages(i, anyMessage.toBuilder().setMessage(rewritten).build());
+            }
+        }
+        return builder == null ? group : builder.build();
+    }
+
+    /**
+     * @param message source message
+     * @return the same message instance if no field was changed, otherwise a new message
+     */
+    public Message rewrite(Message message) {
+        Objects.requireNonNull(message, "message argument is null");
+        return rewrite(message, root);
+    }
+
+    private static Message rewrite(Message message, Node node) {
+        Message.Builder builder = null;
+        for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+            String name = entry.getKey();
+            Value value = message.getFieldsOrDefault(name, null);
+            if (value == null) {
+                continue;
+            }
+            Value rewritten = rewrite(value, entry.getValue());
+            if (rewritten != value) {
+                if (builder == null) {
+                    builder = message.toBuilder();
+                }
+                builder.putFields(name, rewritten);
+            }
+        }
+        return builder == null ? message : builder.build();
+    }
+
+    private static Value rewrite(Value value, Node node) {
+        switch (value.getKindCase()) {
+        case SIMPLE_VALUE:
+            if (node.rule != null) {
+                String source = value.getSimpleValue();
+                String rewritten = node.rule.apply(source);
+                if (!rewritten.equals(source)) {
+                    return Value.newBuilder().setSimpleValue(rewritten).build();
+                }
+            }
+            return value;
+        case MESSAGE_VALUE:
+            if (!node.children.isEmpty()) {
+                Message message = value.getMessageValue();
+                Message rewritten = rewrite(message, node);
+                if (rewritten != message) {
+                    return Value.newBuilder().setMessageValue(rewritten).build();
+                }
+            }
+            return value;
+        case LIST_VALUE:
+            ListValue list = value.getListValue();
+            ListValue.Builder builder = null;
+            for (int i = 0; i < list.getValuesCount(); i++) {
+                Value element = list.getValues(i);
+                Value rewritten = rewrite(element, node);
+                if (rewritten != element) {
+                    if (builder == null) {
+                        builder = list.toBuilder();
+                    }
+                    builder.setValues(i, rewritten);
+                }
+            }
+            return builder == null ? value : Value.newBuilder().setListValue(builder.build()).build();
+        default:
+            return value;
+        }
+    }
+
+    private static class Node {
+        private final Map<String, Node> children;
+        private final Rule rule;
+
+        private Node(Map<String, Node> children, Rule rule) {
+            this.children = children;
+            this.rule = rule;
+        }
+    }
+
+    private static class Rule {
+        private final String path;
+        private final String formatPattern;
+        private final DateTimeFormatter formatter;
+        private final List<DateModificator> modificators;
+
+        private Rule(String path, String formatPattern, String modifyPattern) {
+            this.path = path;
+            this.formatPattern = formatPattern;
+            this.formatter = DateTimeUtility.getFormatter(formatPattern);
+            this.modificators = DateModificator.compile(modifyPattern);
+        }
+
+        private String apply(String source) {
+            try {
+                LocalDateTime dateTime = DateTimeUtility.parseLocalDateTime(source, formatPattern);
+                return formatter.format(DateModificator.modify(dateTime, modificators));
+            } catch (DateTimeParseException e) {
+                throw new EPSCommonException(String.format("Can't rewrite field %s with value '%s' using format '%s'", path, source, formatPattern), e);
+            }
+        }
+    }
+
+    public static class Builder {
+        private final BuilderNode root = new BuilderNode();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a field to rewrite
+         *
+         * @param path          field path, e.g. <code>NoSides.TransactTime</code>
+         * @param formatPattern format pattern of the field value
+         * @param modifyPattern modify pattern to apply
+         * @return this builder
+         */
+        public Builder field(String path, String formatPattern, String modifyPattern) {
+            Objects.requireNonNull(formatPattern, "formatPattern argument is null");
+            if (StringUtils.isBlank(path)) {
+                throw new IllegalArgumentException("Field path is blank");
+            }
+            BuilderNode node = root;
+            for (String name : StringUtils.split(path, PATH_SEPARATOR)) {
+                node = node.children.computeIfAbsent(name.trim(), key -> new BuilderNode());
+            }
+            if (node.rule != null) {
+                throw new IllegalArgumentException("Field " + path + " is already specified");
+            }
+            node.rule = new Rule(path, formatPattern, modifyPattern);
+            return this;
+        }
+
+        /**
+         * Adds fields with the same format pattern to rewrite
+         *
+         * @param modifyPatterns map of field path to modify pattern
+         * @param formatPattern  format pattern of the fields values
+         * @return this builder
+         */
+        public Builder fields(Map<String, String> modifyPatterns, String formatPattern) {
+            modifyPatterns.forEach((path, modifyPattern) -> field(path, formatPattern, modifyPattern));
+            return this;
+        }
+
+        public TimestampFieldRewriter build() {
+            return new TimestampFieldRewriter(root.build());
+        }
+    }
+
+    private static class BuilderNode {
+        private final Map<String, BuilderNode> children = new HashMap<>();
+        private Rule rule;
+
+        private Node build() {
+            Map<String, Node> nodes = new HashMap<>();
+            children.forEach((name, child) -> nodes.put(name, child.build()));
+            return new Node(nodes.isEmpty() ? Collections.emptyMap() : nodes, rule);
+        }
+    }
+}
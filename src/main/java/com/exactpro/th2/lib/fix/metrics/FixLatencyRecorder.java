@@ -0,0 +1,199 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.metrics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.exactpro.th2.lib.fix.codec.TZTimestampCodec;
+import com.exactpro.th2.lib.fix.codec.UTCTimestampCodec;
+
+/**
+ * Records latencies computed from FIX <code>UTCTimestamp</code> and <code>TZTimestamp</code> values
+ * (e.g. TransactTime(60) to SendingTime(52) or SendingTime to receive time) into a {@link LatencyHistogram}.
+ * <p>
+ * Timestamps are parsed directly from ASCII bytes to epoch nanoseconds without creating objects.
+ * Negative latencies (clock skew) are counted separately and aren't recorded into the histogram.
+ * The recorder is thread-safe, recorders of different threads can be merged with {@link #add(FixLatencyRecorder)}.
+ * <pre>
+ * FixLatencyRecorder recorder = new FixLatencyRecorder();
+ * recorder.recordFields(message, 0, message.length, 52, 60);
+ * long[] percentiles = recorder.getValuesAtPercentiles(50, 99, 99.9);
+ * </pre>
+ */
+public class FixLatencyRecorder {
+
+    private static final byte SOH = 1;
+    /**
+     * Tags above the value can't get one more digit without overflow
+     */
+    private static final int MAX_TAG_PREFIX = (Integer.MAX_VALUE - 9) / 10;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder negativeCount = new LongAdder();
+    private final LongAdder missingCount = new LongAdder();
+
+    /**
+     * Records the latency between two timestamps
+     *
+     * @return latency in nanoseconds
+     */
+    public long record(byte[] later, int laterOffset, int laterLength, byte[] earlier, int earlierOffset, int earlierLength) {
+        return record(parseEpochNanos(later, laterOffset, laterLength) - parseEpochNanos(earlier, earlierOffset, earlierLength));
+    }
+
+    /**
+     * Records the latency between the timestamp and the receive time
+     *
+     * @param receiveEpochNanos receive time in nanoseconds since the epoch
+     * @return latency in nanoseconds
+     */
+    public long recordSince(byte[] source, int offset, int length, long receiveEpochNanos) {
+        return record(receiveEpochNanos - parseEpochNanos(source, offset, length));
+    }
+
+    public long record(CharSequence later, CharSequence earlier) {
+        byte[] laterBytes = later.toString().getBytes(StandardCharsets.US_ASCII);
+        byte[] earlierBytes = earlier.toString().getBytes(StandardCharsets.US_ASCII);
+        return record(laterBytes, 0, laterBytes.length, earlierBytes, 0, earlierBytes.length);
+    }
+
+    /**
+     * Finds two timestamp fields in a raw FIX message and records the latency between them.
+     * Messages without one of the fields or with a malformed tag before them are counted as missing.
+     *
+     * @param laterTag   tag of the later timestamp, e.g. SendingTime(52)
+     * @param earlierTag tag of the earlier timestamp, e.g. TransactTime(60)
+     * @return <code>true</code> if both fields are found
+     */
+    public boolean recordFields(byte[] message, int offset, int length, int laterTag, int earlierTag) {
+        int laterStart = -1;
+        int laterEnd = -1;
+        int earlierStart = -1;
+        int earlierEnd = -1;
+        int end = offset + length;
+        int index = offset;
+        while (index < end && (laterStart < 0 || earlierStart < 0)) {
+            int tagStart = index;
+            int tag = 0;
+            while (index < end && message[index] != '=') {
+                int digit = message[index++] - '0';
+                if (digit < 0 || digit > 9 || tag > MAX_TAG_PREFIX) {
+                    return missing();
+                }
+                tag = tag * 10 + digit;
+            }
+            if (index == tagStart || index == end) {
+                return missing();
+            }
+            int valueStart = ++index;
+            while (index < end && message[index] != SOH) {
+                index++;
+            }
+            if (tag == laterTag && laterStart < 0) {
+                laterStart = valueStart;
+                laterEnd = index;
+            } else if (tag == earlierTag && earlierStart < 0) {
+                earlierStart = valueStart;
+                earlierEnd = index;
+            }
+            index++;
+        }
+        if (laterStart < 0 || earlierStart < 0) {
+            return missing();
+        }
+        record(message, laterStart, laterEnd - laterStart, message, earlierStart, earlierEnd - earlierStart);
+        return true;
+    }
+
+    private boolean missing() {
+        missingCount.increment();
+        return false;
+    }
+
+    /**
+     * @param latencyNanos latency in nanoseconds
+     * @return latency in nanoseconds
+     */
+    public long record(long latencyNanos) {
+        if (latencyNanos < 0) {
+            negativeCount.increment();
+        } else {
+            histogram.record(latencyNanos);
+        }
+        return latencyNanos;
+    }
+
+    /**
+     * Adds all values recorded by other recorder to this one
+     */
+    public void add(FixLatencyRecorder other) {
+        histogram.add(other.histogram);
+        negativeCount.add(other.negativeCount.sum());
+        missingCount.add(other.missingCount.sum());
+    }
+
+    public void reset() {
+        histogram.reset();
+        negativeCount.reset();
+        missingCount.reset();
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    public long getNegativeCount() {
+        return negativeCount.sum();
+    }
+
+    public long getMissingCount() {
+        return missingCount.sum();
+    }
+
+    /**
+     * @param percentiles percentiles in range [0, 100]
+     * @return latencies in nanoseconds at the percentiles
+     */
+    public long[] getValuesAtPercentiles(double... percentiles) {
+        return histogram.getValuesAtPercentiles(percentiles);
+    }
+
+    @Override
+    public String toString() {
+        long[] values = getValuesAtPercentiles(50, 90, 99, 99.9);
+        return "FixLatencyRecorder{count=" + getCount() + ", negative=" + getNegativeCount() + ", missing=" + getMissingCount()
+                + ", p50=" + values[0] + ", p90=" + values[1] + ", p99=" + values[2] + ", p99.9=" + values[3]
+                + ", max=" + histogram.getMax() + '}';
+    }
+
+    /**
+     * Parses <code>TZTimestamp</code> if the value has an offset, otherwise <code>UTCTimestamp</code>
+     */
+    static long parseEpochNanos(byte[] source, int offset, int length) {
+        for (int i = offset + length - 1; i > offset + 8; i--) {
+            byte symbol = source[i];
+            if (symbol == 'Z' || symbol == '+' || symbol == '-') {
+                return TZTimestampCodec.parseEpochNanos(source, offset, length);
+            }
+        }
+        return UTCTimestampCodec.parseEpochNanos(source, offset, length);
+    }
+}
@@ -0,0 +1,156 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear histogram of non-negative long values (e.g. latencies in nanoseconds) with fixed memory footprint.
+ * <p>
+ * Values below 32 are counted exactly, every further power of two range is divided into 16 equal sub-buckets,
+ * so the relative error of reported values does not exceed 1/16. The histogram is thread-safe, recording is lock-free.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_BITS = SUB_BUCKET_BITS - 1;
+    private static final int BUCKET_COUNT = Long.SIZE - SUB_BUCKET_BITS;
+    private static final int LENGTH = (BUCKET_COUNT + 1) << SUB_BUCKET_HALF_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(LENGTH);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a value, negative values are recorded as zero
+     *
+     * @param value
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Adds all values recorded by other histogram to this one
+     *
+     * @param other
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < LENGTH; i++) {
+            long value = other.counts.get(i);
+            if (value != 0) {
+                counts.addAndGet(i, value);
+            }
+        }
+        count.add(other.count.sum());
+        sum.add(other.sum.sum());
+        max.accumulate(other.max.get());
+    }
+
+    public void reset() {
+        for (int i = 0; i < LENGTH; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long total = count.sum();
+        return total == 0 ? 0 : (double)sum.sum() / total;
+    }
+
+    /**
+     * @param percentile percentile in range [0, 100]
+     * @return the highest value equivalent to the recorded ones at the percentile or 0 if the histogram is empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        return getValuesAtPercentiles(percentile)[0];
+    }
+
+    /**
+     * Takes one snapshot of the histogram for all percentiles
+     *
+     * @param percentiles percentiles in range [0, 100]
+     * @return values at the percentiles, see {@link #getValueAtPercentile(double)}
+     */
+    public long[] getValuesAtPercentiles(double... percentiles) {
+        long total = 0;
+        long[] snapshot = new long[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        long maxValue = getMax();
+        long[] result = new long[percentiles.length];
+        for (int p = 0; p < percentiles.length; p++) {
+            double percentile = percentiles[p];
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile should be in range [0, 100]: " + percentile);
+            }
+            if (total == 0) {
+                continue;
+            }
+            long target = Math.max(1, (long)Math.ceil(percentile / 100 * total));
+            long accumulated = 0;
+            result[p] = maxValue;
+            for (int i = 0; i < LENGTH; i++) {
+                accumulated += snapshot[i];
+                if (accumulated >= target) {
+                    result[p] = Math.min(highestEquivalentValue(i), maxValue);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int)value;
+        }
+        int bucket = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (bucket << SUB_BUCKET_HALF_BITS) + (int)(value >>> bucket);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int bucket = (index >>> SUB_BUCKET_HALF_BITS) - 1;
+        long subBucket = index - ((long)bucket << SUB_BUCKET_HALF_BITS);
+        return ((subBucket + 1) << bucket) - 1;
+    }
+}
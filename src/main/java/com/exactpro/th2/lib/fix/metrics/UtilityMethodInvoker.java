@@ -0,0 +1,129 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import com.exactpro.th2.lib.fix.UtilityMethod;
+
+/**
+ * Hook for frameworks calling {@link UtilityMethod} methods of a utility object (e.g. DateUtil) reflectively.
+ * When {@link UtilityMethodMetrics} are enabled each call is timed and recorded per method and pattern,
+ * otherwise the method is just invoked.
+ * <p>
+ * Pattern is a combination of arguments whose parameter names end with <code>Pattern</code>
+ * or are <code>timeZoneId</code> and <code>dateComponent</code>. Parameter names are available
+ * if the utility class is compiled with the <code>-parameters</code> option.
+ */
+public class UtilityMethodInvoker {
+
+    private static final String PATTERN_SUFFIX = "Pattern";
+    private static final List<String> PATTERN_PARAMETERS = Arrays.asList("timeZoneId", "dateComponent");
+
+    private final Object target;
+    private final Map<Method, Invocation> invocations;
+
+    public UtilityMethodInvoker(Object target) {
+        this.target = Objects.requireNonNull(target, "target argument is null");
+        Map<Method, Invocation> invocations = new HashMap<>();
+        for (Method method : target.getClass().getMethods()) {
+            if (method.isAnnotationPresent(UtilityMethod.class)) {
+                invocations.put(method, new Invocation(method));
+            }
+        }
+        this.invocations = Collections.unmodifiableMap(invocations);
+    }
+
+    public Object getTarget() {
+        return target;
+    }
+
+    public Object invoke(Method method, Object... args) throws InvocationTargetException, IllegalAccessException {
+        Invocation invocation = getInvocation(method);
+        if (!UtilityMethodMetrics.isEnabled()) {
+            return method.invoke(target, args);
+        }
+        long start = UtilityMethodMetrics.start();
+        try {
+            return method.invoke(target, args);
+        } finally {
+            UtilityMethodMetrics.record(invocation.name, invocation.pattern(args), start);
+        }
+    }
+
+    /**
+     * @return pattern the method is accounted under for the arguments
+     */
+    String getPattern(Method method, Object... args) {
+        return getInvocation(method).pattern(args);
+    }
+
+    private Invocation getInvocation(Method method) {
+        Invocation invocation = invocations.get(method);
+        if (invocation == null) {
+            throw new IllegalArgumentException("Method is not a utility method of " + target.getClass().getSimpleName() + ": " + method);
+        }
+        return invocation;
+    }
+
+    private static class Invocation {
+        private final String name;
+        private final int[] patternIndexes;
+
+        private Invocation(Method method) {
+            this.name = method.getName() + Arrays.stream(method.getParameterTypes())
+                    .map(Class::getSimpleName)
+                    .collect(Collectors.joining(",", "(", ")"));
+            List<Integer> indexes = new ArrayList<>();
+            Parameter[] parameters = method.getParameters();
+            for (int i = 0; i < parameters.length; i++) {
+                String parameterName = parameters[i].getName();
+                if (parameterName.endsWith(PATTERN_SUFFIX) || PATTERN_PARAMETERS.contains(parameterName)) {
+                    indexes.add(i);
+                }
+            }
+            this.patternIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private String pattern(Object[] args) {
+            switch (patternIndexes.length) {
+            case 0:
+                return UtilityMethodMetrics.NO_PATTERN;
+            case 1:
+                return String.valueOf(args[patternIndexes[0]]);
+            default:
+                StringBuilder builder = new StringBuilder();
+                for (int index : patternIndexes) {
+                    if (builder.length() > 0) {
+                        builder.append(", ");
+                    }
+                    builder.append(args[index]);
+                }
+                return builder.toString();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of utility method call statistics. Statistics are collected per method and pattern
+ * and published as MBeans in the platform MBean server under the <code>com.exactpro.th2.lib.fix</code> domain.
+ * <p>
+ * Collection is disabled by default and enabled by the <code>th2.lib.fix.metrics.enabled</code> system property.
+ * The flag is read once, so the disabled check is a constant for JIT.
+ * The number of distinct method/pattern pairs is limited, calls with other patterns are accounted under the
+ * {@link #OTHER_PATTERN} of the method.
+ */
+public class UtilityMethodMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(UtilityMethodMetrics.class);
+
+    public static final String ENABLED_PROPERTY = "th2.lib.fix.metrics.enabled";
+    public static final String DOMAIN = "com.exactpro.th2.lib.fix";
+    public static final String NO_PATTERN = "";
+    public static final String OTHER_PATTERN = "<other>";
+
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    static final int MAX_PATTERNS = 256;
+
+    private static final Map<String, Map<String, UtilityMethodStats>> STATS = new ConcurrentHashMap<>();
+    private static final AtomicInteger PATTERN_COUNT = new AtomicInteger();
+
+    private UtilityMethodMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @return start time for {@link #record(String, String, long)} or 0 if metrics are disabled
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records a call of the method started at <code>startNanos</code>, does nothing if metrics are disabled
+     *
+     * @param method     method signature
+     * @param pattern    pattern the method was called with or {@link #NO_PATTERN}
+     * @param startNanos value returned by {@link #start()}
+     */
+    public static void record(String method, String pattern, long startNanos) {
+        if (ENABLED) {
+            getStats(method, pattern).record(System.nanoTime() - startNanos);
+        }
+    }
+
+    public static UtilityMethodStats getStats(String method, String pattern) {
+        Objects.requireNonNull(method, "method argument is null");
+        Map<String, UtilityMethodStats> patterns = STATS.computeIfAbsent(method, key -> new ConcurrentHashMap<>());
+        String key = pattern == null ? NO_PATTERN : pattern;
+        UtilityMethodStats stats = patterns.get(key);
+        if (stats == null && !OTHER_PATTERN.equals(key)) {
+            // the budget is taken only by the thread creating the entry
+            stats = patterns.computeIfAbsent(key, name -> reservePattern() ? register(new UtilityMethodStats(method, name)) : null);
+        }
+        if (stats == null) {
+            stats = patterns.computeIfAbsent(OTHER_PATTERN, name -> register(new UtilityMethodStats(method, name)));
+        }
+        return stats;
+    }
+
+    public static Collection<UtilityMethodStats> getStats(String method) {
+        Map<String, UtilityMethodStats> patterns = STATS.get(method);
+        return patterns == null ? Collections.emptyList() : Collections.unmodifiableCollection(patterns.values());
+    }
+
+    /**
+     * @return number of method/pattern pairs counted against the limit, {@link #OTHER_PATTERN} entries are not counted
+     */
+    static int getPatternCount() {
+        return PATTERN_COUNT.get();
+    }
+
+    private static boolean reservePattern() {
+        return PATTERN_COUNT.getAndUpdate(count -> count < MAX_PATTERNS ? count + 1 : count) < MAX_PATTERNS;
+    }
+
+    private static UtilityMethodStats register(UtilityMethodStats stats) {
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":type=UtilityMethod"
+                    + ",method=" + ObjectName.quote(stats.getMethod())
+                    + ",pattern=" + ObjectName.quote(stats.getPattern()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(stats, name);
+        } catch (JMException e) {
+            logger.warn("Can't register MBean for {} with pattern '{}'", stats.getMethod(), stats.getPattern(), e);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,86 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.metrics;
+
+public class UtilityMethodStats implements UtilityMethodStatsMBean {
+
+    private final String method;
+    private final String pattern;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    UtilityMethodStats(String method, String pattern) {
+        this.method = method;
+        this.pattern = pattern;
+    }
+
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    @Override
+    public double getMeanNanos() {
+        return histogram.getMean();
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return histogram.getMax();
+    }
+
+    @Override
+    public long getMedianNanos() {
+        return histogram.getValueAtPercentile(50);
+    }
+
+    @Override
+    public long get90thPercentileNanos() {
+        return histogram.getValueAtPercentile(90);
+    }
+
+    @Override
+    public long get99thPercentileNanos() {
+        return histogram.getValueAtPercentile(99);
+    }
+
+    @Override
+    public long get999thPercentileNanos() {
+        return histogram.getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public void reset() {
+        histogram.reset();
+    }
+}
@@ -0,0 +1,42 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.metrics;
+
+/**
+ * Statistics of a utility method called with a pattern published over JMX
+ */
+public interface UtilityMethodStatsMBean {
+
+    String getMethod();
+
+    String getPattern();
+
+    long getCount();
+
+    double getMeanNanos();
+
+    long getMaxNanos();
+
+    long getMedianNanos();
+
+    long get90thPercentileNanos();
+
+    long get99thPercentileNanos();
+
+    long get999thPercentileNanos();
+
+    void reset();
+}
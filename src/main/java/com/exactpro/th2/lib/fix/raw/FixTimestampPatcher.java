@@ -0,0 +1,355 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.raw;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.exactpro.th2.lib.fix.codec.UTCTimestampCodec;
+import com.exactpro.th2.lib.fix.data.DateModificator;
+import com.exactpro.th2.lib.fix.data.MutableTimestamp;
+
+/**
+ * Overwrites <code>UTCTimestamp</code> fields of raw FIX messages, by default SendingTime(52), TransactTime(60)
+ * and OrigSendingTime(122).
+ * <p>
+ * If new values have the same length as the old ones (the precision is kept), the bytes are overwritten in place and
+ * CheckSum(10) is updated from the byte deltas. Otherwise a new message is built with recomputed BodyLength(9) and CheckSum(10).
+ * The patcher is immutable and thread-safe.
+ * <pre>
+ * FixTimestampPatcher patcher = FixTimestampPatcher.builder()
+ *         .tag(52)
+ *         .tag(122, "s-1")
+ *         .build();
+ * byte[] patched = patcher.patch(message);
+ * </pre>
+ */
+public class FixTimestampPatcher {
+
+    public static final int BODY_LENGTH = 9;
+    public static final int CHECK_SUM = 10;
+    public static final int SENDING_TIME = 52;
+    public static final int TRANSACT_TIME = 60;
+    public static final int ORIG_SENDING_TIME = 122;
+
+    private static final byte SOH = 1;
+    private static final byte[] CHECK_SUM_PREFIX = "10=".getBytes(StandardCharsets.US_ASCII);
+    private static final int CHECK_SUM_LENGTH = 3;
+    private static final int KEEP_PRECISION = -1;
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private final int[] tags;
+    private final List<List<DateModificator>> modificators;
+    private final int fractionDigits;
+
+    private FixTimestampPatcher(Builder builder) {
+        if (builder.tags.isEmpty()) {
+            builder.tag(SENDING_TIME).tag(TRANSACT_TIME).tag(ORIG_SENDING_TIME);
+        }
+        this.tags = builder.tags.stream().mapToInt(Integer::intValue).toArray();
+        this.modificators = Collections.unmodifiableList(new ArrayList<>(builder.modificators));
+        this.fractionDigits = builder.fractionDigits;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Sets the fields to the current time
+     *
+     * @see #patch(byte[], long)
+     */
+    public byte[] patch(byte[] message) {
+        return patch(message, System.currentTimeMillis() * 1_000_000);
+    }
+
+    /**
+     * @param message    message bytes
+     * @param epochNanos new value before applying the tag modify pattern
+     * @return the same array patched in place or a new array if the length of the message is changed
+     */
+    public byte[] patch(byte[] message, long epochNanos) {
+        Objects.requireNonNull(message, "message argument is null");
+        ByteBuffer buffer = ByteBuffer.wrap(message);
+        ByteBuffer result = patch(buffer, epochNanos);
+        return result == buffer ? message : result.array();
+    }
+
+    /**
+     * Sets the fields to the current time
+     *
+     * @see #patch(ByteBuffer, long)
+     */
+    public ByteBuffer patch(ByteBuffer message) {
+        return patch(message, System.currentTimeMillis() * 1_000_000);
+    }
+
+    /**
+     * Patches the message between position and limit of the buffer, the position and limit aren't changed
+     *
+     * @param message    message buffer
+     * @param epochNanos new value before applying the tag modify pattern
+     * @return the same buffer patched in place or a new heap buffer if the length of the message is changed
+     */
+    public ByteBuffer patch(ByteBuffer message, long epochNanos) {
+        Objects.requireNonNull(message, "message argument is null");
+        State state = STATE.get();
+        scan(message, state);
+
+        boolean inPlace = true;
+        for (int i = 0; i < state.count; i++) {
+            int field = i * 3;
+            int length = state.fields[field + 2] - state.fields[field + 1];
+            int existingDigits = UTCTimestampCodec.fractionDigits(length);
+            if (existingDigits < 0) {
+                throw new IllegalArgumentException("Value of tag " + tags[state.fields[field]] + " is not UTCTimestamp: "
+                        + ascii(message, state.fields[field + 1], length));
+            }
+            int digits = fractionDigits == KEEP_PRECISION ? existingDigits : fractionDigits;
+            state.values[i] = state.timestamp.setEpochNanos(epochNanos).modify(modificators.get(state.fields[field])).getEpochNanos();
+            state.digits[i] = digits;
+            inPlace &= digits == existingDigits;
+        }
+        return inPlace ? patchInPlace(message, state) : rebuild(message, state);
+    }
+
+    private ByteBuffer patchInPlace(ByteBuffer message, State state) {
+        int delta = 0;
+        byte[] value = state.value;
+        for (int i = 0; i < state.count; i++) {
+            int start = state.fields[i * 3 + 1];
+            int length = UTCTimestampCodec.format(state.values[i], state.digits[i], value, 0);
+            for (int j = 0; j < length; j++) {
+                byte previous = message.get(start + j);
+                delta += value[j] - previous;
+                message.put(start + j, value[j]);
+            }
+        }
+        if (state.checkSumStart >= 0) {
+            int checkSum = parseCheckSum(message, state.checkSumStart, state.checkSumEnd);
+            writeDigits(message, state.checkSumStart, CHECK_SUM_LENGTH, checkSum + delta & 0xFF);
+        }
+        return message;
+    }
+
+    private ByteBuffer rebuild(ByteBuffer message, State state) {
+        int start = message.position();
+        int tail = state.checkSumStart >= 0 ? state.checkSumStart - CHECK_SUM_PREFIX.length : message.limit();
+        int lengthDelta = 0;
+        for (int i = 0; i < state.count; i++) {
+            int field = i * 3;
+            lengthDelta += UTCTimestampCodec.length(state.digits[i]) - (state.fields[field + 2] - state.fields[field + 1]);
+        }
+        byte[] result = new byte[tail - start + lengthDelta + 16];
+        int index = 0;
+        int position = start;
+        if (state.bodyLengthStart >= 0) {
+            int bodyLength = tail - state.bodyLengthEnd - 1 + lengthDelta;
+            index = copy(message, position, state.bodyLengthStart, result, index);
+            int digits = Integer.toString(bodyLength).length();
+            index = writeDigits(result, index, digits, bodyLength);
+            position = state.bodyLengthEnd;
+        }
+        for (int i = 0; i < state.count; i++) {
+            int field = i * 3;
+            index = copy(message, position, state.fields[field + 1], result, index);
+            index = UTCTimestampCodec.format(state.values[i], state.digits[i], result, index);
+            position = state.fields[field + 2];
+        }
+        index = copy(message, position, tail, result, index);
+        if (state.checkSumStart >= 0) {
+            int checkSum = 0;
+            for (int i = 0; i < index; i++) {
+                checkSum += result[i];
+            }
+            System.arraycopy(CHECK_SUM_PREFIX, 0, result, index, CHECK_SUM_PREFIX.length);
+            index += CHECK_SUM_PREFIX.length;
+            index = writeDigits(result, index, CHECK_SUM_LENGTH, checkSum & 0xFF);
+            result[index++] = SOH;
+        }
+        return ByteBuffer.wrap(Arrays.copyOf(result, index));
+    }
+
+    private void scan(ByteBuffer message, State state) {
+        state.count = 0;
+        state.bodyLengthStart = -1;
+        state.bodyLengthEnd = -1;
+        state.checkSumStart = -1;
+        state.checkSumEnd = -1;
+        int end = message.limit();
+        int index = message.position();
+        while (index < end) {
+            int tag = 0;
+            byte symbol;
+            while ((symbol = message.get(index)) != '=') {
+                if (symbol < '0' || symbol > '9') {
+                    throw new IllegalArgumentException("Invalid tag character at index " + index + ": " + ascii(message, message.position(), end - message.position()));
+                }
+                tag = tag * 10 + symbol - '0';
+                if (++index >= end) {
+                    throw new IllegalArgumentException("Tag without value at index " + index);
+                }
+            }
+            int valueStart = ++index;
+            while (index < end && message.get(index) != SOH) {
+                index++;
+            }
+            if (index >= end) {
+                throw new IllegalArgumentException("Value of tag " + tag + " isn't terminated by SOH");
+            }
+            int valueEnd = index++;
+            if (tag == BODY_LENGTH) {
+                state.bodyLengthStart = valueStart;
+                state.bodyLengthEnd = valueEnd;
+            } else if (tag == CHECK_SUM) {
+                state.checkSumStart = valueStart;
+                state.checkSumEnd = valueEnd;
+                break;
+            } else {
+                for (int i = 0; i < tags.length; i++) {
+                    if (tags[i] == tag) {
+                        state.add(i, valueStart, valueEnd);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int parseCheckSum(ByteBuffer message, int start, int end) {
+        if (end - start != CHECK_SUM_LENGTH) {
+            throw new IllegalArgumentException("CheckSum should have " + CHECK_SUM_LENGTH + " digits: " + ascii(message, start, end - start));
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = message.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Invalid CheckSum: " + ascii(message, start, end - start));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void writeDigits(ByteBuffer destination, int index, int count, int value) {
+        for (int i = index + count - 1; i >= index; i--) {
+            destination.put(i, (byte)('0' + value % 10));
+            value /= 10;
+        }
+    }
+
+    private static int writeDigits(byte[] destination, int index, int count, int value) {
+        for (int i = index + count - 1; i >= index; i--) {
+            destination[i] = (byte)('0' + value % 10);
+            value /= 10;
+        }
+        return index + count;
+    }
+
+    private static int copy(ByteBuffer source, int from, int to, byte[] destination, int index) {
+        for (int i = from; i < to; i++) {
+            destination[index++] = source.get(i);
+        }
+        return index;
+    }
+
+    private static String ascii(ByteBuffer buffer, int start, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = start; i < start + length; i++) {
+            byte symbol = buffer.get(i);
+            builder.append(symbol == SOH ? '|' : (char)symbol);
+        }
+        return builder.toString();
+    }
+
+    private static class State {
+        private final MutableTimestamp timestamp = new MutableTimestamp();
+        private final byte[] value = new byte[UTCTimestampCodec.MAX_LENGTH];
+        private int[] fields = new int[3 * 8];
+        private long[] values = new long[8];
+        private int[] digits = new int[8];
+        private int count;
+        private int bodyLengthStart;
+        private int bodyLengthEnd;
+        private int checkSumStart;
+        private int checkSumEnd;
+
+        private void add(int rule, int valueStart, int valueEnd) {
+            if (count == values.length) {
+                fields = Arrays.copyOf(fields, fields.length * 2);
+                values = Arrays.copyOf(values, values.length * 2);
+                digits = Arrays.copyOf(digits, digits.length * 2);
+            }
+            fields[count * 3] = rule;
+            fields[count * 3 + 1] = valueStart;
+            fields[count * 3 + 2] = valueEnd;
+            count++;
+        }
+    }
+
+    public static class Builder {
+        private final List<Integer> tags = new ArrayList<>();
+        private final List<List<DateModificator>> modificators = new ArrayList<>();
+        private int fractionDigits = KEEP_PRECISION;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a tag to set to the new value
+         */
+        public Builder tag(int tag) {
+            return tag(tag, null);
+        }
+
+        /**
+         * Adds a tag to set to the new value modified according to the pattern
+         */
+        public Builder tag(int tag, String modifyPattern) {
+            if (tag <= 0 || tag == BODY_LENGTH || tag == CHECK_SUM) {
+                throw new IllegalArgumentException("Invalid timestamp tag: " + tag);
+            }
+            if (tags.contains(tag)) {
+                throw new IllegalArgumentException("Tag " + tag + " is already specified");
+            }
+            tags.add(tag);
+            modificators.add(DateModificator.compile(modifyPattern));
+            return this;
+        }
+
+        /**
+         * Sets the precision of new values, by default the precision of the existing values is kept
+         *
+         * @param fractionDigits number of fraction of second digits from 0 to 9
+         */
+        public Builder fractionDigits(int fractionDigits) {
+            UTCTimestampCodec.length(fractionDigits);
+            this.fractionDigits = fractionDigits;
+            return this;
+        }
+
+        public FixTimestampPatcher build() {
+            return new FixTimestampPatcher(this);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.sequence;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.DAYS_PER_WEEK;
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_DAY;
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneRules;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import com.exactpro.th2.lib.fix.data.DateModificator;
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+import com.exactpro.th2.lib.fix.util.EpochDays;
+import com.exactpro.th2.lib.fix.util.WeekendMask;
+
+/**
+ * Finite sequence of timestamps (epoch nanoseconds) which follow a schedule: a fixed step, bursts of elements
+ * and optionally business hours of business days in a time zone.
+ * <p>
+ * Any element is computed in O(1) from its index, so the sequence is never materialised and its spliterator
+ * is split in halves for parallel streams. The sequence is immutable and thread-safe.
+ * <pre>
+ * LongStream transactTimes = TimestampSequence.builder()
+ *         .start("D+1:h=0:m=0:s=0:ms=0")
+ *         .rate(1000)
+ *         .businessHours("09:00", "17:30")
+ *         .timeZoneId("Europe/London")
+ *         .count(1_000_000)
+ *         .build()
+ *         .stream();
+ * </pre>
+ * Business hours are interpreted in the local time of the zone, a local time in a DST gap is moved forward.
+ */
+public class TimestampSequence {
+
+    private final long startNanos;
+    private final long size;
+    private final long stepNanos;
+    private final int burstSize;
+    private final long burstPeriodNanos;
+
+    private final boolean business;
+    private final long openNanoOfDay;
+    private final long sessionNanos;
+    private final ZoneId zoneId;
+    private final ZoneOffset fixedOffset;
+    private final long baseEpochDay;
+    private final long baseActiveNanos;
+    private final int[] businessDayOffsets;
+
+    private TimestampSequence(Builder builder) {
+        this.startNanos = builder.startNanos;
+        this.size = builder.count;
+        this.stepNanos = builder.stepNanos;
+        this.burstSize = builder.burstSize;
+        this.burstPeriodNanos = burstSize > 0 ? Math.addExact(Math.multiplyExact(burstSize - 1, stepNanos), builder.burstGapNanos) : 0;
+        this.business = builder.openTime != null;
+        this.zoneId = builder.zoneId;
+        ZoneRules rules = zoneId.getRules();
+        this.fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+        if (!business) {
+            this.openNanoOfDay = 0;
+            this.sessionNanos = 0;
+            this.baseEpochDay = 0;
+            this.baseActiveNanos = 0;
+            this.businessDayOffsets = null;
+            return;
+        }
+        this.openNanoOfDay = builder.openTime.toNanoOfDay();
+        this.sessionNanos = builder.closeTime.toNanoOfDay() - openNanoOfDay;
+
+        Instant start = Instant.ofEpochSecond(Math.floorDiv(startNanos, NANOS_PER_SECOND), Math.floorMod(startNanos, NANOS_PER_SECOND));
+        long localStart = Math.addExact(startNanos, rules.getOffset(start).getTotalSeconds() * NANOS_PER_SECOND);
+        long day = Math.floorDiv(localStart, NANOS_PER_DAY);
+        long nanoOfDay = Math.floorMod(localStart, NANOS_PER_DAY);
+        int weekends = builder.weekendMask;
+        if (!WeekendMask.isWeekend(weekends, EpochDays.dayOfWeek(day)) && nanoOfDay < openNanoOfDay + sessionNanos) {
+            this.baseActiveNanos = Math.max(0, nanoOfDay - openNanoOfDay);
+        } else {
+            do {
+                day++;
+            } while (WeekendMask.isWeekend(weekends, EpochDays.dayOfWeek(day)));
+            this.baseActiveNanos = 0;
+        }
+        this.baseEpochDay = day;
+        this.businessDayOffsets = new int[WeekendMask.businessDaysPerWeek(weekends)];
+        for (int offset = 0, index = 0; offset < DAYS_PER_WEEK; offset++) {
+            if (!WeekendMask.isWeekend(weekends, EpochDays.dayOfWeek(day + offset))) {
+                businessDayOffsets[index++] = offset;
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @param index element index from 0 to {@link #size()} - 1
+     * @return epoch nanoseconds of the element
+     */
+    public long get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of range [0, " + size + ")");
+        }
+        long active = activeNanos(index);
+        if (!business) {
+            return Math.addExact(startNanos, active);
+        }
+        long total = Math.addExact(baseActiveNanos, active);
+        long businessDay = total / sessionNanos;
+        long epochDay = baseEpochDay + businessDay / businessDayOffsets.length * DAYS_PER_WEEK + businessDayOffsets[(int)(businessDay % businessDayOffsets.length)];
+        return toEpochNanos(EpochDays.toEpochNanos(epochDay, openNanoOfDay + total % sessionNanos));
+    }
+
+    /**
+     * @param index element index from 0 to {@link #size()} - 1
+     * @return LocalDateTime (UTC) of the element
+     */
+    public LocalDateTime getLocalDateTime(long index) {
+        long epochNanos = get(index);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), (int)Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+    public Spliterator.OfLong spliterator() {
+        return new TimestampSpliterator(0, size);
+    }
+
+    public LongStream stream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    public LongStream parallelStream() {
+        return StreamSupport.longStream(spliterator(), true);
+    }
+
+    /**
+     * @return time from the start (in business time if business hours are specified)
+     */
+    private long activeNanos(long index) {
+        if (burstSize > 0) {
+            return Math.addExact(Math.multiplyExact(index / burstSize, burstPeriodNanos), index % burstSize * stepNanos);
+        }
+        return Math.multiplyExact(index, stepNanos);
+    }
+
+    private long toEpochNanos(long localNanos) {
+        if (fixedOffset != null) {
+            return Math.subtractExact(localNanos, fixedOffset.getTotalSeconds() * NANOS_PER_SECOND);
+        }
+        long localSecond = Math.floorDiv(localNanos, NANOS_PER_SECOND);
+        int nano = (int)Math.floorMod(localNanos, NANOS_PER_SECOND);
+        ZonedDateTime dateTime = ZonedDateTime.of(LocalDateTime.ofEpochSecond(localSecond, nano, ZoneOffset.UTC), zoneId);
+        return Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(), NANOS_PER_SECOND), nano);
+    }
+
+    private class TimestampSpliterator implements Spliterator.OfLong {
+        private long index;
+        private final long end;
+
+        private TimestampSpliterator(long index, long end) {
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public OfLong trySplit() {
+            long middle = index + (end - index) / 2;
+            if (middle <= index) {
+                return null;
+            }
+            TimestampSpliterator prefix = new TimestampSpliterator(index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            Objects.requireNonNull(action, "action argument is null");
+            if (index >= end) {
+                return false;
+            }
+            action.accept(get(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            Objects.requireNonNull(action, "action argument is null");
+            for (long i = index; i < end; i++) {
+                action.accept(get(i));
+            }
+            index = end;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+
+    public static class Builder {
+        private long startNanos = Long.MIN_VALUE;
+        private long count = -1;
+        private long stepNanos;
+        private int burstSize;
+        private long burstGapNanos;
+        private LocalTime openTime;
+        private LocalTime closeTime;
+        private int weekendMask = WeekendMask.SATURDAY_SUNDAY;
+        private ZoneId zoneId = ZoneOffset.UTC;
+
+        private Builder() {
+        }
+
+        public Builder start(long epochNanos) {
+            this.startNanos = epochNanos;
+            return this;
+        }
+
+        /**
+         * @param dateTime LocalDateTime (UTC)
+         */
+        public Builder start(LocalDateTime dateTime) {
+            return start(Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND), dateTime.getNano()));
+        }
+
+        /**
+         * @param modifyPattern pattern applied to the current date/time (UTC)
+         */
+        public Builder start(String modifyPattern) {
+            return start(DateModificator.modify(DateTimeUtility.nowLocalDateTime(), DateModificator.compile(modifyPattern)));
+        }
+
+        /**
+         * @param modifyPattern pattern of a fixed length, e.g. <code>s+1:ms+500</code>
+         */
+        public Builder step(String modifyPattern) {
+            return step(DateModificator.toDuration(DateModificator.compile(modifyPattern)));
+        }
+
+        public Builder step(Duration step) {
+            this.stepNanos = step.toNanos();
+            if (stepNanos <= 0) {
+                throw new IllegalArgumentException("Step should be positive: " + step);
+            }
+            return this;
+        }
+
+        /**
+         * @param perSecond number of elements per second
+         */
+        public Builder rate(double perSecond) {
+            if (!(perSecond > 0) || perSecond > NANOS_PER_SECOND) {
+                throw new IllegalArgumentException("Rate should be in range (0, " + NANOS_PER_SECOND + "]: " + perSecond);
+            }
+            return step(Duration.ofNanos(Math.round(NANOS_PER_SECOND / perSecond)));
+        }
+
+        /**
+         * Groups elements into bursts, elements of a burst follow with the step
+         *
+         * @param size       number of elements in a burst
+         * @param gapPattern pattern of a fixed length between the last element of a burst and the first element of the next one
+         */
+        public Builder bursts(int size, String gapPattern) {
+            return bursts(size, DateModificator.toDuration(DateModificator.compile(gapPattern)));
+        }
+
+        public Builder bursts(int size, Duration gap) {
+            if (size < 1) {
+                throw new IllegalArgumentException("Burst size should be positive: " + size);
+            }
+            if (gap.isNegative()) {
+                throw new IllegalArgumentException("Gap between bursts should not be negative: " + gap);
+            }
+            this.burstSize = size;
+            this.burstGapNanos = gap.toNanos();
+            return this;
+        }
+
+        /**
+         * Places elements only within business hours of business days, the time outside is skipped
+         *
+         * @param open  session open time, e.g. <code>09:00</code>
+         * @param close session close time, should be after the open time
+         */
+        public Builder businessHours(String open, String close) {
+            return businessHours(LocalTime.parse(open), LocalTime.parse(close));
+        }
+
+        public Builder businessHours(LocalTime open, LocalTime close) {
+            if (!close.isAfter(open)) {
+                throw new IllegalArgumentException("Close time " + close + " should be after open time " + open);
+            }
+            this.openTime = open;
+            this.closeTime = close;
+            return this;
+        }
+
+        /**
+         * @param weekends day of week names, Saturday and Sunday by default
+         */
+        public Builder weekends(String... weekends) {
+            this.weekendMask = WeekendMask.parse(weekends);
+            return this;
+        }
+
+        /**
+         * @param timeZoneId zone of business hours, UTC by default
+         */
+        public Builder timeZoneId(String timeZoneId) {
+            this.zoneId = DateTimeUtility.toZoneId(timeZoneId);
+            return this;
+        }
+
+        public Builder count(long count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Count should not be negative: " + count);
+            }
+            this.count = count;
+            return this;
+        }
+
+        public TimestampSequence build() {
+            if (startNanos == Long.MIN_VALUE) {
+                throw new IllegalStateException("Start is not specified");
+            }
+            if (stepNanos == 0) {
+                throw new IllegalStateException("Step is not specified");
+            }
+            if (count < 0) {
+                throw new IllegalStateException("Count is not specified");
+            }
+            return new TimestampSequence(this);
+        }
+    }
+}
@@ -0,0 +1,474 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_DAY;
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Format pattern compiled into a chain of fixed-width segments which print and parse UTC date/time fields
+ * directly from primitive values.
+ * <p>
+ * Supported pattern letters are <code>yyyy</code>, <code>MM</code>, <code>dd</code>, <code>HH</code>, <code>mm</code>,
+ * <code>ss</code> and <code>S</code> to <code>SSSSSSSSS</code>, each at most once, with literals and quoted text.
+ * Other patterns, years outside 1-9999 and values the segments can't parse are delegated to {@link DateTimeFormatter}
+ * (see {@link IncrementalDateTimeFormatter} and {@link DateTimeUtility#parseLocalDateTime(String, String)}), so results
+ * and errors are the same as with the formatter. Absent fields are parsed as in {@link DateTimeUtility#toLocalDateTime(java.time.temporal.TemporalAccessor)}.
+ */
+public final class CompiledDateTimeFormat {
+
+    private static final PatternCache<CompiledDateTimeFormat> CACHE = new PatternCache<>(CompiledDateTimeFormat::new);
+
+    private static final int YEAR = 0;
+    private static final int MONTH = 1;
+    private static final int DAY = 2;
+    private static final int HOUR = 3;
+    private static final int MINUTE = 4;
+    private static final int SECOND = 5;
+    private static final int NANO = 6;
+    private static final int FIELD_COUNT = 7;
+    private static final int[] DEFAULTS = { DateTimeUtility.MIN_DATE.getYear(), 1, 1, 0, 0, 0, 0 };
+    private static final int[] MIN_VALUES = { 1, 1, 1, 0, 0, 0, 0 };
+    private static final int[] MAX_VALUES = { 9999, 12, 31, 23, 59, 59, 999_999_999 };
+    private static final int[] POWERS_OF_TEN = { 1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000 };
+    private static final int MAX_FRACTION_DIGITS = 9;
+
+    private final String pattern;
+    private final Segment[] segments;
+    private final int length;
+    private final boolean fullDate;
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    private CompiledDateTimeFormat(String pattern) {
+        this.pattern = pattern;
+        Segment[] compiled = compile(pattern);
+        int total = 0;
+        boolean[] present = new boolean[FIELD_COUNT];
+        if (compiled != null) {
+            for (Segment segment : compiled) {
+                total += segment.width();
+                if (segment instanceof Field) {
+                    present[((Field)segment).field] = true;
+                }
+            }
+        }
+        this.segments = compiled;
+        this.length = total;
+        this.fullDate = present[YEAR] && present[MONTH] && present[DAY];
+    }
+
+    /**
+     * Returns cached compiled format for the pattern or compiles it
+     *
+     * @param pattern format pattern
+     * @return
+     */
+    public static CompiledDateTimeFormat get(String pattern) {
+        return CACHE.get(pattern);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return <code>true</code> if the pattern is handled by the segments, <code>false</code> if every call is delegated to {@link DateTimeFormatter}
+     */
+    public boolean isCompiled() {
+        return segments != null;
+    }
+
+    /**
+     * @param dateTime LocalDateTime (UTC)
+     * @return formatted date/time
+     */
+    public String format(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (segments == null || year < MIN_VALUES[YEAR] || year > MAX_VALUES[YEAR]) {
+            return IncrementalDateTimeFormatter.get(pattern).format(dateTime);
+        }
+        State current = state.get();
+        int[] fields = current.fields;
+        fields[YEAR] = year;
+        fields[MONTH] = dateTime.getMonthValue();
+        fields[DAY] = dateTime.getDayOfMonth();
+        fields[HOUR] = dateTime.getHour();
+        fields[MINUTE] = dateTime.getMinute();
+        fields[SECOND] = dateTime.getSecond();
+        fields[NANO] = dateTime.getNano();
+        return print(current);
+    }
+
+    /**
+     * @param epochNanos nanoseconds since the epoch
+     * @return formatted date/time (UTC)
+     */
+    public String format(long epochNanos) {
+        State current = state.get();
+        if (segments == null || !breakDown(epochNanos, current)) {
+            return IncrementalDateTimeFormatter.get(pattern).format(toLocalDateTime(epochNanos));
+        }
+        return print(current);
+    }
+
+    /**
+     * Writes formatted date/time (UTC) as UTF-8
+     *
+     * @param epochNanos  nanoseconds since the epoch
+     * @param destination
+     * @param offset
+     * @return number of written bytes
+     */
+    public int format(long epochNanos, byte[] destination, int offset) {
+        State current = state.get();
+        if (segments == null || !breakDown(epochNanos, current)) {
+            byte[] bytes = format(epochNanos).getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(bytes, 0, destination, offset, bytes.length);
+            return bytes.length;
+        }
+        char[] buffer = current.buffer;
+        printSegments(current);
+        for (int i = 0; i < length; i++) {
+            if (buffer[i] >= 0x80) {
+                byte[] bytes = new String(buffer, 0, length).getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(bytes, 0, destination, offset, bytes.length);
+                return bytes.length;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            destination[offset + i] = (byte)buffer[i];
+        }
+        return length;
+    }
+
+    /**
+     * @param source formatted date/time
+     * @return LocalDateTime (UTC)
+     * @throws java.time.format.DateTimeParseException if the source can't be parsed
+     */
+    public LocalDateTime parse(CharSequence source) {
+        State current = state.get();
+        if (!parseSegments(source, current)) {
+            return DateTimeUtility.parseLocalDateTime(source.toString(), pattern);
+        }
+        int[] fields = current.fields;
+        return LocalDateTime.of(fields[YEAR], fields[MONTH], fields[DAY], fields[HOUR], fields[MINUTE], fields[SECOND], fields[NANO]);
+    }
+
+    /**
+     * @param source formatted date/time (UTC)
+     * @return nanoseconds since the epoch
+     * @throws java.time.format.DateTimeParseException if the source can't be parsed
+     * @throws ArithmeticException                     if the value is out of epoch nanoseconds range
+     */
+    public long parseEpochNanos(CharSequence source) {
+        State current = state.get();
+        if (!parseSegments(source, current)) {
+            LocalDateTime dateTime = DateTimeUtility.parseLocalDateTime(source.toString(), pattern);
+            return EpochDays.toEpochNanos(dateTime.toLocalDate().toEpochDay(), dateTime.toLocalTime().toNanoOfDay());
+        }
+        int[] fields = current.fields;
+        long nanoOfDay = ((fields[HOUR] * 60L + fields[MINUTE]) * 60 + fields[SECOND]) * NANOS_PER_SECOND + fields[NANO];
+        return EpochDays.toEpochNanos(EpochDays.of(fields[YEAR], fields[MONTH], fields[DAY]), nanoOfDay);
+    }
+
+    private String print(State current) {
+        printSegments(current);
+        return new String(current.buffer, 0, length);
+    }
+
+    private void printSegments(State current) {
+        int position = 0;
+        for (Segment segment : segments) {
+            position = segment.print(current.fields, current.buffer, position);
+        }
+    }
+
+    /**
+     * @return <code>false</code> if the source has to be parsed by {@link DateTimeFormatter}
+     */
+    private boolean parseSegments(CharSequence source, State current) {
+        if (segments == null || source.length() != length) {
+            return false;
+        }
+        int[] fields = current.fields;
+        System.arraycopy(DEFAULTS, 0, fields, 0, FIELD_COUNT);
+        int position = 0;
+        for (Segment segment : segments) {
+            position = segment.parse(source, position, fields);
+            if (position < 0) {
+                return false;
+            }
+        }
+        int lengthOfMonth = EpochDays.lengthOfMonth(fields[YEAR], fields[MONTH]);
+        if (fields[DAY] > lengthOfMonth) {
+            if (!fullDate) {
+                return false;
+            }
+            // the smart resolver of DateTimeFormatter moves invalid day of month to the last day
+            fields[DAY] = lengthOfMonth;
+        }
+        return true;
+    }
+
+    private static boolean breakDown(long epochNanos, State current) {
+        long epochDay = Math.floorDiv(epochNanos, NANOS_PER_DAY);
+        long nanoOfDay = Math.floorMod(epochNanos, NANOS_PER_DAY);
+        int[] fields = current.fields;
+        if (epochDay != current.epochDay) {
+            current.epochDay = epochDay;
+            current.packedDate = EpochDays.toPackedDate(epochDay);
+        }
+        fields[YEAR] = EpochDays.year(current.packedDate);
+        fields[MONTH] = EpochDays.month(current.packedDate);
+        fields[DAY] = EpochDays.day(current.packedDate);
+        int secondOfDay = (int)(nanoOfDay / NANOS_PER_SECOND);
+        fields[HOUR] = secondOfDay / 3600;
+        fields[MINUTE] = secondOfDay / 60 % 60;
+        fields[SECOND] = secondOfDay % 60;
+        fields[NANO] = (int)(nanoOfDay % NANOS_PER_SECOND);
+        return fields[YEAR] >= MIN_VALUES[YEAR] && fields[YEAR] <= MAX_VALUES[YEAR];
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochNanos) {
+        return LocalDateTime.of(LocalDate.ofEpochDay(Math.floorDiv(epochNanos, NANOS_PER_DAY)), LocalTime.ofNanoOfDay(Math.floorMod(epochNanos, NANOS_PER_DAY)));
+    }
+
+    /**
+     * @return segments or <code>null</code> if the pattern is not supported
+     */
+    private static Segment[] compile(String pattern) {
+        List<Segment> segments = new ArrayList<>();
+        boolean[] present = new boolean[FIELD_COUNT];
+        StringBuilder literal = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char symbol = pattern.charAt(i);
+            if (symbol == '\'') {
+                // the same rules as DateTimeFormatterBuilder.appendPattern
+                int end = i + 1;
+                for (; end < pattern.length(); end++) {
+                    if (pattern.charAt(end) == '\'') {
+                        if (end + 1 < pattern.length() && pattern.charAt(end + 1) == '\'') {
+                            end++;
+                        } else {
+                            break;
+                        }
+                    }
+                }
+                if (end >= pattern.length()) {
+                    return null;
+                }
+                String text = pattern.substring(i + 1, end);
+                if (text.indexOf('y') >= 0) {
+                    // parseLocalDateTime looks for the last 'y' regardless of quotes
+                    return null;
+                }
+                literal.append(text.isEmpty() ? "'" : text.replace("''", "'"));
+                quoted = true;
+                i = end;
+            } else if ((symbol >= 'A' && symbol <= 'Z') || (symbol >= 'a' && symbol <= 'z')) {
+                int end = i;
+                while (end < pattern.length() && pattern.charAt(end) == symbol) {
+                    end++;
+                }
+                int count = end - i;
+                int field = fieldOf(symbol, count);
+                if (field < 0 || present[field]) {
+                    return null;
+                }
+                if (field == YEAR && (quoted || end < pattern.length() && Character.isDigit(pattern.charAt(end)))) {
+                    // parseLocalDateTime inserts a delimiter after the year at the same index of the pattern and the source
+                    return null;
+                }
+                present[field] = true;
+                if (literal.length() > 0) {
+                    segments.add(new Literal(literal.toString()));
+                    literal.setLength(0);
+                }
+                segments.add(field == NANO ? new Fraction(count) : new Field(field, count));
+                i = end - 1;
+            } else if ("[]{}#".indexOf(symbol) >= 0) {
+                return null;
+            } else {
+                literal.append(symbol);
+            }
+        }
+        if (literal.length() > 0) {
+            segments.add(new Literal(literal.toString()));
+        }
+        return segments.toArray(new Segment[0]);
+    }
+
+    private static int fieldOf(char symbol, int count) {
+        switch (symbol) {
+        case 'y':
+            return count == 4 ? YEAR : -1;
+        case 'M':
+            return count == 2 ? MONTH : -1;
+        case 'd':
+            return count == 2 ? DAY : -1;
+        case 'H':
+            return count == 2 ? HOUR : -1;
+        case 'm':
+            return count == 2 ? MINUTE : -1;
+        case 's':
+            return count == 2 ? SECOND : -1;
+        case 'S':
+            return count <= MAX_FRACTION_DIGITS ? NANO : -1;
+        default:
+            return -1;
+        }
+    }
+
+    private interface Segment {
+        int width();
+
+        /**
+         * @return position after the segment
+         */
+        int print(int[] fields, char[] destination, int position);
+
+        /**
+         * @return position after the segment or -1 if the source does not match
+         */
+        int parse(CharSequence source, int position, int[] fields);
+    }
+
+    private static final class Literal implements Segment {
+        private final String text;
+
+        private Literal(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int width() {
+            return text.length();
+        }
+
+        @Override
+        public int print(int[] fields, char[] destination, int position) {
+            text.getChars(0, text.length(), destination, position);
+            return position + text.length();
+        }
+
+        @Override
+        public int parse(CharSequence source, int position, int[] fields) {
+            for (int i = 0; i < text.length(); i++) {
+                if (source.charAt(position + i) != text.charAt(i)) {
+                    return -1;
+                }
+            }
+            return position + text.length();
+        }
+    }
+
+    private static final class Field implements Segment {
+        private final int field;
+        private final int digits;
+
+        private Field(int field, int digits) {
+            this.field = field;
+            this.digits = digits;
+        }
+
+        @Override
+        public int width() {
+            return digits;
+        }
+
+        @Override
+        public int print(int[] fields, char[] destination, int position) {
+            int value = fields[field];
+            for (int i = position + digits - 1; i >= position; i--) {
+                destination[i] = (char)('0' + value % 10);
+                value /= 10;
+            }
+            return position + digits;
+        }
+
+        @Override
+        public int parse(CharSequence source, int position, int[] fields) {
+            int value = parseDigits(source, position, digits);
+            if (value < MIN_VALUES[field] || value > MAX_VALUES[field]) {
+                return -1;
+            }
+            fields[field] = value;
+            return position + digits;
+        }
+    }
+
+    private static final class Fraction implements Segment {
+        private final int digits;
+
+        private Fraction(int digits) {
+            this.digits = digits;
+        }
+
+        @Override
+        public int width() {
+            return digits;
+        }
+
+        @Override
+        public int print(int[] fields, char[] destination, int position) {
+            int value = fields[NANO] / POWERS_OF_TEN[MAX_FRACTION_DIGITS - digits];
+            for (int i = position + digits - 1; i >= position; i--) {
+                destination[i] = (char)('0' + value % 10);
+                value /= 10;
+            }
+            return position + digits;
+        }
+
+        @Override
+        public int parse(CharSequence source, int position, int[] fields) {
+            int value = parseDigits(source, position, digits);
+            if (value < 0) {
+                return -1;
+            }
+            fields[NANO] = value * POWERS_OF_TEN[MAX_FRACTION_DIGITS - digits];
+            return position + digits;
+        }
+    }
+
+    private static int parseDigits(CharSequence source, int position, int digits) {
+        int value = 0;
+        for (int i = position; i < position + digits; i++) {
+            int digit = source.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private class State {
+        private final int[] fields = new int[FIELD_COUNT];
+        private final char[] buffer = new char[Math.max(length, 1)];
+        private long epochDay = Long.MIN_VALUE;
+        private int packedDate;
+    }
+}
@@ -29,6 +29,10 @@ import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalField;
 import java.time.temporal.TemporalQueries;
 import java.util.Date;
+import java.util.Set;
+
+import com.exactpro.th2.lib.fix.jfr.FormatterCreationEvent;
+import com.exactpro.th2.lib.fix.jfr.ZoneResolutionEvent;
 
 public class DateTimeUtility {
 
@@ -36,6 +40,9 @@ public class DateTimeUtility {
     public static final LocalTime MIN_TIME = LocalTime.MIN;
     public static final LocalDateTime MIN_DATE_TIME = LocalDateTime.of(MIN_DATE, MIN_TIME);
 
+    private static final PatternCache<DateTimeFormatter> FORMATTERS = new PatternCache<>(DateTimeUtility::compileFormatter);
+    private static final PatternCache<ZoneId> ZONES = new PatternCache<>(DateTimeUtility::resolveZoneId);
+
     public static ZonedDateTime toZonedDateTime(long millisecond) {
         Instant instant = Instant.ofEpochMilli(millisecond);
         return ZonedDateTime.ofInstant(instant, ZoneOffset.UTC);
@@ -100,7 +107,7 @@ public class DateTimeUtility {
      * @return LocalDateTime (UTC)
      */
     public static LocalDateTime toLocalDateTime(Timestamp timestamp) {
-        long second = timestamp.getTime() / 1000;
+        long second = Math.floorDiv(timestamp.getTime(), 1000);
         return LocalDateTime.ofEpochSecond(second, timestamp.getNanos(), ZoneOffset.UTC);
     }
 
@@ -143,6 +150,9 @@ public class DateTimeUtility {
      * @return LocalDate (UTC)
      */
     public static LocalDate toLocalDate(TemporalAccessor temporal) {
+        if (temporal instanceof LocalDateTime) {
+            return ((LocalDateTime)temporal).toLocalDate();
+        }
         ZonedDateTime zonedDateTime = toZonedDateTime(temporal);
         return zonedDateTime.toLocalDate();
     }
@@ -154,7 +164,7 @@ public class DateTimeUtility {
      * @return LocalDate (UTC)
      */
     public static LocalDate toLocalDate(Date date) {
-        return toLocalDateTime(date).toLocalDate();
+        return TemporalCache.getDateOfEpochMillis(date.getTime());
     }
 
     /**
@@ -164,7 +174,7 @@ public class DateTimeUtility {
      * @return LocalDate (UTC)
      */
     public static LocalDate toLocalDate(Timestamp timestamp) {
-        return toLocalDateTime(timestamp).toLocalDate();
+        return TemporalCache.getDateOfEpochMillis(timestamp.getTime());
     }
 
     /**
@@ -174,7 +184,7 @@ public class DateTimeUtility {
      * @return LocalDate (UTC)
      */
     public static LocalDate toLocalDate(long millisecond) {
-        return toLocalDateTime(millisecond).toLocalDate();
+        return TemporalCache.getDateOfEpochMillis(millisecond);
     }
 
     /**
@@ -184,6 +194,9 @@ public class DateTimeUtility {
      * @return LocalTime (UTC)
      */
     public static LocalTime toLocalTime(TemporalAccessor temporal) {
+        if (temporal instanceof LocalDateTime) {
+            return ((LocalDateTime)temporal).toLocalTime();
+        }
         ZonedDateTime zonedDateTime = toZonedDateTime(temporal);
         return zonedDateTime.toLocalTime();
     }
@@ -195,7 +208,7 @@ public class DateTimeUtility {
      * @return LocalTime (UTC)
      */
     public static LocalTime toLocalTime(Date date) {
-        return toLocalDateTime(date).toLocalTime();
+        return TemporalCache.getTimeOfEpochMillis(date.getTime());
     }
 
     /**
@@ -215,7 +228,7 @@ public class DateTimeUtility {
      * @return LocalTime (UTC)
      */
     public static LocalTime toLocalTime(long millisecond) {
-        return toLocalDateTime(millisecond).toLocalTime();
+        return TemporalCache.getTimeOfEpochMillis(millisecond);
     }
 
     /**
@@ -320,7 +333,7 @@ public class DateTimeUtility {
      * @return
      */
     public static ZonedDateTime nowZonedDateTime(String zoneId) {
-        return ZonedDateTime.now(ZoneId.of(zoneId));
+        return ZonedDateTime.now(toZoneId(zoneId));
     }
 
     /**
@@ -367,7 +380,13 @@ public class DateTimeUtility {
      *         1970-01-01T00:00:00Z
      */
     public static long getMillisecond(LocalDateTime localDateTime) {
-        return localDateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+        // the same as toInstant(ZoneOffset.UTC).toEpochMilli() without relying on escape analysis of the Instant
+        long second = localDateTime.toEpochSecond(ZoneOffset.UTC);
+        int millisecond = localDateTime.getNano() / 1_000_000;
+        if (second < 0 && millisecond > 0) {
+            return Math.addExact(Math.multiplyExact(second + 1, 1_000), millisecond - 1_000);
+        }
+        return Math.addExact(Math.multiplyExact(second, 1_000), millisecond);
     }
 
     /**
@@ -389,7 +408,7 @@ public class DateTimeUtility {
      *         1970-01-01T00:00:00Z
      */
     public static long getSecond(LocalDateTime localDateTime) {
-        return localDateTime.toInstant(ZoneOffset.UTC).getEpochSecond();
+        return localDateTime.toEpochSecond(ZoneOffset.UTC);
     }
 
 
@@ -414,6 +433,92 @@ public class DateTimeUtility {
         return DateTimeFormatter.ofPattern(pattern).withZone(ZoneOffset.UTC);
     }
 
+    private static DateTimeFormatter compileFormatter(String pattern) {
+        FormatterCreationEvent event = new FormatterCreationEvent();
+        event.begin();
+        DateTimeFormatter formatter = createFormatter(pattern);
+        if (event.shouldCommit()) {
+            event.pattern = pattern;
+            event.commit();
+        }
+        return formatter;
+    }
+
+    /**
+     * Create DateTimeFormatter with specified time zone from the cached UTC formatter of the pattern
+     *
+     * @param pattern
+     * @param timeZoneId
+     * @return
+     */
+    public static DateTimeFormatter createFormatter(String pattern, String timeZoneId) {
+        return getFormatter(pattern).withZone(toZoneId(timeZoneId));
+    }
+
+    /**
+     * Returns cached ZoneId for the time zone id or resolves it
+     *
+     * @param timeZoneId region id or offset
+     * @return
+     */
+    public static ZoneId toZoneId(String timeZoneId) {
+        return ZONES.get(timeZoneId);
+    }
+
+    private static ZoneId resolveZoneId(String timeZoneId) {
+        ZoneResolutionEvent event = new ZoneResolutionEvent();
+        event.begin();
+        ZoneId zoneId = ZoneId.of(timeZoneId);
+        if (event.shouldCommit()) {
+            event.zoneId = timeZoneId;
+            event.commit();
+        }
+        return zoneId;
+    }
+
+    /**
+     * Returns cached DateTimeFormatter with UTC time zone or creates it
+     *
+     * @param pattern
+     * @return
+     */
+    public static DateTimeFormatter getFormatter(String pattern) {
+        return FORMATTERS.get(pattern);
+    }
+
+    /**
+     * @return snapshot of the format patterns cached by {@link #getFormatter(String)}
+     */
+    public static Set<String> getCachedFormatPatterns() {
+        return FORMATTERS.keys();
+    }
+
+    /**
+     * @return snapshot of the time zone ids cached by {@link #toZoneId(String)}
+     */
+    public static Set<String> getCachedZoneIds() {
+        return ZONES.keys();
+    }
+
+    /**
+     * Parse a string using format pattern to LocalDateTime in UTC time zone.
+     * If the year is immediately followed by a non-digit pattern letter a space is inserted after it
+     * into both pattern and source, so adjacent values like <code>yyyyMMdd</code> are parsed correctly.
+     *
+     * @param source
+     * @param formatPattern
+     * @return LocalDateTime (UTC)
+     */
+    public static LocalDateTime parseLocalDateTime(String source, String formatPattern) {
+        int yearPos = formatPattern.lastIndexOf('y') + 1;
+        if (yearPos > 0 && formatPattern.length() > yearPos && !Character.isDigit(formatPattern.charAt(yearPos))) {
+            formatPattern = new StringBuilder(formatPattern).insert(yearPos, ' ').toString();
+            source = new StringBuilder(source).insert(yearPos, ' ').toString();
+        }
+
+        return toLocalDateTime(getFormatter(formatPattern).parse(source));
+    }
+
     private static int getOrDefault(TemporalAccessor temporalAccessor, TemporalField field, int defaultValue) {
         return temporalAccessor.isSupported(field) ? temporalAccessor.get(field) : defaultValue;
     }
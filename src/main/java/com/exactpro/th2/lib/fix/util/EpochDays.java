@@ -0,0 +1,123 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+/**
+ * Allocation-free conversions between proleptic ISO calendar dates and epoch days (days since 1970-01-01).
+ * Dates are represented as packed <code>int</code> values <code>year * 10000 + month * 100 + day</code>,
+ * e.g. <code>20210530</code>; use {@link #year(int)}, {@link #month(int)} and {@link #day(int)} to unpack them.
+ */
+public class EpochDays {
+
+    public static final int DAYS_PER_WEEK = 7;
+    public static final long SECONDS_PER_DAY = 86_400;
+    public static final long MILLIS_PER_DAY = SECONDS_PER_DAY * 1_000;
+    public static final long NANOS_PER_SECOND = 1_000_000_000;
+    public static final long NANOS_PER_DAY = SECONDS_PER_DAY * NANOS_PER_SECOND;
+
+    private static final long DAYS_0000_TO_1970 = 719_468;
+    private static final long DAYS_PER_CYCLE = 146_097;
+
+    private EpochDays() {
+    }
+
+    /**
+     * @param year
+     * @param month 1-12
+     * @param day   1-31
+     * @return the number of days since 1970-01-01
+     */
+    public static long of(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * ((month + 9) % 12) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * @param epochDay the number of days since 1970-01-01
+     * @return packed date <code>year * 10000 + month * 100 + day</code>
+     */
+    public static int toPackedDate(long epochDay) {
+        long shifted = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(shifted, DAYS_PER_CYCLE);
+        long dayOfEra = shifted - era * DAYS_PER_CYCLE;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int)(dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int)(monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (int)year * 10_000 + month * 100 + day;
+    }
+
+    /**
+     * @param epochDay the number of days since 1970-01-01
+     * @param nanos    nanoseconds to add to the start of the day, may be negative or exceed the day
+     * @return nanoseconds since the epoch
+     * @throws ArithmeticException if the result is out of long range
+     */
+    public static long toEpochNanos(long epochDay, long nanos) {
+        epochDay = Math.addExact(epochDay, Math.floorDiv(nanos, NANOS_PER_DAY));
+        nanos = Math.floorMod(nanos, NANOS_PER_DAY);
+        if (epochDay < 0 && nanos > 0) {
+            // the start of the first representable day 1677-09-21 is out of range itself
+            epochDay++;
+            nanos -= NANOS_PER_DAY;
+        }
+        return Math.addExact(Math.multiplyExact(epochDay, NANOS_PER_DAY), nanos);
+    }
+
+    public static int year(int packedDate) {
+        return Math.floorDiv(packedDate, 10_000);
+    }
+
+    public static int month(int packedDate) {
+        return Math.floorMod(packedDate, 10_000) / 100;
+    }
+
+    public static int day(int packedDate) {
+        return Math.floorMod(packedDate, 100);
+    }
+
+    /**
+     * @param epochDay the number of days since 1970-01-01
+     * @return ISO day of week from 1 (Monday) to 7 (Sunday)
+     */
+    public static int dayOfWeek(long epochDay) {
+        return (int)Math.floorMod(epochDay + 3, DAYS_PER_WEEK) + 1;
+    }
+
+    public static boolean isLeapYear(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    public static int lengthOfMonth(int year, int month) {
+        switch (month) {
+        case 2:
+            return isLeapYear(year) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.DAYS_PER_WEEK;
+
+import java.time.DayOfWeek;
+
+/**
+ * Constant time calculation of derivatives expiry dates over epoch days (days since 1970-01-01):
+ * n-th day of week of a month, third Friday, IMM dates and n-th business day of a month.
+ * Weekends are {@link WeekendMask} masks, every calculation iterates over at most a week.
+ * Masks are checked by {@link WeekendMask#validate(int)}, so at least one day of week should be a business day.
+ */
+public class ExpiryDates {
+
+    private static final int MONTHS_PER_QUARTER = 3;
+    private static final int MONTHS_PER_YEAR = 12;
+    private static final int THIRD = 3;
+
+    private ExpiryDates() {
+    }
+
+    /**
+     * @param year
+     * @param month     1-12
+     * @param n         1-5 for the n-th day of week from the start of the month, -1 to -5 from the end (-1 is the last one)
+     * @param dayOfWeek ISO day of week from 1 (Monday) to 7 (Sunday)
+     * @return epoch day
+     * @throws IllegalArgumentException if the month has no such day
+     */
+    public static long nthDayOfWeek(int year, int month, int n, int dayOfWeek) {
+        long first = EpochDays.of(year, month, 1);
+        int length = EpochDays.lengthOfMonth(year, month);
+        long result;
+        if (n > 0) {
+            result = first + Math.floorMod(dayOfWeek - EpochDays.dayOfWeek(first), DAYS_PER_WEEK) + (n - 1L) * DAYS_PER_WEEK;
+        } else if (n < 0) {
+            long last = first + length - 1;
+            result = last - Math.floorMod(EpochDays.dayOfWeek(last) - dayOfWeek, DAYS_PER_WEEK) + (n + 1L) * DAYS_PER_WEEK;
+        } else {
+            throw new IllegalArgumentException("Day of week number should not be zero");
+        }
+        if (result < first || result >= first + length) {
+            throw new IllegalArgumentException(String.format("%04d-%02d has no day of week %s number %d", year, month, DayOfWeek.of(dayOfWeek), n));
+        }
+        return result;
+    }
+
+    /**
+     * @param year
+     * @param month    1-12
+     * @param weekends weekend mask
+     * @return third Friday of the month or the preceding business day if it is a weekend
+     */
+    public static long thirdFriday(int year, int month, int weekends) {
+        return previousBusinessDay(nthDayOfWeek(year, month, THIRD, DayOfWeek.FRIDAY.getValue()), WeekendMask.validate(weekends));
+    }
+
+    /**
+     * @param year
+     * @param month    1-12
+     * @param weekends weekend mask
+     * @return third Wednesday of the month or the following business day if it is a weekend
+     */
+    public static long immDate(int year, int month, int weekends) {
+        return nextBusinessDay(nthDayOfWeek(year, month, THIRD, DayOfWeek.WEDNESDAY.getValue()), WeekendMask.validate(weekends));
+    }
+
+    /**
+     * @param epochDay
+     * @param weekends weekend mask
+     * @return the first IMM date (third Wednesday of March, June, September or December) on or after the day
+     */
+    public static long nextImmDate(long epochDay, int weekends) {
+        WeekendMask.validate(weekends);
+        int date = EpochDays.toPackedDate(epochDay);
+        int year = EpochDays.year(date);
+        int month = (EpochDays.month(date) + MONTHS_PER_QUARTER - 1) / MONTHS_PER_QUARTER * MONTHS_PER_QUARTER;
+        long result = immDate(year, month, weekends);
+        if (result < epochDay) {
+            month += MONTHS_PER_QUARTER;
+            if (month > MONTHS_PER_YEAR) {
+                month -= MONTHS_PER_YEAR;
+                year++;
+            }
+            result = immDate(year, month, weekends);
+        }
+        return result;
+    }
+
+    /**
+     * @param year
+     * @param month    1-12
+     * @param n        1 for the first business day of the month, -1 for the last one
+     * @param weekends weekend mask
+     * @return epoch day
+     * @throws IllegalArgumentException if the month has less than <code>|n|</code> business days
+     */
+    public static long nthBusinessDay(int year, int month, int n, int weekends) {
+        WeekendMask.validate(weekends);
+        long first = EpochDays.of(year, month, 1);
+        long last = first + EpochDays.lengthOfMonth(year, month) - 1;
+        long result;
+        if (n > 0) {
+            result = addBusinessDays(nextBusinessDay(first, weekends), n - 1, weekends);
+        } else if (n < 0) {
+            result = addBusinessDays(previousBusinessDay(last, weekends), n + 1, weekends);
+        } else {
+            throw new IllegalArgumentException("Business day number should not be zero");
+        }
+        if (result < first || result > last) {
+            throw new IllegalArgumentException(String.format("%04d-%02d has no business day number %d", year, month, n));
+        }
+        return result;
+    }
+
+    /**
+     * @param epochDay
+     * @param weekends weekend mask
+     * @return the day if it is a business day, otherwise the nearest following business day
+     */
+    public static long nextBusinessDay(long epochDay, int weekends) {
+        WeekendMask.validate(weekends);
+        while (WeekendMask.isWeekend(weekends, EpochDays.dayOfWeek(epochDay))) {
+            epochDay++;
+        }
+        return epochDay;
+    }
+
+    /**
+     * @param epochDay
+     * @param weekends weekend mask
+     * @return the day if it is a business day, otherwise the nearest preceding business day
+     */
+    public static long previousBusinessDay(long epochDay, int weekends) {
+        WeekendMask.validate(weekends);
+        while (WeekendMask.isWeekend(weekends, EpochDays.dayOfWeek(epochDay))) {
+            epochDay--;
+        }
+        return epochDay;
+    }
+
+    /**
+     * @param epochDay business day
+     * @param days     number of business days to add, may be negative
+     * @param weekends weekend mask
+     * @return epoch day
+     */
+    public static long addBusinessDays(long epochDay, long days, int weekends) {
+        int perWeek = WeekendMask.businessDaysPerWeek(WeekendMask.validate(weekends));
+        long result = epochDay + days / perWeek * DAYS_PER_WEEK;
+        long remainder = days % perWeek;
+        int step = remainder < 0 ? -1 : 1;
+        while (remainder != 0) {
+            result += step;
+            if (!WeekendMask.isWeekend(weekends, EpochDays.dayOfWeek(result))) {
+                remainder -= step;
+            }
+        }
+        return result;
+    }
+}
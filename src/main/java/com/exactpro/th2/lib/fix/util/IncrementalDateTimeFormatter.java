@@ -0,0 +1,206 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formatter for {@link DateTimeFormatter} patterns in the UTC time zone which renders the part of the pattern
+ * that does not depend on fraction of second once per second per thread.
+ * Consecutive timestamps within the same second only re-render the fraction (<code>S</code> pattern letters)
+ * and append the cached prefix and suffix. The result is identical to {@link DateTimeUtility#createFormatter(String)}.
+ * <p>
+ * Patterns with nano-of-second, nano-of-day or milli-of-day (<code>n</code>, <code>N</code>, <code>A</code>),
+ * padding, optional sections or several fraction fields are formatted by the {@link DateTimeFormatter} on every call.
+ */
+public class IncrementalDateTimeFormatter {
+
+    private static final PatternCache<IncrementalDateTimeFormatter> CACHE = new PatternCache<>(IncrementalDateTimeFormatter::new);
+    private static final int MAX_FRACTION_DIGITS = 9;
+    private static final int[] POWERS_OF_TEN = { 1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000 };
+
+    private final String pattern;
+    private final DateTimeFormatter formatter;
+    private final boolean incremental;
+    private final DateTimeFormatter prefixFormatter;
+    private final DateTimeFormatter suffixFormatter;
+    private final int fractionDigits;
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    private IncrementalDateTimeFormatter(String pattern) {
+        this.pattern = pattern;
+        this.formatter = DateTimeUtility.getFormatter(pattern);
+
+        int fractionStart = -1;
+        int fractionEnd = -1;
+        boolean supported = true;
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length() && supported; i++) {
+            char symbol = pattern.charAt(i);
+            if (symbol == '\'') {
+                quoted = !quoted;
+            } else if (!quoted) {
+                switch (symbol) {
+                case 'S':
+                    if (fractionStart < 0) {
+                        fractionStart = i;
+                        fractionEnd = i;
+                        while (fractionEnd < pattern.length() && pattern.charAt(fractionEnd) == 'S') {
+                            fractionEnd++;
+                        }
+                        i = fractionEnd - 1;
+                    } else {
+                        supported = false;
+                    }
+                    break;
+                case 'n':
+                case 'N':
+                case 'A':
+                case 'p':
+                case '[':
+                case ']':
+                    supported = false;
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+
+        DateTimeFormatter prefix = null;
+        DateTimeFormatter suffix = null;
+        int digits = 0;
+        if (supported && fractionStart < 0) {
+            prefix = formatter;
+        } else if (supported && fractionEnd - fractionStart <= MAX_FRACTION_DIGITS) {
+            try {
+                prefix = fractionStart == 0 ? null : DateTimeUtility.getFormatter(pattern.substring(0, fractionStart));
+                suffix = fractionEnd == pattern.length() ? null : DateTimeUtility.getFormatter(pattern.substring(fractionEnd));
+                digits = fractionEnd - fractionStart;
+            } catch (IllegalArgumentException e) {
+                supported = false;
+            }
+        } else {
+            supported = false;
+        }
+        this.incremental = supported;
+        this.prefixFormatter = supported ? prefix : null;
+        this.suffixFormatter = supported ? suffix : null;
+        this.fractionDigits = supported ? digits : 0;
+    }
+
+    /**
+     * Returns cached formatter for the pattern or creates it
+     *
+     * @param pattern format pattern
+     * @return
+     */
+    public static IncrementalDateTimeFormatter get(String pattern) {
+        return CACHE.get(pattern);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return <code>true</code> if the pattern is rendered incrementally, <code>false</code> if every call is delegated to {@link DateTimeFormatter}
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * @param dateTime LocalDateTime (UTC)
+     * @return formatted date/time
+     */
+    public String format(LocalDateTime dateTime) {
+        StringBuilder builder = new StringBuilder(32);
+        formatTo(dateTime, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Appends formatted date/time to the appendable
+     *
+     * @param dateTime   LocalDateTime (UTC)
+     * @param appendable destination
+     */
+    public void formatTo(LocalDateTime dateTime, Appendable appendable) {
+        if (!incremental) {
+            formatter.formatTo(dateTime, appendable);
+            return;
+        }
+        State current = state.get();
+        long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        if (!current.valid || current.epochSecond != epochSecond) {
+            current.update(epochSecond, dateTime);
+        }
+        append(current, dateTime.getNano(), appendable);
+    }
+
+    /**
+     * Appends formatted date/time to the appendable
+     *
+     * @param epochSecond  the number of seconds since the epoch of 1970-01-01T00:00:00Z
+     * @param nanoOfSecond nanosecond within the second
+     * @param appendable   destination
+     */
+    public void formatTo(long epochSecond, int nanoOfSecond, Appendable appendable) {
+        if (!incremental) {
+            formatter.formatTo(LocalDateTime.ofEpochSecond(epochSecond, nanoOfSecond, ZoneOffset.UTC), appendable);
+            return;
+        }
+        State current = state.get();
+        if (!current.valid || current.epochSecond != epochSecond) {
+            current.update(epochSecond, LocalDateTime.ofEpochSecond(epochSecond, nanoOfSecond, ZoneOffset.UTC));
+        }
+        append(current, nanoOfSecond, appendable);
+    }
+
+    private void append(State current, int nanoOfSecond, Appendable appendable) {
+        try {
+            appendable.append(current.prefix);
+            if (fractionDigits > 0) {
+                int fraction = nanoOfSecond / POWERS_OF_TEN[MAX_FRACTION_DIGITS - fractionDigits];
+                for (int divisor = POWERS_OF_TEN[fractionDigits - 1]; divisor > 0; divisor /= 10) {
+                    appendable.append((char)('0' + fraction / divisor % 10));
+                }
+            }
+            appendable.append(current.suffix);
+        } catch (IOException e) {
+            throw new DateTimeException(e.getMessage(), e);
+        }
+    }
+
+    private class State {
+        private boolean valid;
+        private long epochSecond;
+        private String prefix = "";
+        private String suffix = "";
+
+        private void update(long epochSecond, LocalDateTime dateTime) {
+            this.prefix = prefixFormatter == null ? "" : prefixFormatter.format(dateTime);
+            this.suffix = suffixFormatter == null ? "" : suffixFormatter.format(dateTime);
+            this.epochSecond = epochSecond;
+            this.valid = true;
+        }
+    }
+}
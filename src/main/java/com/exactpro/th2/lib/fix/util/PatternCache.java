@@ -0,0 +1,95 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Thread-safe cache of objects compiled from string patterns (modify patterns, format patterns, zone ids).
+ * The number of cached entries is limited, values for patterns beyond the limit are compiled on every call.
+ *
+ * @param <V> compiled value type
+ */
+public class PatternCache<V> {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final Map<String, V> cache = new ConcurrentHashMap<>();
+    private final Function<String, V> compiler;
+    private final int maxSize;
+
+    public PatternCache(Function<String, V> compiler) {
+        this(compiler, DEFAULT_MAX_SIZE);
+    }
+
+    public PatternCache(Function<String, V> compiler, int maxSize) {
+        this.compiler = Objects.requireNonNull(compiler, "compiler argument is null");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns cached value for the pattern or compiles it
+     *
+     * @param pattern
+     * @return compiled value
+     */
+    public V get(String pattern) {
+        V value = cache.get(pattern);
+        if (value == null) {
+            value = compiler.apply(pattern);
+            if (cache.size() < maxSize) {
+                V previous = cache.putIfAbsent(pattern, value);
+                if (previous != null) {
+                    value = previous;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Adds the compiled value unless the pattern is already cached or the cache is full
+     *
+     * @param pattern
+     * @param value   compiled value
+     */
+    public void put(String pattern, V value) {
+        if (cache.size() < maxSize) {
+            cache.putIfAbsent(pattern, Objects.requireNonNull(value, "value argument is null"));
+        }
+    }
+
+    /**
+     * @return snapshot of the cached patterns
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(new HashSet<>(cache.keySet()));
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+}
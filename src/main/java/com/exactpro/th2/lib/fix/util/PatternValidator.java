@@ -0,0 +1,286 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.exactpro.th2.lib.fix.data.DateModificator;
+import com.exactpro.th2.lib.fix.util.ValidationError.Code;
+
+/**
+ * Validates modify patterns, format patterns and time zone ids in bulk without throwing exceptions.
+ * <p>
+ * Modify patterns and time zone ids are checked by non-throwing parsers, format patterns are checked lexically
+ * (pattern letters, reserved characters, quotes and optional sections) and only lexically valid ones are passed
+ * to {@link DateTimeFormatter}, so exceptions are limited to rare cases like too many pattern letters.
+ * Valid values are compiled into the shared caches ({@link DateModificator#compile(String)},
+ * {@link DateTimeUtility#getFormatter(String)}, {@link DateTimeUtility#toZoneId(String)}) as a side effect.
+ * <pre>
+ * List&lt;PatternValidator.Result&gt; errors = PatternValidator.validate(Arrays.asList(
+ *         PatternValidator.entry("h+1:m=0", "yyyyMMdd-HH:mm:ss.SSS", "Europe/London"),
+ *         PatternValidator.entry("x+1", null, null)));
+ * </pre>
+ */
+public final class PatternValidator {
+
+    private static final String PATTERN_LETTERS = "GuyDMLdQqYwWEecFaBghKkHmsSAnNVvzOXxZp";
+    private static final String RESERVED_CHARACTERS = "{}#";
+    private static final String[] ZONE_PREFIXES = { "UTC", "GMT", "UT" };
+    private static final int MAX_OFFSET_HOURS = 18;
+    private static final Set<String> REGION_IDS = ZoneId.getAvailableZoneIds();
+
+    private PatternValidator() {
+    }
+
+    /**
+     * @param modifyPattern modify pattern or <code>null</code>
+     * @param formatPattern format pattern or <code>null</code>
+     * @param timeZoneId    time zone id or <code>null</code>
+     * @return entry to validate
+     */
+    public static Entry entry(String modifyPattern, String formatPattern, String timeZoneId) {
+        return new Entry(modifyPattern, formatPattern, timeZoneId);
+    }
+
+    /**
+     * Validates all entries, <code>null</code> values of entries are skipped
+     *
+     * @param entries
+     * @return results of invalid entries in the order of the entries
+     */
+    public static List<Result> validate(List<Entry> entries) {
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            List<ValidationError> errors = null;
+            errors = add(errors, entry.modifyPattern == null ? null : validateModifyPattern(entry.modifyPattern));
+            errors = add(errors, entry.formatPattern == null ? null : validateFormatPattern(entry.formatPattern));
+            errors = add(errors, entry.timeZoneId == null ? null : validateZoneId(entry.timeZoneId));
+            if (errors != null) {
+                results.add(new Result(i, entry, errors));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @param modifyPattern
+     * @return the first error or <code>null</code> if the pattern is valid
+     */
+    public static ValidationError validateModifyPattern(String modifyPattern) {
+        return DateModificator.validate(modifyPattern);
+    }
+
+    /**
+     * @param formatPattern
+     * @return the first error or <code>null</code> if the pattern is valid
+     */
+    public static ValidationError validateFormatPattern(String formatPattern) {
+        Objects.requireNonNull(formatPattern, "formatPattern argument is null");
+        int optionalDepth = 0;
+        for (int i = 0; i < formatPattern.length(); i++) {
+            char symbol = formatPattern.charAt(i);
+            if (symbol == '\'') {
+                int end = formatPattern.indexOf('\'', i + 1);
+                while (end > 0 && end + 1 < formatPattern.length() && formatPattern.charAt(end + 1) == '\'') {
+                    end = formatPattern.indexOf('\'', end + 2);
+                }
+                if (end < 0) {
+                    return new ValidationError(Code.UNTERMINATED_QUOTE, formatPattern, i, formatPattern.substring(i));
+                }
+                i = end;
+            } else if ((symbol >= 'A' && symbol <= 'Z') || (symbol >= 'a' && symbol <= 'z')) {
+                if (PATTERN_LETTERS.indexOf(symbol) < 0) {
+                    return new ValidationError(Code.UNKNOWN_PATTERN_LETTER, formatPattern, i, String.valueOf(symbol));
+                }
+            } else if (RESERVED_CHARACTERS.indexOf(symbol) >= 0) {
+                return new ValidationError(Code.RESERVED_CHARACTER, formatPattern, i, String.valueOf(symbol));
+            } else if (symbol == '[') {
+                optionalDepth++;
+            } else if (symbol == ']' && --optionalDepth < 0) {
+                return new ValidationError(Code.UNBALANCED_OPTIONAL_SECTION, formatPattern, i, String.valueOf(symbol));
+            }
+        }
+        try {
+            DateTimeUtility.getFormatter(formatPattern);
+        } catch (IllegalArgumentException e) {
+            return new ValidationError(Code.INVALID_FORMAT_PATTERN, formatPattern, -1, e.getMessage());
+        }
+        IncrementalDateTimeFormatter.get(formatPattern);
+        return null;
+    }
+
+    /**
+     * Accepts the same forms as {@link ZoneId#of(String)}: <code>Z</code>, offsets, prefixed offsets and known region ids
+     *
+     * @param timeZoneId
+     * @return the first error or <code>null</code> if the id is valid
+     */
+    public static ValidationError validateZoneId(String timeZoneId) {
+        Objects.requireNonNull(timeZoneId, "timeZoneId argument is null");
+        int offsetStart = -1;
+        if (timeZoneId.equals("Z") || timeZoneId.startsWith("+") || timeZoneId.startsWith("-")) {
+            offsetStart = 0;
+        } else {
+            for (String prefix : ZONE_PREFIXES) {
+                if (timeZoneId.startsWith(prefix) && timeZoneId.length() > prefix.length()
+                        && (timeZoneId.charAt(prefix.length()) == '+' || timeZoneId.charAt(prefix.length()) == '-')) {
+                    offsetStart = prefix.length();
+                    break;
+                }
+            }
+        }
+        if (offsetStart >= 0) {
+            if (!timeZoneId.equals("Z") && !isValidOffset(timeZoneId, offsetStart)) {
+                return new ValidationError(Code.INVALID_OFFSET, timeZoneId, offsetStart, timeZoneId.substring(offsetStart));
+            }
+        } else if (!REGION_IDS.contains(timeZoneId) && !isPrefix(timeZoneId)) {
+            return new ValidationError(Code.UNKNOWN_ZONE, timeZoneId, -1, timeZoneId);
+        }
+        DateTimeUtility.toZoneId(timeZoneId);
+        return null;
+    }
+
+    private static boolean isPrefix(String timeZoneId) {
+        for (String prefix : ZONE_PREFIXES) {
+            if (prefix.equals(timeZoneId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks <code>&plusmn;h</code>, <code>&plusmn;hh</code>, <code>&plusmn;hh:mm</code>, <code>&plusmn;hhmm</code>,
+     * <code>&plusmn;hh:mm:ss</code> and <code>&plusmn;hhmmss</code> forms in range from -18:00 to +18:00
+     */
+    private static boolean isValidOffset(String value, int start) {
+        int length = value.length() - start - 1;
+        int position = start + 1;
+        int hours;
+        int minutes = 0;
+        int seconds = 0;
+        switch (length) {
+        case 1:
+            hours = digits(value, position, 1);
+            break;
+        case 2:
+            hours = digits(value, position, 2);
+            break;
+        case 4:
+        case 6:
+            hours = digits(value, position, 2);
+            minutes = digits(value, position + 2, 2);
+            seconds = length == 6 ? digits(value, position + 4, 2) : 0;
+            break;
+        case 5:
+        case 8:
+            hours = digits(value, position, 2);
+            minutes = value.charAt(position + 2) == ':' ? digits(value, position + 3, 2) : -1;
+            seconds = length == 8 ? (value.charAt(position + 5) == ':' ? digits(value, position + 6, 2) : -1) : 0;
+            break;
+        default:
+            return false;
+        }
+        return hours >= 0 && minutes >= 0 && minutes < 60 && seconds >= 0 && seconds < 60
+                && (hours < MAX_OFFSET_HOURS || (hours == MAX_OFFSET_HOURS && minutes == 0 && seconds == 0));
+    }
+
+    private static int digits(String value, int position, int count) {
+        int result = 0;
+        for (int i = position; i < position + count; i++) {
+            char symbol = value.charAt(i);
+            if (symbol < '0' || symbol > '9') {
+                return -1;
+            }
+            result = result * 10 + symbol - '0';
+        }
+        return result;
+    }
+
+    private static List<ValidationError> add(List<ValidationError> errors, ValidationError error) {
+        if (error == null) {
+            return errors;
+        }
+        if (errors == null) {
+            errors = new ArrayList<>(3);
+        }
+        errors.add(error);
+        return errors;
+    }
+
+    public static final class Entry {
+        private final String modifyPattern;
+        private final String formatPattern;
+        private final String timeZoneId;
+
+        private Entry(String modifyPattern, String formatPattern, String timeZoneId) {
+            this.modifyPattern = modifyPattern;
+            this.formatPattern = formatPattern;
+            this.timeZoneId = timeZoneId;
+        }
+
+        public String getModifyPattern() {
+            return modifyPattern;
+        }
+
+        public String getFormatPattern() {
+            return formatPattern;
+        }
+
+        public String getTimeZoneId() {
+            return timeZoneId;
+        }
+    }
+
+    public static final class Result {
+        private final int index;
+        private final Entry entry;
+        private final List<ValidationError> errors;
+
+        private Result(int index, Entry entry, List<ValidationError> errors) {
+            this.index = index;
+            this.entry = entry;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+        /**
+         * @return index of the entry in the validated list
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public Entry getEntry() {
+            return entry;
+        }
+
+        public List<ValidationError> getErrors() {
+            return errors;
+        }
+
+        @Override
+        public String toString() {
+            return index + ": " + errors;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.MILLIS_PER_DAY;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free cache of canonical {@link LocalDate} instances for the days around today and {@link LocalTime} instances for whole minutes.
+ * <p>
+ * Dates are kept in a window of {@link #WINDOW_SIZE} days starting {@link #DAYS_BEFORE} days before today (UTC).
+ * The window is moved when a day from today's window is requested, other days are created on every call.
+ */
+public class TemporalCache {
+
+    public static final int DAYS_BEFORE = 8;
+    public static final int WINDOW_SIZE = 32;
+
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final AtomicReference<Window> WINDOW = new AtomicReference<>(new Window(today() - DAYS_BEFORE));
+
+    private TemporalCache() {
+    }
+
+    /**
+     * @param epochDay
+     * @return cached or new date
+     */
+    public static LocalDate getDate(long epochDay) {
+        Window window = WINDOW.get();
+        long index = epochDay - window.firstDay;
+        if (index >= 0 && index < WINDOW_SIZE) {
+            return window.dates[(int)index];
+        }
+        return getDate(epochDay, window, today());
+    }
+
+    /**
+     * Moves the window to today's one if it contains the day
+     */
+    static LocalDate getDate(long epochDay, Window window, long today) {
+        long firstDay = today - DAYS_BEFORE;
+        long index = epochDay - firstDay;
+        if (index < 0 || index >= WINDOW_SIZE) {
+            return LocalDate.ofEpochDay(epochDay);
+        }
+        Window moved = new Window(firstDay);
+        if (!WINDOW.compareAndSet(window, moved)) {
+            // another thread has moved the window, its instances are the canonical ones
+            Window current = WINDOW.get();
+            if (current.firstDay == firstDay) {
+                return current.dates[(int)index];
+            }
+        }
+        return moved.dates[(int)index];
+    }
+
+    /**
+     * @param epochMillis
+     * @return date (UTC) of the epoch milliseconds
+     */
+    public static LocalDate getDateOfEpochMillis(long epochMillis) {
+        return getDate(Math.floorDiv(epochMillis, MILLIS_PER_DAY));
+    }
+
+    /**
+     * @param nanoOfDay
+     * @return cached time if it's a whole minute, otherwise new time
+     */
+    public static LocalTime getTime(long nanoOfDay) {
+        if (nanoOfDay % NANOS_PER_MINUTE == 0 && nanoOfDay >= 0 && nanoOfDay < MINUTES_PER_DAY * NANOS_PER_MINUTE) {
+            return Minutes.TIMES[(int)(nanoOfDay / NANOS_PER_MINUTE)];
+        }
+        return LocalTime.ofNanoOfDay(nanoOfDay);
+    }
+
+    /**
+     * @param epochMillis
+     * @return time (UTC) of the epoch milliseconds
+     */
+    public static LocalTime getTimeOfEpochMillis(long epochMillis) {
+        return getTime(Math.floorMod(epochMillis, MILLIS_PER_DAY) * 1_000_000);
+    }
+
+    static Window getWindow() {
+        return WINDOW.get();
+    }
+
+    private static long today() {
+        return Math.floorDiv(System.currentTimeMillis(), MILLIS_PER_DAY);
+    }
+
+    static class Window {
+        final long firstDay;
+        final LocalDate[] dates = new LocalDate[WINDOW_SIZE];
+
+        private Window(long firstDay) {
+            this.firstDay = firstDay;
+            for (int i = 0; i < WINDOW_SIZE; i++) {
+                dates[i] = LocalDate.ofEpochDay(firstDay + i);
+            }
+        }
+    }
+
+    private static class Minutes {
+        private static final LocalTime[] TIMES = new LocalTime[MINUTES_PER_DAY];
+
+        static {
+            for (int i = 0; i < MINUTES_PER_DAY; i++) {
+                TIMES[i] = LocalTime.of(i / 60, i % 60);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Memoizes results of "now"-based methods for the current clock tick (millisecond).
+ * All callers within the same tick share one computation, which is based on the current time truncated to milliseconds.
+ * <p>
+ * Memoization is disabled by default and enabled by the <code>th2.lib.fix.tickMemoization.enabled</code> system property.
+ * The current tick is checked with one volatile read, values of the previous ticks are dropped.
+ */
+public class TickMemoizer {
+
+    public static final String ENABLED_PROPERTY = "th2.lib.fix.tickMemoization.enabled";
+
+    private static final boolean ENABLED = isEnabled(System.getProperties());
+
+    private static volatile Tick current = new Tick(Long.MIN_VALUE);
+
+    private TickMemoizer() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    static boolean isEnabled(Properties properties) {
+        return Boolean.parseBoolean(properties.getProperty(ENABLED_PROPERTY));
+    }
+
+    /**
+     * Returns the value computed for the current tick by the method with the same arguments
+     * or computes it from the current date/time.
+     *
+     * @param method   method name
+     * @param pattern  modify pattern
+     * @param zone     time zone id, <code>null</code> if not used
+     * @param format   format pattern, <code>null</code> if not used
+     * @param function computes the value from the current date/time (UTC)
+     * @return memoized value
+     */
+    public static <T> T get(String method, String pattern, String zone, String format, Function<LocalDateTime, T> function) {
+        return get(System.currentTimeMillis(), method, pattern, zone, format, function);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T get(long millis, String method, String pattern, String zone, String format, Function<LocalDateTime, T> function) {
+        Tick tick = current;
+        if (tick.millis != millis) {
+            tick = new Tick(millis);
+            current = tick;
+        }
+        Key key = new Key(method, pattern, zone, format);
+        Object value = tick.values.get(key);
+        if (value == null) {
+            value = function.apply(tick.now);
+            Object previous = tick.values.putIfAbsent(key, value);
+            if (previous != null) {
+                value = previous;
+            }
+        }
+        return (T)value;
+    }
+
+    private static class Tick {
+        private final long millis;
+        private final LocalDateTime now;
+        private final Map<Key, Object> values = new ConcurrentHashMap<>();
+
+        private Tick(long millis) {
+            this.millis = millis;
+            this.now = millis == Long.MIN_VALUE ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+        }
+    }
+
+    private static class Key {
+        private final String method;
+        private final String pattern;
+        private final String zone;
+        private final String format;
+
+        private Key(String method, String pattern, String zone, String format) {
+            this.method = method;
+            this.pattern = pattern;
+            this.zone = zone;
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key)o;
+            return method.equals(key.method)
+                    && Objects.equals(pattern, key.pattern)
+                    && Objects.equals(zone, key.zone)
+                    && Objects.equals(format, key.format);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = method.hashCode();
+            result = 31 * result + Objects.hashCode(pattern);
+            result = 31 * result + Objects.hashCode(zone);
+            result = 31 * result + Objects.hashCode(format);
+            return result;
+        }
+    }
+}
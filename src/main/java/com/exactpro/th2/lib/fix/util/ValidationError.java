@@ -0,0 +1,94 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+/**
+ * Structured description of an invalid modify pattern, format pattern or time zone id.
+ * Validation methods return it instead of throwing, so no stack trace is captured.
+ */
+public final class ValidationError {
+
+    public enum Code {
+        /** modification has no <code>+</code>, <code>-</code> or <code>=</code> action */
+        MISSING_ACTION,
+        /** modification is not <code>component action value</code> */
+        INVALID_MODIFICATION,
+        /** unknown date component */
+        UNKNOWN_COMPONENT,
+        /** modification value is not a long */
+        INVALID_VALUE,
+        /** format pattern letter is not defined by {@link java.time.format.DateTimeFormatter} */
+        UNKNOWN_PATTERN_LETTER,
+        /** format pattern character is reserved for future use */
+        RESERVED_CHARACTER,
+        /** quoted literal of format pattern is not closed */
+        UNTERMINATED_QUOTE,
+        /** optional section brackets of format pattern are not balanced */
+        UNBALANCED_OPTIONAL_SECTION,
+        /** format pattern is lexically valid but rejected by {@link java.time.format.DateTimeFormatter}, e.g. too many letters */
+        INVALID_FORMAT_PATTERN,
+        /** offset is malformed or out of range */
+        INVALID_OFFSET,
+        /** region id is unknown */
+        UNKNOWN_ZONE
+    }
+
+    private final Code code;
+    private final String source;
+    private final int position;
+    private final String detail;
+
+    /**
+     * @param code     error code
+     * @param source   validated value
+     * @param position position of the error in the value or -1
+     * @param detail   invalid part of the value or explanation
+     */
+    public ValidationError(Code code, String source, int position, String detail) {
+        this.code = code;
+        this.source = source;
+        this.position = position;
+        this.detail = detail;
+    }
+
+    public Code getCode() {
+        return code;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return position of the error in the value or -1 if unknown
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public String getMessage() {
+        return code + " '" + detail + "'" + (position < 0 ? "" : " at " + position) + " in '" + source + "'";
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+}
@@ -0,0 +1,87 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import java.time.DayOfWeek;
+import java.util.Collection;
+
+/**
+ * Weekend days packed into an <code>int</code> bit mask, bit <code>(dayOfWeek - 1)</code> is set for every weekend day
+ */
+public class WeekendMask {
+
+    public static final int NONE = 0;
+    public static final int SATURDAY_SUNDAY = bit(DayOfWeek.SATURDAY) | bit(DayOfWeek.SUNDAY);
+
+    private static final int ALL = 0x7F;
+
+    private WeekendMask() {
+    }
+
+    /**
+     * Parses day of week names, e.g. <code>SATURDAY</code>, ignoring case
+     *
+     * @param weekends
+     * @return mask, {@link #SATURDAY_SUNDAY} if no weekends are specified
+     */
+    public static int parse(String... weekends) {
+        if (weekends == null || weekends.length == 0) {
+            return SATURDAY_SUNDAY;
+        }
+        int mask = NONE;
+        for (String weekend : weekends) {
+            mask |= bit(DayOfWeek.valueOf(weekend.trim().toUpperCase()));
+        }
+        return validate(mask);
+    }
+
+    public static int of(Collection<DayOfWeek> weekends) {
+        int mask = NONE;
+        for (DayOfWeek weekend : weekends) {
+            mask |= bit(weekend);
+        }
+        return validate(mask);
+    }
+
+    /**
+     * @param mask
+     * @param dayOfWeek ISO day of week from 1 (Monday) to 7 (Sunday)
+     * @return <code>true</code> if the day is a weekend
+     */
+    public static boolean isWeekend(int mask, int dayOfWeek) {
+        return (mask & 1 << dayOfWeek - 1) != 0;
+    }
+
+    public static int businessDaysPerWeek(int mask) {
+        return EpochDays.DAYS_PER_WEEK - Integer.bitCount(mask & ALL);
+    }
+
+    private static int bit(DayOfWeek dayOfWeek) {
+        return 1 << dayOfWeek.ordinal();
+    }
+
+    /**
+     * @param mask
+     * @return the mask
+     * @throws IllegalArgumentException if all days of week are weekends, so there is no business day to look for
+     */
+    public static int validate(int mask) {
+        if ((mask & ALL) == ALL) {
+            throw new IllegalArgumentException("All days of week can't be weekends");
+        }
+        return mask;
+    }
+}
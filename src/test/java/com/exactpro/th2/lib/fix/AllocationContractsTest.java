@@ -0,0 +1,276 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.exactpro.th2.lib.fix.codec.UTCTimestampCodec;
+import com.exactpro.th2.lib.fix.data.DateModificator;
+import com.exactpro.th2.lib.fix.data.MutableTimestamp;
+import com.exactpro.th2.lib.fix.sequence.TimestampSequence;
+import com.exactpro.th2.lib.fix.util.CompiledDateTimeFormat;
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+import com.exactpro.th2.lib.fix.util.EpochDays;
+import com.exactpro.th2.lib.fix.util.ExpiryDates;
+import com.exactpro.th2.lib.fix.util.WeekendMask;
+
+/**
+ * Allocation budgets of hot-path APIs in bytes per operation. Every contract is warmed up and then measured
+ * in up to 20 rounds with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}, the best round is compared with the budget.
+ * Every contract has its own loop method, so the JIT profile of one contract does not affect the others,
+ * and the method is warmed up by many short calls to be compiled as a whole rather than by on-stack replacement.
+ */
+class AllocationContractsTest {
+
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int WARMUP_ITERATIONS = 100;
+    private static final int MEASUREMENT_ITERATIONS = 100_000;
+    private static final int MEASUREMENT_ROUNDS = 20;
+    private static final int MASK = 1023;
+    private static final long EPOCH_MILLIS = 1622383513801L;
+    private static final long EPOCH_NANOS = EPOCH_MILLIS * 1_000_000L;
+    private static final LocalDateTime DATE_TIME = DateTimeUtility.toLocalDateTime(EPOCH_MILLIS);
+    private static final long EPOCH_DAY = DATE_TIME.toLocalDate().toEpochDay();
+    private static final LocalDateTime[] DATE_TIMES = new LocalDateTime[MASK + 1];
+    private static final byte[] BUFFER = new byte[64];
+    private static final byte[] TIMESTAMP = UTCTimestampCodec.format(EPOCH_NANOS, 3).getBytes();
+    private static final MutableTimestamp MUTABLE = new MutableTimestamp();
+    private static final ZoneId ZONE = ZoneId.of("America/New_York");
+    private static final List<DateModificator> MODIFICATORS = DateModificator.compile("D+1:h=10:m=0");
+    private static final CompiledDateTimeFormat FORMAT = CompiledDateTimeFormat.get("yyyyMMdd-HH:mm:ss.SSS");
+    private static final TimestampSequence SEQUENCE = TimestampSequence.builder().start(DATE_TIME).step("ms+250").count(Long.MAX_VALUE).build();
+    private static final MidnightRollover.DayValue<String> TRADE_DATE = MidnightRollover.registerFormattedDate("yyyyMMdd", "D+1", null);
+    private static final DateUtil DATE_UTIL = new DateUtil();
+    private static final FixUtil FIX_UTIL = new FixUtil();
+
+    private static com.sun.management.ThreadMXBean threadBean;
+    private static long sink;
+
+    static {
+        for (int i = 0; i <= MASK; i++) {
+            DATE_TIMES[i] = DATE_TIME.plusMinutes(i * 97L);
+        }
+    }
+
+    @BeforeAll
+    static void setUp() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "com.sun.management.ThreadMXBean is not available");
+        threadBean = (com.sun.management.ThreadMXBean)bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "Thread allocated memory is not supported");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Contract.class)
+    void allocationWithinBudget(Contract contract) {
+        double allocated = measure(contract);
+        assertTrue(allocated <= contract.budget,
+                () -> String.format("%s allocated %.1f bytes per operation, budget is %d", contract, allocated, contract.budget));
+    }
+
+    /**
+     * Measures until a round fits the budget, so background compilation of other code does not fail the contract
+     *
+     * @return the lowest number of bytes allocated per operation among measurement rounds
+     */
+    private static double measure(Contract contract) {
+        long threadId = Thread.currentThread().getId();
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += contract.run(WARMUP_ITERATIONS);
+        }
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < MEASUREMENT_ROUNDS && best > contract.budget; round++) {
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            sink += contract.run(MEASUREMENT_ITERATIONS);
+            long after = threadBean.getThreadAllocatedBytes(threadId);
+            best = Math.min(best, (double)(after - before) / MEASUREMENT_ITERATIONS);
+        }
+        return best;
+    }
+
+    private enum Contract {
+        GET_MILLISECOND(0) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += DateTimeUtility.getMillisecond(DATE_TIMES[i & MASK]);
+                }
+                return result;
+            }
+        },
+        TO_PACKED_DATE(0) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += EpochDays.toPackedDate(EPOCH_DAY + (i & MASK));
+                }
+                return result;
+            }
+        },
+        ADD_BUSINESS_DAYS(0) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += ExpiryDates.addBusinessDays(EPOCH_DAY + (i & 31), i & 15, WeekendMask.SATURDAY_SUNDAY);
+                }
+                return result;
+            }
+        },
+        NEXT_IMM_DATE(0) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += ExpiryDates.nextImmDate(EPOCH_DAY + (i & MASK), WeekendMask.SATURDAY_SUNDAY);
+                }
+                return result;
+            }
+        },
+        MUTABLE_TIMESTAMP_MODIFY(0) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += MUTABLE.setEpochMillis(EPOCH_MILLIS + i).modify(MODIFICATORS).getEpochNanos();
+                }
+                return result;
+            }
+        },
+        EPOCH_NANOS_MODIFY(0) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += EpochFunctions.epochNanosModifyByZoneId(EPOCH_NANOS + i, MODIFICATORS, ZONE);
+                }
+                return result;
+            }
+        },
+        EPOCH_NANOS_PLUS_BUSINESS_DAYS(0) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += EpochFunctions.epochNanosPlusBusinessDays(EPOCH_NANOS + i, (i & 15) - 7);
+                }
+                return result;
+            }
+        },
+        UTC_TIMESTAMP_FORMAT(0) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += UTCTimestampCodec.format(EPOCH_NANOS + i * 1_000_000L, 3, BUFFER, 0);
+                }
+                return result;
+            }
+        },
+        UTC_TIMESTAMP_PARSE(0) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += UTCTimestampCodec.parseEpochNanos(TIMESTAMP, 0, TIMESTAMP.length);
+                }
+                return result;
+            }
+        },
+        COMPILED_FORMAT(0) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += FORMAT.format(EPOCH_NANOS + i * 1_000_000L, BUFFER, 0);
+                }
+                return result;
+            }
+        },
+        TIMESTAMP_SEQUENCE(0) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += SEQUENCE.get(i);
+                }
+                return result;
+            }
+        },
+        MIDNIGHT_ROLLOVER(0) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += TRADE_DATE.get().length();
+                }
+                return result;
+            }
+        },
+        MODIFY_TEMPORAL(256) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += DateUtil.modifyTemporal(DATE_TIMES[i & MASK], "D+1:h=10:m=0").getNano();
+                }
+                return result;
+            }
+        },
+        MODIFY_BUSINESS_DATE_TIME(768) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += DATE_UTIL.modifyBusinessDateTime(DATE_TIMES[i & MASK], "D+3").getDayOfMonth();
+                }
+                return result;
+            }
+        },
+        GENERATE_CL_ORD_ID(96) {
+            @Override
+            long run(int iterations) {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += FIX_UTIL.generateClOrdID().length();
+                }
+                return result;
+            }
+        };
+
+        private final long budget;
+
+        Contract(long budget) {
+            this.budget = budget;
+        }
+
+        abstract long run(int iterations);
+    }
+}
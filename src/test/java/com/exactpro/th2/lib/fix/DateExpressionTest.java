@@ -0,0 +1,135 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+
+/**
+ * {@link DateExpression} against the corresponding {@link DateUtil} methods
+ */
+class DateExpressionTest {
+
+    private static final DateUtil DATE_UTIL = new DateUtil();
+    private static final String FORMAT = "yyyyMMdd-HH:mm:ss.SSS";
+    private static final String[] MODIFY_PATTERNS = { "", "D+2:h=10", "h+36", "M-1:D=1", "Y+1:m-90:s=0", "D-3", "D+5:h=23:m=59" };
+    private static final String[] ZONES = { "UTC", "+03:00", "Europe/London", "America/New_York", "Asia/Dubai", "Australia/Lord_Howe" };
+    // 2000-01-01 .. 2040-01-01
+    private static final long MIN_MILLIS = 946684800_000L;
+    private static final long MAX_MILLIS = 2208988800_000L;
+    private static final int COUNT = 500;
+
+    static Stream<Arguments> weekends() {
+        return Stream.of(
+                Arguments.of((Object)null),
+                Arguments.of((Object)new String[0]),
+                Arguments.of((Object)new String[] { "FRIDAY", "SATURDAY" })
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("weekends")
+    void unzonedIsSameAsDateUtil(String[] weekends) {
+        Random random = new Random(42);
+        for (String modifyPattern : MODIFY_PATTERNS) {
+            DateExpression.Builder builder = DateExpression.builder().modifyPattern(modifyPattern).formatPattern(FORMAT);
+            if (weekends != null) {
+                builder.businessDays(weekends);
+            }
+            DateExpression expression = builder.build();
+            for (int i = 0; i < COUNT; i++) {
+                long epochMillis = randomEpochMillis(random);
+                LocalDateTime dateTime = DateTimeUtility.toLocalDateTime(epochMillis);
+                LocalDateTime expected = weekends == null
+                        ? DATE_UTIL.modifyDateTime(dateTime, modifyPattern)
+                        : DATE_UTIL.modifyBusinessDateTime(dateTime, modifyPattern, weekends);
+                String message = dateTime + " " + modifyPattern;
+
+                assertEquals(expected, expression.evaluate(dateTime), message);
+                assertEquals(expected, expression.evaluate(epochMillis), message);
+                assertEquals(expected.toInstant(ZoneOffset.UTC).toEpochMilli(), expression.evaluateEpochMillis(dateTime), message);
+                assertEquals(DATE_UTIL.formatDateTime(expected, FORMAT), expression.format(epochMillis), message);
+                if (weekends == null) {
+                    assertEquals(DATE_UTIL.formatDateTime(dateTime, FORMAT, modifyPattern), expression.format(dateTime), message);
+                }
+                assertArrayEquals(expression.format(dateTime).getBytes(StandardCharsets.UTF_8), expression.formatBytes(dateTime), message);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("weekends")
+    void zonedIsSameAsDateUtil(String[] weekends) {
+        Random random = new Random(42);
+        for (String zone : ZONES) {
+            for (String modifyPattern : MODIFY_PATTERNS) {
+                DateExpression.Builder builder = DateExpression.builder().modifyPattern(modifyPattern).timeZoneId(zone).formatPattern(FORMAT);
+                if (weekends != null) {
+                    builder.businessDays(weekends);
+                }
+                DateExpression expression = builder.build();
+                for (int i = 0; i < COUNT; i++) {
+                    long epochMillis = randomEpochMillis(random);
+                    LocalDateTime dateTime = DateTimeUtility.toLocalDateTime(epochMillis);
+                    LocalDateTime expected = weekends == null
+                            ? DATE_UTIL.modifyDateTimeByZoneId(dateTime, modifyPattern, zone)
+                            : DATE_UTIL.modifyBusinessDateTimeByZoneId(dateTime, modifyPattern, zone, weekends);
+                    String message = dateTime + " " + modifyPattern + " " + zone;
+
+                    assertEquals(expected, expression.evaluate(dateTime), message);
+                    assertEquals(expected, expression.evaluate(epochMillis), message);
+                    assertEquals(expected.toInstant(ZoneOffset.UTC).toEpochMilli(), expression.evaluateEpochMillis(epochMillis), message);
+                    assertEquals(DATE_UTIL.formatDateTimeByZoneId(expected, FORMAT, "", zone), expression.format(dateTime), message);
+                    if (weekends == null) {
+                        assertEquals(DATE_UTIL.formatDateTimeByZoneId(dateTime, FORMAT, modifyPattern, zone), expression.format(epochMillis), message);
+                    }
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "Europe/London" })
+    void formatRequiresFormatPattern(String zone) {
+        DateExpression.Builder builder = DateExpression.builder().modifyPattern("D+1");
+        if (!zone.isEmpty()) {
+            builder.timeZoneId(zone);
+        }
+        DateExpression expression = builder.build();
+        LocalDateTime dateTime = LocalDateTime.of(2021, 3, 28, 0, 30);
+        assertEquals(zone.isEmpty() ? DATE_UTIL.modifyDateTime(dateTime, "D+1") : DATE_UTIL.modifyDateTimeByZoneId(dateTime, "D+1", zone),
+                expression.evaluate(dateTime));
+        assertThrows(IllegalStateException.class, () -> expression.format(dateTime));
+    }
+
+    private static long randomEpochMillis(Random random) {
+        return MIN_MILLIS + Math.floorMod(random.nextLong(), MAX_MILLIS - MIN_MILLIS);
+    }
+}
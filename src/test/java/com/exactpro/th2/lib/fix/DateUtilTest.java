@@ -0,0 +1,242 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix;
+
+import static com.exactpro.th2.lib.fix.util.EpochDays.MILLIS_PER_DAY;
+import static com.exactpro.th2.lib.fix.util.EpochDays.NANOS_PER_SECOND;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.exactpro.th2.lib.fix.calendar.TradingSessionCalendar;
+import com.exactpro.th2.lib.fix.codec.IsoDateTimeParser;
+import com.exactpro.th2.lib.fix.data.DateComponent;
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+
+class DateUtilTest {
+
+    private static final DateUtil DATE_UTIL = new DateUtil();
+    private static final String[][] ISO_PAIRS = {
+            { "2026-01-31T10:15:30Z", "2026-02-28T10:15:30Z" },
+            { "2026-01-31T10:15:30.5Z", "2026-01-31T10:15:30.499999999Z" },
+            { "2026-03-31T23:59:59.999999999+05:30", "2026-02-28T00:00:00-01:00" },
+            { "2026-01-31T10:15:30+01:00:30", "2026-01-31T10:15:30-01:30:15" },
+            { "2026-01-31T10:15+14:00", "2026-01-31T10:15-18:00" },
+            { "2026-03-29T02:30+01:00[Europe/London]", "2026-03-29T00:30Z[Europe/London]" },
+            { "2026-10-25T01:30+00:00[Europe/London]", "2026-10-25T01:30+01:00[Europe/London]" },
+            { "2026-01-01T00:00Z[UTC]", "2025-12-31T19:00-05:00[America/New_York]" },
+            { "2024-02-29T12:00Z", "2025-02-28T12:00Z" },
+            { "2024-02-29T12:00Z", "2028-02-29T11:59:59.999Z" },
+            { "2026-01-31T00:00Z", "2026-02-28T23:59:59.999999999Z" },
+            { "2026-03-31T00:00Z", "2026-04-30T00:00Z" },
+            { "2026-03-31T00:00+01:00", "2026-04-30T23:30-01:00" },
+            { "2026-12-31T23:59:59Z", "2027-01-01T00:00:00+00:30" },
+            { "1969-12-31T23:59:59.5Z", "1970-01-01T00:00:00.25Z" },
+            { "1900-03-01T00:00Z", "1900-02-28T00:00Z" },
+            { "1677-09-21T00:12:43.145224192Z", "2262-04-11T23:47:16.854775807Z" },
+            { "2300-01-01T00:00Z", "2026-01-01T00:00Z" },
+            { "2026-01-01t00:00z", "2026-01-02T00:00Z" },
+            { "+12026-01-01T00:00Z", "2026-01-02T00:00Z" },
+            { "2026-01-01T00:00:60Z", "2026-01-02T00:00Z" },
+            { "2026-02-30T00:00Z", "2026-01-02T00:00Z" },
+            { "2026-01-01T00:00Z[Mars/Phobos]", "2026-01-02T00:00Z" },
+            { "2026-01-01", "2026-01-02T00:00Z" }
+    };
+
+    static Stream<Arguments> isoDiffs() {
+        Stream.Builder<Arguments> builder = Stream.builder();
+        for (String[] pair : ISO_PAIRS) {
+            for (DateComponent dateComponent : DateComponent.values()) {
+                builder.add(Arguments.of(pair[0], pair[1], dateComponent.toString()));
+                builder.add(Arguments.of(pair[1], pair[0], dateComponent.toString()));
+            }
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource("isoDiffs")
+    void diffDateTimeIsoIsSameAsZonedDateTime(String minuend, String subtrahend, String dateComponent) {
+        assertSameDiff(minuend, subtrahend, dateComponent);
+    }
+
+    @Test
+    void randomDiffDateTimeIsoIsSameAsZonedDateTime() {
+        Random random = new Random(53);
+        DateTimeFormatter[] formatters = {
+                DateTimeFormatter.ISO_OFFSET_DATE_TIME,
+                DateTimeFormatter.ISO_ZONED_DATE_TIME,
+                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssXXXXX")
+        };
+        ZoneId[] zones = { ZoneOffset.UTC, ZoneOffset.ofHours(-5), ZoneOffset.ofHoursMinutesSeconds(5, 30, 15),
+                ZoneId.of("Europe/London"), ZoneId.of("Asia/Kolkata"), ZoneId.of("America/New_York") };
+        long maxSecond = 1L << 33;
+        for (int i = 0; i < 2_000; i++) {
+            String minuend = randomIso(random, formatters, zones, maxSecond);
+            String subtrahend = randomIso(random, formatters, zones, maxSecond);
+            // the values are in the epoch nanoseconds range, so the fast path is taken
+            assertEquals(toEpochNanos(ZonedDateTime.parse(minuend)), IsoDateTimeParser.parseEpochNanos(minuend), minuend);
+            for (DateComponent dateComponent : DateComponent.values()) {
+                assertSameDiff(minuend, subtrahend, dateComponent.toString());
+            }
+        }
+    }
+
+    @Test
+    void tradingSessionWithHolidays() {
+        LocalDateTime christmas = LocalDateTime.of(2026, 12, 25, 10, 0);
+        assertTrue(DATE_UTIL.isTradingSession(christmas, "08:00-16:30", "Europe/London"));
+        assertFalse(DATE_UTIL.isTradingSessionWithHolidays(christmas, "08:00-16:30", "Europe/London", "2026-12-25, 2026-12-28"));
+        assertEquals(LocalDateTime.of(2026, 12, 29, 8, 0),
+                DATE_UTIL.getNextSessionOpenWithHolidays(christmas, "08:00-16:30", "Europe/London", "2026-12-25,2026-12-28"));
+        assertEquals(LocalDateTime.of(2026, 12, 29, 16, 30),
+                DATE_UTIL.getNextSessionCloseWithHolidays(christmas, "08:00-16:30", "Europe/London", "2026-12-25,2026-12-28"));
+        assertEquals(LocalDateTime.of(2026, 12, 27, 8, 0),
+                DATE_UTIL.getNextSessionOpenWithHolidays(christmas, "08:00-16:30", "Europe/London", "2026-12-25", "FRIDAY", "SATURDAY"));
+        // overnight session of Thursday is closed on Friday's holiday
+        assertTrue(DATE_UTIL.isTradingSessionWithHolidays(LocalDateTime.of(2026, 12, 25, 3, 0), "17:00-16:00", "America/Chicago", "2026-12-25"));
+        assertFalse(DATE_UTIL.isTradingSessionWithHolidays(LocalDateTime.of(2026, 12, 25, 23, 0), "17:00-16:00", "America/Chicago", "2026-12-25"));
+    }
+
+    static Stream<Arguments> sessionCalendars() {
+        // weekdays of a three month closure across the end of 2100
+        String closure = Stream.iterate(LocalDate.of(2100, 11, 20), date -> date.plusDays(1))
+                .limit(90)
+                .filter(date -> date.getDayOfWeek().getValue() < 6)
+                .map(LocalDate::toString)
+                .collect(Collectors.joining(","));
+        return Stream.of(
+                Arguments.of("08:00-12:00,12:02-16:30", "Europe/London", "", new String[0]),
+                Arguments.of("17:00-16:00", "America/Chicago", "2099-12-24,2100-12-24", new String[] { "FRIDAY", "SATURDAY" }),
+                Arguments.of("00:00-12:00,12:00-00:00", "UTC", "", new String[0]),
+                Arguments.of("08:00-16:30", "Asia/Tokyo", closure, new String[0])
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("sessionCalendars")
+    void tradingSessionsAfterDefaultRangeAreSameAsWideCalendar(String sessions, String zone, String holidays, String[] weekends) {
+        TradingSessionCalendar reference = TradingSessionCalendar.builder()
+                .timeZoneId(zone)
+                .sessions(sessions)
+                .holidays(holidays)
+                .weekends(weekends)
+                .range(LocalDate.of(2090, 1, 1), LocalDate.of(2115, 1, 1))
+                .build();
+        long from = LocalDate.of(2095, 1, 1).toEpochDay() * MILLIS_PER_DAY;
+        long to = LocalDate.of(2105, 1, 1).toEpochDay() * MILLIS_PER_DAY;
+        Random random = new Random(37);
+        for (int i = 0; i < 5_000; i++) {
+            // whole minutes, every tenth instant is around a year end
+            long epochMillis = i % 10 == 0
+                    ? LocalDate.of(2095 + random.nextInt(10), 12, 20).toEpochDay() * MILLIS_PER_DAY + random.nextInt(20 * 1440) * 60_000L
+                    : from + Math.floorMod(random.nextLong(), to - from) / 60_000 * 60_000;
+            LocalDateTime dateTime = DateTimeUtility.toLocalDateTime(epochMillis);
+            assertEquals(reference.isOpen(dateTime), DATE_UTIL.isTradingSessionWithHolidays(dateTime, sessions, zone, holidays, weekends), dateTime::toString);
+            assertEquals(reference.nextOpen(dateTime), DATE_UTIL.getNextSessionOpenWithHolidays(dateTime, sessions, zone, holidays, weekends), dateTime::toString);
+            assertEquals(reference.nextClose(dateTime), DATE_UTIL.getNextSessionCloseWithHolidays(dateTime, sessions, zone, holidays, weekends), dateTime::toString);
+        }
+    }
+
+    @Test
+    void sessionCalendarsOfYearsAreCached() {
+        long epochMillis2100 = LocalDate.of(2100, 6, 15).toEpochDay() * MILLIS_PER_DAY;
+        long epochMillis2101 = LocalDate.of(2101, 6, 15).toEpochDay() * MILLIS_PER_DAY;
+        TradingSessionCalendar calendar2100 = DateUtil.getSessionCalendar(epochMillis2100, "08:00-16:30", "Europe/London", "", null);
+        assertTrue(calendar2100.covers(LocalDate.of(2100, 1, 1).toEpochDay() * MILLIS_PER_DAY));
+        assertTrue(calendar2100.covers(LocalDate.of(2101, 1, 1).toEpochDay() * MILLIS_PER_DAY));
+        assertSame(calendar2100, DateUtil.getSessionCalendar(epochMillis2100 + 1, "08:00-16:30", "Europe/London", "", null));
+
+        TradingSessionCalendar calendar2101 = DateUtil.getSessionCalendar(epochMillis2101, "08:00-16:30", "Europe/London", "", null);
+        assertNotSame(calendar2100, calendar2101);
+        assertSame(calendar2100, DateUtil.getSessionCalendar(epochMillis2100, "08:00-16:30", "Europe/London", "", null));
+        assertSame(calendar2101, DateUtil.getSessionCalendar(epochMillis2101, "08:00-16:30", "Europe/London", "", new String[0]));
+        assertNotSame(calendar2101, DateUtil.getSessionCalendar(epochMillis2101, "08:00-16:30", "Europe/London", "", new String[] { "SUNDAY" }));
+    }
+
+    @Test
+    void closeOfSessionsRunningPastCalendarRange() {
+        // adjacent sessions are open from Monday 11:59 to Saturday 11:59, the calendar of a year ends in the first days of the next year
+        String sessions = "12:00-11:59,11:59-12:00";
+        for (int year = 2100; year < 2110; year++) {
+            for (int day = 1; day <= 7; day++) {
+                // the calendar of the previous call is reused while it covers the instant
+                DATE_UTIL.isTradingSession(LocalDateTime.of(year - 1, 12, 30, 12, 0), sessions, "UTC");
+                LocalDateTime dateTime = LocalDateTime.of(year, 1, day, 12, 0);
+                LocalDateTime expected = dateTime.toLocalDate().with(TemporalAdjusters.next(DayOfWeek.SATURDAY)).atTime(11, 59);
+                assertEquals(expected, DATE_UTIL.getNextSessionClose(dateTime, sessions, "UTC"), dateTime::toString);
+            }
+        }
+    }
+
+    @Test
+    void nextSessionAfterLongClosure() {
+        // every day of 2101 is a holiday, 2102-01-01 is Sunday
+        String holidays = Stream.iterate(LocalDate.of(2101, 1, 1), date -> date.plusDays(1))
+                .limit(365)
+                .map(LocalDate::toString)
+                .collect(Collectors.joining(","));
+        LocalDateTime dateTime = LocalDateTime.of(2100, 12, 31, 17, 0);
+        assertEquals(LocalDateTime.of(2102, 1, 2, 8, 0), DATE_UTIL.getNextSessionOpenWithHolidays(dateTime, "08:00-16:30", "UTC", holidays, "SUNDAY"));
+        assertEquals(LocalDateTime.of(2102, 1, 2, 16, 30), DATE_UTIL.getNextSessionCloseWithHolidays(dateTime, "08:00-16:30", "UTC", holidays, "SUNDAY"));
+        assertFalse(DATE_UTIL.isTradingSessionWithHolidays(LocalDateTime.of(2101, 7, 1, 10, 0), "08:00-16:30", "UTC", holidays));
+    }
+
+    private static String randomIso(Random random, DateTimeFormatter[] formatters, ZoneId[] zones, long maxSecond) {
+        Instant instant = Instant.ofEpochSecond(Math.floorMod(random.nextLong(), 2 * maxSecond) - maxSecond, random.nextInt(1_000_000_000));
+        ZonedDateTime dateTime = instant.atZone(zones[random.nextInt(zones.length)]);
+        return formatters[random.nextInt(formatters.length)].format(dateTime);
+    }
+
+    private static long toEpochNanos(ZonedDateTime dateTime) {
+        return dateTime.toEpochSecond() * NANOS_PER_SECOND + dateTime.getNano();
+    }
+
+    private static void assertSameDiff(String minuend, String subtrahend, String dateComponent) {
+        String message = minuend + " - " + subtrahend + " in " + dateComponent;
+        long expected;
+        try {
+            expected = DATE_UTIL.diffDateTime(DateTimeUtility.toLocalDateTime(ZonedDateTime.parse(minuend)),
+                    DateTimeUtility.toLocalDateTime(ZonedDateTime.parse(subtrahend)), dateComponent);
+        } catch (RuntimeException e) {
+            assertEquals(e.getClass(), assertThrows(RuntimeException.class,
+                    () -> DATE_UTIL.diffDateTimeISO(minuend, subtrahend, dateComponent), message).getClass(), message);
+            return;
+        }
+        assertEquals(expected, DATE_UTIL.diffDateTimeISO(minuend, subtrahend, dateComponent), message);
+    }
+}
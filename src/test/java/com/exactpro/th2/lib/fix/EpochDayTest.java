@@ -0,0 +1,149 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.exactpro.th2.lib.fix.util.WeekendMask;
+
+class EpochDayTest {
+
+    // 1600-01-01 .. 2400-01-01
+    private static final long MIN_DAY = LocalDate.of(1600, 1, 1).toEpochDay();
+    private static final long MAX_DAY = LocalDate.of(2400, 1, 1).toEpochDay();
+
+    @Test
+    void fieldsAreSameAsLocalDate() {
+        Random random = new Random(46);
+        for (int i = 0; i < 10_000; i++) {
+            LocalDate date = randomDate(random);
+            EpochDay day = EpochDay.of(date);
+            long days = random.nextInt(100_000) - 50_000;
+
+            assertEquals(day, EpochDay.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+            assertEquals(date, day.toLocalDate());
+            assertEquals(date.getYear(), day.getYear());
+            assertEquals(date.getMonthValue(), day.getMonth());
+            assertEquals(date.getDayOfMonth(), day.getDayOfMonth());
+            assertEquals(date.getDayOfWeek().getValue(), day.getDayOfWeek());
+            assertEquals(date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth(), day.getPackedDate());
+            assertEquals(date.plusDays(days), day.plus(days).toLocalDate());
+            assertEquals(date.minusDays(days), day.minus(days).toLocalDate());
+            assertEquals(days, day.plus(days).minus(day));
+            assertEquals(Long.signum(days), day.plus(days).compareTo(day));
+            assertEquals(date.plusDays(1), day.inc().toLocalDate());
+            assertEquals(date.minusDays(1), day.dec().toLocalDate());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { -30, -5, -1, 0, 1, 4, 5, 31 })
+    void plusBusinessDaysIsSameAsDayByDay(int days) {
+        Random random = new Random(46);
+        int[] masks = { WeekendMask.NONE, WeekendMask.SATURDAY_SUNDAY, WeekendMask.parse("FRIDAY", "SATURDAY"), WeekendMask.parse("SUNDAY") };
+        for (int i = 0; i < 2_000; i++) {
+            LocalDate date = randomDate(random);
+            int weekends = masks[random.nextInt(masks.length)];
+            LocalDate expected = plusBusinessDays(date, days, weekends);
+
+            assertEquals(expected, EpochDay.of(date).plusBusinessDays(days, weekends).toLocalDate(), () -> date + " " + weekends);
+            assertEquals(expected.toEpochDay(), EpochFunctions.epochDayPlusBusinessDays(date.toEpochDay(), days, weekends));
+        }
+        EpochDay day = EpochDay.of(2021, 6, 5);
+        assertSame(day, day.plusBusinessDays(0));
+        assertEquals(EpochDay.of(2021, 6, 7), day.plusBusinessDays(1));
+        assertEquals(EpochDay.of(2021, 6, 4), day.plusBusinessDays(-1));
+        assertEquals(true, day.isWeekend());
+        assertEquals(false, day.isWeekend(WeekendMask.NONE));
+    }
+
+    @Test
+    void atStartOfDayIsSameAsZonedDateTime() {
+        // midnight does not exist in Sao Paulo on 2018-11-04 and in Havana on 2021-03-14
+        ZoneId[] zones = { ZoneId.of("UTC"), ZoneId.of("America/Sao_Paulo"), ZoneId.of("America/Havana"), ZoneId.of("Asia/Tokyo") };
+        Random random = new Random(46);
+        for (int i = 0; i < 10_000; i++) {
+            LocalDate date = LocalDate.ofEpochDay(LocalDate.of(2000, 1, 1).toEpochDay() + random.nextInt(10_000));
+            ZoneId zone = zones[random.nextInt(zones.length)];
+            ZonedDateTime expected = date.atStartOfDay(zone);
+            assertEquals(EpochNanos.of(LocalDateTime.ofEpochSecond(expected.toEpochSecond(), 0, java.time.ZoneOffset.UTC)),
+                    EpochDay.of(date).atStartOfDay(zone), () -> date + " in " + zone);
+        }
+    }
+
+    @Test
+    void formatAndParse() {
+        Random random = new Random(46);
+        byte[] buffer = new byte[16];
+        for (int i = 0; i < 10_000; i++) {
+            LocalDate date = LocalDate.ofEpochDay(LocalDate.of(1000, 1, 1).toEpochDay() + random.nextInt(3_000_000));
+            EpochDay day = EpochDay.of(date);
+            String expected = String.format("%04d%02d%02d", date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+
+            assertEquals(expected, day.toLocalMktDate());
+            assertEquals(expected, day.toString());
+            int end = day.formatLocalMktDate(buffer, 2);
+            assertEquals(expected, new String(buffer, 2, end - 2, StandardCharsets.US_ASCII));
+            assertEquals(day, EpochDay.parseLocalMktDate(expected));
+            assertEquals(day, EpochDay.parseLocalMktDate(buffer, 2, end - 2));
+        }
+    }
+
+    @Test
+    void overflowIsRejected() {
+        EpochDay max = new EpochDay(Long.MAX_VALUE);
+        EpochDay min = new EpochDay(Long.MIN_VALUE);
+        assertThrows(ArithmeticException.class, max::inc);
+        assertThrows(ArithmeticException.class, min::dec);
+        assertThrows(ArithmeticException.class, () -> max.plus(1));
+        assertThrows(ArithmeticException.class, () -> min.minus(1));
+        assertThrows(ArithmeticException.class, () -> max.minus(min));
+    }
+
+    /**
+     * Moves the date day by day, the days are counted from the nearest business day on or before (after for negative n) the date
+     */
+    static LocalDate plusBusinessDays(LocalDate date, int days, int weekends) {
+        if (weekends == WeekendMask.NONE || days == 0) {
+            return date.plusDays(days);
+        }
+        int step = days > 0 ? 1 : -1;
+        LocalDate result = date;
+        for (int i = 0; i != days; i += step) {
+            do {
+                result = result.plusDays(step);
+            } while (WeekendMask.isWeekend(weekends, result.getDayOfWeek().getValue()));
+        }
+        return result;
+    }
+
+    private static LocalDate randomDate(Random random) {
+        return LocalDate.ofEpochDay(MIN_DAY + (long)(random.nextDouble() * (MAX_DAY - MIN_DAY)));
+    }
+}
@@ -0,0 +1,167 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.exactpro.th2.lib.fix.util.WeekendMask;
+
+class EpochNanosTest {
+
+    private static final DateUtil DATE_UTIL = new DateUtil();
+    private static final int FRIDAY_SATURDAY = WeekendMask.of(EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY));
+    private static final String[] PATTERNS = { "D+1:h=10:m=0", "M-1:D=28", "Y+1:M=2:D=28", "h+5:m-30:s=0:ms=0", "ns+999999999", "D-14:h=23:mc=5" };
+    private static final ZoneId[] ZONES = { ZoneId.of("UTC"), ZoneId.of("Europe/London"), ZoneId.of("America/New_York"), ZoneId.of("Asia/Kolkata"), ZoneId.of("Australia/Lord_Howe") };
+    // 1900-01-01 .. 2100-01-01
+    private static final long MIN_SECOND = -2208988800L;
+    private static final long MAX_SECOND = 4102444800L;
+
+    @Test
+    void arithmeticIsSameAsLocalDateTime() {
+        Random random = new Random(46);
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime dateTime = randomDateTime(random);
+            EpochNanos timestamp = EpochNanos.of(dateTime);
+            long nanos = random.nextLong() % 1_000_000_000_000_000L;
+
+            assertEquals(dateTime, timestamp.toLocalDateTime());
+            assertEquals(dateTime.toLocalDate().toEpochDay(), timestamp.getEpochDay().getValue());
+            assertEquals(dateTime.toLocalTime().toNanoOfDay(), timestamp.getNanoOfDay());
+            assertEquals(dateTime.toInstant(ZoneOffset.UTC).toEpochMilli(), timestamp.getEpochMillis());
+            assertEquals(dateTime.plusNanos(nanos), timestamp.plusNanos(nanos).toLocalDateTime());
+            assertEquals(dateTime.plusNanos(nanos), timestamp.plus(Duration.ofNanos(nanos)).toLocalDateTime());
+            assertEquals(dateTime.minusNanos(nanos), timestamp.minus(Duration.ofNanos(nanos)).toLocalDateTime());
+            assertEquals(nanos, timestamp.plusNanos(nanos).minus(timestamp));
+            assertEquals(Long.signum(nanos), timestamp.plusNanos(nanos).compareTo(timestamp));
+            assertEquals(timestamp, EpochNanos.of(timestamp.toLocalDateTime()));
+        }
+    }
+
+    @Test
+    void modifyIsSameAsDateUtil() {
+        Random random = new Random(46);
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime dateTime = randomDateTime(random);
+            String pattern = PATTERNS[random.nextInt(PATTERNS.length)];
+            ZoneId zone = ZONES[random.nextInt(ZONES.length)];
+            ModifyPattern modifyPattern = ModifyPattern.compile(pattern);
+            EpochNanos timestamp = EpochNanos.of(dateTime);
+
+            LocalDateTime expected = DATE_UTIL.modifyDateTime(dateTime, pattern);
+            assertEquals(expected, timestamp.modify(modifyPattern).toLocalDateTime(), pattern);
+            assertEquals(EpochNanos.of(expected).getValue(), EpochFunctions.epochNanosModify(timestamp.getValue(), modifyPattern.getModificators()), pattern);
+
+            LocalDateTime expectedInZone = DATE_UTIL.modifyDateTimeByZoneId(dateTime, pattern, zone.getId());
+            assertEquals(expectedInZone, modifyPattern.modifyByZoneId(timestamp, zone).toLocalDateTime(), () -> pattern + " in " + zone);
+            assertEquals(EpochNanos.of(expectedInZone).getValue(),
+                    EpochFunctions.epochNanosModifyByZoneId(timestamp.getValue(), modifyPattern.getModificators(), zone), () -> pattern + " in " + zone);
+        }
+    }
+
+    @Test
+    void zonesAreSameAsZonedDateTime() {
+        Random random = new Random(46);
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime dateTime = randomDateTime(random);
+            ZoneId zone = ZONES[random.nextInt(ZONES.length)];
+            EpochNanos timestamp = EpochNanos.of(dateTime);
+            ZonedDateTime inZone = dateTime.atOffset(ZoneOffset.UTC).atZoneSameInstant(zone);
+
+            assertEquals(inZone.getOffset().getTotalSeconds(), timestamp.offsetSeconds(zone));
+            assertEquals(inZone.toLocalDateTime(), timestamp.toZone(zone).toLocalDateTime());
+            if (zone.getRules().getValidOffsets(inZone.toLocalDateTime()).size() == 1) {
+                assertEquals(timestamp, timestamp.toZone(zone).fromZone(zone), () -> dateTime + " in " + zone);
+            }
+            assertEquals(ZonedDateTime.of(dateTime, zone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime(), timestamp.fromZone(zone).toLocalDateTime());
+            assertEquals(timestamp.fromZone(zone).getValue(), EpochFunctions.epochNanosFromZone(timestamp.getValue(), zone));
+        }
+    }
+
+    @Test
+    void dstTransitions() {
+        ZoneId zone = ZoneId.of("America/New_York");
+        // 2021-03-14 02:30 does not exist and is moved forward, 2021-11-07 01:30 exists twice and the earlier offset is used
+        assertEquals(LocalDateTime.of(2021, 3, 14, 7, 30), EpochNanos.of(LocalDateTime.of(2021, 3, 14, 2, 30)).fromZone(zone).toLocalDateTime());
+        assertEquals(LocalDateTime.of(2021, 11, 7, 5, 30), EpochNanos.of(LocalDateTime.of(2021, 11, 7, 1, 30)).fromZone(zone).toLocalDateTime());
+        assertEquals(-4 * 3600, EpochNanos.of(LocalDateTime.of(2021, 11, 7, 5, 59, 59)).offsetSeconds(zone));
+        assertEquals(-5 * 3600, EpochNanos.of(LocalDateTime.of(2021, 11, 7, 6, 0)).offsetSeconds(zone));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { -10, -3, -1, 0, 1, 2, 5, 23 })
+    void plusBusinessDaysKeepsTimeOfDay(int days) {
+        Random random = new Random(46);
+        for (int i = 0; i < 1_000; i++) {
+            LocalDateTime dateTime = randomDateTime(random);
+            EpochNanos timestamp = EpochNanos.of(dateTime);
+            LocalDateTime expected = EpochDayTest.plusBusinessDays(dateTime.toLocalDate(), days, FRIDAY_SATURDAY).atTime(dateTime.toLocalTime());
+
+            assertEquals(expected, timestamp.plusBusinessDays(days, FRIDAY_SATURDAY).toLocalDateTime());
+            assertEquals(EpochNanos.of(expected).getValue(), EpochFunctions.epochNanosPlusBusinessDays(timestamp.getValue(), days, FRIDAY_SATURDAY));
+        }
+    }
+
+    @Test
+    void formatAndParse() {
+        Random random = new Random(46);
+        byte[] buffer = new byte[64];
+        ZoneId zone = ZoneId.of("Europe/London");
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime dateTime = randomDateTime(random);
+            EpochNanos timestamp = EpochNanos.of(dateTime);
+
+            String utc = timestamp.toUTCTimestamp(9);
+            assertEquals(timestamp, EpochNanos.parseUTCTimestamp(utc));
+            assertEquals(EpochNanos.ofEpochMillis(timestamp.getEpochMillis()), EpochNanos.parseUTCTimestamp(timestamp.toUTCTimestamp(3)));
+            int end = timestamp.formatUTCTimestamp(9, buffer, 3);
+            assertEquals(utc, new String(buffer, 3, end - 3, StandardCharsets.US_ASCII));
+            assertEquals(timestamp, EpochNanos.parseUTCTimestamp(buffer, 3, end - 3));
+
+            end = timestamp.formatTZTimestamp(zone, 9, buffer, 0);
+            assertEquals(timestamp, EpochNanos.parseTZTimestamp(new String(buffer, 0, end, StandardCharsets.US_ASCII)));
+        }
+    }
+
+    @Test
+    void overflowIsRejected() {
+        EpochNanos max = new EpochNanos(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> max.plusNanos(1));
+        assertThrows(ArithmeticException.class, () -> max.plusMillis(1));
+        assertThrows(ArithmeticException.class, () -> max.plus(Duration.ofNanos(1)));
+        assertThrows(ArithmeticException.class, () -> new EpochNanos(Long.MIN_VALUE).minus(Duration.ofNanos(1)));
+        assertThrows(ArithmeticException.class, () -> EpochNanos.ofEpochMillis(Long.MAX_VALUE / 1_000_000L + 1));
+    }
+
+    private static LocalDateTime randomDateTime(Random random) {
+        long epochSecond = MIN_SECOND + (long)(random.nextDouble() * (MAX_SECOND - MIN_SECOND));
+        return LocalDateTime.ofEpochSecond(epochSecond, random.nextInt(1_000_000_000), ZoneOffset.UTC);
+    }
+}
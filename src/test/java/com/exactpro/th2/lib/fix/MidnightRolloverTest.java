@@ -0,0 +1,71 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class MidnightRolloverTest {
+
+    private static final long ROLLOVER_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    @Test
+    void precomputedDayIsPromoted() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        long nextMidnight = LocalDate.now(ZoneOffset.UTC).plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        // the background preparation of the real next day should not run during the test
+        assumeTrue(nextMidnight - now > ROLLOVER_MARGIN_MILLIS, "Too close to midnight");
+
+        Map<LocalDate, AtomicInteger> computations = new ConcurrentHashMap<>();
+        MidnightRollover.DayValue<LocalDate> value = MidnightRollover.register("test|promote", null, date -> {
+            computations.computeIfAbsent(date, key -> new AtomicInteger()).incrementAndGet();
+            return date;
+        });
+        LocalDate tomorrow = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        long deadline = now + TimeUnit.SECONDS.toMillis(10);
+        while (!computations.containsKey(tomorrow) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, computations.get(tomorrow).get(), "the next day is prepared on registration");
+
+        LocalDate first = LocalDate.of(2100, 1, 1);
+        assertEquals(first, value.get(toEpochMillis(first)));
+        value.prepareNext(toEpochMillis(first));
+        // no caller has swapped the second day in, so it is promoted instead of computed again
+        value.prepareNext(toEpochMillis(first.plusDays(1)));
+        assertEquals(first.plusDays(1), value.get(toEpochMillis(first.plusDays(1))));
+        assertEquals(first.plusDays(2), value.get(toEpochMillis(first.plusDays(2))));
+
+        assertEquals(1, computations.get(first).get());
+        assertEquals(1, computations.get(first.plusDays(1)).get());
+        assertEquals(1, computations.get(first.plusDays(2)).get());
+    }
+
+    private static long toEpochMillis(LocalDate date) {
+        return LocalDateTime.of(date, LocalTime.NOON).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
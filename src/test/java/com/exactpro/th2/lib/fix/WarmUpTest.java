@@ -0,0 +1,116 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.exactpro.th2.lib.fix.WarmUp.Manifest;
+import com.exactpro.th2.lib.fix.data.DateModificator;
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+
+class WarmUpTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsEntries() throws IOException {
+        Path path = directory.resolve("manifest.txt");
+        Files.write(path, Arrays.asList(
+                "# recorded manifest",
+                "",
+                "modify D+1:h=10",
+                "  modify h-1",
+                "\tzone  Europe/London ",
+                "   # indented comment",
+                "format  HH:mm",
+                "format yyyyMMdd-HH:mm:ss.SSS",
+                "modify D+1:h=10",
+                "unknown D+1",
+                "modify",
+                "zone"
+        ), StandardCharsets.UTF_8);
+
+        Manifest manifest = Manifest.read(path);
+
+        assertEquals(List.of("D+1:h=10", "h-1", ""), List.copyOf(manifest.getModifyPatterns()));
+        // leading spaces of a value are a part of the format pattern
+        assertEquals(List.of(" HH:mm", "yyyyMMdd-HH:mm:ss.SSS"), List.copyOf(manifest.getFormatPatterns()));
+        assertEquals(List.of("Europe/London", ""), List.copyOf(manifest.getZoneIds()));
+    }
+
+    @Test
+    void writeAndReadRoundTrip() throws IOException {
+        Manifest manifest = Manifest.of(
+                List.of("D+1:h=10", " h-1", ""),
+                List.of(" HH:mm ", "yyyyMMdd-HH:mm:ss.SSS", "'#'HH", "line\nbreak"),
+                List.of("Europe/London", "+03:00"));
+        Path path = directory.resolve("manifest.txt");
+
+        manifest.write(path);
+        Manifest read = Manifest.read(path);
+
+        assertEquals(manifest.getModifyPatterns(), read.getModifyPatterns());
+        // values with line breaks can't be written
+        assertEquals(Set.of(" HH:mm ", "yyyyMMdd-HH:mm:ss.SSS", "'#'HH"), read.getFormatPatterns());
+        assertEquals(manifest.getZoneIds(), read.getZoneIds());
+    }
+
+    @Test
+    void recordedManifestRoundTrip() throws IOException {
+        WarmUp.run(Manifest.of(List.of("Y+7:M-5:D+3"), List.of("yyyy'warm-up'MM"), List.of("Pacific/Chatham")), 10);
+        Manifest recorded = Manifest.record();
+        Path path = directory.resolve("manifest.txt");
+
+        recorded.write(path);
+        Manifest read = Manifest.read(path);
+
+        assertEquals(recorded.getModifyPatterns(), read.getModifyPatterns());
+        assertEquals(recorded.getFormatPatterns(), read.getFormatPatterns());
+        assertEquals(recorded.getZoneIds(), read.getZoneIds());
+    }
+
+    @Test
+    void skipsInvalidEntries() {
+        Manifest manifest = Manifest.of(
+                List.of("D+1+2", "M+11:D-2", "h+a", ""),
+                List.of("yyyy'", "HH:mm", "yyyyMMdd-HH:mm:ss.SSS"),
+                List.of("Mars/Olympus_Mons", "Asia/Kathmandu", "+25:00"));
+
+        Manifest valid = manifest.validate();
+
+        assertEquals(List.of("M+11:D-2", ""), List.copyOf(valid.getModifyPatterns()));
+        assertEquals(List.of("HH:mm", "yyyyMMdd-HH:mm:ss.SSS"), List.copyOf(valid.getFormatPatterns()));
+        assertEquals(List.of("Asia/Kathmandu"), List.copyOf(valid.getZoneIds()));
+        assertDoesNotThrow(() -> WarmUp.run(manifest, 10));
+        assertFalse(DateModificator.getCachedPatterns().contains("D+1+2"));
+        assertFalse(DateTimeUtility.getCachedFormatPatterns().contains("yyyy'"));
+        assertFalse(DateTimeUtility.getCachedZoneIds().contains("Mars/Olympus_Mons"));
+    }
+}
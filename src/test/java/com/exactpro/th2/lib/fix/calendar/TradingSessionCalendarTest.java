@@ -0,0 +1,120 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.calendar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TradingSessionCalendarTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 11, 30);
+    private static final LocalDate HOLIDAY = LocalDate.of(2026, 3, 30);
+    private static final LocalDate HALF_DAY = LocalDate.of(2026, 10, 23);
+
+    @ParameterizedTest
+    @ValueSource(strings = { "08:00-12:00,12:02-16:30", "17:00-16:00", "22:00-02:00,08:00-12:00", "08:00-00:00", "01:30-01:00" })
+    void isOpenIsSameAsSessionDefinition(String sessions) {
+        for (String zone : new String[] { "UTC", "Europe/London", "America/Chicago" }) {
+            ZoneId zoneId = ZoneId.of(zone);
+            TradingSessionCalendar calendar = TradingSessionCalendar.builder()
+                    .timeZoneId(zone)
+                    .sessions(sessions)
+                    .holidays(HOLIDAY.toString())
+                    .halfDay(HALF_DAY, LocalTime.of(20, 0))
+                    .range(FROM, TO)
+                    .build();
+            long rangeStart = ZonedDateTime.of(FROM.atStartOfDay(), zoneId).toInstant().toEpochMilli();
+            long rangeEnd = ZonedDateTime.of(TO.atStartOfDay(), zoneId).toInstant().toEpochMilli();
+            Random random = new Random(61);
+            for (int i = 0; i < 20_000; i++) {
+                long epochMillis = rangeStart + Math.floorMod(random.nextLong(), rangeEnd - rangeStart) / 60_000 * 60_000;
+                assertEquals(isOpen(sessions, zoneId, epochMillis), calendar.isOpen(epochMillis), () -> sessions + " " + zone + " " + epochMillis);
+            }
+        }
+    }
+
+    @Test
+    void overnightSession() {
+        TradingSessionCalendar calendar = TradingSessionCalendar.builder()
+                .timeZoneId("America/Chicago")
+                .session(LocalTime.of(17, 0), LocalTime.of(16, 0))
+                .weekends("FRIDAY", "SATURDAY")
+                .range(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 31))
+                .build();
+        // Sunday 17:00 CDT opens the session closing on Monday 16:00 CDT
+        assertFalse(calendar.isOpen(LocalDateTime.of(2026, 10, 18, 21, 59)));
+        assertTrue(calendar.isOpen(LocalDateTime.of(2026, 10, 18, 22, 0)));
+        assertTrue(calendar.isOpen(LocalDateTime.of(2026, 10, 19, 20, 59)));
+        assertFalse(calendar.isOpen(LocalDateTime.of(2026, 10, 19, 21, 0)));
+        assertEquals(LocalDateTime.of(2026, 10, 19, 21, 0), calendar.nextClose(LocalDateTime.of(2026, 10, 18, 23, 0)));
+        assertEquals(LocalDateTime.of(2026, 10, 19, 22, 0), calendar.nextOpen(LocalDateTime.of(2026, 10, 18, 23, 0)));
+        // Thursday's session closes on Friday, Friday and Saturday don't open
+        assertTrue(calendar.isOpen(LocalDateTime.of(2026, 10, 23, 20, 0)));
+        assertFalse(calendar.isOpen(LocalDateTime.of(2026, 10, 24, 20, 0)));
+        assertEquals(LocalDateTime.of(2026, 10, 25, 22, 0), calendar.nextOpen(LocalDateTime.of(2026, 10, 23, 21, 0)));
+        // the session opening before the range is in the range
+        assertTrue(calendar.isOpen(LocalDateTime.of(2026, 10, 1, 5, 0)));
+    }
+
+    @Test
+    void invalidSessions() {
+        assertThrows(IllegalArgumentException.class, () -> TradingSessionCalendar.builder().session(LocalTime.NOON, LocalTime.NOON));
+        assertThrows(IllegalArgumentException.class, () -> TradingSessionCalendar.builder().sessions("08:00"));
+        assertThrows(IllegalStateException.class, () -> TradingSessionCalendar.builder().build());
+    }
+
+    /**
+     * Checks every session opening on the local date of the instant or the date before
+     */
+    private static boolean isOpen(String sessions, ZoneId zoneId, long epochMillis) {
+        LocalDate date = ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zoneId).toLocalDate();
+        for (LocalDate day : new LocalDate[] { date.minusDays(1), date }) {
+            if (day.equals(HOLIDAY) || Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY).contains(day.getDayOfWeek())) {
+                continue;
+            }
+            for (String session : sessions.split(",")) {
+                LocalTime open = LocalTime.parse(session.substring(0, 5));
+                LocalTime close = LocalTime.parse(session.substring(6));
+                long start = ZonedDateTime.of(day, open, zoneId).toInstant().toEpochMilli();
+                long end = ZonedDateTime.of(close.isBefore(open) ? day.plusDays(1) : day, close, zoneId).toInstant().toEpochMilli();
+                if (day.equals(HALF_DAY)) {
+                    end = Math.min(end, ZonedDateTime.of(day, LocalTime.of(20, 0), zoneId).toInstant().toEpochMilli());
+                }
+                if (epochMillis >= start && epochMillis < end) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,175 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * {@link FixedWidthTimestampDecoder#decode} against {@link FixedWidthTimestampDecoder#decodeScalar}
+ */
+class FixedWidthTimestampDecoderTest {
+
+    private static final int COUNT = 64;
+    private static final byte[] CORRUPTIONS = { '0', '5', '9', '-', ':', '.', '+', '/', ' ', 0, (byte)0xFF, (byte)0xB0 };
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 })
+    void validValuesAreSameAsScalar(int fractionDigits) {
+        Random random = new Random(41);
+        int length = UTCTimestampCodec.length(fractionDigits);
+        for (int round = 0; round < 200; round++) {
+            int stride = length + random.nextInt(4);
+            int offset = random.nextInt(8);
+            byte[] source = new byte[offset + COUNT * stride];
+            Arrays.fill(source, (byte)'#');
+            String date = randomDate(random, 1678, 2261, 28);
+            for (int i = 0; i < COUNT; i++) {
+                // runs of the same date exercise the cached epoch day
+                if (random.nextInt(8) == 0) {
+                    date = randomDate(random, 1678, 2261, 28);
+                }
+                write(source, offset + i * stride, date + '-' + randomTime(random, 59, fractionDigits));
+            }
+            assertSameAsScalar(source, offset, stride, COUNT, fractionDigits);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 })
+    void singleValuesAreSameAsScalar(int fractionDigits) {
+        Random random = new Random(41);
+        int length = UTCTimestampCodec.length(fractionDigits);
+        byte[] source = new byte[length];
+        for (int i = 0; i < 100_000; i++) {
+            // years around and outside the range of epoch nanoseconds, leap second 60, days invalid for short months and corrupted bytes
+            String value = randomDate(random, 1000, 3000, 31) + '-' + randomTime(random, 60, fractionDigits);
+            write(source, 0, value);
+            if (random.nextBoolean()) {
+                source[random.nextInt(length)] = CORRUPTIONS[random.nextInt(CORRUPTIONS.length)];
+            }
+            assertSameAsScalar(source, 0, length, 1, fractionDigits);
+        }
+    }
+
+    @Test
+    void boundaryValues() {
+        String[] values = {
+                "16770921-00:12:43.145224192", "16770921-00:12:43.145224191", "22620411-23:47:16.854775807", "22620411-23:47:16.854775808",
+                "16780101-00:00:00.000000000", "22611231-23:59:59.999999999", "22620101-00:00:00.000000000", "16771231-23:59:59.999999999",
+                "20210630-23:59:60.000000000", "20201231-23:59:59.999999999", "20200229-12:00:00.000000000", "20210229-12:00:00.000000000",
+                "20211301-00:00:00.000000000", "20210100-00:00:00.000000000", "20210101-24:00:00.000000000", "20210101-00:60:00.000000000",
+                "20210101-00:00:00,000000000", "20210101 00:00:00.000000000", "20210101-00.00:00.000000000", "2021010a-00:00:00.000000000"
+        };
+        for (String value : values) {
+            assertSameAsScalar(value.getBytes(StandardCharsets.US_ASCII), 0, value.length(), 1, 9);
+        }
+    }
+
+    @Test
+    void strideLongerThanValue() {
+        String[] values = { "20210630-10:15:00.001", "20210630-10:15:00.002", "20210701-00:00:00.000" };
+        int stride = 40;
+        byte[] source = new byte[stride * values.length];
+        Arrays.fill(source, (byte)'x');
+        for (int i = 0; i < values.length; i++) {
+            write(source, i * stride, values[i]);
+        }
+        long[] destination = new long[values.length + 2];
+        FixedWidthTimestampDecoder.decode(source, 0, stride, values.length, 3, destination, 1);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(UTCTimestampCodec.parseEpochNanos(values[i]), destination[i + 1], values[i]);
+        }
+        assertEquals(0, destination[0]);
+        assertEquals(0, destination[values.length + 1]);
+    }
+
+    @Test
+    void boundsAreChecked() {
+        byte[] source = "20210630-10:15:00.00120210630-10:15:00.002".getBytes(StandardCharsets.US_ASCII);
+        long[] destination = new long[2];
+        for (Decoder decoder : new Decoder[] { FixedWidthTimestampDecoder::decode, FixedWidthTimestampDecoder::decodeScalar }) {
+            assertThrows(IllegalArgumentException.class, () -> decoder.decode(source, 0, 20, 2, 3, destination, 0));
+            assertThrows(IndexOutOfBoundsException.class, () -> decoder.decode(source, 1, 21, 2, 3, destination, 0));
+            assertThrows(IndexOutOfBoundsException.class, () -> decoder.decode(source, -1, 21, 1, 3, destination, 0));
+            assertThrows(IndexOutOfBoundsException.class, () -> decoder.decode(source, 0, 21, -1, 3, destination, 0));
+            assertThrows(IndexOutOfBoundsException.class, () -> decoder.decode(source, 0, 21, 3, 3, destination, 0));
+            assertThrows(IndexOutOfBoundsException.class, () -> decoder.decode(source, 0, 21, 2, 3, destination, 1));
+            assertThrows(IndexOutOfBoundsException.class, () -> decoder.decode(source, 0, 21, 2, 3, destination, -1));
+            assertThrows(IndexOutOfBoundsException.class, () -> decoder.decode(source, 0, Integer.MAX_VALUE, 2, 3, destination, 0));
+            // nothing to decode
+            decoder.decode(source, source.length, 21, 0, 3, destination, 2);
+            decoder.decode(source, 0, 21, 2, 3, destination, 0);
+            assertEquals(UTCTimestampCodec.parseEpochNanos("20210630-10:15:00.002"), destination[1]);
+        }
+    }
+
+    private static void assertSameAsScalar(byte[] source, int offset, int stride, int count, int fractionDigits) {
+        long[] expected = new long[count];
+        long[] actual = new long[count];
+        Exception expectedError = null;
+        try {
+            FixedWidthTimestampDecoder.decodeScalar(source, offset, stride, count, fractionDigits, expected, 0);
+        } catch (RuntimeException e) {
+            expectedError = e;
+        }
+        String description = new String(source, StandardCharsets.ISO_8859_1);
+        if (expectedError == null) {
+            FixedWidthTimestampDecoder.decode(source, offset, stride, count, fractionDigits, actual, 0);
+            assertArrayEquals(expected, actual, description);
+        } else {
+            Exception error = expectedError;
+            Exception actualError = assertThrows(RuntimeException.class,
+                    () -> FixedWidthTimestampDecoder.decode(source, offset, stride, count, fractionDigits, actual, 0), description);
+            assertEquals(error.getClass(), actualError.getClass(), description);
+            assertEquals(error.getMessage(), actualError.getMessage(), description);
+        }
+    }
+
+    private static String randomDate(Random random, int minYear, int maxYear, int maxDay) {
+        return String.format("%04d%02d%02d", minYear + random.nextInt(maxYear - minYear + 1), 1 + random.nextInt(12), 1 + random.nextInt(maxDay));
+    }
+
+    private static String randomTime(Random random, int maxSecond, int fractionDigits) {
+        StringBuilder builder = new StringBuilder(String.format("%02d:%02d:%02d", random.nextInt(24), random.nextInt(60), random.nextInt(maxSecond + 1)));
+        if (fractionDigits > 0) {
+            builder.append('.');
+            for (int i = 0; i < fractionDigits; i++) {
+                builder.append((char)('0' + random.nextInt(10)));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void write(byte[] destination, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, destination, offset, bytes.length);
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        void decode(byte[] source, int offset, int stride, int count, int fractionDigits, long[] destination, int destinationOffset);
+    }
+}
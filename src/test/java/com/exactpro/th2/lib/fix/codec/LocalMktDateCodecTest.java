@@ -0,0 +1,55 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LocalMktDateCodecTest {
+
+    @Test
+    void roundTripSameAsJavaTime() {
+        // years 0-9999 including negative epoch days
+        for (long epochDay = LocalDate.of(0, 1, 1).toEpochDay(); epochDay <= LocalDate.of(9999, 12, 31).toEpochDay(); epochDay += 7) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            String expected = DateTimeFormatter.BASIC_ISO_DATE.format(date);
+            assertEquals(expected, LocalMktDateCodec.format(epochDay));
+            assertEquals(expected, LocalMktDateCodec.format(date));
+            assertEquals(epochDay, LocalMktDateCodec.parseEpochDay(expected));
+            assertEquals(date, LocalMktDateCodec.toLocalDate(expected));
+        }
+    }
+
+    @Test
+    void rejectsYearsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> LocalMktDateCodec.format(LocalDate.of(-1, 12, 31)));
+        assertThrows(IllegalArgumentException.class, () -> LocalMktDateCodec.format(LocalDate.of(10000, 1, 1)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "20260229", "20261301", "20260100", "2026011", "202601011", "2026-01-01", "2026O101" })
+    void rejectsInvalidValues(String value) {
+        assertThrows(DateTimeParseException.class, () -> LocalMktDateCodec.parseEpochDay(value));
+    }
+}
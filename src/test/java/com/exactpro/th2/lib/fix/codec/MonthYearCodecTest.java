@@ -0,0 +1,86 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MonthYearCodecTest {
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("uuuuMM");
+
+    @Test
+    void roundTripSameAsJavaTime() {
+        for (int year = 0; year <= 9999; year += 7) {
+            for (int month = 1; month <= 12; month++) {
+                YearMonth yearMonth = YearMonth.of(year, month);
+                String monthValue = MONTH.format(yearMonth);
+
+                int packed = MonthYearCodec.ofMonth(year, month);
+                assertEquals(monthValue, MonthYearCodec.format(packed));
+                assertEquals(packed, MonthYearCodec.parse(monthValue));
+                assertEquals(yearMonth.atDay(1), MonthYearCodec.toLocalDate(packed));
+                assertFalse(MonthYearCodec.hasDay(packed));
+                assertFalse(MonthYearCodec.hasWeek(packed));
+
+                for (int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
+                    LocalDate date = yearMonth.atDay(day);
+                    int dayPacked = MonthYearCodec.ofDay(year, month, day);
+                    assertEquals(DateTimeFormatter.BASIC_ISO_DATE.format(date), MonthYearCodec.format(dayPacked));
+                    assertEquals(dayPacked, MonthYearCodec.parse(MonthYearCodec.format(dayPacked)));
+                    assertEquals(date, MonthYearCodec.toLocalDate(dayPacked));
+                    assertEquals(year, MonthYearCodec.getYear(dayPacked));
+                    assertEquals(month, MonthYearCodec.getMonth(dayPacked));
+                    assertEquals(day, MonthYearCodec.getDay(dayPacked));
+                }
+
+                for (int week = 1; week <= 5; week++) {
+                    int weekPacked = MonthYearCodec.ofWeek(year, month, week);
+                    assertEquals(monthValue + 'w' + week, MonthYearCodec.format(weekPacked));
+                    assertEquals(weekPacked, MonthYearCodec.parse(monthValue + 'w' + week));
+                    assertTrue(MonthYearCodec.hasWeek(weekPacked));
+                    assertEquals(week, MonthYearCodec.getWeek(weekPacked));
+                    assertEquals(yearMonth.atDay(1).plusWeeks(week - 1), MonthYearCodec.toLocalDate(weekPacked));
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "202613", "202600", "20260230", "202602w6", "202602w0", "2026021", "202602w", "2026-02" })
+    void rejectsInvalidValues(String value) {
+        assertThrows(DateTimeParseException.class, () -> MonthYearCodec.parse(value));
+    }
+
+    @Test
+    void rejectsInvalidComponents() {
+        assertThrows(IllegalArgumentException.class, () -> MonthYearCodec.ofMonth(10000, 1));
+        assertThrows(IllegalArgumentException.class, () -> MonthYearCodec.ofMonth(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> MonthYearCodec.ofDay(2026, 2, 29));
+        assertThrows(IllegalArgumentException.class, () -> MonthYearCodec.ofWeek(2026, 2, 6));
+    }
+}
@@ -0,0 +1,80 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TZTimeOnlyCodecTest {
+
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+
+    @Test
+    void roundTripSameAsJavaTime() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long nanoOfDay = Math.floorMod(random.nextLong(), NANOS_PER_DAY);
+            int offsetSeconds = (random.nextInt(18 * 60 * 2 + 1) - 18 * 60) * 60;
+            int digits = random.nextInt(10);
+            LocalTime time = LocalTime.ofNanoOfDay(nanoOfDay);
+            ZoneOffset zoneOffset = ZoneOffset.ofTotalSeconds(offsetSeconds);
+            String pattern = digits == 0 ? "HH:mm:ss" : "HH:mm:ss." + StringUtils.repeat('S', digits);
+            String expected = DateTimeFormatter.ofPattern(pattern).format(time) + TZTimestampCodecTest.offset(zoneOffset);
+
+            String formatted = TZTimeOnlyCodec.format(nanoOfDay, offsetSeconds, digits);
+            assertEquals(expected, formatted);
+            assertEquals(formatted, TZTimeOnlyCodec.format(time, zoneOffset, digits));
+            long truncated = nanoOfDay - nanoOfDay % (long)Math.pow(10, 9 - digits);
+            assertEquals(truncated, TZTimeOnlyCodec.parseNanoOfDay(formatted));
+            assertEquals(offsetSeconds, TZTimeOnlyCodec.parseOffsetSeconds(formatted));
+            long utc = OffsetTime.of(LocalTime.ofNanoOfDay(truncated), zoneOffset).withOffsetSameInstant(ZoneOffset.UTC).toLocalTime().toNanoOfDay();
+            assertEquals(utc, TZTimeOnlyCodec.toUtcNanoOfDay(formatted));
+        }
+    }
+
+    @Test
+    void optionalSecondsAndLeapSecond() {
+        assertEquals(LocalTime.of(7, 39), TZTimeOnlyCodec.toLocalTime("07:39Z"));
+        assertEquals(LocalTime.of(13, 9, 0, 123_000_000), TZTimeOnlyCodec.toLocalTime("13:09:00.123-05"));
+        assertEquals(LocalTime.of(23, 59, 59, 500_000_000), TZTimeOnlyCodec.toLocalTime("23:59:60.5Z"));
+        assertEquals(LocalTime.of(22, 59, 59).toNanoOfDay(), TZTimeOnlyCodec.toUtcNanoOfDay("23:59:60+01"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "07:39", "24:00Z", "07:60Z", "07:39:61Z", "7:39Z", "07:39+1", "07:39:00.1234567890123Z" })
+    void rejectsInvalidValues(String value) {
+        assertThrows(DateTimeParseException.class, () -> TZTimeOnlyCodec.parseNanoOfDay(value));
+    }
+
+    @Test
+    void rejectsInvalidNanoOfDay() {
+        assertThrows(IllegalArgumentException.class, () -> TZTimeOnlyCodec.format(NANOS_PER_DAY, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> TZTimeOnlyCodec.format(-1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> TZTimeOnlyCodec.format(0, 30, 0));
+    }
+}
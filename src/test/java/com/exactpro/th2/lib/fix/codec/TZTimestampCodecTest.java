@@ -0,0 +1,80 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TZTimestampCodecTest {
+
+    @Test
+    void roundTripSameAsJavaTime() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // keep the local time within epoch nanoseconds range
+            long epochNanos = random.nextLong() / 2;
+            int offsetSeconds = (random.nextInt(18 * 60 * 2 + 1) - 18 * 60) * 60;
+            int digits = random.nextInt(10);
+            ZoneOffset zoneOffset = ZoneOffset.ofTotalSeconds(offsetSeconds);
+            OffsetDateTime dateTime = UTCTimestampCodecTest.toLocalDateTime(epochNanos).atOffset(ZoneOffset.UTC).withOffsetSameInstant(zoneOffset);
+            String expected = UTCTimestampCodecTest.formatter(digits).format(dateTime) + offset(zoneOffset);
+
+            String formatted = TZTimestampCodec.format(epochNanos, offsetSeconds, digits);
+            assertEquals(expected, formatted);
+            assertEquals(UTCTimestampCodecTest.truncate(epochNanos, digits), TZTimestampCodec.parseEpochNanos(formatted));
+            assertEquals(offsetSeconds, TZTimestampCodec.parseOffsetSeconds(formatted));
+            assertEquals(formatted, TZTimestampCodec.format(dateTime.toLocalDateTime().minusSeconds(offsetSeconds), zoneOffset, digits));
+        }
+    }
+
+    @Test
+    void epochNanosBounds() {
+        assertEquals(Long.MIN_VALUE, TZTimestampCodec.parseEpochNanos("16770921-00:12:43.145224192Z"));
+        assertEquals(Long.MIN_VALUE, TZTimestampCodec.parseEpochNanos("16770920-23:12:43.145224192-01"));
+        assertEquals(Long.MAX_VALUE, TZTimestampCodec.parseEpochNanos("22620412-05:17:16.854775807+05:30"));
+        assertThrows(ArithmeticException.class, () -> TZTimestampCodec.parseEpochNanos("16770921-00:12:43.145224191Z"));
+        assertThrows(ArithmeticException.class, () -> TZTimestampCodec.parseEpochNanos("22620411-23:47:16.854775808Z"));
+        assertEquals("16770921-00:12:43.145224192Z", TZTimestampCodec.format(Long.MIN_VALUE, 0, 9));
+        assertEquals("22620411-23:47:16.854775807Z", TZTimestampCodec.format(Long.MAX_VALUE, 0, 9));
+    }
+
+    @Test
+    void optionalSecondsAndLeapSecond() {
+        assertEquals(TZTimestampCodec.parseEpochNanos("20260101-09:30:00+05:30"), TZTimestampCodec.parseEpochNanos("20260101-09:30+05:30"));
+        assertEquals(TZTimestampCodec.parseEpochNanos("20161231-23:59:59.5Z"), TZTimestampCodec.parseEpochNanos("20161231-23:59:60.5Z"));
+        assertEquals(TZTimestampCodec.parseEpochNanos("20170101-00:59:59+01"), TZTimestampCodec.parseEpochNanos("20170101-00:59:60+01"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "20260101-09:30:00", "20260101-09:30:00+19", "20260101-09:30:00+05:60", "20260101-09:30:00+0530",
+            "20260101-09:30:61Z", "20260101-09:30:00Z0", "20260101-09:30:00.Z" })
+    void rejectsInvalidValues(String value) {
+        assertThrows(DateTimeParseException.class, () -> TZTimestampCodec.parseEpochNanos(value));
+    }
+
+    static String offset(ZoneOffset zoneOffset) {
+        return zoneOffset.getTotalSeconds() == 0 ? "Z" : zoneOffset.getId().replaceFirst(":00$", "");
+    }
+}
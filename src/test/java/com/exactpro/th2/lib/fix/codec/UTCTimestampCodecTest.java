@@ -0,0 +1,91 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class UTCTimestampCodecTest {
+
+    static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    @Test
+    void roundTripSameAsJavaTime() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long epochNanos = i < 2 ? (i == 0 ? Long.MIN_VALUE : Long.MAX_VALUE) : random.nextLong();
+            // truncation of the minimal value is out of range
+            int digits = epochNanos == Long.MIN_VALUE ? 9 : random.nextInt(10);
+            String expected = formatter(digits).format(toLocalDateTime(epochNanos));
+            String formatted = UTCTimestampCodec.format(epochNanos, digits);
+            assertEquals(expected, formatted);
+            assertEquals(truncate(epochNanos, digits), UTCTimestampCodec.parseEpochNanos(formatted));
+
+            byte[] bytes = ("##" + formatted).getBytes(StandardCharsets.US_ASCII);
+            assertEquals(truncate(epochNanos, digits), UTCTimestampCodec.parseEpochNanos(bytes, 2, formatted.length()));
+        }
+    }
+
+    @Test
+    void epochNanosBounds() {
+        assertEquals(Long.MIN_VALUE, UTCTimestampCodec.parseEpochNanos("16770921-00:12:43.145224192"));
+        assertEquals(Long.MAX_VALUE, UTCTimestampCodec.parseEpochNanos("22620411-23:47:16.854775807"));
+        assertThrows(ArithmeticException.class, () -> UTCTimestampCodec.parseEpochNanos("16770921-00:12:43.145224191"));
+        assertThrows(ArithmeticException.class, () -> UTCTimestampCodec.parseEpochNanos("22620411-23:47:16.854775808"));
+    }
+
+    @Test
+    void leapSecondIsParsedAsLastSecondOfMinute() {
+        assertEquals(UTCTimestampCodec.parseEpochNanos("20161231-23:59:59"), UTCTimestampCodec.parseEpochNanos("20161231-23:59:60"));
+        assertEquals(UTCTimestampCodec.parseEpochNanos("20161231-23:59:59.123"), UTCTimestampCodec.parseEpochNanos("20161231-23:59:60.123"));
+        assertEquals(LocalDateTime.of(2016, 12, 31, 23, 59, 59, 999_000_000), UTCTimestampCodec.toLocalDateTime("20161231-23:59:60.999"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "20161231-23:59:61", "20161231-24:00:00", "20161231-23:60:00", "20160230-00:00:00", "20161231-23:59",
+            "20161231T23:59:59", "20161231-23:59:59.", "20161231-23:59:59.1234567890123" })
+    void rejectsInvalidValues(String value) {
+        assertThrows(DateTimeParseException.class, () -> UTCTimestampCodec.parseEpochNanos(value));
+    }
+
+    static DateTimeFormatter formatter(int digits) {
+        return DateTimeFormatter.ofPattern(digits == 0 ? "yyyyMMdd-HH:mm:ss" : "yyyyMMdd-HH:mm:ss." + StringUtils.repeat('S', digits));
+    }
+
+    static LocalDateTime toLocalDateTime(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), (int)Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+    static long truncate(long epochNanos, int digits) {
+        long unit = 1;
+        for (int i = digits; i < 9; i++) {
+            unit *= 10;
+        }
+        return epochNanos - Math.floorMod(epochNanos, unit);
+    }
+}
@@ -0,0 +1,227 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.exactpro.th2.lib.fix.util.ValidationError;
+import com.exactpro.th2.lib.fix.util.ValidationError.Code;
+
+class DateModificatorTest {
+
+    private static final LocalDateTime[] SOURCES = {
+            LocalDateTime.of(2021, 1, 31, 23, 59, 59, 999_999_999),
+            LocalDateTime.of(2020, 2, 29, 0, 0),
+            LocalDateTime.of(1970, 1, 1, 12, 30, 15, 123_456_789)
+    };
+
+    private static final String[] TOKENS = {
+            "Y", "M", "D", "h", "m", "s", "ms", "mc", "ns", "x", "", " ", "\t", ":", ":", "+", "-", "=", "0", "1", "12", "-3",
+            "+4", "a", "1.5", "٣", "9223372036854775807", "9223372036854775808", "-9223372036854775808", "-9223372036854775809"
+    };
+
+    static Stream<String> patterns() {
+        return Stream.of(
+                "", " ", ":", " : ", "D+1", "D-1", "D=1", " D + 1 ", "D+1:h-2:m=30", "D+1::h+1", "D+1: :h+1", ":D+1:",
+                "Y+1:M-1:D=31:h=23:m=59:s=59:ms=999:mc=999999:ns=999999999", "D+-1", "D-+1", "D=-1", "D-=1", "D++1",
+                "D+1+2", "D1", "D", "+1", "D+", "x+1", "d+1", "D+a", "D+1.5", "D+ 1", "D +1", "D+٣", "D+１",
+                "D+9223372036854775807", "D+9223372036854775808", "D+-9223372036854775808", "D=-9223372036854775808",
+                "D+-9223372036854775809", "ms+1000", "M=13", "D=0", "h=24");
+    }
+
+    @ParameterizedTest
+    @MethodSource("patterns")
+    void parseIsSameAsBefore(String pattern) {
+        assertSameParse(pattern);
+    }
+
+    @Test
+    void randomPatternsAreParsedAsBefore() {
+        Random random = new Random(43);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int j = random.nextInt(8); j >= 0; j--) {
+                builder.append(TOKENS[random.nextInt(TOKENS.length)]);
+            }
+            assertSameParse(builder.toString());
+        }
+    }
+
+    private static void assertSameParse(String pattern) {
+        List<Modification> expected;
+        try {
+            expected = legacyParse(pattern);
+        } catch (RuntimeException e) {
+            RuntimeException actual = assertThrows(RuntimeException.class, () -> DateModificator.parse(pattern), pattern);
+            assertEquals(e.getClass(), actual.getClass(), pattern);
+            assertEquals(e.getMessage(), actual.getMessage(), pattern);
+            ValidationError error = DateModificator.validate(pattern);
+            assertEquals(e.getMessage().startsWith("Field value") ? Code.INVALID_VALUE
+                    : e.getMessage().startsWith("Unknown field") ? Code.UNKNOWN_COMPONENT
+                    : e.getMessage().startsWith("Invalid field format:") ? Code.INVALID_MODIFICATION
+                    : Code.MISSING_ACTION, error == null ? null : error.getCode(), pattern);
+            return;
+        }
+        List<DateModificator> actual = DateModificator.parse(pattern);
+        assertEquals(expected.size(), actual.size(), pattern);
+        assertNull(DateModificator.validate(pattern), pattern);
+        assertEquals(actual.size(), DateModificator.compile(pattern).size(), pattern);
+        for (int i = 0; i < expected.size(); i++) {
+            for (LocalDateTime source : SOURCES) {
+                Modification modification = expected.get(i);
+                DateModificator modificator = actual.get(i);
+                assertSameResult(() -> modification.modify(source), () -> modificator.modify(source), pattern);
+            }
+        }
+    }
+
+    @Test
+    void exceptionMessages() {
+        assertMessage("Field value should be long: 'a' in 'D+1:h+a'", "D+1:h+a");
+        assertMessage("Field value should be long: '9223372036854775808' in 'D+9223372036854775808'", "D+9223372036854775808");
+        assertMessage("Unknown field specified: 'x'. Expected " + Arrays.toString(DateComponent.values()) + ".", "x+1");
+        assertMessage("Invalid field format: 'D+1+2' in 'D+1+2'", "D+1+2");
+        assertMessage("Invalid field format: 'D+' in ' D+ '", " D+ ");
+        assertMessage("Invalid field format. Action missed: 'D1' in 'h+1: D1'. Expected [+-=]", "h+1: D1");
+    }
+
+    @Test
+    void minValueIsAccepted() {
+        assertEquals(1, DateModificator.parse("D+-9223372036854775808").size());
+        assertEquals(1, DateModificator.parse("ns+-9223372036854775808").size());
+        assertNull(DateModificator.validate("D+-9223372036854775808"));
+    }
+
+    @Test
+    void validationErrors() {
+        assertError(Code.MISSING_ACTION, 4, "D1", "h+1:D1");
+        assertError(Code.INVALID_MODIFICATION, 0, "D+1+2", "D+1+2:h+1");
+        assertError(Code.UNKNOWN_COMPONENT, 4, "x", "D+1: x+1");
+        assertError(Code.INVALID_VALUE, 0, "9223372036854775808", "D+9223372036854775808");
+        assertNull(DateModificator.validate(" "));
+        assertNull(DateModificator.validate("D+1::h-1"));
+    }
+
+    private static void assertMessage(String expected, String pattern) {
+        assertEquals(expected, assertThrows(RuntimeException.class, () -> legacyParse(pattern)).getMessage());
+        assertEquals(expected, assertThrows(RuntimeException.class, () -> DateModificator.parse(pattern)).getMessage());
+    }
+
+    private static void assertError(Code code, int position, String detail, String pattern) {
+        ValidationError error = DateModificator.validate(pattern);
+        assertEquals(code, error.getCode(), pattern);
+        assertEquals(position, error.getPosition(), pattern);
+        assertEquals(detail, error.getDetail(), pattern);
+        assertEquals(pattern, error.getSource(), pattern);
+    }
+
+    private static void assertSameResult(Supplier<LocalDateTime> expected, Supplier<LocalDateTime> actual, String pattern) {
+        LocalDateTime expectedResult;
+        try {
+            expectedResult = expected.get();
+        } catch (RuntimeException e) {
+            assertEquals(e.getClass(), assertThrows(RuntimeException.class, actual::get, pattern).getClass(), pattern);
+            return;
+        }
+        assertEquals(expectedResult, actual.get(), pattern);
+    }
+
+    /**
+     * Copy of the parser used before the validation support was added
+     */
+    private static List<Modification> legacyParse(String modifyPattern) {
+        if (StringUtils.isNotBlank(modifyPattern)) {
+            List<Modification> result = new ArrayList<>();
+            String[] array = StringUtils.stripAll(StringUtils.split(modifyPattern, ':'));
+
+            for (String item : array) {
+                if (StringUtils.isNoneEmpty(item)) {
+                    char action = searchAction(item);
+                    if (action != 0) {
+                        String[] pair = StringUtils.stripAll(StringUtils.split(item, action));
+                        if (pair.length == 2) {
+                            DateComponent dateComponent = DateComponent.parse(pair[0]);
+                            if (dateComponent != null) {
+                                try {
+                                    long value = Long.parseLong(pair[1]);
+                                    result.add(new Modification(action, dateComponent, value));
+                                } catch (NumberFormatException e) {
+                                    throw new RuntimeException("Field value should be long: '" + pair[1] + "' in '" + modifyPattern + "'");
+                                }
+                            } else {
+                                throw new RuntimeException("Unknown field specified: '" + pair[0] + "'. Expected " + Arrays.toString(DateComponent.values()) + ".");
+                            }
+                        } else {
+                            throw new RuntimeException("Invalid field format: '" + item + "' in '" + modifyPattern + "'");
+                        }
+                    } else {
+                        throw new RuntimeException("Invalid field format. Action missed: '" + item + "' in '" + modifyPattern + "'. Expected [+-=]");
+                    }
+                }
+            }
+            return result;
+        }
+        return Collections.emptyList();
+    }
+
+    private static char searchAction(String value) {
+        for (char action : new char[] { '+', '-', '=' }) {
+            if (value.indexOf(action) >= 0) {
+                return action;
+            }
+        }
+        return 0;
+    }
+
+    private static class Modification {
+        private final char action;
+        private final DateComponent dateComponent;
+        private final long value;
+
+        private Modification(char action, DateComponent dateComponent, long value) {
+            this.action = action;
+            this.dateComponent = dateComponent;
+            this.value = Math.abs(value);
+        }
+
+        private LocalDateTime modify(LocalDateTime source) {
+            switch (action) {
+            case '+':
+                return source.plus(value, dateComponent.getTemporalField().getBaseUnit());
+            case '-':
+                return source.minus(value, dateComponent.getTemporalField().getBaseUnit());
+            default:
+                return source.with(dateComponent.getTemporalField(), value);
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoField;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.exactpro.th2.lib.fix.DateUtil;
+
+/**
+ * {@link MutableTimestamp} against {@link LocalDateTime} and {@link ZonedDateTime}
+ */
+class MutableTimestampTest {
+
+    private static final DateUtil DATE_UTIL = new DateUtil();
+    private static final String[] MODIFY_PATTERNS = { "M+1", "M-1", "Y+1", "Y-4", "M+13", "M-25:D=1", "D+1:h=0:m=0:s=0", "h-36:m+90", "Y=2000:M=2", "ms+1999", "mc-1", "ns=7" };
+    private static final String[] ZONES = { "UTC", "+03:00", "Europe/London", "America/New_York", "Australia/Lord_Howe", "America/Sao_Paulo" };
+    // 1900-01-01 .. 2100-01-01
+    private static final long MIN_SECOND = -2208988800L;
+    private static final long MAX_SECOND = 4102444800L;
+
+    @Test
+    void modifyIsSameAsLocalDateTime() {
+        Random random = new Random(42);
+        MutableTimestamp timestamp = new MutableTimestamp();
+        for (int i = 0; i < 20_000; i++) {
+            LocalDateTime dateTime = random.nextBoolean() ? randomDateTime(random) : randomMonthEnd(random);
+            String modifyPattern = MODIFY_PATTERNS[random.nextInt(MODIFY_PATTERNS.length)];
+            LocalDateTime expected = DATE_UTIL.modifyDateTime(dateTime, modifyPattern);
+            assertEquals(expected, timestamp.set(dateTime).modify(modifyPattern).toLocalDateTime(), () -> dateTime + " " + modifyPattern);
+            assertFields(expected, timestamp);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(DateComponent.class)
+    void plusAndWithAreSameAsLocalDateTime(DateComponent component) {
+        Random random = new Random(42);
+        ChronoField field = (ChronoField)component.getTemporalField();
+        MutableTimestamp timestamp = new MutableTimestamp();
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime dateTime = random.nextBoolean() ? randomDateTime(random) : randomMonthEnd(random);
+            long value = random.nextInt(100) - 50;
+            assertEquals(dateTime.plus(value, field.getBaseUnit()), timestamp.set(dateTime).plus(component, value).toLocalDateTime(), () -> dateTime + " + " + value);
+            assertEquals(dateTime.minus(value, field.getBaseUnit()), timestamp.set(dateTime).minus(component, value).toLocalDateTime(), () -> dateTime + " - " + value);
+            long newValue = field.range().getMinimum() + random.nextInt((int)Math.min(field.range().getMaximum() - field.range().getMinimum() + 1, 3000));
+            if (component == DateComponent.YEAR) {
+                newValue += 1000;
+            }
+            LocalDateTime expected;
+            try {
+                expected = dateTime.with(field, newValue);
+            } catch (DateTimeException e) {
+                long invalid = newValue;
+                assertThrows(DateTimeException.class, () -> timestamp.set(dateTime).with(component, invalid), () -> dateTime + " with " + invalid);
+                continue;
+            }
+            long checked = newValue;
+            assertEquals(expected, timestamp.set(dateTime).with(component, newValue).toLocalDateTime(), () -> dateTime + " with " + checked);
+        }
+    }
+
+    @Test
+    void clampsToEndOfMonth() {
+        MutableTimestamp timestamp = new MutableTimestamp().set(LocalDateTime.of(2020, 1, 31, 10, 0));
+        assertEquals(LocalDateTime.of(2020, 2, 29, 10, 0), timestamp.plus(DateComponent.MONTH, 1).toLocalDateTime());
+        // the day is not restored after clamping
+        assertEquals(LocalDateTime.of(2020, 3, 29, 10, 0), timestamp.plus(DateComponent.MONTH, 1).toLocalDateTime());
+        assertEquals(LocalDateTime.of(2021, 2, 28, 10, 0), timestamp.set(LocalDateTime.of(2020, 2, 29, 10, 0)).plus(DateComponent.YEAR, 1).toLocalDateTime());
+        assertEquals(LocalDateTime.of(2019, 11, 30, 10, 0), timestamp.set(LocalDateTime.of(2020, 1, 31, 10, 0)).minus(DateComponent.MONTH, 2).toLocalDateTime());
+        assertEquals(LocalDateTime.of(1969, 2, 28, 23, 59, 59, 999_999_999),
+                timestamp.set(LocalDateTime.of(1969, 3, 31, 23, 59, 59, 999_999_999)).modify("M-1").toLocalDateTime());
+        assertThrows(DateTimeException.class, () -> timestamp.set(LocalDateTime.of(2021, 2, 1, 0, 0)).with(DateComponent.DAY, 29));
+    }
+
+    @Test
+    void modifyByZoneIdIsSameAsDateUtil() {
+        Random random = new Random(42);
+        // one instance for all zones: the cached offset is replaced when the zone changes
+        MutableTimestamp timestamp = new MutableTimestamp();
+        for (String zone : ZONES) {
+            // sorted values hourly over several years reuse the cached offset until the next transition
+            LocalDateTime dateTime = LocalDateTime.of(2018, 1, 1, 0, 17, 31, 123_000_000);
+            for (int i = 0; i < 4 * 365 * 24; i++, dateTime = dateTime.plusHours(1)) {
+                String modifyPattern = MODIFY_PATTERNS[random.nextInt(MODIFY_PATTERNS.length)];
+                LocalDateTime source = dateTime;
+                assertEquals(DATE_UTIL.modifyDateTimeByZoneId(source, modifyPattern, zone),
+                        timestamp.set(source).modifyByZoneId(modifyPattern, zone).toLocalDateTime(), () -> source + " " + modifyPattern + " " + zone);
+            }
+            for (int i = 0; i < 5_000; i++) {
+                LocalDateTime source = randomDateTime(random);
+                String modifyPattern = MODIFY_PATTERNS[random.nextInt(MODIFY_PATTERNS.length)];
+                assertEquals(DATE_UTIL.modifyDateTimeByZoneId(source, modifyPattern, zone),
+                        timestamp.set(source).modifyByZoneId(modifyPattern, zone).toLocalDateTime(), () -> source + " " + modifyPattern + " " + zone);
+            }
+        }
+    }
+
+    @Test
+    void offsetIsCachedUntilTransition() {
+        MutableTimestamp timestamp = new MutableTimestamp();
+        for (String zone : ZONES) {
+            ZoneId zoneId = ZoneId.of(zone);
+            // every 15 minutes, so every transition is crossed, forward and backward
+            long from = LocalDateTime.of(2020, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+            long to = LocalDateTime.of(2022, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+            for (long second = from; second < to; second += 900) {
+                assertOffset(zoneId, timestamp, second);
+            }
+            for (long second = to; second > from; second -= 900) {
+                assertOffset(zoneId, timestamp, second);
+                assertOffset(zoneId, timestamp, second - 1);
+            }
+        }
+        // ZoneId and String lookups of different zones on one instance
+        ZoneId london = ZoneId.of("Europe/London");
+        long summer = LocalDateTime.of(2021, 7, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        timestamp.set(summer, 0);
+        assertEquals(3600, timestamp.getOffsetSeconds(london));
+        assertEquals(-4 * 3600, timestamp.getOffsetSeconds("America/New_York"));
+        assertEquals(3600, timestamp.getOffsetSeconds("Europe/London"));
+        assertEquals(0, timestamp.set(summer - 180 * 86400, 0).getOffsetSeconds(london));
+    }
+
+    @Test
+    void fromZoneIsSameAsZonedDateTime() {
+        MutableTimestamp timestamp = new MutableTimestamp();
+        for (String zone : ZONES) {
+            ZoneId zoneId = ZoneId.of(zone);
+            // local date/time every 10 minutes including gaps and overlaps
+            LocalDateTime local = LocalDateTime.of(2020, 1, 1, 0, 5);
+            for (int i = 0; i < 2 * 366 * 24 * 6; i++, local = local.plusMinutes(10)) {
+                // the previous value caches the offset of its instant
+                timestamp.set(local).getOffsetSeconds(zoneId);
+                LocalDateTime expected = ZonedDateTime.of(local, zoneId).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+                LocalDateTime source = local;
+                assertEquals(expected, timestamp.set(local).fromZone(zoneId).toLocalDateTime(), () -> source + " " + zone);
+                // local date/time in a gap is moved forward
+                assertEquals(ZonedDateTime.of(source, zoneId).toLocalDateTime(), timestamp.toZone(zone).toLocalDateTime(), () -> source + " " + zone);
+            }
+        }
+    }
+
+    private static void assertOffset(ZoneId zoneId, MutableTimestamp timestamp, long second) {
+        assertEquals(zoneId.getRules().getOffset(Instant.ofEpochSecond(second)).getTotalSeconds(), timestamp.set(second, 0).getOffsetSeconds(zoneId),
+                () -> Instant.ofEpochSecond(second) + " " + zoneId);
+    }
+
+    private static void assertFields(LocalDateTime expected, MutableTimestamp timestamp) {
+        assertEquals(expected.getYear(), timestamp.getYear());
+        assertEquals(expected.getMonthValue(), timestamp.getMonth());
+        assertEquals(expected.getDayOfMonth(), timestamp.getDayOfMonth());
+        assertEquals(expected.getDayOfWeek().getValue(), timestamp.getDayOfWeek());
+        assertEquals(expected.getHour(), timestamp.getHour());
+        assertEquals(expected.getMinute(), timestamp.getMinute());
+        assertEquals(expected.getSecond(), timestamp.getSecond());
+        assertEquals(expected.getNano(), timestamp.getNano());
+    }
+
+    private static LocalDateTime randomDateTime(Random random) {
+        return LocalDateTime.ofEpochSecond(MIN_SECOND + Math.floorMod(random.nextLong(), MAX_SECOND - MIN_SECOND), random.nextInt(1_000_000_000), ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime randomMonthEnd(Random random) {
+        LocalDateTime dateTime = randomDateTime(random);
+        return dateTime.withDayOfMonth(dateTime.toLocalDate().lengthOfMonth() - random.nextInt(3));
+    }
+}
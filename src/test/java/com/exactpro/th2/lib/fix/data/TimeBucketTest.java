@@ -0,0 +1,205 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.exactpro.th2.lib.fix.DateUtil;
+
+/**
+ * {@link TimeBucket} against {@link ZonedDateTime} and {@link Math#floorDiv(long, long)}
+ */
+class TimeBucketTest {
+
+    private static final DateUtil DATE_UTIL = new DateUtil();
+    // 1900-01-01 .. 2100-01-01
+    private static final long MIN_MILLIS = -2208988800_000L;
+    private static final long MAX_MILLIS = 4102444800_000L;
+    private static final String[] ZONES = {
+            "UTC", "+05:30", "-09:45", "Europe/London", "America/New_York",
+            // DST starts at midnight, so some days start at 01:00
+            "America/Sao_Paulo", "America/Havana", "Asia/Beirut",
+            // a day was skipped on 2011-12-30
+            "Pacific/Apia",
+            // half an hour DST
+            "Australia/Lord_Howe"
+    };
+
+    static Stream<Arguments> calendarBuckets() {
+        return Stream.of(
+                Arguments.of(DateComponent.DAY, 1L),
+                Arguments.of(DateComponent.DAY, 7L),
+                Arguments.of(DateComponent.MONTH, 1L),
+                Arguments.of(DateComponent.MONTH, 3L),
+                Arguments.of(DateComponent.YEAR, 1L),
+                Arguments.of(DateComponent.YEAR, 5L)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("calendarBuckets")
+    void calendarBucketsAreSameAsZonedDateTime(DateComponent component, long count) {
+        Random random = new Random(42);
+        for (String zone : ZONES) {
+            ZoneId zoneId = ZoneId.of(zone);
+            TimeBucket bucket = TimeBucket.of(component, count).withZone(zone);
+            long[] epochMillis = new long[5_000];
+            for (int i = 0; i < epochMillis.length; i++) {
+                epochMillis[i] = MIN_MILLIS + Math.floorMod(random.nextLong(), MAX_MILLIS - MIN_MILLIS);
+            }
+            // sorted values reuse the cached offset until the next transition, shuffled values don't
+            long[] sorted = epochMillis.clone();
+            Arrays.sort(sorted);
+            for (long[] values : new long[][] { epochMillis, sorted }) {
+                long[] expected = new long[values.length];
+                long[] epochNanos = new long[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    long value = values[i];
+                    LocalDate date = Instant.ofEpochMilli(value).atZone(zoneId).toLocalDate();
+                    expected[i] = bucketId(component, count, date);
+                    epochNanos[i] = value * 1_000_000 + random.nextInt(1_000_000);
+                    String message = zone + " " + Instant.ofEpochMilli(value);
+
+                    assertEquals(expected[i], bucket.getBucketIdEpochMillis(value), message);
+                    assertEquals(expected[i], bucket.getBucketIdEpochNanos(epochNanos[i]), message);
+                    LocalDateTime dateTime = LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos[i], 1_000_000_000L), (int)Math.floorMod(epochNanos[i], 1_000_000_000L), ZoneOffset.UTC);
+                    assertEquals(expected[i], bucket.getBucketId(dateTime), message);
+
+                    ZonedDateTime start = bucketStart(component, count, expected[i]).atStartOfDay(zoneId);
+                    assertEquals(start.toEpochSecond() * 1000, bucket.truncateEpochMillis(value), message);
+                    assertEquals(start.toEpochSecond() * 1_000_000_000L, bucket.truncateEpochNanos(epochNanos[i]), message);
+                    assertEquals(start.withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime(), bucket.truncate(dateTime), message);
+                }
+                assertArrayEquals(expected, bucket.getBucketIdsEpochMillis(values), zone);
+                assertArrayEquals(expected, bucket.getBucketIdsEpochNanos(epochNanos), zone);
+            }
+        }
+    }
+
+    @Test
+    void calendarBucketsAroundTransitions() {
+        // every minute of the days around transitions, including days starting at 01:00 and the skipped day
+        String[][] days = { { "America/Sao_Paulo", "2018-11-03" }, { "America/Sao_Paulo", "2019-02-16" }, { "America/Havana", "2021-03-13" },
+                { "America/Havana", "2021-11-06" }, { "Pacific/Apia", "2011-12-29" }, { "Europe/London", "2021-03-27" }, { "Europe/London", "2021-10-30" } };
+        for (String[] day : days) {
+            ZoneId zoneId = ZoneId.of(day[0]);
+            TimeBucket bucket = TimeBucket.of(DateComponent.DAY, 1).withZone(day[0]);
+            long from = LocalDate.parse(day[1]).atStartOfDay(zoneId).toEpochSecond() * 1000;
+            long[] values = new long[3 * 24 * 60];
+            long[] expected = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = from + i * 60_000L;
+                ZonedDateTime dateTime = Instant.ofEpochMilli(values[i]).atZone(zoneId);
+                expected[i] = dateTime.toLocalDate().toEpochDay();
+                assertEquals(expected[i], bucket.getBucketIdEpochMillis(values[i]), dateTime::toString);
+                assertEquals(dateTime.toLocalDate().atStartOfDay(zoneId).toEpochSecond() * 1000, bucket.truncateEpochMillis(values[i]), dateTime::toString);
+            }
+            assertArrayEquals(expected, bucket.getBucketIdsEpochMillis(values), day[1]);
+        }
+        // the first instant of the day, not the local midnight, is the start of the bucket
+        TimeBucket bucket = TimeBucket.of(DateComponent.DAY, 1).withZone("America/Sao_Paulo");
+        assertEquals(LocalDateTime.of(2018, 11, 4, 3, 0), bucket.getStart(LocalDate.of(2018, 11, 4).toEpochDay()));
+    }
+
+    @Test
+    void fixedBucketsAreFloored() {
+        Duration[] sizes = { Duration.ofMinutes(5), Duration.ofSeconds(7), Duration.ofMillis(250), Duration.ofNanos(333), Duration.ofHours(3) };
+        Random random = new Random(42);
+        for (Duration size : sizes) {
+            TimeBucket bucket = TimeBucket.of(size);
+            long sizeNanos = size.toNanos();
+            for (int i = 0; i < 10_000; i++) {
+                long epochNanos = random.nextLong() % 4_000_000_000_000_000_000L;
+                long epochMillis = Math.floorDiv(epochNanos, 1_000_000L);
+                long id = Math.floorDiv(epochNanos, sizeNanos);
+                assertEquals(id, bucket.getBucketIdEpochNanos(epochNanos), size::toString);
+                assertEquals(Math.floorDiv(epochMillis * 1_000_000, sizeNanos), bucket.getBucketIdEpochMillis(epochMillis), size::toString);
+                assertEquals(id * sizeNanos, bucket.truncateEpochNanos(epochNanos), size::toString);
+                assertEquals(Math.floorDiv(Math.floorDiv(epochMillis * 1_000_000, sizeNanos) * sizeNanos, 1_000_000L), bucket.truncateEpochMillis(epochMillis), size::toString);
+            }
+        }
+        assertEquals(-1, TimeBucket.of(DateComponent.MINUTE, 5).getBucketIdEpochMillis(-1));
+        assertEquals(-300_000, TimeBucket.of(DateComponent.MINUTE, 5).truncateEpochMillis(-1));
+    }
+
+    @Test
+    void truncateDateTimeIsSameAsTimeBucket() {
+        Random random = new Random(42);
+        String[][] components = { { "Y", "1" }, { "M", "3" }, { "D", "1" }, { "h", "4" }, { "m", "5" }, { "s", "15" }, { "ms", "100" } };
+        for (int i = 0; i < 10_000; i++) {
+            long epochMillis = MIN_MILLIS + Math.floorMod(random.nextLong(), MAX_MILLIS - MIN_MILLIS);
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000), random.nextInt(1_000_000_000), ZoneOffset.UTC);
+            String[] component = components[random.nextInt(components.length)];
+            long count = Long.parseLong(component[1]);
+            LocalDateTime expected = truncateUtc(dateTime, DateComponent.parse(component[0]), count);
+            assertEquals(expected, DATE_UTIL.truncateDateTime(dateTime, component[0], count), () -> dateTime + " " + Arrays.toString(component));
+            assertEquals(expected, DATE_UTIL.truncateDateTimeByZoneId(dateTime, component[0], count, "UTC"), () -> dateTime + " " + Arrays.toString(component));
+
+            String zone = ZONES[random.nextInt(ZONES.length)];
+            ZoneId zoneId = ZoneId.of(zone);
+            LocalDate date = dateTime.atOffset(ZoneOffset.UTC).atZoneSameInstant(zoneId).toLocalDate();
+            LocalDateTime expectedDay = date.atStartOfDay(zoneId).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+            assertEquals(expectedDay, DATE_UTIL.truncateDateTimeByZoneId(dateTime, "D", 1, zone), () -> dateTime + " in " + zone);
+        }
+    }
+
+    private static LocalDateTime truncateUtc(LocalDateTime dateTime, DateComponent component, long count) {
+        switch (component) {
+        case YEAR:
+        case MONTH:
+        case DAY:
+            return bucketStart(component, count, bucketId(component, count, dateTime.toLocalDate())).atStartOfDay();
+        default:
+            long size = component.getTemporalField().getBaseUnit().getDuration().toNanos() * count;
+            long epochNanos = dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+            long start = Math.floorDiv(epochNanos, size) * size;
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(start, 1_000_000_000L), (int)Math.floorMod(start, 1_000_000_000L), ZoneOffset.UTC);
+        }
+    }
+
+    private static long bucketId(DateComponent component, long count, LocalDate date) {
+        if (component == DateComponent.DAY) {
+            return Math.floorDiv(date.toEpochDay(), count);
+        }
+        long months = component == DateComponent.YEAR ? count * 12 : count;
+        return Math.floorDiv(date.getYear() * 12L + date.getMonthValue() - 1, months);
+    }
+
+    private static LocalDate bucketStart(DateComponent component, long count, long bucketId) {
+        if (component == DateComponent.DAY) {
+            return LocalDate.ofEpochDay(bucketId * count);
+        }
+        long month = bucketId * (component == DateComponent.YEAR ? count * 12 : count);
+        return LocalDate.of((int)Math.floorDiv(month, 12), (int)Math.floorMod(month, 12) + 1, 1);
+    }
+}
@@ -0,0 +1,169 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * {@link TimestampColumns} against {@link DateComponent#extract(java.time.temporal.Temporal)} and
+ * {@link DateComponent#diff(LocalDateTime, LocalDateTime)} of LocalDateTime
+ */
+class TimestampColumnsTest {
+
+    // above PARALLEL_THRESHOLD, so the values are processed in chunks
+    private static final int SIZE = TimestampColumns.PARALLEL_THRESHOLD + 4_321;
+    // 1900-01-01 .. 2100-01-01, the difference of any two values in nanoseconds fits long
+    private static final long MIN_SECOND = -2208988800L;
+    private static final long MAX_SECOND = 4102444800L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    @ParameterizedTest
+    @EnumSource(DateComponent.class)
+    void extractIsSameAsLocalDateTime(DateComponent component) {
+        Random random = new Random(42);
+        long[] epochNanos = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            epochNanos[i] = randomEpochNanos(random);
+        }
+        long[] sorted = epochNanos.clone();
+        Arrays.sort(sorted);
+        for (long[] nanos : new long[][] { epochNanos, sorted }) {
+            long[] millis = new long[SIZE];
+            int[] expectedNanos = new int[SIZE];
+            int[] expectedMillis = new int[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                millis[i] = Math.floorDiv(nanos[i], 1_000_000L);
+                expectedNanos[i] = component.extract(toDateTime(nanos[i]));
+                expectedMillis[i] = component.extract(toDateTime(millis[i] * 1_000_000L));
+            }
+            int[] actual = new int[SIZE];
+            TimestampColumns.extractEpochNanos(nanos, component, actual);
+            assertColumnEquals(expectedNanos, actual, nanos);
+            TimestampColumns.extractEpochMillis(millis, component, actual);
+            assertColumnEquals(expectedMillis, actual, nanos);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(DateComponent.class)
+    void diffIsSameAsLocalDateTime(DateComponent component) {
+        Random random = new Random(42);
+        long[] minuends = new long[SIZE];
+        long[] subtrahends = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            switch (i % 4) {
+            case 0:
+                minuends[i] = randomEpochNanos(random);
+                subtrahends[i] = randomEpochNanos(random);
+                break;
+            case 1:
+                // close values, including the same value
+                minuends[i] = randomEpochNanos(random);
+                subtrahends[i] = minuends[i] - random.nextInt(3) * random.nextInt(2 * (int)NANOS_PER_SECOND);
+                break;
+            default:
+                // ends of months with times on either side of each other
+                minuends[i] = monthEndEpochNanos(random);
+                subtrahends[i] = monthEndEpochNanos(random);
+            }
+            if (random.nextBoolean()) {
+                long minuend = minuends[i];
+                minuends[i] = subtrahends[i];
+                subtrahends[i] = minuend;
+            }
+        }
+        long[] minuendMillis = new long[SIZE];
+        long[] subtrahendMillis = new long[SIZE];
+        long[] expectedNanos = new long[SIZE];
+        long[] expectedMillis = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            minuendMillis[i] = Math.floorDiv(minuends[i], 1_000_000L);
+            subtrahendMillis[i] = Math.floorDiv(subtrahends[i], 1_000_000L);
+            expectedNanos[i] = component.diff(toDateTime(minuends[i]), toDateTime(subtrahends[i]));
+            expectedMillis[i] = component.diff(toDateTime(minuendMillis[i] * 1_000_000L), toDateTime(subtrahendMillis[i] * 1_000_000L));
+        }
+        long[] actual = new long[SIZE];
+        TimestampColumns.diffEpochNanos(minuends, subtrahends, component, actual);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(expectedNanos[i], actual[i], toDateTime(minuends[i]) + " - " + toDateTime(subtrahends[i]));
+        }
+        TimestampColumns.diffEpochMillis(minuendMillis, subtrahendMillis, component, actual);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(expectedMillis[i], actual[i], toDateTime(minuendMillis[i] * 1_000_000L) + " - " + toDateTime(subtrahendMillis[i] * 1_000_000L));
+        }
+    }
+
+    @Test
+    void diffOfMonthEnds() {
+        long[] minuends = { epochNanos("2021-02-28T10:00"), epochNanos("2021-02-28T09:00"), epochNanos("2021-01-31T10:00"), epochNanos("2020-02-29T00:00"),
+                epochNanos("1969-12-31T23:59:59.999999999") };
+        long[] subtrahends = { epochNanos("2021-01-31T09:00"), epochNanos("2021-01-31T10:00"), epochNanos("2021-02-28T09:00"), epochNanos("2019-02-28T00:00"),
+                epochNanos("1969-11-30T23:59:59.999999999") };
+        long[] months = new long[minuends.length];
+        TimestampColumns.diffEpochNanos(minuends, subtrahends, DateComponent.MONTH, months);
+        assertEquals(Arrays.toString(new long[] { 0, 0, 0, 12, 1 }), Arrays.toString(months));
+        TimestampColumns.diffEpochNanos(minuends, subtrahends, DateComponent.YEAR, months);
+        assertEquals(Arrays.toString(new long[] { 0, 0, 0, 1, 0 }), Arrays.toString(months));
+    }
+
+    @Test
+    void rejectsInvalidColumns() {
+        assertThrows(IllegalArgumentException.class, () -> TimestampColumns.extractEpochMillis(new long[2], DateComponent.DAY, new int[1]));
+        assertThrows(IllegalArgumentException.class, () -> TimestampColumns.diffEpochMillis(new long[2], new long[1], DateComponent.DAY, new long[2]));
+        assertThrows(IllegalArgumentException.class, () -> TimestampColumns.diffEpochNanos(new long[2], new long[2], DateComponent.DAY, new long[1]));
+        assertThrows(ArithmeticException.class, () -> TimestampColumns.diffEpochMillis(new long[] { Long.MAX_VALUE / 1000 }, new long[] { 0 }, DateComponent.NANOSECOND, new long[1]));
+    }
+
+    private static void assertColumnEquals(int[] expected, int[] actual, long[] epochNanos) {
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i], toDateTime(epochNanos[i])::toString);
+        }
+    }
+
+    private static long randomEpochNanos(Random random) {
+        return (MIN_SECOND + Math.floorMod(random.nextLong(), MAX_SECOND - MIN_SECOND)) * NANOS_PER_SECOND + random.nextInt((int)NANOS_PER_SECOND);
+    }
+
+    private static long monthEndEpochNanos(Random random) {
+        LocalDate date = LocalDate.of(1900 + random.nextInt(200), 1 + random.nextInt(12), 1);
+        LocalTime time = LocalTime.ofSecondOfDay(random.nextInt(4) * 6 * 3600 + random.nextInt(2));
+        return toEpochNanos(LocalDateTime.of(date.withDayOfMonth(date.lengthOfMonth() - random.nextInt(2)), time));
+    }
+
+    private static long epochNanos(String dateTime) {
+        return toEpochNanos(LocalDateTime.parse(dateTime));
+    }
+
+    private static long toEpochNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + dateTime.getNano();
+    }
+
+    private static LocalDateTime toDateTime(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), (int)Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,61 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.exactpro.th2.lib.fix.util.DateTimeUtility;
+
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class FormatterCreationEventTest {
+
+    @Test
+    void eventIsEmittedOnCacheMissOnly() throws IOException {
+        String pattern = "yyyy-MM-dd'" + System.nanoTime() + "'";
+        Path file = Files.createTempFile("formatter-creation", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(FormatterCreationEvent.class).withoutThreshold();
+            recording.start();
+            for (int i = 0; i < 10; i++) {
+                DateTimeUtility.createFormatter(pattern, "Europe/London");
+                DateTimeUtility.getFormatter(pattern);
+            }
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(FormatterCreationEvent.class.getAnnotation(Name.class).value()))
+                    .filter(event -> pattern.equals(event.getString("pattern")))
+                    .collect(Collectors.toList());
+            // patterns beyond the cache limit are compiled on every lookup, e.g. after random pattern tests
+            boolean cached = DateTimeUtility.getCachedFormatPatterns().contains(pattern);
+            assertEquals(cached ? 1 : 20, events.size(), cached ? "cached pattern" : "cache is full");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.message;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.exactpro.th2.common.grpc.AnyMessage;
+import com.exactpro.th2.common.grpc.ListValue;
+import com.exactpro.th2.common.grpc.Message;
+import com.exactpro.th2.common.grpc.MessageGroup;
+import com.exactpro.th2.common.grpc.MessageGroupBatch;
+import com.exactpro.th2.common.grpc.Value;
+import com.exactpro.th2.lib.fix.DateUtil;
+import com.exactpro.th2.lib.fix.util.EPSCommonException;
+
+class TimestampFieldRewriterTest {
+
+    private static final DateUtil DATE_UTIL = new DateUtil();
+    private static final String FORMAT = "yyyyMMdd-HH:mm:ss.SSS";
+    private static final String MODIFY = "D+1:h=10";
+    private static final String TIME = "20210228-23:59:59.123";
+
+    private static final TimestampFieldRewriter REWRITER = TimestampFieldRewriter.builder()
+            .field("TransactTime", FORMAT, MODIFY)
+            .field("NoSides.TransactTime", FORMAT, "M+1")
+            .field("Header.SendingTime", FORMAT, MODIFY)
+            .build();
+
+    @Test
+    void rewritesTopLevelNestedAndRepeatingFields() {
+        Message message = message("TransactTime", simple(TIME), "Side", simple("1"),
+                "Header", Value.newBuilder().setMessageValue(message("SendingTime", simple(TIME), "MsgType", simple("D"))).build(),
+                "NoSides", list(message("TransactTime", simple(TIME)), message("Side", simple("2")), message("TransactTime", simple("20210131-00:00:00.000"))));
+
+        Message rewritten = REWRITER.rewrite(message);
+
+        Message expected = message("TransactTime", simple(modify(TIME, MODIFY)), "Side", simple("1"),
+                "Header", Value.newBuilder().setMessageValue(message("SendingTime", simple(modify(TIME, MODIFY)), "MsgType", simple("D"))).build(),
+                "NoSides", list(message("TransactTime", simple(modify(TIME, "M+1"))), message("Side", simple("2")),
+                        message("TransactTime", simple(modify("20210131-00:00:00.000", "M+1")))));
+        assertEquals(expected, rewritten);
+        assertEquals("20210301-10:59:59.123", rewritten.getFieldsOrDefault("TransactTime", null).getSimpleValue());
+        // values without rules are kept as is
+        assertSame(message.getFieldsOrDefault("Side", null), rewritten.getFieldsOrDefault("Side", null));
+        ListValue sides = message.getFieldsOrDefault("NoSides", null).getListValue();
+        assertSame(sides.getValues(1), rewritten.getFieldsOrDefault("NoSides", null).getListValue().getValues(1));
+    }
+
+    @Test
+    void rebuildsOnlyChangedMessagesAndGroups() {
+        Message changed = message("TransactTime", simple(TIME));
+        Message unchanged = message("OrigTime", simple(TIME), "Header", Value.newBuilder().setMessageValue(message("MsgType", simple("D"))).build());
+        MessageGroup changedGroup = group(unchanged, changed);
+        MessageGroup unchangedGroup = group(unchanged, AnyMessage.newBuilder().build());
+        MessageGroupBatch batch = MessageGroupBatch.newBuilder().addGroups(unchangedGroup).addGroups(changedGroup).build();
+
+        MessageGroupBatch rewritten = REWRITER.rewrite(batch);
+
+        assertNotSame(batch, rewritten);
+        assertSame(unchangedGroup, rewritten.getGroups(0));
+        MessageGroup rewrittenGroup = rewritten.getGroups(1);
+        assertNotSame(changedGroup, rewrittenGroup);
+        assertSame(changedGroup.getMessages(0), rewrittenGroup.getMessages(0));
+        assertEquals(message("TransactTime", simple(modify(TIME, MODIFY))), rewrittenGroup.getMessages(1).getMessage());
+
+        MessageGroupBatch unchangedBatch = MessageGroupBatch.newBuilder().addGroups(unchangedGroup).addGroups(unchangedGroup).build();
+        assertSame(unchangedBatch, REWRITER.rewrite(unchangedBatch));
+    }
+
+    @Test
+    void keepsInstanceIfValueIsSame() {
+        TimestampFieldRewriter rewriter = TimestampFieldRewriter.builder()
+                .fields(Collections.singletonMap("TransactTime", "h+0"), FORMAT)
+                .build();
+        Message message = message("TransactTime", simple(TIME));
+        assertSame(message, rewriter.rewrite(message));
+        MessageGroup group = group(message);
+        assertSame(group, rewriter.rewrite(group));
+    }
+
+    @Test
+    void rejectsInvalidFields() {
+        assertThrows(IllegalArgumentException.class, () -> TimestampFieldRewriter.builder().field(" ", FORMAT, MODIFY));
+        assertThrows(IllegalArgumentException.class, () -> TimestampFieldRewriter.builder().field("TransactTime", FORMAT, MODIFY).field("TransactTime", FORMAT, "h+1"));
+        assertThrows(RuntimeException.class, () -> TimestampFieldRewriter.builder().field("TransactTime", FORMAT, "D+1+2"));
+        EPSCommonException exception = assertThrows(EPSCommonException.class, () -> REWRITER.rewrite(message("TransactTime", simple("2021-02-28"))));
+        assertEquals("Can't rewrite field TransactTime with value '2021-02-28' using format '" + FORMAT + "'", exception.getMessage());
+    }
+
+    private static String modify(String value, String modifyPattern) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(FORMAT);
+        return formatter.format(DATE_UTIL.modifyDateTime(LocalDateTime.parse(value, formatter), modifyPattern, false));
+    }
+
+    private static Message message(Object... namesAndValues) {
+        Message.Builder builder = Message.newBuilder();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            builder.putFields((String)namesAndValues[i], (Value)namesAndValues[i + 1]);
+        }
+        return builder.build();
+    }
+
+    private static MessageGroup group(Message... messages) {
+        MessageGroup.Builder builder = MessageGroup.newBuilder();
+        for (Message message : messages) {
+            builder.addMessages(AnyMessage.newBuilder().setMessage(message).build());
+        }
+        return builder.build();
+    }
+
+    private static MessageGroup group(Message message, AnyMessage other) {
+        return group(message).toBuilder().addMessages(other).build();
+    }
+
+    private static Value simple(String value) {
+        return Value.newBuilder().setSimpleValue(value).build();
+    }
+
+    private static Value list(Message... messages) {
+        ListValue.Builder builder = ListValue.newBuilder();
+        for (Message message : messages) {
+            builder.addValues(Value.newBuilder().setMessageValue(message).build());
+        }
+        return Value.newBuilder().setListValue(builder.build()).build();
+    }
+}
@@ -0,0 +1,174 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class FixLatencyRecorderTest {
+
+    private static final double[] PERCENTILES = { 0, 50, 90, 99, 100 };
+
+    @Test
+    void utcAndTzTimestampsAreDetected() {
+        long expected = toEpochNanos(OffsetDateTime.of(2021, 6, 30, 10, 15, 0, 123_000_000, ZoneOffset.UTC));
+        // the date separator isn't an offset sign
+        assertEquals(expected, parse("20210630-10:15:00.123"));
+        assertEquals(expected, parse("20210630-10:15:00.123Z"));
+        assertEquals(expected, parse("20210630-12:15:00.123+02"));
+        assertEquals(expected, parse("20210630-15:45:00.123+05:30"));
+        assertEquals(expected, parse("20210630-05:15:00.123-05"));
+        assertEquals(expected - 123_000_000, parse("20210630-10:15:00"));
+        assertEquals(expected - 123_000_000, parse("20210630-11:15:00+01"));
+        assertThrows(DateTimeParseException.class, () -> parse("20210630-10:15:00.123+25"));
+    }
+
+    @Test
+    void recordFieldsOfRawMessage() {
+        FixLatencyRecorder recorder = new FixLatencyRecorder();
+        byte[] message = fix("8=FIX.4.4|9=60|35=D|52=20210630-10:15:00.250|60=20210630-10:15:00.100|10=000|");
+        assertTrue(recorder.recordFields(message, 0, message.length, 52, 60));
+        assertEquals(1, recorder.getCount());
+        assertEquals(150_000_000L, recorder.getHistogram().getMax());
+
+        // the first occurrence of a tag is used, the earlier field may precede the later one
+        message = fix("60=20210630-10:15:00.100|52=20210630-10:15:00.101+00|52=20210630-10:15:10|");
+        assertTrue(recorder.recordFields(message, 0, message.length, 52, 60));
+        assertEquals(2, recorder.getCount());
+
+        // offset and length select the message within the buffer
+        message = fix("##52=20210630-10:15:00.200|60=20210630-10:15:00.100|##");
+        assertTrue(recorder.recordFields(message, 2, message.length - 4, 52, 60));
+        assertEquals(3, recorder.getCount());
+        assertEquals(0, recorder.getMissingCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "8=FIX.4.4|35=D|52=20210630-10:15:00.250|",
+            "8=FIX.4.4|35=D|60=20210630-10:15:00.100|",
+            "",
+            "52=20210630-10:15:00.250|6A=20210630-10:15:00.100|60=20210630-10:15:00.100|",
+            "52=20210630-10:15:00.250|=20210630-10:15:00.100|60=20210630-10:15:00.100|",
+            "52=20210630-10:15:00.250| 60=20210630-10:15:00.100|",
+            "52=20210630-10:15:00.250|4294967356=20210630-10:15:00.100|",
+            "52=20210630-10:15:00.250|60",
+            "52=20210630-10:15:00.250|garbage"
+    })
+    void malformedOrIncompleteMessagesAreMissing(String text) {
+        FixLatencyRecorder recorder = new FixLatencyRecorder();
+        byte[] message = fix(text);
+        assertFalse(recorder.recordFields(message, 0, message.length, 52, 60));
+        assertEquals(1, recorder.getMissingCount());
+        assertEquals(0, recorder.getCount());
+        assertEquals(0, recorder.getNegativeCount());
+    }
+
+    @Test
+    void negativeLatenciesAreCountedSeparately() {
+        FixLatencyRecorder recorder = new FixLatencyRecorder();
+        assertEquals(-1_000_000L, recorder.record("20210630-10:15:00.100", "20210630-10:15:00.101"));
+        assertEquals(0, recorder.record("20210630-10:15:00.100", "20210630-12:15:00.100+02:00"));
+        assertEquals(-5, recorder.record(-5));
+        byte[] message = fix("52=20210630-10:15:00.100|60=20210630-10:15:00.200|");
+        assertTrue(recorder.recordFields(message, 0, message.length, 52, 60));
+        assertEquals(3, recorder.getNegativeCount());
+        assertEquals(1, recorder.getCount());
+        assertEquals(0, recorder.getMissingCount());
+
+        byte[] timestamp = fix("20210630-10:15:00.100");
+        long receive = parse("20210630-10:15:00.100") + 42;
+        assertEquals(42, recorder.recordSince(timestamp, 0, timestamp.length, receive));
+        assertEquals(2, recorder.getCount());
+
+        recorder.reset();
+        assertEquals(0, recorder.getNegativeCount());
+        assertEquals(0, recorder.getCount());
+    }
+
+    @Test
+    void addMergesCountersAndHistograms() {
+        FixLatencyRecorder first = new FixLatencyRecorder();
+        FixLatencyRecorder second = new FixLatencyRecorder();
+        FixLatencyRecorder all = new FixLatencyRecorder();
+        Random random = new Random(39);
+        byte[] missing = fix("52=20210630-10:15:00.100|");
+        for (int i = 0; i < 3_000; i++) {
+            FixLatencyRecorder recorder = i % 3 == 0 ? first : second;
+            if (i % 50 == 0) {
+                recorder.recordFields(missing, 0, missing.length, 52, 60);
+                all.recordFields(missing, 0, missing.length, 52, 60);
+            } else {
+                long latency = random.nextInt(10_000_000) - 100_000;
+                recorder.record(latency);
+                all.record(latency);
+            }
+        }
+        first.add(second);
+        assertEquals(all.getCount(), first.getCount());
+        assertEquals(all.getNegativeCount(), first.getNegativeCount());
+        assertEquals(all.getMissingCount(), first.getMissingCount());
+        assertArrayEquals(all.getValuesAtPercentiles(PERCENTILES), first.getValuesAtPercentiles(PERCENTILES));
+        assertEquals(all.toString(), first.toString());
+    }
+
+    @Test
+    void valuesAtPercentilesAreWithinRelativeError() {
+        FixLatencyRecorder recorder = new FixLatencyRecorder();
+        Random random = new Random(39);
+        long[] values = new long[5_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long)Math.exp(random.nextDouble() * 25);
+            recorder.record(values[i]);
+        }
+        Arrays.sort(values);
+        long[] actual = recorder.getValuesAtPercentiles(PERCENTILES);
+        for (int p = 0; p < PERCENTILES.length; p++) {
+            long expected = values[(int)Math.max(0, Math.ceil(PERCENTILES[p] / 100 * values.length) - 1)];
+            assertTrue(actual[p] >= expected && actual[p] - expected <= expected / 16, "p" + PERCENTILES[p] + ": " + actual[p] + " vs " + expected);
+        }
+    }
+
+    private static long parse(String value) {
+        byte[] bytes = fix("#" + value + "#");
+        return FixLatencyRecorder.parseEpochNanos(bytes, 1, value.length());
+    }
+
+    private static long toEpochNanos(OffsetDateTime dateTime) {
+        return dateTime.toEpochSecond() * 1_000_000_000L + dateTime.getNano();
+    }
+
+    /**
+     * @param text message with <code>|</code> as field separator
+     */
+    private static byte[] fix(String text) {
+        return text.replace('|', '\u0001').getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,115 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    private static final double[] PERCENTILES = { 0, 1, 10, 50, 90, 99, 99.9, 100 };
+
+    @Test
+    void percentilesAreWithinRelativeError() {
+        Random random = new Random(67);
+        for (int round = 0; round < 100; round++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            long[] values = new long[1 + random.nextInt(2_000)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (long)Math.exp(random.nextDouble() * 30);
+                histogram.record(values[i]);
+            }
+            Arrays.sort(values);
+            long[] actual = histogram.getValuesAtPercentiles(PERCENTILES);
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                long expected = values[(int)Math.max(0, Math.ceil(PERCENTILES[p] / 100 * values.length) - 1)];
+                String message = "p" + PERCENTILES[p] + " of " + values.length;
+                // the highest equivalent value of the bucket is reported
+                assertTrue(actual[p] >= expected, message);
+                assertTrue(actual[p] - expected <= expected / 16, message + ": " + actual[p] + " vs " + expected);
+                assertEquals(actual[p], histogram.getValueAtPercentile(PERCENTILES[p]), message);
+            }
+            assertEquals(values[values.length - 1], histogram.getMax());
+            assertEquals(values.length, histogram.getCount());
+            assertEquals(Arrays.stream(values).sum() / (double)values.length, histogram.getMean(), 1e-6 * histogram.getMean());
+        }
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 0; value < 32; value++) {
+            histogram.record(value);
+        }
+        for (int value = 0; value < 32; value++) {
+            assertEquals(value, histogram.getValueAtPercentile((value + 1) * 100.0 / 32));
+        }
+    }
+
+    @Test
+    void bucketBoundaries() {
+        for (long value : new long[] { 0, 31, 32, 33, 63, 64, 1_000_000, Long.MAX_VALUE - 1, Long.MAX_VALUE }) {
+            int index = LatencyHistogram.indexOf(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(highest >= value, String.valueOf(value));
+            if (highest < Long.MAX_VALUE) {
+                assertEquals(index + 1, LatencyHistogram.indexOf(highest + 1), String.valueOf(value));
+            }
+        }
+    }
+
+    @Test
+    void addMergesHistograms() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        Random random = new Random(71);
+        for (int i = 0; i < 1_000; i++) {
+            long value = random.nextInt(1_000_000);
+            (i % 3 == 0 ? first : second).record(value);
+            all.record(value);
+        }
+        first.add(second);
+        assertEquals(all.getCount(), first.getCount());
+        assertEquals(all.getMax(), first.getMax());
+        assertEquals(all.getMean(), first.getMean(), 1e-9);
+        assertArrayEquals(all.getValuesAtPercentiles(PERCENTILES), first.getValuesAtPercentiles(PERCENTILES));
+    }
+
+    @Test
+    void emptyNegativeAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertArrayEquals(new long[PERCENTILES.length], histogram.getValuesAtPercentiles(PERCENTILES));
+        assertEquals(0, histogram.getMean());
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(100));
+        histogram.record(1_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(100.5));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(-1));
+    }
+}
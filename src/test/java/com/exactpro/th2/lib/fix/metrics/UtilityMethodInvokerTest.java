@@ -0,0 +1,67 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.exactpro.th2.lib.fix.DateUtil;
+
+class UtilityMethodInvokerTest {
+
+    private static final DateUtil DATE_UTIL = new DateUtil();
+    private static final UtilityMethodInvoker INVOKER = new UtilityMethodInvoker(DATE_UTIL);
+
+    @Test
+    void invokesUtilityMethod() throws Exception {
+        Method method = DateUtil.class.getMethod("formatDate", LocalDate.class, String.class);
+        assertEquals("20260131", INVOKER.invoke(method, LocalDate.of(2026, 1, 31), "yyyyMMdd"));
+        assertEquals(DATE_UTIL, INVOKER.getTarget());
+    }
+
+    @Test
+    void rejectsOtherMethods() throws Exception {
+        Method method = Object.class.getMethod("toString");
+        assertThrows(IllegalArgumentException.class, () -> INVOKER.invoke(method));
+        assertThrows(IllegalArgumentException.class, () -> INVOKER.getPattern(method));
+    }
+
+    @Test
+    void propagatesExceptionOfMethod() throws Exception {
+        Method method = DateUtil.class.getMethod("getDate", String.class);
+        InvocationTargetException exception = assertThrows(InvocationTargetException.class, () -> INVOKER.invoke(method, "x+1"));
+        assertEquals(RuntimeException.class, exception.getCause().getClass());
+    }
+
+    @Test
+    void patternOfArguments() throws Exception {
+        LocalDateTime dateTime = LocalDateTime.of(2026, 1, 31, 10, 0);
+        assertEquals(UtilityMethodMetrics.NO_PATTERN, INVOKER.getPattern(DateUtil.class.getMethod("getDate")));
+        assertEquals("D+1", INVOKER.getPattern(DateUtil.class.getMethod("getDate", String.class), "D+1"));
+        assertEquals("yyyyMMdd, D+1, Asia/Tokyo", INVOKER.getPattern(DateUtil.class.getMethod("formatDateTimeByZoneId",
+                LocalDateTime.class, String.class, String.class, String.class), dateTime, "yyyyMMdd", "D+1", "Asia/Tokyo"));
+        assertEquals("D", INVOKER.getPattern(DateUtil.class.getMethod("diffDateTime", LocalDateTime.class, LocalDateTime.class, String.class),
+                dateTime, dateTime, "D"));
+        assertEquals("null", INVOKER.getPattern(DateUtil.class.getMethod("getDate", String.class), (Object)null));
+    }
+}
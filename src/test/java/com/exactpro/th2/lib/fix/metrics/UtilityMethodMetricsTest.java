@@ -0,0 +1,110 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class UtilityMethodMetricsTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    @Order(1)
+    void statsArePerMethodAndPattern() throws Exception {
+        UtilityMethodStats stats = UtilityMethodMetrics.getStats("stats()", "p");
+        assertSame(stats, UtilityMethodMetrics.getStats("stats()", "p"));
+        assertEquals("stats()", stats.getMethod());
+        assertEquals("p", stats.getPattern());
+        assertSame(UtilityMethodMetrics.getStats("stats()", null), UtilityMethodMetrics.getStats("stats()", UtilityMethodMetrics.NO_PATTERN));
+        assertEquals(2, UtilityMethodMetrics.getStats("stats()").size());
+        assertTrue(UtilityMethodMetrics.getStats("unknown()").isEmpty());
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(UtilityMethodMetrics.DOMAIN
+                + ":type=UtilityMethod,method=" + ObjectName.quote("stats()") + ",pattern=" + ObjectName.quote("p"))));
+
+        stats.record(100);
+        stats.record(300);
+        assertEquals(2, stats.getCount());
+        assertEquals(200, stats.getMeanNanos());
+        assertEquals(300, stats.getMaxNanos());
+        stats.reset();
+        assertEquals(0, stats.getCount());
+    }
+
+    @Test
+    @Order(2)
+    void racingThreadsTakeBudgetOnce() throws Exception {
+        int before = UtilityMethodMetrics.getPatternCount();
+        int patterns = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < patterns; i++) {
+                        UtilityMethodMetrics.getStats("race()", "pattern" + i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(patterns, UtilityMethodMetrics.getStats("race()").size());
+        assertEquals(before + patterns, UtilityMethodMetrics.getPatternCount());
+    }
+
+    @Test
+    @Order(3)
+    void patternsBeyondLimitAreOther() {
+        int free = UtilityMethodMetrics.MAX_PATTERNS - UtilityMethodMetrics.getPatternCount();
+        for (int i = 0; i < free; i++) {
+            assertEquals("pattern" + i, UtilityMethodMetrics.getStats("limit()", "pattern" + i).getPattern());
+        }
+        UtilityMethodStats other = UtilityMethodMetrics.getStats("limit()", "overflow");
+        assertEquals(UtilityMethodMetrics.OTHER_PATTERN, other.getPattern());
+        assertSame(other, UtilityMethodMetrics.getStats("limit()", "overflow2"));
+        assertSame(other, UtilityMethodMetrics.getStats("limit()", UtilityMethodMetrics.OTHER_PATTERN));
+        assertEquals(UtilityMethodMetrics.OTHER_PATTERN, UtilityMethodMetrics.getStats("limit2()", "pattern").getPattern());
+        // patterns created before the limit are still accounted separately
+        assertEquals("pattern0", UtilityMethodMetrics.getStats("limit()", "pattern0").getPattern());
+        assertEquals(UtilityMethodMetrics.MAX_PATTERNS, UtilityMethodMetrics.getPatternCount());
+    }
+}
@@ -0,0 +1,193 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.raw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+class FixTimestampPatcherTest {
+
+    private static final long EPOCH_NANOS = 1622383513801234567L;
+    private static final String OLD_MILLIS = "20200101-00:00:00.000";
+    private static final FixTimestampPatcher DEFAULT = FixTimestampPatcher.builder().build();
+
+    @Test
+    void patchInPlaceUpdatesCheckSum() {
+        String body = "35=D|49=SENDER|56=TARGET|52=" + OLD_MILLIS + "|11=ORDER|60=20200101-00:00:00|122=20200101-00:00:00.000000|";
+        byte[] message = message(body);
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000; i++) {
+            long epochNanos = EPOCH_NANOS + (random.nextLong() % 1_000_000_000_000_000L);
+            byte[] patched = DEFAULT.patch(message, epochNanos);
+
+            assertSame(message, patched);
+            String expected = ascii(message("35=D|49=SENDER|56=TARGET|52=" + timestamp(epochNanos, 3) + "|11=ORDER|60="
+                    + timestamp(epochNanos, 0) + "|122=" + timestamp(epochNanos, 6) + '|'));
+            assertEquals(expected, ascii(patched));
+        }
+    }
+
+    @Test
+    void patchAppliesModifyPatternsAndPrecision() {
+        FixTimestampPatcher patcher = FixTimestampPatcher.builder()
+                .tag(52)
+                .tag(122, "s-1")
+                .fractionDigits(6)
+                .build();
+        byte[] patched = patcher.patch(message("35=D|52=" + OLD_MILLIS + "|60=" + OLD_MILLIS + "|122=" + OLD_MILLIS + '|'), EPOCH_NANOS);
+
+        String expected = ascii(message("35=D|52=" + timestamp(EPOCH_NANOS, 6) + "|60=" + OLD_MILLIS + "|122="
+                + timestamp(EPOCH_NANOS - 1_000_000_000L, 6) + '|'));
+        assertEquals(expected, ascii(patched));
+    }
+
+    @Test
+    void rebuildChangesBodyLengthDigitCount() {
+        String prefix = "35=D|52=" + OLD_MILLIS + "|58=";
+        String body = prefix + StringUtils.repeat('x', 99 - prefix.length() - 1) + '|';
+        byte[] message = message(body);
+        assertEquals("9=99|", ascii(message).substring(10, 15));
+
+        FixTimestampPatcher patcher = FixTimestampPatcher.builder().tag(52).fractionDigits(9).build();
+        byte[] patched = patcher.patch(message, EPOCH_NANOS);
+
+        assertNotSame(message, patched);
+        String expected = ascii(message(body.replace(OLD_MILLIS, timestamp(EPOCH_NANOS, 9))));
+        assertEquals(expected, ascii(patched));
+        assertEquals("9=105|", expected.substring(10, 16));
+    }
+
+    @Test
+    void rebuildShrinksMessage() {
+        byte[] message = message("35=D|52=20200101-00:00:00.000000000|60=20200101-00:00:00.000000000|");
+        byte[] patched = FixTimestampPatcher.builder().fractionDigits(0).build().patch(message, EPOCH_NANOS);
+
+        String timestamp = timestamp(EPOCH_NANOS, 0);
+        assertEquals(ascii(message("35=D|52=" + timestamp + "|60=" + timestamp + '|')), ascii(patched));
+    }
+
+    @Test
+    void patchMessageWithoutCheckSum() {
+        String body = "35=D|52=" + OLD_MILLIS + '|';
+        byte[] message = withoutCheckSum(body);
+        byte[] patched = DEFAULT.patch(message, EPOCH_NANOS);
+
+        assertSame(message, patched);
+        assertEquals(ascii(withoutCheckSum("35=D|52=" + timestamp(EPOCH_NANOS, 3) + '|')), ascii(patched));
+
+        byte[] rebuilt = FixTimestampPatcher.builder().fractionDigits(6).build().patch(withoutCheckSum(body), EPOCH_NANOS);
+        assertEquals(ascii(withoutCheckSum("35=D|52=" + timestamp(EPOCH_NANOS, 6) + '|')), ascii(rebuilt));
+    }
+
+    @Test
+    void patchRepeatedTagsInGroups() {
+        StringBuilder body = new StringBuilder("35=AE|52=").append(OLD_MILLIS).append("|552=12|");
+        StringBuilder expectedBody = new StringBuilder("35=AE|52=").append(timestamp(EPOCH_NANOS, 3)).append("|552=12|");
+        for (int i = 0; i < 12; i++) {
+            body.append("54=1|37=").append(i).append("|60=").append(OLD_MILLIS).append('|');
+            expectedBody.append("54=1|37=").append(i).append("|60=").append(timestamp(EPOCH_NANOS, 3)).append('|');
+        }
+
+        assertEquals(ascii(message(expectedBody.toString())), ascii(DEFAULT.patch(message(body.toString()), EPOCH_NANOS)));
+
+        byte[] rebuilt = FixTimestampPatcher.builder().fractionDigits(0).build().patch(message(body.toString()), EPOCH_NANOS);
+        assertEquals(ascii(message(expectedBody.toString().replace(timestamp(EPOCH_NANOS, 3), timestamp(EPOCH_NANOS, 0)))), ascii(rebuilt));
+    }
+
+    @Test
+    void patchBufferWithNonZeroPosition() {
+        byte[] message = message("35=D|52=" + OLD_MILLIS + "|60=" + OLD_MILLIS + '|');
+        byte[] expected = message("35=D|52=" + timestamp(EPOCH_NANOS, 3) + "|60=" + timestamp(EPOCH_NANOS, 3) + '|');
+        byte[] array = new byte[message.length + 20];
+        Arrays.fill(array, (byte)'#');
+        System.arraycopy(message, 0, array, 7, message.length);
+        ByteBuffer buffer = ByteBuffer.wrap(array);
+        buffer.position(7).limit(7 + message.length);
+
+        ByteBuffer patched = DEFAULT.patch(buffer, EPOCH_NANOS);
+
+        assertSame(buffer, patched);
+        assertEquals(7, buffer.position());
+        assertEquals(7 + message.length, buffer.limit());
+        assertEquals(ascii(expected), ascii(Arrays.copyOfRange(array, 7, 7 + message.length)));
+        assertEquals("#######", ascii(Arrays.copyOfRange(array, 0, 7)));
+        assertEquals(StringUtils.repeat('#', 13), ascii(Arrays.copyOfRange(array, 7 + message.length, array.length)));
+
+        buffer.position(7).limit(7 + message.length);
+        ByteBuffer rebuilt = FixTimestampPatcher.builder().fractionDigits(6).build().patch(buffer, EPOCH_NANOS);
+        assertEquals(ascii(message("35=D|52=" + timestamp(EPOCH_NANOS, 6) + "|60=" + timestamp(EPOCH_NANOS, 6) + '|')),
+                ascii(Arrays.copyOfRange(rebuilt.array(), rebuilt.position(), rebuilt.limit())));
+    }
+
+    @Test
+    void rejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> DEFAULT.patch(message("35=D|52=20200101|"), EPOCH_NANOS));
+        assertThrows(IllegalArgumentException.class, () -> DEFAULT.patch(ascii("8=FIX.4.4|9=5|35=D|52=" + OLD_MILLIS), EPOCH_NANOS));
+        assertThrows(IllegalArgumentException.class, () -> FixTimestampPatcher.builder().tag(10));
+        assertThrows(IllegalArgumentException.class, () -> FixTimestampPatcher.builder().tag(52).tag(52));
+    }
+
+    /**
+     * @param body fields after BodyLength(9) separated by <code>|</code>
+     * @return message with valid BodyLength(9) and CheckSum(10)
+     */
+    private static byte[] message(String body) {
+        byte[] message = withoutCheckSum(body);
+        int checkSum = 0;
+        for (byte symbol : message) {
+            checkSum += symbol & 0xFF;
+        }
+        return concat(message, ascii(String.format("10=%03d|", checkSum % 256)));
+    }
+
+    private static byte[] withoutCheckSum(String body) {
+        return ascii("8=FIX.4.4|9=" + body.length() + '|' + body);
+    }
+
+    private static String timestamp(long epochNanos, int fractionDigits) {
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                (int)Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+        String pattern = fractionDigits == 0 ? "yyyyMMdd-HH:mm:ss" : "yyyyMMdd-HH:mm:ss." + StringUtils.repeat('S', fractionDigits);
+        return DateTimeFormatter.ofPattern(pattern).format(dateTime);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.replace('|', '\u0001').getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String ascii(byte[] value) {
+        return new String(value, StandardCharsets.US_ASCII).replace('\u0001', '|');
+    }
+}
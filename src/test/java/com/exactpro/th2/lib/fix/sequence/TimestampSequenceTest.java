@@ -0,0 +1,187 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.sequence;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.exactpro.th2.lib.fix.DateUtil;
+
+/**
+ * {@link TimestampSequence#get(long)} against repeated modification of the previous element
+ */
+class TimestampSequenceTest {
+
+    private static final DateUtil DATE_UTIL = new DateUtil();
+    private static final LocalDateTime START = LocalDateTime.of(2021, 3, 26, 16, 59, 59, 999_999_999);
+    private static final int COUNT = 20_000;
+
+    @ParameterizedTest
+    @ValueSource(strings = { "s+1:ms+500", "ms+250", "mc+7", "ns+333", "h+1:m-30", "D+1", "m+7:s-1" })
+    void getIsSameAsRepeatedModification(String step) {
+        TimestampSequence sequence = TimestampSequence.builder().start(START).step(step).count(COUNT).build();
+        LocalDateTime expected = START;
+        for (int i = 0; i < COUNT; i++, expected = DATE_UTIL.modifyDateTime(expected, step)) {
+            assertEquals(expected, sequence.getLocalDateTime(i), "Index " + i);
+        }
+        assertStreams(sequence);
+    }
+
+    @Test
+    void burstsAreSameAsRepeatedModification() {
+        TimestampSequence sequence = TimestampSequence.builder().start(START).step("ms+3").bursts(7, "s+2:mc+1").count(COUNT).build();
+        LocalDateTime expected = START;
+        for (int i = 0; i < COUNT; i++) {
+            if (i > 0) {
+                expected = DATE_UTIL.modifyDateTime(expected, i % 7 == 0 ? "s+2:mc+1" : "ms+3");
+            }
+            assertEquals(expected, sequence.getLocalDateTime(i), "Index " + i);
+        }
+        assertStreams(sequence);
+    }
+
+    static Stream<Arguments> businessHours() {
+        return Stream.of(
+                Arguments.of("UTC", "09:00", "17:30", new String[0]),
+                Arguments.of("Europe/London", "08:00", "16:30", new String[0]),
+                // Sunday is a business day, so the sessions include the gap and the overlap of the transitions
+                Arguments.of("Europe/London", "00:30", "03:00", new String[] { "FRIDAY", "SATURDAY" }),
+                Arguments.of("America/New_York", "00:00", "23:59:59.999999999", new String[] { "SATURDAY" }),
+                Arguments.of("Asia/Dubai", "10:00", "14:00", new String[] { "FRIDAY", "SATURDAY" })
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("businessHours")
+    void businessHoursAreSameAsSteppingThroughSessions(String zone, String open, String close, String[] weekends) {
+        for (String step : new String[] { "m+7", "h+1:ms+1", "h+5:ns+1" }) {
+            TimestampSequence sequence = TimestampSequence.builder()
+                    .start(START)
+                    .step(step)
+                    .businessHours(open, close)
+                    .weekends(weekends)
+                    .timeZoneId(zone)
+                    .count(COUNT)
+                    .build();
+            BusinessClock clock = new BusinessClock(ZoneId.of(zone), LocalTime.parse(open), LocalTime.parse(close), weekends);
+            long stepNanos = ChronoUnit.NANOS.between(START, DATE_UTIL.modifyDateTime(START, step));
+            clock.start(START);
+            for (int i = 0; i < COUNT; i++, clock.advance(stepNanos)) {
+                assertEquals(clock.toUtc(), sequence.getLocalDateTime(i), () -> zone + " " + step + " " + clock.local);
+            }
+            assertStreams(sequence);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "M+1", "Y+1", "D=1", "h+1:M-1", "s=0" })
+    void rejectsVariableLengthSteps(String pattern) {
+        assertThrows(IllegalArgumentException.class, () -> TimestampSequence.builder().step(pattern));
+        assertThrows(IllegalArgumentException.class, () -> TimestampSequence.builder().bursts(2, pattern));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> TimestampSequence.builder().step("s-1"));
+        assertThrows(IllegalArgumentException.class, () -> TimestampSequence.builder().step("s+1:ms-1000"));
+        assertThrows(IllegalArgumentException.class, () -> TimestampSequence.builder().rate(0));
+        assertThrows(IllegalArgumentException.class, () -> TimestampSequence.builder().bursts(0, "s+1"));
+        assertThrows(IllegalArgumentException.class, () -> TimestampSequence.builder().bursts(2, "s-1"));
+        assertThrows(IllegalArgumentException.class, () -> TimestampSequence.builder().businessHours("10:00", "10:00"));
+        assertThrows(IllegalStateException.class, () -> TimestampSequence.builder().step("s+1").count(1).build());
+        assertThrows(IllegalStateException.class, () -> TimestampSequence.builder().start(START).count(1).build());
+        assertThrows(IllegalStateException.class, () -> TimestampSequence.builder().start(START).step("s+1").build());
+        TimestampSequence sequence = TimestampSequence.builder().start(START).rate(1000).count(3).build();
+        assertEquals(START.plusNanos(2_000_000), sequence.getLocalDateTime(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.get(-1));
+    }
+
+    private static void assertStreams(TimestampSequence sequence) {
+        long[] expected = new long[(int)sequence.size()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = sequence.get(i);
+        }
+        assertArrayEquals(expected, sequence.stream().toArray());
+        assertArrayEquals(expected, sequence.parallelStream().toArray());
+    }
+
+    /**
+     * Moves the local date/time through sessions step by step
+     */
+    private static class BusinessClock {
+        private final ZoneId zone;
+        private final LocalTime open;
+        private final LocalTime close;
+        private final Set<DayOfWeek> weekends;
+        private LocalDateTime local;
+
+        private BusinessClock(ZoneId zone, LocalTime open, LocalTime close, String[] weekends) {
+            this.zone = zone;
+            this.open = open;
+            this.close = close;
+            this.weekends = weekends.length == 0 ? Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY)
+                    : Stream.of(weekends).map(DayOfWeek::valueOf).collect(Collectors.toSet());
+        }
+
+        private void start(LocalDateTime utc) {
+            local = ZonedDateTime.of(utc, ZoneOffset.UTC).withZoneSameInstant(zone).toLocalDateTime();
+            if (weekends.contains(local.getDayOfWeek()) || !local.toLocalTime().isBefore(close)) {
+                nextOpen();
+            } else if (local.toLocalTime().isBefore(open)) {
+                local = local.with(open);
+            }
+        }
+
+        private void advance(long nanos) {
+            long left = ChronoUnit.NANOS.between(local.toLocalTime(), close);
+            while (nanos >= left) {
+                nanos -= left;
+                nextOpen();
+                left = ChronoUnit.NANOS.between(open, close);
+            }
+            local = local.plusNanos(nanos);
+        }
+
+        private void nextOpen() {
+            do {
+                local = local.toLocalDate().plusDays(1).atTime(open);
+            } while (weekends.contains(local.getDayOfWeek()));
+        }
+
+        private LocalDateTime toUtc() {
+            return ZonedDateTime.of(local, zone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        }
+    }
+}
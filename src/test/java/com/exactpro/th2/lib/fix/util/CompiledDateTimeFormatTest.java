@@ -0,0 +1,203 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * {@link CompiledDateTimeFormat} against {@link DateTimeUtility#parseLocalDateTime(String, String)} and {@link DateTimeFormatter} formatting
+ */
+class CompiledDateTimeFormatTest {
+
+    private static final long EPOCH_NANOS = 1622383513801234567L;
+
+    static Stream<Arguments> parseCases() {
+        return Stream.of(
+                // quoted literals
+                Arguments.of("yyyyMMdd'T'HHmmss", "20210530T140513"),
+                Arguments.of("yyyy-MM-dd'T'HH:mm", "2021-05-30T14:05"),
+                Arguments.of("HH'h'mm", "14h05"),
+                Arguments.of("HH'h'mm", "14m05"),
+                Arguments.of("yyyy-MM-dd' o''clock' HH", "2021-05-30 o'clock 14"),
+                Arguments.of("yyyy-MM-dd''HH", "2021-05-30'14"),
+                Arguments.of("'day 'dd'.'MM'.'yyyy", "day 30.05.2021"),
+                Arguments.of("''yyyy''MM", "'2021'05"),
+                Arguments.of("MM'yy'dd", "05yy30"),
+                Arguments.of("yyyy'MM", "2021'05"),
+                // digit literal after the year
+                Arguments.of("yyyy1MM", "2021105"),
+                Arguments.of("yyyy1MM", "2021205"),
+                Arguments.of("yyyy0MMdd", "202100530"),
+                // day of month resolution
+                Arguments.of("yyyyMMdd", "20260231"),
+                Arguments.of("yyyyMMdd", "20240231"),
+                Arguments.of("yyyyMMdd", "20260431"),
+                Arguments.of("yyyyMMdd", "20261331"),
+                Arguments.of("yyyyMMdd", "20260200"),
+                Arguments.of("MMdd", "0229"),
+                Arguments.of("MMdd", "0231"),
+                Arguments.of("MMdd", "1231"),
+                Arguments.of("dd", "31"),
+                Arguments.of("yyyyMM", "202602"),
+                Arguments.of("yyyydd", "202631"),
+                // end of day
+                Arguments.of("HH:mm", "24:00"),
+                Arguments.of("yyyyMMdd-HH:mm:ss", "20261231-24:00:00"),
+                Arguments.of("HH:mm", "23:60"),
+                Arguments.of("HH:mm:ss", "23:59:60"),
+                // length mismatches
+                Arguments.of("yyyyMMdd", "2021053"),
+                Arguments.of("yyyyMMdd", "202105301"),
+                Arguments.of("yyyy-MM-dd", "2021-5-30"),
+                Arguments.of("HH:mm", "1:05"),
+                Arguments.of("HH:mm", "14:05 "),
+                Arguments.of("HH:mm:ss.SSS", "14:05:13.80"),
+                Arguments.of("HH:mm:ss.SSS", "14:05:13.8012"),
+                Arguments.of("yyyyMMdd", ""),
+                // not digits
+                Arguments.of("yyyyMMdd", "2021O530"),
+                Arguments.of("yyyyMMdd", "+0210530"),
+                Arguments.of("HH:mm", "-1:05"),
+                // not compiled patterns
+                Arguments.of("yyyyMMdd-HH:mm:ss.SSS[XXX]", "20210530-14:05:13.801"),
+                Arguments.of("dd MMM yyyy", "30 May 2021"),
+                Arguments.of("yyMMdd", "210530")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("parseCases")
+    void parseIsSameAsFormatter(String pattern, String source) {
+        assertSameParse(pattern, source);
+    }
+
+    static Stream<Arguments> fractionCases() {
+        return IntStream.rangeClosed(1, 9).boxed().flatMap(digits -> {
+            String pattern = "yyyyMMdd-HH:mm:ss." + "S".repeat(digits);
+            String value = "20210530-14:05:13.";
+            return Stream.of(
+                    Arguments.of(pattern, value + "123456789".substring(0, digits)),
+                    Arguments.of(pattern, value + "000000000".substring(0, digits)),
+                    Arguments.of(pattern, value + "999999999".substring(0, digits)),
+                    Arguments.of(pattern, value + "1234567890".substring(0, digits + 1)),
+                    Arguments.of(pattern, value + "123456789".substring(0, digits - 1)));
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("fractionCases")
+    void parseFractionIsSameAsFormatter(String pattern, String source) {
+        assertTrue(CompiledDateTimeFormat.get(pattern).isCompiled(), pattern);
+        assertSameParse(pattern, source);
+    }
+
+    @Test
+    void parseRandomValuesIsSameAsFormatter() {
+        Random random = new Random(42);
+        List<String> patterns = new ArrayList<>(Arrays.asList("yyyyMMdd-HH:mm:ss.SSS", "yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS",
+                "yyyyMMdd", "HH:mm:ss", "MMdd", "dd.MM.yyyy HH:mm", "HHmmss.SSSSSS", "yyyy/MM/dd", "ss.SSS'Z'", "MM''yyyy"));
+        for (int i = 0; i < 20_000; i++) {
+            String pattern = patterns.get(random.nextInt(patterns.size()));
+            LocalDateTime dateTime = LocalDateTime.of(1 + random.nextInt(9999), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1_000_000_000));
+            StringBuilder source = new StringBuilder(DateTimeUtility.getFormatter(pattern).format(dateTime));
+            if (random.nextInt(4) == 0 && source.length() > 0) {
+                // corrupt a digit to cover invalid values
+                int index = random.nextInt(source.length());
+                source.setCharAt(index, (char)('0' + random.nextInt(10)));
+            }
+            assertSameParse(pattern, source.toString());
+        }
+    }
+
+    @Test
+    void unsupportedPatternsAreNotCompiled() {
+        assertTrue(CompiledDateTimeFormat.get("yyyyMMdd-HH:mm:ss.SSS").isCompiled());
+        assertTrue(CompiledDateTimeFormat.get("yyyy-MM-dd' o''clock' HH").isCompiled());
+        // the year delimiter of parseLocalDateTime does not match the positions in the source
+        assertFalse(CompiledDateTimeFormat.get("''yyyy''MM").isCompiled());
+        assertFalse(CompiledDateTimeFormat.get("yyyy1MM").isCompiled());
+        assertFalse(CompiledDateTimeFormat.get("MM'yy'dd").isCompiled());
+        assertFalse(CompiledDateTimeFormat.get("yyyyMMdd-HH:mm:ss.SSS[XXX]").isCompiled());
+        assertFalse(CompiledDateTimeFormat.get("yyyy'MM").isCompiled());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "yyyyMMdd-HH:mm:ss.SSS", "yyyy'年'MM'月'dd'日' HH:mm", "HH:mm 'Ü' ss.SSSSSSSSS", "dd.MM.yyyy '€'",
+            "yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'", "dd MMM yyyy" })
+    void formatIsSameAsFormatter(String pattern) {
+        CompiledDateTimeFormat format = CompiledDateTimeFormat.get(pattern);
+        long[] values = { EPOCH_NANOS, 0, -1, 951_782_400_000_000_000L, Long.MAX_VALUE, Long.MIN_VALUE, -EPOCH_NANOS };
+        for (long epochNanos : values) {
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                    (int)Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+            String expected = DateTimeUtility.getFormatter(pattern).format(dateTime);
+            assertEquals(expected, format.format(epochNanos), pattern);
+            assertEquals(expected, format.format(dateTime), pattern);
+
+            byte[] expectedBytes = expected.getBytes(StandardCharsets.UTF_8);
+            byte[] destination = new byte[expectedBytes.length + 10];
+            Arrays.fill(destination, (byte)'#');
+            int written = format.format(epochNanos, destination, 5);
+            assertEquals(expectedBytes.length, written, pattern);
+            assertArrayEquals(expectedBytes, Arrays.copyOfRange(destination, 5, 5 + written), pattern);
+            assertEquals('#', destination[4]);
+            assertEquals('#', destination[5 + written]);
+        }
+    }
+
+    private static void assertSameParse(String pattern, String source) {
+        Object expected;
+        try {
+            expected = DateTimeUtility.parseLocalDateTime(source, pattern);
+        } catch (RuntimeException e) {
+            expected = e.getClass();
+        }
+        Object actual;
+        try {
+            actual = CompiledDateTimeFormat.get(pattern).parse(source);
+        } catch (RuntimeException e) {
+            actual = e.getClass();
+        }
+        assertEquals(expected, actual, () -> pattern + " / " + source);
+        if (expected instanceof LocalDateTime) {
+            LocalDateTime dateTime = (LocalDateTime)expected;
+            long epochNanos = dateTime.toLocalDate().toEpochDay() * 86_400_000_000_000L + dateTime.toLocalTime().toNanoOfDay();
+            if (dateTime.getYear() > 1677 && dateTime.getYear() < 2262) {
+                assertEquals(epochNanos, CompiledDateTimeFormat.get(pattern).parseEpochNanos(source), () -> pattern + " / " + source);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+
+class EpochDaysTest {
+
+    @Test
+    void sameAsLocalDate() {
+        // from year -1000 to 10000 including negative epoch days
+        for (long epochDay = LocalDate.of(-1000, 1, 1).toEpochDay(); epochDay <= LocalDate.of(10000, 12, 31).toEpochDay(); epochDay++) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            int packed = EpochDays.toPackedDate(epochDay);
+            assertEquals(date.getYear(), EpochDays.year(packed), date::toString);
+            assertEquals(date.getMonthValue(), EpochDays.month(packed), date::toString);
+            assertEquals(date.getDayOfMonth(), EpochDays.day(packed), date::toString);
+            assertEquals(epochDay, EpochDays.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth()), date::toString);
+            assertEquals(date.getDayOfWeek().getValue(), EpochDays.dayOfWeek(epochDay), date::toString);
+        }
+    }
+
+    @Test
+    void lengthOfMonthAndLeapYear() {
+        for (int year = -1000; year <= 10000; year++) {
+            assertEquals(YearMonth.of(year, 1).isLeapYear(), EpochDays.isLeapYear(year), "Year " + year);
+            for (int month = 1; month <= 12; month++) {
+                assertEquals(YearMonth.of(year, month).lengthOfMonth(), EpochDays.lengthOfMonth(year, month));
+            }
+        }
+    }
+
+    @Test
+    void epochNanosBounds() {
+        assertEquals(LocalDate.of(1677, 9, 21).toEpochDay(), Math.floorDiv(Long.MIN_VALUE, EpochDays.NANOS_PER_DAY));
+        assertEquals(LocalDate.of(2262, 4, 11).toEpochDay(), Math.floorDiv(Long.MAX_VALUE, EpochDays.NANOS_PER_DAY));
+        assertEquals(16770921, EpochDays.toPackedDate(Math.floorDiv(Long.MIN_VALUE, EpochDays.NANOS_PER_DAY)));
+        assertEquals(22620411, EpochDays.toPackedDate(Math.floorDiv(Long.MAX_VALUE, EpochDays.NANOS_PER_DAY)));
+
+        long minDay = Math.floorDiv(Long.MIN_VALUE, EpochDays.NANOS_PER_DAY);
+        long minNanoOfDay = Math.floorMod(Long.MIN_VALUE, EpochDays.NANOS_PER_DAY);
+        assertEquals(Long.MIN_VALUE, EpochDays.toEpochNanos(minDay, minNanoOfDay));
+        assertEquals(Long.MIN_VALUE, EpochDays.toEpochNanos(minDay - 1, minNanoOfDay + EpochDays.NANOS_PER_DAY));
+        assertEquals(Long.MIN_VALUE, EpochDays.toEpochNanos(minDay + 1, minNanoOfDay - EpochDays.NANOS_PER_DAY));
+        assertEquals(Long.MAX_VALUE, EpochDays.toEpochNanos(Math.floorDiv(Long.MAX_VALUE, EpochDays.NANOS_PER_DAY),
+                Math.floorMod(Long.MAX_VALUE, EpochDays.NANOS_PER_DAY)));
+        assertThrows(ArithmeticException.class, () -> EpochDays.toEpochNanos(minDay, minNanoOfDay - 1));
+        assertThrows(ArithmeticException.class, () -> EpochDays.toEpochNanos(Math.floorDiv(Long.MAX_VALUE, EpochDays.NANOS_PER_DAY),
+                Math.floorMod(Long.MAX_VALUE, EpochDays.NANOS_PER_DAY) + 1));
+        for (long epochDay = -3; epochDay <= 3; epochDay++) {
+            for (long nanos = -2 * EpochDays.NANOS_PER_DAY; nanos <= 2 * EpochDays.NANOS_PER_DAY; nanos += EpochDays.NANOS_PER_DAY / 3) {
+                assertEquals(epochDay * EpochDays.NANOS_PER_DAY + nanos, EpochDays.toEpochNanos(epochDay, nanos));
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ExpiryDatesTest {
+
+    private static final int ALL_DAYS = 0x7F;
+    private static final int FIRST_YEAR = 1999;
+    private static final int LAST_YEAR = 2031;
+
+    @Test
+    void nthDayOfWeekIsSameAsTemporalAdjuster() {
+        for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+            for (int month = 1; month <= 12; month++) {
+                LocalDate first = LocalDate.of(year, month, 1);
+                for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                    for (int n = -6; n <= 6; n++) {
+                        String message = first + " " + dayOfWeek + " " + n;
+                        int number = n;
+                        LocalDate expected = n == 0 ? null : first.with(TemporalAdjusters.dayOfWeekInMonth(n, dayOfWeek));
+                        if (expected == null || expected.getMonthValue() != month) {
+                            int year0 = year;
+                            int month0 = month;
+                            assertThrows(IllegalArgumentException.class, () -> ExpiryDates.nthDayOfWeek(year0, month0, number, dayOfWeek.getValue()), message);
+                        } else {
+                            assertEquals(expected.toEpochDay(), ExpiryDates.nthDayOfWeek(year, month, n, dayOfWeek.getValue()), message);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void expiryDatesAreSameAsLoop() {
+        for (int weekends = 0; weekends < ALL_DAYS; weekends++) {
+            for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+                for (int month = 1; month <= 12; month++) {
+                    String message = year + "-" + month + " weekends " + Integer.toBinaryString(weekends);
+                    LocalDate thirdFriday = LocalDate.of(year, month, 1).with(TemporalAdjusters.dayOfWeekInMonth(3, DayOfWeek.FRIDAY));
+                    while (isWeekend(thirdFriday, weekends)) {
+                        thirdFriday = thirdFriday.minusDays(1);
+                    }
+                    assertEquals(thirdFriday.toEpochDay(), ExpiryDates.thirdFriday(year, month, weekends), message);
+
+                    LocalDate thirdWednesday = LocalDate.of(year, month, 1).with(TemporalAdjusters.dayOfWeekInMonth(3, DayOfWeek.WEDNESDAY));
+                    while (isWeekend(thirdWednesday, weekends)) {
+                        thirdWednesday = thirdWednesday.plusDays(1);
+                    }
+                    assertEquals(thirdWednesday.toEpochDay(), ExpiryDates.immDate(year, month, weekends), message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void nextImmDateIsSameAsLoop() {
+        for (int weekends : new int[] { WeekendMask.NONE, WeekendMask.SATURDAY_SUNDAY, WeekendMask.of(List.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY)),
+                WeekendMask.of(List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY)) }) {
+            for (LocalDate date = LocalDate.of(FIRST_YEAR, 1, 1); date.getYear() <= LAST_YEAR; date = date.plusDays(1)) {
+                LocalDate expected = null;
+                for (LocalDate month = date.withDayOfMonth(1); expected == null; month = month.plusMonths(1)) {
+                    if (month.getMonthValue() % 3 == 0) {
+                        LocalDate imm = month.with(TemporalAdjusters.dayOfWeekInMonth(3, DayOfWeek.WEDNESDAY));
+                        while (isWeekend(imm, weekends)) {
+                            imm = imm.plusDays(1);
+                        }
+                        expected = imm.isBefore(date) ? null : imm;
+                    }
+                }
+                assertEquals(expected.toEpochDay(), ExpiryDates.nextImmDate(date.toEpochDay(), weekends), date + " weekends " + Integer.toBinaryString(weekends));
+            }
+        }
+    }
+
+    @Test
+    void nthBusinessDayIsSameAsLoop() {
+        for (int weekends = 0; weekends < ALL_DAYS; weekends++) {
+            for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+                for (int month = 1; month <= 12; month++) {
+                    List<Long> businessDays = new ArrayList<>();
+                    for (LocalDate date = LocalDate.of(year, month, 1); date.getMonthValue() == month; date = date.plusDays(1)) {
+                        if (!isWeekend(date, weekends)) {
+                            businessDays.add(date.toEpochDay());
+                        }
+                    }
+                    int count = businessDays.size();
+                    for (int n = -count - 1; n <= count + 1; n++) {
+                        String message = year + "-" + month + " weekends " + Integer.toBinaryString(weekends) + " n " + n;
+                        if (n == 0 || Math.abs(n) > count) {
+                            int year0 = year;
+                            int month0 = month;
+                            int number = n;
+                            int mask = weekends;
+                            assertThrows(IllegalArgumentException.class, () -> ExpiryDates.nthBusinessDay(year0, month0, number, mask), message);
+                        } else {
+                            long expected = n > 0 ? businessDays.get(n - 1) : businessDays.get(count + n);
+                            assertEquals(expected, ExpiryDates.nthBusinessDay(year, month, n, weekends), message);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void businessDaysAreSameAsLoop() {
+        Random random = new Random(59);
+        for (int i = 0; i < 20_000; i++) {
+            int weekends = random.nextInt(ALL_DAYS);
+            LocalDate date = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(20_000));
+            String message = date + " weekends " + Integer.toBinaryString(weekends);
+
+            LocalDate next = date;
+            while (isWeekend(next, weekends)) {
+                next = next.plusDays(1);
+            }
+            assertEquals(next.toEpochDay(), ExpiryDates.nextBusinessDay(date.toEpochDay(), weekends), message);
+            LocalDate previous = date;
+            while (isWeekend(previous, weekends)) {
+                previous = previous.minusDays(1);
+            }
+            assertEquals(previous.toEpochDay(), ExpiryDates.previousBusinessDay(date.toEpochDay(), weekends), message);
+
+            int days = random.nextInt(101) - 50;
+            LocalDate expected = next;
+            for (int remainder = days; remainder != 0; ) {
+                expected = expected.plusDays(Integer.signum(remainder));
+                if (!isWeekend(expected, weekends)) {
+                    remainder -= Integer.signum(remainder);
+                }
+            }
+            assertEquals(expected.toEpochDay(), ExpiryDates.addBusinessDays(next.toEpochDay(), days, weekends), message + " days " + days);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { ALL_DAYS, 0xFF, -1 })
+    void allWeekendsAreRejected(int weekends) {
+        assertThrows(IllegalArgumentException.class, () -> WeekendMask.validate(weekends));
+        assertThrows(IllegalArgumentException.class, () -> ExpiryDates.thirdFriday(2026, 1, weekends));
+        assertThrows(IllegalArgumentException.class, () -> ExpiryDates.immDate(2026, 1, weekends));
+        assertThrows(IllegalArgumentException.class, () -> ExpiryDates.nextImmDate(0, weekends));
+        assertThrows(IllegalArgumentException.class, () -> ExpiryDates.nthBusinessDay(2026, 1, 1, weekends));
+        assertThrows(IllegalArgumentException.class, () -> ExpiryDates.nextBusinessDay(0, weekends));
+        assertThrows(IllegalArgumentException.class, () -> ExpiryDates.previousBusinessDay(0, weekends));
+        assertThrows(IllegalArgumentException.class, () -> ExpiryDates.addBusinessDays(0, 1, weekends));
+        assertThrows(IllegalArgumentException.class, () -> ExpiryDates.addBusinessDays(0, 0, weekends));
+    }
+
+    private static boolean isWeekend(LocalDate date, int weekends) {
+        return (weekends & 1 << date.getDayOfWeek().ordinal()) != 0;
+    }
+}
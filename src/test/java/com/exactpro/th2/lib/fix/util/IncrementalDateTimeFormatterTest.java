@@ -0,0 +1,134 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * {@link IncrementalDateTimeFormatter} against {@link DateTimeUtility#createFormatter(String)}
+ */
+class IncrementalDateTimeFormatterTest {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final LocalDateTime[] BOUNDARIES = {
+            LocalDateTime.of(2021, 6, 30, 10, 15, 59, 999_999_000),
+            LocalDateTime.of(2021, 6, 30, 23, 59, 59, 999_000_000),
+            LocalDateTime.of(2021, 12, 31, 23, 59, 59, 999_999_999),
+            LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_990),
+            LocalDateTime.of(0, 12, 31, 23, 59, 59, 999_999_000),
+            LocalDateTime.of(-1, 12, 31, 23, 59, 59, 999_999_000),
+            LocalDateTime.of(-2021, 2, 28, 23, 59, 59, 999_999_000),
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_999_000)
+    };
+
+    static Stream<Arguments> patterns() {
+        return Stream.of(
+                Arguments.of("yyyyMMdd-HH:mm:ss.SSS", true),
+                Arguments.of("yyyyMMdd-HH:mm:ss.SSSSSSSSS", true),
+                Arguments.of("uuuu-MM-dd'T'HH:mm:ss.SSSSSS'Z'", true),
+                Arguments.of("SSS", true),
+                Arguments.of("S' ms of 'yyyy G D", true),
+                Arguments.of("HH:mm:ss", true),
+                Arguments.of("yyyy-MM-dd", true),
+                Arguments.of("'SSS' HH:mm:ss 'n'", true),
+                Arguments.of("ss.SS 'at' EEE, d MMM uuuu", true),
+                Arguments.of("HH:mm:ss.SSS.SSS", false),
+                Arguments.of("HH:mm:ss.nnnnnnnnn", false),
+                Arguments.of("yyyyMMdd N", false),
+                Arguments.of("A SSS", false),
+                Arguments.of("HH:mm:ss[.SSS]", false),
+                Arguments.of("ppppHH:mm", false)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("patterns")
+    void sameAsDateTimeFormatter(String pattern, boolean incremental) {
+        DateTimeFormatter expected = DateTimeUtility.createFormatter(pattern);
+        IncrementalDateTimeFormatter formatter = IncrementalDateTimeFormatter.get(pattern);
+        assertEquals(incremental, formatter.isIncremental());
+
+        Random random = new Random(31);
+        for (LocalDateTime boundary : BOUNDARIES) {
+            assertSequence(expected, formatter, boundary.minusSeconds(2), random);
+        }
+        for (int i = 0; i < 200; i++) {
+            // from year -3000 to 7000
+            long epochSecond = (long)((random.nextDouble() - 0.5) * 10_000 * 365.25 * 86400) - 1000L * 365 * 86400;
+            assertSequence(expected, formatter, LocalDateTime.ofEpochSecond(epochSecond, random.nextInt(1_000_000_000), ZoneOffset.UTC), random);
+        }
+    }
+
+    @Test
+    void statesArePerThread() throws InterruptedException {
+        String pattern = "yyyyMMdd-HH:mm:ss.SSS";
+        IncrementalDateTimeFormatter formatter = IncrementalDateTimeFormatter.get(pattern);
+        DateTimeFormatter expected = DateTimeUtility.createFormatter(pattern);
+        LocalDateTime first = LocalDateTime.of(2021, 6, 30, 10, 15, 0, 1_000_000);
+        LocalDateTime second = first.plusDays(1);
+        assertEquals(expected.format(first), formatter.format(first));
+
+        String[] other = new String[1];
+        Thread thread = new Thread(() -> other[0] = formatter.format(second));
+        thread.start();
+        thread.join();
+        assertEquals(expected.format(second), other[0]);
+        assertEquals(expected.format(first.plusNanos(5_000_000)), formatter.format(first.plusNanos(5_000_000)));
+    }
+
+    /**
+     * Formats a run of increasing timestamps starting from the date/time with steps from a nanosecond to a few seconds,
+     * so the cached second is reused, refreshed and crosses the boundaries around the start
+     */
+    private static void assertSequence(DateTimeFormatter expected, IncrementalDateTimeFormatter formatter, LocalDateTime start, Random random) {
+        LocalDateTime dateTime = start;
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            String reference = expected.format(dateTime);
+            assertEquals(reference, formatter.format(dateTime), dateTime::toString);
+
+            builder.setLength(0);
+            formatter.formatTo(dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano(), builder);
+            assertEquals(reference, builder.toString(), dateTime::toString);
+
+            switch (random.nextInt(4)) {
+            case 0:
+                dateTime = dateTime.plusNanos(1 + random.nextInt(1_000));
+                break;
+            case 1:
+                dateTime = dateTime.plusNanos(random.nextInt(1_000_000_000));
+                break;
+            case 2:
+                dateTime = dateTime.plusNanos(NANOS_PER_SECOND - dateTime.getNano());
+                break;
+            default:
+                dateTime = dateTime.plusSeconds(random.nextInt(3));
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class PatternCacheTest {
+
+    @Test
+    void cachesUpToMaxSize() {
+        AtomicInteger compilations = new AtomicInteger();
+        PatternCache<StringBuilder> cache = new PatternCache<>(pattern -> {
+            compilations.incrementAndGet();
+            return new StringBuilder(pattern);
+        }, 2);
+
+        StringBuilder first = cache.get("a");
+        assertSame(first, cache.get("a"));
+        StringBuilder second = cache.get("b");
+        assertEquals(2, compilations.get());
+
+        // patterns beyond the limit are compiled on every call and do not replace cached ones
+        StringBuilder third = cache.get("c");
+        assertNotSame(third, cache.get("c"));
+        cache.put("d", new StringBuilder("d"));
+        assertEquals(4, compilations.get());
+        assertEquals(2, cache.size());
+        assertEquals(Set.of("a", "b"), cache.keys());
+        assertSame(first, cache.get("a"));
+        assertSame(second, cache.get("b"));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNotSame(first, cache.get("a"));
+        assertEquals(Set.of("a"), cache.keys());
+    }
+
+    @Test
+    void putKeepsCachedValue() {
+        PatternCache<StringBuilder> cache = new PatternCache<>(StringBuilder::new);
+        StringBuilder value = cache.get("a");
+        cache.put("a", new StringBuilder("a"));
+        cache.put("b", value);
+        assertSame(value, cache.get("a"));
+        assertSame(value, cache.get("b"));
+    }
+
+    @Test
+    void sizeIsBoundedUnderContention() {
+        PatternCache<String> cache = new PatternCache<>(String::new, 100);
+        Set<String> values = IntStream.range(0, 10_000).parallel()
+                .mapToObj(i -> cache.get(Integer.toString(i % 1_000)))
+                .collect(Collectors.toCollection(HashSet::new));
+        assertEquals(1_000, values.size());
+        // the size is checked before put, so concurrent misses can exceed the limit by the number of threads at most
+        int threads = Runtime.getRuntime().availableProcessors();
+        assertTrue(cache.size() >= 100 && cache.size() <= 100 + threads, () -> "Size: " + cache.size());
+    }
+}
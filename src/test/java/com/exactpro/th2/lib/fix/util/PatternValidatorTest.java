@@ -0,0 +1,158 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.exactpro.th2.lib.fix.util.ValidationError.Code;
+
+class PatternValidatorTest {
+
+    private static final String FORMAT_SYMBOLS = "yMdHmsSnVXxZa'[]{}#-:. jlt";
+
+    static Stream<String> formatPatterns() {
+        return Stream.of("yyyyMMdd-HH:mm:ss.SSS", "HH''mm", "'at' HH", "'it''s' HH", "''''", "'a''", "'a'''", "'", "'abc",
+                "yyyy'T", "[HH:mm]", "[[HH]]", "[HH", "HH]", "[HH]]", "[']'HH]", "'['HH]", "HH{", "HH#", "HH}", "jj", "tt",
+                "yyyy-MM-dd'T'HH:mm:ss[.SSS]XXX", "VV", "V", "yyyyyyyyyyyyyyyyyyyy", "SSSSSSSSSS", "HHH", "");
+    }
+
+    @ParameterizedTest
+    @MethodSource("formatPatterns")
+    void formatPatternIsSameAsFormatter(String pattern) {
+        assertSameFormatValidation(pattern);
+    }
+
+    @Test
+    void randomFormatPatternsAreSameAsFormatter() {
+        Random random = new Random(47);
+        for (int i = 0; i < 20_000; i++) {
+            char[] pattern = new char[random.nextInt(8)];
+            for (int j = 0; j < pattern.length; j++) {
+                pattern[j] = FORMAT_SYMBOLS.charAt(random.nextInt(FORMAT_SYMBOLS.length()));
+            }
+            assertSameFormatValidation(new String(pattern));
+        }
+    }
+
+    static Stream<String> zoneIds() {
+        return Stream.of("Z", "+1", "-1", "+01", "+0130", "+01:30", "+013015", "+01:30:15", "+18", "+18:00", "+18:00:00",
+                "-18:00", "+18:00:01", "+1801", "+19", "+1:30", "+01:60", "+0160", "+01:30:60", "+01:3", "+01-30", "+", "-",
+                "+a", "+012", "+01:30:1", "UTC", "GMT", "UT", "UTC+1", "GMT-01:00", "UT+05:30", "UTC+", "UTC+19", "UTC-18",
+                "UTC0", "GMT+Z", "UTZ", "Z+1", "z", "Europe/London", "America/New_York", "Etc/GMT+5", "Mars/Phobos",
+                "EST", "PST", "europe/london", "Europe/London ", "");
+    }
+
+    @ParameterizedTest
+    @MethodSource("zoneIds")
+    void zoneIdIsSameAsZoneIdOf(String timeZoneId) {
+        ValidationError error = PatternValidator.validateZoneId(timeZoneId);
+        try {
+            ZoneId.of(timeZoneId);
+            assertNull(error, timeZoneId);
+        } catch (DateTimeException e) {
+            assertNotNull(error, timeZoneId);
+        }
+    }
+
+    @Test
+    void formatPatternErrors() {
+        assertError(Code.UNTERMINATED_QUOTE, 3, "'mm", PatternValidator.validateFormatPattern("HH:'mm"));
+        assertError(Code.UNTERMINATED_QUOTE, 2, "'it''s", PatternValidator.validateFormatPattern("HH'it''s"));
+        assertError(Code.UNKNOWN_PATTERN_LETTER, 5, "j", PatternValidator.validateFormatPattern("'j'HHj"));
+        assertError(Code.RESERVED_CHARACTER, 2, "#", PatternValidator.validateFormatPattern("HH#"));
+        assertError(Code.RESERVED_CHARACTER, 0, "{", PatternValidator.validateFormatPattern("{HH}"));
+        assertError(Code.UNBALANCED_OPTIONAL_SECTION, 4, "]", PatternValidator.validateFormatPattern("[HH]]"));
+        assertError(Code.UNBALANCED_OPTIONAL_SECTION, 0, "]", PatternValidator.validateFormatPattern("]HH["));
+        ValidationError error = PatternValidator.validateFormatPattern("HHH");
+        assertEquals(Code.INVALID_FORMAT_PATTERN, error.getCode());
+        assertEquals(-1, error.getPosition());
+        assertNull(PatternValidator.validateFormatPattern("HH''mm"));
+        assertNull(PatternValidator.validateFormatPattern("'it''s' HH"));
+        assertNull(PatternValidator.validateFormatPattern("[']'HH]"));
+        assertNull(PatternValidator.validateFormatPattern("[HH"));
+    }
+
+    @Test
+    void zoneIdErrors() {
+        assertError(Code.INVALID_OFFSET, 0, "+19", PatternValidator.validateZoneId("+19"));
+        assertError(Code.INVALID_OFFSET, 0, "-01:60", PatternValidator.validateZoneId("-01:60"));
+        assertError(Code.INVALID_OFFSET, 3, "+18:00:01", PatternValidator.validateZoneId("UTC+18:00:01"));
+        assertError(Code.INVALID_OFFSET, 3, "-1:30", PatternValidator.validateZoneId("GMT-1:30"));
+        assertError(Code.INVALID_OFFSET, 2, "+", PatternValidator.validateZoneId("UT+"));
+        assertError(Code.UNKNOWN_ZONE, -1, "Mars/Phobos", PatternValidator.validateZoneId("Mars/Phobos"));
+        assertError(Code.UNKNOWN_ZONE, -1, "UTC0", PatternValidator.validateZoneId("UTC0"));
+        assertNull(PatternValidator.validateZoneId("Z"));
+        assertNull(PatternValidator.validateZoneId("+1"));
+        assertNull(PatternValidator.validateZoneId("-18:00"));
+        assertNull(PatternValidator.validateZoneId("UTC+01:30:15"));
+        assertNull(PatternValidator.validateZoneId("GMT"));
+    }
+
+    @Test
+    void modifyPatternErrors() {
+        assertError(Code.MISSING_ACTION, 4, "D1", PatternValidator.validateModifyPattern("h+1:D1"));
+        assertError(Code.INVALID_MODIFICATION, 0, "D+", PatternValidator.validateModifyPattern("D+"));
+        assertError(Code.UNKNOWN_COMPONENT, 0, "x", PatternValidator.validateModifyPattern("x+1"));
+        assertError(Code.INVALID_VALUE, 4, "1.5", PatternValidator.validateModifyPattern("D+1:h+1.5"));
+        assertNull(PatternValidator.validateModifyPattern("D+1:h=0"));
+    }
+
+    @Test
+    void validateEntries() {
+        List<PatternValidator.Result> results = PatternValidator.validate(Arrays.asList(
+                PatternValidator.entry("D+1", "yyyyMMdd", "UTC"),
+                PatternValidator.entry("x+1", "HH'", "+19"),
+                PatternValidator.entry(null, null, null),
+                PatternValidator.entry(null, "[HH]]", null)));
+        assertEquals(2, results.size());
+        assertEquals(1, results.get(0).getIndex());
+        assertEquals(Arrays.asList(Code.UNKNOWN_COMPONENT, Code.UNTERMINATED_QUOTE, Code.INVALID_OFFSET),
+                Arrays.asList(results.get(0).getErrors().get(0).getCode(), results.get(0).getErrors().get(1).getCode(),
+                        results.get(0).getErrors().get(2).getCode()));
+        assertEquals(3, results.get(1).getIndex());
+        assertEquals(Code.UNBALANCED_OPTIONAL_SECTION, results.get(1).getErrors().get(0).getCode());
+    }
+
+    private static void assertSameFormatValidation(String pattern) {
+        ValidationError error = PatternValidator.validateFormatPattern(pattern);
+        try {
+            DateTimeFormatter.ofPattern(pattern);
+            assertNull(error, pattern);
+        } catch (IllegalArgumentException e) {
+            assertNotNull(error, pattern);
+        }
+    }
+
+    private static void assertError(Code code, int position, String detail, ValidationError error) {
+        assertEquals(code, error.getCode(), error::getSource);
+        assertEquals(position, error.getPosition(), error::getSource);
+        assertEquals(detail, error.getDetail(), error::getSource);
+    }
+}
@@ -0,0 +1,152 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TemporalCacheTest {
+
+    private static final long TODAY = LocalDate.of(2030, 6, 15).toEpochDay();
+
+    @AfterEach
+    void restoreWindow() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        TemporalCache.getDate(today.toEpochDay(), TemporalCache.getWindow(), today.toEpochDay());
+    }
+
+    @Test
+    void windowIsMovedToToday() {
+        LocalDate first = TemporalCache.getDate(TODAY, TemporalCache.getWindow(), TODAY);
+        TemporalCache.Window window = TemporalCache.getWindow();
+        assertEquals(TODAY - TemporalCache.DAYS_BEFORE, window.firstDay);
+        assertSame(first, TemporalCache.getDate(TODAY));
+        for (long day = window.firstDay; day < window.firstDay + TemporalCache.WINDOW_SIZE; day++) {
+            LocalDate date = TemporalCache.getDate(day);
+            assertEquals(LocalDate.ofEpochDay(day), date);
+            assertSame(date, TemporalCache.getDate(day));
+        }
+
+        // days outside today's window are created on every call and don't move the window
+        long outside = window.firstDay + TemporalCache.WINDOW_SIZE;
+        LocalDate date = TemporalCache.getDate(outside, window, TODAY);
+        assertEquals(LocalDate.ofEpochDay(outside), date);
+        assertNotSame(date, TemporalCache.getDate(outside, window, TODAY));
+        assertSame(window, TemporalCache.getWindow());
+
+        // the next day slides the window once the day is in today's window
+        LocalDate moved = TemporalCache.getDate(outside, window, TODAY + 1);
+        assertEquals(LocalDate.ofEpochDay(outside), moved);
+        assertEquals(TODAY + 1 - TemporalCache.DAYS_BEFORE, TemporalCache.getWindow().firstDay);
+        assertSame(moved, TemporalCache.getDate(outside));
+    }
+
+    @Test
+    void racingThreadsGetCanonicalInstances() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 100; round++) {
+                long today = TODAY + round * TemporalCache.WINDOW_SIZE;
+                TemporalCache.Window stale = TemporalCache.getWindow();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<LocalDate>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return TemporalCache.getDate(today, stale, today);
+                    }));
+                }
+                start.countDown();
+                List<LocalDate> dates = new ArrayList<>();
+                for (Future<LocalDate> result : results) {
+                    dates.add(result.get());
+                }
+                TemporalCache.Window window = TemporalCache.getWindow();
+                assertEquals(today - TemporalCache.DAYS_BEFORE, window.firstDay);
+                for (LocalDate date : dates) {
+                    // only one compareAndSet succeeds, the other threads return the instance of the winner
+                    assertSame(window.dates[TemporalCache.DAYS_BEFORE], date);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void wholeMinutesAreCached() {
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            long nanoOfDay = minute * 60_000_000_000L;
+            LocalTime time = TemporalCache.getTime(nanoOfDay);
+            assertEquals(LocalTime.ofNanoOfDay(nanoOfDay), time);
+            assertSame(time, TemporalCache.getTime(nanoOfDay));
+            assertSame(time, TemporalCache.getTimeOfEpochMillis(TODAY * EpochDays.MILLIS_PER_DAY + minute * 60_000L));
+        }
+        LocalTime time = TemporalCache.getTime(61_000_000_000L);
+        assertEquals(LocalTime.of(0, 1, 1), time);
+        assertNotSame(time, TemporalCache.getTime(61_000_000_000L));
+    }
+
+    @Test
+    void epochMillisAreFloored() {
+        Random random = new Random(34);
+        for (int i = 0; i < 100_000; i++) {
+            long epochMillis = random.nextLong() % 10_000_000_000_000L;
+            LocalDateTime expected = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+            assertEquals(expected.toLocalDate(), TemporalCache.getDateOfEpochMillis(epochMillis));
+            assertEquals(expected.toLocalTime(), TemporalCache.getTimeOfEpochMillis(epochMillis));
+        }
+    }
+
+    @Test
+    void timestampConversionsAreConsistent() {
+        Random random = new Random(34);
+        for (int i = 0; i < 100_000; i++) {
+            long epochMillis = random.nextLong() % 10_000_000_000_000L;
+            Timestamp timestamp = new Timestamp(epochMillis);
+            timestamp.setNanos(Math.floorMod(epochMillis, 1000) * 1_000_000 + random.nextInt(1_000_000));
+            LocalDateTime expected = LocalDateTime.ofInstant(timestamp.toInstant(), ZoneOffset.UTC);
+
+            assertEquals(expected, DateTimeUtility.toLocalDateTime(timestamp), timestamp::toString);
+            assertEquals(expected.toLocalDate(), DateTimeUtility.toLocalDate(timestamp), timestamp::toString);
+            assertEquals(expected.toLocalTime(), DateTimeUtility.toLocalTime(timestamp), timestamp::toString);
+        }
+        // half a second before the epoch
+        Timestamp timestamp = new Timestamp(-500);
+        assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 500_000_000), DateTimeUtility.toLocalDateTime(timestamp));
+        assertEquals(LocalDate.of(1969, 12, 31), DateTimeUtility.toLocalDate(timestamp));
+        assertEquals(LocalTime.of(23, 59, 59, 500_000_000), DateTimeUtility.toLocalTime(timestamp));
+    }
+}
@@ -0,0 +1,104 @@
+/******************************************************************************
+ * Copyright 2021-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.th2.lib.fix.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class TickMemoizerTest {
+
+    // far from the current time, so the ticks are not reused by DateUtil calls
+    private static final long TICK = 1_000_000_123L;
+
+    @Test
+    void isEnabledByProperty() {
+        Properties properties = new Properties();
+        assertFalse(TickMemoizer.isEnabled(properties));
+        properties.setProperty(TickMemoizer.ENABLED_PROPERTY, "false");
+        assertFalse(TickMemoizer.isEnabled(properties));
+        properties.setProperty(TickMemoizer.ENABLED_PROPERTY, "TRUE");
+        assertTrue(TickMemoizer.isEnabled(properties));
+        assertEquals(Boolean.getBoolean(TickMemoizer.ENABLED_PROPERTY), TickMemoizer.isEnabled());
+    }
+
+    @Test
+    void computesOncePerTickAndKey() {
+        List<LocalDateTime> calls = new ArrayList<>();
+        Function<LocalDateTime, Object> function = now -> {
+            calls.add(now);
+            return new Object();
+        };
+        Object value = TickMemoizer.get(TICK, "getDateTime", "D+1", null, null, function);
+        assertSame(value, TickMemoizer.get(TICK, "getDateTime", "D+1", null, null, function));
+        assertEquals(List.of(LocalDateTime.of(1970, 1, 12, 13, 46, 40, 123_000_000)), calls);
+
+        // every part of the key is compared
+        assertNotSame(value, TickMemoizer.get(TICK, "getDate", "D+1", null, null, function));
+        assertNotSame(value, TickMemoizer.get(TICK, "getDateTime", "D+2", null, null, function));
+        assertNotSame(value, TickMemoizer.get(TICK, "getDateTime", null, null, null, function));
+        assertNotSame(value, TickMemoizer.get(TICK, "getDateTime", "D+1", "UTC", null, function));
+        assertNotSame(value, TickMemoizer.get(TICK, "getDateTime", "D+1", null, "yyyy", function));
+        assertNotSame(value, TickMemoizer.get(TICK, "getDateTime", "D+1", null, "", function));
+        assertEquals(7, calls.size());
+        assertSame(value, TickMemoizer.get(TICK, "getDateTime", "D+1", null, null, function));
+        assertEquals(7, calls.size());
+    }
+
+    @Test
+    void dropsValuesOfPreviousTicks() {
+        AtomicInteger calls = new AtomicInteger();
+        Function<LocalDateTime, LocalDateTime> function = now -> {
+            calls.incrementAndGet();
+            return now;
+        };
+        LocalDateTime first = TickMemoizer.get(TICK, "getDateTime", "", null, null, function);
+        LocalDateTime second = TickMemoizer.get(TICK + 1, "getDateTime", "", null, null, function);
+        assertEquals(first.plusNanos(1_000_000), second);
+        // the value of the previous tick is computed again
+        assertEquals(first, TickMemoizer.get(TICK, "getDateTime", "", null, null, function));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void sharesValueBetweenThreads() {
+        Set<Object> values = ConcurrentHashMap.newKeySet();
+        // threads starting a tick concurrently may each compute a value, so the tick is started first
+        values.add(TickMemoizer.get(TICK + 2, "formatDateTime", "h+1", null, "HH", now -> new Object()));
+        IntStream.range(0, 1_000).parallel()
+                .forEach(i -> values.add(TickMemoizer.get(TICK + 2, "formatDateTime", "h+1", null, "HH", now -> new Object())));
+        assertEquals(1, values.size());
+        Set<Object> keys = IntStream.range(0, 1_000).parallel()
+                .mapToObj(i -> TickMemoizer.get(TICK + 2, "formatDateTime", "h+" + i % 10, null, "HH", now -> new Object()))
+                .collect(Collectors.toSet());
+        assertEquals(10, keys.size());
+    }
+}